@@ -26,6 +26,7 @@ dependencies {
     implementation("org.apache.commons:commons-lang3:3.+")
     implementation("org.pcap4j:pcap4j-core:1.+")
     implementation("org.pcap4j:pcap4j-packetfactory-static:1.+")
+    implementation("net.java.dev.jna:jna:5.+")
     implementation("org.slf4j:slf4j-simple:2+")
     implementation("com.google.code.gson:gson:2+")
     implementation(files("../libs/jpbc-2.0.0/jars/jpbc-api-2.0.0.jar"))
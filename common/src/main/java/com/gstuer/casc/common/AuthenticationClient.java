@@ -4,17 +4,23 @@ import com.gstuer.casc.common.concurrency.RequestableVerifier;
 import com.gstuer.casc.common.concurrency.exception.RequestTimeoutException;
 import com.gstuer.casc.common.cryptography.Authenticator;
 import com.gstuer.casc.common.cryptography.AuthenticatorFactory;
+import com.gstuer.casc.common.cryptography.DigitalSignature;
 import com.gstuer.casc.common.cryptography.EncodedKey;
 import com.gstuer.casc.common.cryptography.Signer;
 import com.gstuer.casc.common.cryptography.Verifier;
 import com.gstuer.casc.common.message.AccessControlMessage;
 import com.gstuer.casc.common.message.KeyExchangeMessage;
 import com.gstuer.casc.common.message.KeyExchangeRequestMessage;
+import com.gstuer.casc.common.message.PayloadExchangeMessage;
 
 import java.net.InetAddress;
+import java.nio.ByteBuffer;
 import java.security.InvalidKeyException;
 import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -114,6 +120,9 @@ public class AuthenticationClient {
         if (!message.hasSignature()) {
             System.out.printf("[AM] %s without signature from %s.\n", message.getClass().getSimpleName(), source.getHostAddress());
             return false;
+        } else if (message instanceof PayloadExchangeMessage payloadMessage && payloadMessage.hasMalformedProof()) {
+            System.out.printf("[AM] %s with malformed proof from %s.\n", message.getClass().getSimpleName(), source.getHostAddress());
+            return false;
         }
 
         // Get the appropriate verifier and verify the appended signature
@@ -126,6 +135,71 @@ public class AuthenticationClient {
         }
     }
 
+    /**
+     * Verifies the signatures of messages from the same source as a batch, see {@link Verifier#verifyAll(List, List)}.
+     *
+     * @param messages the messages to verify, all from the same source
+     * @return for each message, whether its signature is valid.
+     * @throws IllegalArgumentException if the messages are not from the same source
+     */
+    public boolean[] verifyMessages(List<? extends AccessControlMessage<?>> messages) {
+        boolean[] results = new boolean[messages.size()];
+        if (messages.isEmpty()) {
+            return results;
+        }
+        InetAddress source = messages.get(0).getSource();
+
+        // Group messages by the algorithm of their signature, since each algorithm has its own verifier
+        Map<String, List<Integer>> indicesByAlgorithm = new LinkedHashMap<>();
+        for (int index = 0; index < messages.size(); index++) {
+            AccessControlMessage<?> message = messages.get(index);
+            if (!Objects.equals(source, message.getSource())) {
+                throw new IllegalArgumentException("Messages are not from the same source.");
+            } else if (!message.hasSignature()) {
+                System.out.printf("[AM] %s without signature from %s.\n", message.getClass().getSimpleName(), source.getHostAddress());
+                continue;
+            } else if (message instanceof PayloadExchangeMessage payloadMessage && payloadMessage.hasMalformedProof()) {
+                System.out.printf("[AM] %s with malformed proof from %s.\n", message.getClass().getSimpleName(), source.getHostAddress());
+                continue;
+            }
+            indicesByAlgorithm.computeIfAbsent(message.getSignature().getAlgorithmIdentifier(), key -> new ArrayList<>())
+                    .add(index);
+        }
+
+        for (Map.Entry<String, List<Integer>> entry : indicesByAlgorithm.entrySet()) {
+            // Verify equal pairs of signing data and signature once, e.g. messages of a batch signed at once
+            List<Integer> indices = entry.getValue();
+            Map<SignedData, Integer> batchIndices = new LinkedHashMap<>();
+            int[] batchIndexOfMessage = new int[indices.size()];
+            for (int index = 0; index < indices.size(); index++) {
+                AccessControlMessage<?> message = messages.get(indices.get(index));
+                SignedData signedData = new SignedData(ByteBuffer.wrap(message.getSigningData()), message.getSignature());
+                batchIndexOfMessage[index] = batchIndices.computeIfAbsent(signedData, key -> batchIndices.size());
+            }
+            List<byte[]> data = new ArrayList<>(batchIndices.size());
+            List<DigitalSignature> signatures = new ArrayList<>(batchIndices.size());
+            for (SignedData signedData : batchIndices.keySet()) {
+                data.add(signedData.data().array());
+                signatures.add(signedData.signature());
+            }
+            try {
+                Verifier<?> verifier = this.getVerifier(entry.getKey(), source);
+                boolean[] batchResults = verifier.verifyAll(data, signatures);
+                for (int index = 0; index < indices.size(); index++) {
+                    results[indices.get(index)] = batchResults[batchIndexOfMessage[index]];
+                }
+            } catch (SignatureException | InvalidKeyException exception) {
+                // A single malformed signature fails the batch, thus verify the messages of the batch on their own
+                for (int index : indices) {
+                    results[index] = this.verifyMessage(messages.get(index));
+                }
+            } catch (RequestTimeoutException exception) {
+                System.out.println("[AM] Verification failed: " + exception.getMessage());
+            }
+        }
+        return results;
+    }
+
     public Optional<AccessControlMessage<?>> signMessage(AccessControlMessage<?> message) {
         try {
             return Optional.of(message.sign(this.authenticator));
@@ -134,4 +208,7 @@ public class AuthenticationClient {
             return Optional.empty();
         }
     }
+
+    private record SignedData(ByteBuffer data, DigitalSignature signature) {
+    }
 }
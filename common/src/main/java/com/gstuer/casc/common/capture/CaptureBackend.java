@@ -0,0 +1,94 @@
+package com.gstuer.casc.common.capture;
+
+import com.gstuer.casc.common.frame.Frame;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Represents a backend capturing frames from or transmitting frames to a network interface. A backend is opened for
+ * a single {@link Direction direction} on construction and cannot be reopened after it was {@link #close() closed}.
+ */
+public interface CaptureBackend {
+    /**
+     * Captures incoming frames and hands each one to the consumer until this backend is closed. Frames are handed to
+     * the consumer as reused {@link Frame frame} views, i.e. a consumer has to {@link Frame#copy() copy} a frame if it
+     * is retained after the consumer call returned.
+     *
+     * @param frameConsumer the consumer of captured frames
+     * @throws CaptureException if capturing fails
+     */
+    void capture(Consumer<Frame> frameConsumer) throws CaptureException;
+
+    /**
+     * Transmits a frame via the network interface of this backend.
+     *
+     * @param buffer the buffer containing the frame
+     * @param offset the offset of the frame within the buffer
+     * @param length the length of the frame in bytes
+     * @throws CaptureException if transmitting fails
+     */
+    void transmit(byte[] buffer, int offset, int length) throws CaptureException;
+
+    /**
+     * Transmits a batch of frames in order via the network interface of this backend. Backends that can hand several
+     * frames to the kernel at once override this method, by default each frame is {@link #transmit(byte[], int, int)
+     * transmitted} separately. A failed frame does not stop the transmission of the remaining frames of the batch.
+     *
+     * @param frames the raw frames to transmit
+     * @throws CaptureException if transmitting at least one frame failed, further failures are suppressed
+     */
+    default void sendBatch(List<byte[]> frames) throws CaptureException {
+        CaptureException failure = null;
+        for (byte[] frame : frames) {
+            try {
+                this.transmit(frame, 0, frame.length);
+            } catch (CaptureException exception) {
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Installs a kernel filter so that only frames matching the given libpcap filter expression are
+     * {@link #capture(Consumer) captured}. Backends without filter support capture all frames and return
+     * {@code false}, in which case frames have to be filtered by the consumer.
+     *
+     * @param filterExpression the libpcap filter expression
+     * @return {@code true} if the filter was installed, {@code false} if this backend does not support filters.
+     * @throws CaptureException if the filter expression is invalid or cannot be installed
+     */
+    default boolean applyFilter(String filterExpression) throws CaptureException {
+        return false;
+    }
+
+    boolean isOpen();
+
+    /**
+     * Closes this backend. A running {@link #capture(Consumer) capture} returns shortly after.
+     */
+    void close();
+
+    String getInterfaceName();
+
+    /**
+     * Represents the direction of the frames handled by a {@link CaptureBackend capture backend}.
+     */
+    enum Direction {
+        /**
+         * Incoming frames are captured, outgoing ones are ignored.
+         */
+        INGRESS,
+        /**
+         * Frames are transmitted only.
+         */
+        EGRESS;
+    }
+}
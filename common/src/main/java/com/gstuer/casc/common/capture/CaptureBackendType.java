@@ -0,0 +1,59 @@
+package com.gstuer.casc.common.capture;
+
+import org.pcap4j.core.PcapNativeException;
+import org.pcap4j.core.PcapNetworkInterface;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Represents the available implementations of {@link CaptureBackend capture backends}.
+ */
+public enum CaptureBackendType {
+    /**
+     * Backend based on libpcap via pcap4j, available on all platforms.
+     */
+    PCAP("pcap"),
+    /**
+     * Backend based on memory-mapped {@code AF_PACKET} rings, available on Linux only.
+     */
+    PACKET_MMAP("mmap");
+
+    private final String identifier;
+
+    private CaptureBackendType(String identifier) {
+        this.identifier = Objects.requireNonNull(identifier);
+    }
+
+    public static Optional<CaptureBackendType> getByIdentifier(String identifier) {
+        return Arrays.stream(CaptureBackendType.values())
+                .filter(entry -> entry.identifier.equals(identifier))
+                .findFirst();
+    }
+
+    /**
+     * Opens a new backend of this type for the given network interface and direction.
+     *
+     * @param networkInterface the network interface to capture from or transmit to
+     * @param direction        the direction of the backend
+     * @return the opened backend.
+     * @throws CaptureException if the backend cannot be opened
+     */
+    public CaptureBackend open(PcapNetworkInterface networkInterface, CaptureBackend.Direction direction) throws CaptureException {
+        return switch (this) {
+            case PCAP -> {
+                try {
+                    yield new PcapCaptureBackend(networkInterface, direction);
+                } catch (PcapNativeException exception) {
+                    throw new CaptureException(exception);
+                }
+            }
+            case PACKET_MMAP -> new PacketMmapCaptureBackend(networkInterface.getName(), direction);
+        };
+    }
+
+    public String getIdentifier() {
+        return this.identifier;
+    }
+}
@@ -0,0 +1,20 @@
+package com.gstuer.casc.common.capture;
+
+import java.io.Serial;
+
+public class CaptureException extends Exception {
+    @Serial
+    private static final long serialVersionUID = -4723065191203876213L;
+
+    public CaptureException(String message) {
+        super(message);
+    }
+
+    public CaptureException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public CaptureException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,447 @@
+package com.gstuer.casc.common.capture;
+
+import com.gstuer.casc.common.frame.Frame;
+import com.gstuer.casc.common.frame.FrameFields;
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Library;
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Represents a {@link CaptureBackend capture backend} based on a Linux {@code AF_PACKET} socket. Incoming frames are
+ * received via a memory-mapped {@code TPACKET_V3} ring shared with the kernel, i.e. the socket is only polled when
+ * the next block is not ready yet instead of once per frame. The ring is not handed to consumers directly: each frame
+ * is copied from the ring into a reused heap buffer backing the {@link Frame frame} view, since frames and the parsed
+ * pcap4j packets are backed by byte arrays. Outgoing frames are copied into the slots of a memory-mapped
+ * {@code TPACKET_V2} transmit ring, and a whole {@link #sendBatch(List) batch} is handed to the kernel with a single
+ * {@code send()} call. Frames larger than a ring slot cannot be transmitted.
+ * <p>
+ * The receive ring is split into blocks that are handed over between kernel and user space as a whole. The kernel retires a
+ * block once it is full or its timeout expired, so the block timeout bounds the capture latency of sparse traffic.
+ */
+public class PacketMmapCaptureBackend implements CaptureBackend {
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 18;
+    public static final int DEFAULT_BLOCK_COUNT = 16;
+    public static final int DEFAULT_BLOCK_TIMEOUT_MILLIS = 1;
+
+    // Constants of linux/socket.h, linux/if_ether.h and linux/if_packet.h
+    private static final int AF_PACKET = 17;
+    private static final int SOCK_RAW = 3;
+    private static final int SOL_PACKET = 263;
+    private static final int ETH_P_ALL = 0x0003;
+    private static final int PACKET_ADD_MEMBERSHIP = 1;
+    private static final int PACKET_RX_RING = 5;
+    private static final int PACKET_VERSION = 10;
+    private static final int PACKET_TX_RING = 13;
+    private static final int PACKET_LOSS = 14;
+    private static final int PACKET_IGNORE_OUTGOING = 23;
+    private static final int PACKET_MR_PROMISC = 1;
+    private static final int PACKET_OUTGOING = 4;
+    private static final int TPACKET_V2 = 1;
+    private static final int TPACKET_V3 = 2;
+    private static final int TP_STATUS_KERNEL = 0;
+    private static final int TP_STATUS_USER = 1;
+    private static final int TP_STATUS_AVAILABLE = 0;
+    private static final int TP_STATUS_SEND_REQUEST = 1;
+    private static final int TP_STATUS_VLAN_VALID = 0x10;
+    private static final int TP_STATUS_VLAN_TPID_VALID = 0x40;
+    private static final int PROT_READ_WRITE = 0x3;
+    private static final int MAP_SHARED = 0x1;
+    private static final short POLLIN = 0x1;
+    private static final short POLLERR = 0x8;
+    private static final int EINTR = 4;
+    private static final int FRAME_SIZE = 2048;
+    private static final int POLL_TIMEOUT_MILLIS = 100;
+    private static final int VLAN_TAG_LENGTH = 4;
+
+    // Offsets within struct tpacket_block_desc
+    private static final int BLOCK_STATUS_OFFSET = 8;
+    private static final int BLOCK_PACKET_COUNT_OFFSET = 12;
+    private static final int BLOCK_FIRST_PACKET_OFFSET = 16;
+
+    // Offsets within struct tpacket3_hdr and the subsequent struct sockaddr_ll
+    private static final int PACKET_NEXT_OFFSET = 0;
+    private static final int PACKET_SECONDS_OFFSET = 4;
+    private static final int PACKET_NANOSECONDS_OFFSET = 8;
+    private static final int PACKET_SNAP_LENGTH_OFFSET = 12;
+    private static final int PACKET_STATUS_OFFSET = 20;
+    private static final int PACKET_MAC_OFFSET = 24;
+    private static final int PACKET_VLAN_TCI_OFFSET = 32;
+    private static final int PACKET_VLAN_TPID_OFFSET = 36;
+    private static final int PACKET_HEADER_LENGTH = 48;
+    private static final int LINK_LAYER_PACKET_TYPE_OFFSET = 10;
+
+    // Offsets within struct tpacket2_hdr of a transmit ring slot, the frame follows the aligned header
+    private static final int TRANSMIT_STATUS_OFFSET = 0;
+    private static final int TRANSMIT_LENGTH_OFFSET = 4;
+    private static final int TRANSMIT_FRAME_OFFSET = 32;
+
+    private final String interfaceName;
+    private final Direction direction;
+    private final int socket;
+    private final int blockSize;
+    private final int blockCount;
+    private final Pointer ringPointer;
+    private final ByteBuffer ring;
+    private final Frame frame;
+
+    private byte[] frameBuffer;
+    private int transmitSlot;
+    private boolean capturing;
+    private boolean closed;
+    private boolean released;
+
+    public PacketMmapCaptureBackend(String interfaceName, Direction direction) throws CaptureException {
+        this(interfaceName, direction, DEFAULT_BLOCK_SIZE, DEFAULT_BLOCK_COUNT, DEFAULT_BLOCK_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructs a new {@link PacketMmapCaptureBackend packet mmap capture backend} and opens its socket.
+     *
+     * @param interfaceName      the name of the network interface
+     * @param direction          the direction of the backend
+     * @param blockSize          the size of a ring block in bytes, a multiple of the page size
+     * @param blockCount         the number of blocks of the ring
+     * @param blockTimeoutMillis the time after which the kernel retires a block that is not full
+     * @throws CaptureException if the socket or ring cannot be set up, e.g. due to missing privileges
+     */
+    public PacketMmapCaptureBackend(String interfaceName, Direction direction, int blockSize, int blockCount,
+                                    int blockTimeoutMillis) throws CaptureException {
+        if (blockSize <= 0 || blockSize % FRAME_SIZE != 0 || blockCount <= 0 || blockTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Invalid ring configuration.");
+        }
+        // The kernel rejects rings whose blocks are not page-aligned, which depends on the platform's page size
+        CLibrary library = CLibrary.INSTANCE;
+        if (blockSize % library.getpagesize() != 0) {
+            throw new IllegalArgumentException("Block size must be a multiple of the page size.");
+        }
+        this.interfaceName = Objects.requireNonNull(interfaceName);
+        this.direction = Objects.requireNonNull(direction);
+        this.blockSize = blockSize;
+        this.blockCount = blockCount;
+        this.frame = new Frame();
+        this.frameBuffer = new byte[FRAME_SIZE];
+
+        int interfaceIndex = library.if_nametoindex(interfaceName);
+        if (interfaceIndex == 0) {
+            throw new CaptureException("Unknown network interface " + interfaceName + ".");
+        }
+
+        // Open socket w/o protocol to not receive frames of other interfaces before binding
+        try {
+            this.socket = library.socket(AF_PACKET, SOCK_RAW, 0);
+        } catch (LastErrorException exception) {
+            throw new CaptureException("Opening packet socket failed.", exception);
+        }
+
+        try {
+            if (direction == Direction.INGRESS) {
+                // Set up and map receive ring
+                this.setIntegerOption(PACKET_VERSION, TPACKET_V3);
+                Memory request = new Memory(7 * Integer.BYTES);
+                request.clear();
+                request.setInt(0, blockSize);
+                request.setInt(4, blockCount);
+                request.setInt(8, FRAME_SIZE);
+                request.setInt(12, blockSize / FRAME_SIZE * blockCount);
+                request.setInt(16, blockTimeoutMillis);
+                library.setsockopt(this.socket, SOL_PACKET, PACKET_RX_RING, request, (int) request.size());
+                this.ringPointer = this.mapRing();
+                this.ring = this.ringPointer.getByteBuffer(0, (long) blockSize * blockCount).order(ByteOrder.nativeOrder());
+                this.bind(interfaceIndex, ETH_P_ALL);
+
+                // Enable promiscuous mode for the lifetime of the socket
+                Memory membership = new Memory(16);
+                membership.clear();
+                membership.setInt(0, interfaceIndex);
+                membership.setShort(4, (short) PACKET_MR_PROMISC);
+                library.setsockopt(this.socket, SOL_PACKET, PACKET_ADD_MEMBERSHIP, membership, (int) membership.size());
+
+                // Skip outgoing frames in kernel if supported (Linux 4.20+), they are skipped by the ring reader anyway
+                try {
+                    this.setIntegerOption(PACKET_IGNORE_OUTGOING, 1);
+                } catch (LastErrorException exception) {
+                    // Ignore, outgoing frames are filtered while reading the ring
+                }
+            } else {
+                // Set up and map transmit ring, malformed frames are discarded instead of blocking the ring
+                this.setIntegerOption(PACKET_VERSION, TPACKET_V2);
+                this.setIntegerOption(PACKET_LOSS, 1);
+                Memory request = new Memory(4 * Integer.BYTES);
+                request.setInt(0, blockSize);
+                request.setInt(4, blockCount);
+                request.setInt(8, FRAME_SIZE);
+                request.setInt(12, blockSize / FRAME_SIZE * blockCount);
+                library.setsockopt(this.socket, SOL_PACKET, PACKET_TX_RING, request, (int) request.size());
+                this.ringPointer = this.mapRing();
+                this.ring = this.ringPointer.getByteBuffer(0, (long) blockSize * blockCount).order(ByteOrder.nativeOrder());
+                this.bind(interfaceIndex, 0);
+            }
+        } catch (LastErrorException exception) {
+            library.close(this.socket);
+            throw new CaptureException("Setting up packet socket for " + interfaceName + " failed.", exception);
+        }
+    }
+
+    @Override
+    public void capture(Consumer<Frame> frameConsumer) throws CaptureException {
+        Objects.requireNonNull(frameConsumer);
+        if (this.direction != Direction.INGRESS) {
+            throw new IllegalStateException("Egress backend cannot capture frames.");
+        }
+        synchronized (this) {
+            if (this.closed) {
+                throw new CaptureException("Backend already closed.");
+            } else if (this.capturing) {
+                throw new IllegalStateException("Backend already capturing.");
+            }
+            this.capturing = true;
+        }
+
+        try {
+            Memory pollDescriptor = new Memory(8);
+            pollDescriptor.setInt(0, this.socket);
+            pollDescriptor.setShort(4, (short) (POLLIN | POLLERR));
+            int blockIndex = 0;
+            while (this.isOpen()) {
+                int blockOffset = blockIndex * this.blockSize;
+                if ((this.ring.getInt(blockOffset + BLOCK_STATUS_OFFSET) & TP_STATUS_USER) == 0) {
+                    // Block still owned by kernel, wait for it to be retired
+                    pollDescriptor.setShort(6, (short) 0);
+                    try {
+                        CLibrary.INSTANCE.poll(pollDescriptor, 1, POLL_TIMEOUT_MILLIS);
+                    } catch (LastErrorException exception) {
+                        if (exception.getErrorCode() != EINTR) {
+                            throw new CaptureException("Polling packet socket failed.", exception);
+                        }
+                    }
+                    continue;
+                }
+                // Read block contents only after its status and return block to kernel only after reading it
+                VarHandle.acquireFence();
+                this.handleBlock(blockOffset, frameConsumer);
+                VarHandle.releaseFence();
+                this.ring.putInt(blockOffset + BLOCK_STATUS_OFFSET, TP_STATUS_KERNEL);
+                blockIndex = (blockIndex + 1) % this.blockCount;
+            }
+        } finally {
+            synchronized (this) {
+                this.capturing = false;
+                if (this.closed) {
+                    this.release();
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void transmit(byte[] buffer, int offset, int length) throws CaptureException {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        if (this.closed) {
+            throw new CaptureException("Backend already closed.");
+        } else if (this.direction != Direction.EGRESS) {
+            throw new IllegalStateException("Ingress backend cannot transmit frames.");
+        }
+        this.enqueueFrame(buffer, offset, length);
+        this.flushTransmitRing();
+    }
+
+    /**
+     * Transmits a batch of frames in order via the transmit ring. The frames are written into free ring slots, and
+     * the ring is flushed with a single {@code send()} call once the batch was written or no slot is free anymore.
+     *
+     * @param frames the raw frames to transmit
+     * @throws CaptureException if at least one frame is too large for a ring slot or flushing the ring failed
+     */
+    @Override
+    public synchronized void sendBatch(List<byte[]> frames) throws CaptureException {
+        if (this.closed) {
+            throw new CaptureException("Backend already closed.");
+        } else if (this.direction != Direction.EGRESS) {
+            throw new IllegalStateException("Ingress backend cannot transmit frames.");
+        }
+        CaptureException failure = null;
+        for (byte[] frame : frames) {
+            try {
+                this.enqueueFrame(frame, 0, frame.length);
+            } catch (CaptureException exception) {
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+        }
+        this.flushTransmitRing();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public synchronized boolean isOpen() {
+        return !this.closed;
+    }
+
+    @Override
+    public synchronized void close() {
+        this.closed = true;
+        // Ring must not be unmapped while being read, in that case it is released by the capture loop
+        if (!this.capturing) {
+            this.release();
+        }
+    }
+
+    @Override
+    public String getInterfaceName() {
+        return this.interfaceName;
+    }
+
+    private void handleBlock(int blockOffset, Consumer<Frame> frameConsumer) {
+        int packetCount = this.ring.getInt(blockOffset + BLOCK_PACKET_COUNT_OFFSET);
+        int packetOffset = blockOffset + this.ring.getInt(blockOffset + BLOCK_FIRST_PACKET_OFFSET);
+        for (int packet = 0; packet < packetCount; packet++) {
+            byte packetType = this.ring.get(packetOffset + PACKET_HEADER_LENGTH + LINK_LAYER_PACKET_TYPE_OFFSET);
+            if (packetType != PACKET_OUTGOING) {
+                long timestamp = TimeUnit.SECONDS.toNanos(Integer.toUnsignedLong(this.ring.getInt(packetOffset + PACKET_SECONDS_OFFSET)))
+                        + Integer.toUnsignedLong(this.ring.getInt(packetOffset + PACKET_NANOSECONDS_OFFSET));
+                int length = this.readFrame(packetOffset);
+                this.frame.set(this.frameBuffer, 0, length, timestamp);
+                frameConsumer.accept(this.frame);
+            }
+            packetOffset += this.ring.getInt(packetOffset + PACKET_NEXT_OFFSET);
+        }
+    }
+
+    private void enqueueFrame(byte[] buffer, int offset, int length) throws CaptureException {
+        if (length > FRAME_SIZE - TRANSMIT_FRAME_OFFSET) {
+            throw new CaptureException("Frame of " + length + " bytes exceeds the transmit ring slot size.");
+        }
+        int slotOffset = this.transmitSlot * FRAME_SIZE;
+        if (this.ring.getInt(slotOffset + TRANSMIT_STATUS_OFFSET) != TP_STATUS_AVAILABLE) {
+            // Ring is full, the slot becomes available once the kernel sent the pending frames
+            this.flushTransmitRing();
+            if (this.ring.getInt(slotOffset + TRANSMIT_STATUS_OFFSET) != TP_STATUS_AVAILABLE) {
+                throw new CaptureException("Transmit ring of " + this.interfaceName + " is still in use.");
+            }
+        }
+        // Hand slot to kernel only after writing the frame into it
+        this.ring.put(slotOffset + TRANSMIT_FRAME_OFFSET, buffer, offset, length);
+        this.ring.putInt(slotOffset + TRANSMIT_LENGTH_OFFSET, length);
+        VarHandle.releaseFence();
+        this.ring.putInt(slotOffset + TRANSMIT_STATUS_OFFSET, TP_STATUS_SEND_REQUEST);
+        this.transmitSlot = (this.transmitSlot + 1) % (this.blockSize / FRAME_SIZE * this.blockCount);
+    }
+
+    private void flushTransmitRing() throws CaptureException {
+        // Blocking send without buffer transmits all requested slots of the ring and returns once they are available
+        while (true) {
+            try {
+                CLibrary.INSTANCE.send(this.socket, null, new NativeLong(0), 0);
+                return;
+            } catch (LastErrorException exception) {
+                if (exception.getErrorCode() != EINTR) {
+                    throw new CaptureException("Sending frames via " + this.interfaceName + " failed.", exception);
+                }
+            }
+        }
+    }
+
+    private int readFrame(int packetOffset) {
+        int snapLength = this.ring.getInt(packetOffset + PACKET_SNAP_LENGTH_OFFSET);
+        int status = this.ring.getInt(packetOffset + PACKET_STATUS_OFFSET);
+        int frameOffset = packetOffset + (this.ring.getShort(packetOffset + PACKET_MAC_OFFSET) & 0xFFFF);
+        boolean hasStrippedVlanTag = (status & TP_STATUS_VLAN_VALID) != 0
+                && snapLength >= 2 * FrameFields.MAC_ADDRESS_LENGTH;
+        int length = hasStrippedVlanTag ? snapLength + VLAN_TAG_LENGTH : snapLength;
+        if (length > this.frameBuffer.length) {
+            this.frameBuffer = new byte[length];
+        }
+
+        if (!hasStrippedVlanTag) {
+            this.ring.get(frameOffset, this.frameBuffer, 0, snapLength);
+            return length;
+        }
+
+        // Reinsert VLAN tag stripped by the network interface, as libpcap does, to capture the frame as sent
+        int addressLength = 2 * FrameFields.MAC_ADDRESS_LENGTH;
+        int tagProtocol = (status & TP_STATUS_VLAN_TPID_VALID) != 0
+                ? this.ring.getShort(packetOffset + PACKET_VLAN_TPID_OFFSET) & 0xFFFF : FrameFields.ETHER_TYPE_VLAN;
+        int tagControl = this.ring.getInt(packetOffset + PACKET_VLAN_TCI_OFFSET) & 0xFFFF;
+        this.ring.get(frameOffset, this.frameBuffer, 0, addressLength);
+        this.frameBuffer[addressLength] = (byte) (tagProtocol >> 8);
+        this.frameBuffer[addressLength + 1] = (byte) tagProtocol;
+        this.frameBuffer[addressLength + 2] = (byte) (tagControl >> 8);
+        this.frameBuffer[addressLength + 3] = (byte) tagControl;
+        this.ring.get(frameOffset + addressLength, this.frameBuffer, addressLength + VLAN_TAG_LENGTH,
+                snapLength - addressLength);
+        return length;
+    }
+
+    private void bind(int interfaceIndex, int protocol) {
+        // struct sockaddr_ll with protocol in network byte order
+        Memory address = new Memory(20);
+        address.clear();
+        address.setShort(0, (short) AF_PACKET);
+        address.setByte(2, (byte) (protocol >> 8));
+        address.setByte(3, (byte) protocol);
+        address.setInt(4, interfaceIndex);
+        CLibrary.INSTANCE.bind(this.socket, address, (int) address.size());
+    }
+
+    private Pointer mapRing() {
+        return CLibrary.INSTANCE.mmap(null, new NativeLong((long) this.blockSize * this.blockCount), PROT_READ_WRITE,
+                MAP_SHARED, this.socket, new NativeLong(0));
+    }
+
+    private void setIntegerOption(int option, int value) {
+        Memory optionValue = new Memory(Integer.BYTES);
+        optionValue.setInt(0, value);
+        CLibrary.INSTANCE.setsockopt(this.socket, SOL_PACKET, option, optionValue, Integer.BYTES);
+    }
+
+    private void release() {
+        if (this.released) {
+            return;
+        }
+        this.released = true;
+        if (this.ringPointer != null) {
+            CLibrary.INSTANCE.munmap(this.ringPointer, new NativeLong((long) this.blockSize * this.blockCount));
+        }
+        CLibrary.INSTANCE.close(this.socket);
+    }
+
+    private interface CLibrary extends Library {
+        CLibrary INSTANCE = Native.load("c", CLibrary.class);
+
+        int socket(int domain, int type, int protocol) throws LastErrorException;
+
+        int setsockopt(int socket, int level, int option, Pointer value, int length) throws LastErrorException;
+
+        int bind(int socket, Pointer address, int length) throws LastErrorException;
+
+        Pointer mmap(Pointer address, NativeLong length, int protection, int flags, int descriptor, NativeLong offset) throws LastErrorException;
+
+        int munmap(Pointer address, NativeLong length) throws LastErrorException;
+
+        int poll(Pointer descriptors, int count, int timeout) throws LastErrorException;
+
+        NativeLong send(int socket, Pointer buffer, NativeLong length, int flags) throws LastErrorException;
+
+        int close(int descriptor) throws LastErrorException;
+
+        int if_nametoindex(String name);
+
+        int getpagesize();
+    }
+}
@@ -0,0 +1,110 @@
+package com.gstuer.casc.common.capture;
+
+import com.gstuer.casc.common.frame.Frame;
+import org.pcap4j.core.BpfProgram;
+import org.pcap4j.core.NotOpenException;
+import org.pcap4j.core.PcapHandle;
+import org.pcap4j.core.PcapNativeException;
+import org.pcap4j.core.PcapNetworkInterface;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Represents a {@link CaptureBackend capture backend} based on a libpcap handle. Frames are captured in batches via
+ * the raw packet listener of pcap4j.
+ */
+public class PcapCaptureBackend implements CaptureBackend {
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private final PcapNetworkInterface networkInterface;
+    private final PcapHandle handle;
+    private final int batchSize;
+    private final Frame frame;
+
+    public PcapCaptureBackend(PcapNetworkInterface networkInterface, Direction direction) throws PcapNativeException {
+        this(networkInterface, direction, DEFAULT_BATCH_SIZE);
+    }
+
+    public PcapCaptureBackend(PcapNetworkInterface networkInterface, Direction direction, int batchSize) throws PcapNativeException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.networkInterface = Objects.requireNonNull(networkInterface);
+        this.handle = buildHandle(networkInterface, Objects.requireNonNull(direction));
+        this.batchSize = batchSize;
+        this.frame = new Frame();
+    }
+
+    @Override
+    public void capture(Consumer<Frame> frameConsumer) throws CaptureException {
+        Objects.requireNonNull(frameConsumer);
+        try {
+            // Handle batches of frames until interrupted or exception is thrown
+            while (this.handle.isOpen()) {
+                this.handle.dispatch(this.batchSize, (byte[] rawFrame) -> {
+                    // Capture timestamp of the frame currently dispatched is provided by the handle
+                    long timestamp = Frame.toEpochNanos(this.handle.getTimestamp());
+                    this.frame.set(rawFrame, 0, rawFrame.length, timestamp);
+                    frameConsumer.accept(this.frame);
+                });
+            }
+        } catch (InterruptedException | NotOpenException exception) {
+            //No handling required: e.g. interrupted via breakloop() or close() method call
+        } catch (PcapNativeException exception) {
+            throw new CaptureException(exception);
+        }
+    }
+
+    @Override
+    public void transmit(byte[] buffer, int offset, int length) throws CaptureException {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        // Pcap4j sends from the start of an array, hence frames at an offset have to be copied
+        byte[] rawFrame = offset == 0 ? buffer : Arrays.copyOfRange(buffer, offset, offset + length);
+        try {
+            this.handle.sendPacket(rawFrame, length);
+        } catch (NotOpenException | PcapNativeException exception) {
+            throw new CaptureException(exception);
+        }
+    }
+
+    @Override
+    public boolean applyFilter(String filterExpression) throws CaptureException {
+        Objects.requireNonNull(filterExpression);
+        try {
+            this.handle.setFilter(filterExpression, BpfProgram.BpfCompileMode.OPTIMIZE);
+        } catch (NotOpenException | PcapNativeException exception) {
+            throw new CaptureException(exception);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.handle.isOpen();
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.handle.breakLoop();
+        } catch (NotOpenException exception) {
+            // Ignore, capture loop already stopped
+        }
+        this.handle.close();
+    }
+
+    @Override
+    public String getInterfaceName() {
+        return this.networkInterface.getName();
+    }
+
+    protected PcapHandle buildHandle(PcapNetworkInterface networkInterface, Direction direction) throws PcapNativeException {
+        return new PcapHandle.Builder(networkInterface.getName())
+                .promiscuousMode(PcapNetworkInterface.PromiscuousMode.PROMISCUOUS)
+                .immediateMode(true)
+                .direction(direction == Direction.INGRESS ? PcapHandle.PcapDirection.IN : PcapHandle.PcapDirection.OUT)
+                .build();
+    }
+}
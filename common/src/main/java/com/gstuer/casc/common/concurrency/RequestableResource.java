@@ -3,11 +3,12 @@ package com.gstuer.casc.common.concurrency;
 import com.gstuer.casc.common.concurrency.exception.RequestTimeoutException;
 import com.gstuer.casc.common.cryptography.Signer;
 import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.time.MillisClock;
 
 import java.net.InetAddress;
-import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -21,13 +22,20 @@ public abstract class RequestableResource<T> {
     private final int retries;
     private final long timeoutNanos;
     private final InetAddress provider;
-
+    private final MillisClock clock;
 
     private volatile T resource;
-    private volatile LocalDateTime requestTime;
+    private volatile long requestTimeMillis;
+    private volatile boolean requested;
 
     protected RequestableResource(BlockingQueue<AccessControlMessage<?>> messageEgress, Signer<?> signer, int retries,
                                   long timeoutNanos, InetAddress provider) {
+        this(messageEgress, signer, retries, timeoutNanos, provider, MillisClock.getDefault());
+    }
+
+    protected RequestableResource(BlockingQueue<AccessControlMessage<?>> messageEgress, Signer<?> signer, int retries,
+                                  long timeoutNanos, InetAddress provider, MillisClock clock) {
+        this.clock = Objects.requireNonNull(clock);
         this.messageEgress = Objects.requireNonNull(messageEgress);
         this.signer = Objects.requireNonNull(signer);
         this.retries = retries;
@@ -96,7 +104,8 @@ public abstract class RequestableResource<T> {
         Lock readLock = this.lock.readLock();
         readLock.lock();
         try {
-            return this.requestTime != null && LocalDateTime.now().isBefore(requestTime.plusNanos(timeoutNanos));
+            return this.requested && this.clock.currentTimeMillis()
+                    < this.requestTimeMillis + TimeUnit.NANOSECONDS.toMillis(this.timeoutNanos);
         } finally {
             readLock.unlock();
         }
@@ -113,7 +122,8 @@ public abstract class RequestableResource<T> {
     protected void sendRequestMessage() {
         AccessControlMessage<?> message = constructRequestMessage();
         this.messageEgress.offer(message);
-        this.requestTime = LocalDateTime.now();
+        this.requestTimeMillis = this.clock.currentTimeMillis();
+        this.requested = true;
     }
 
     protected abstract AccessControlMessage<?> constructRequestMessage();
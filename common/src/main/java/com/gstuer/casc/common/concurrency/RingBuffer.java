@@ -0,0 +1,364 @@
+package com.gstuer.casc.common.concurrency;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents a bounded, preallocated and lock-free {@link BlockingQueue blocking queue} based on a ring buffer.
+ * Each slot of the ring carries a sequence number that hands the slot over between producers and consumers, so neither
+ * side allocates nodes or acquires locks. The queue is tuned for a single consumer (e.g. an egress handler), but stays
+ * correct for multiple producers and consumers.
+ * <p>
+ * In contrast to other blocking queues, {@link #offer(Object)} applies the {@link OverflowPolicy overflow policy} of
+ * the ring buffer if the queue is full. Dropped elements are counted and exposed together with the queue depth.
+ * Iterators are weakly consistent snapshots and do not support removal, i.e. {@link #remove(Object)},
+ * {@link #removeAll(Collection)} and {@link #retainAll(Collection)} are not supported either.
+ *
+ * @param <E> the type of elements held in this queue
+ */
+public class RingBuffer<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int capacity;
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head;
+    private final AtomicLong tail;
+    private final AtomicLong peakSize;
+    private final LongAdder dropCount;
+    private final OverflowPolicy overflowPolicy;
+
+    private volatile Thread waitingConsumer;
+
+    /**
+     * Constructs a new {@link RingBuffer ring buffer}.
+     *
+     * @param capacity       the minimum capacity of the buffer, rounded up to the next power of two (at least two)
+     * @param overflowPolicy the policy applied by {@link #offer(Object)} if the buffer is full
+     */
+    public RingBuffer(int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be within (0, 2^30].");
+        }
+        // Sequence numbers of a single slot cannot distinguish a free slot from a filled one, hence use two slots
+        this.capacity = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.elements = new Object[this.capacity];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int index = 0; index < this.capacity; index++) {
+            this.sequences.set(index, index);
+        }
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+        this.peakSize = new AtomicLong();
+        this.dropCount = new LongAdder();
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+    }
+
+    /**
+     * Inserts an element into this queue. If the queue is full, the {@link OverflowPolicy overflow policy} of this
+     * queue decides whether the element, the oldest element or no element is dropped.
+     *
+     * @param element the element to add
+     * @return {@code true} if the element was added to this queue, {@code false} if it was dropped.
+     */
+    @Override
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+        switch (this.overflowPolicy) {
+            case DROP_NEWEST -> {
+                if (!this.tryEnqueue(element)) {
+                    this.dropCount.increment();
+                    return false;
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!this.tryEnqueue(element)) {
+                    if (this.tryDequeue() != null) {
+                        this.dropCount.increment();
+                    }
+                }
+            }
+            case BLOCK -> {
+                try {
+                    this.put(element);
+                } catch (InterruptedException exception) {
+                    // Restore interrupt status and drop element since offer(E) must not throw
+                    Thread.currentThread().interrupt();
+                    this.dropCount.increment();
+                    return false;
+                }
+                return true;
+            }
+        }
+        this.signalNotEmpty();
+        return true;
+    }
+
+    @Override
+    public void put(E element) throws InterruptedException {
+        Objects.requireNonNull(element);
+        while (!this.tryEnqueue(element)) {
+            LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        this.signalNotEmpty();
+    }
+
+    @Override
+    public boolean offer(E element, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(element);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!this.tryEnqueue(element)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        this.signalNotEmpty();
+        return true;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E element;
+        while ((element = this.tryDequeue()) == null) {
+            this.waitingConsumer = Thread.currentThread();
+            // Check again after registration to not miss a signal of a concurrent producer
+            element = this.tryDequeue();
+            if (element != null) {
+                break;
+            }
+            LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            if (Thread.interrupted()) {
+                this.waitingConsumer = null;
+                throw new InterruptedException();
+            }
+        }
+        this.waitingConsumer = null;
+        return element;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        E element;
+        while ((element = this.tryDequeue()) == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            this.waitingConsumer = Thread.currentThread();
+            element = this.tryDequeue();
+            if (element != null) {
+                break;
+            }
+            LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+            if (Thread.interrupted()) {
+                this.waitingConsumer = null;
+                throw new InterruptedException();
+            }
+        }
+        this.waitingConsumer = null;
+        return element;
+    }
+
+    @Override
+    public E poll() {
+        return this.tryDequeue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long position = this.head.get();
+        int index = (int) (position & this.mask);
+        if (this.sequences.get(index) != position + 1) {
+            return null;
+        }
+        // Element may have been taken concurrently, in which case null is returned as well
+        return (E) this.elements[index];
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> collection) {
+        return this.drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> collection, int maxElements) {
+        Objects.requireNonNull(collection);
+        if (collection == this) {
+            throw new IllegalArgumentException("Cannot drain queue to itself.");
+        }
+        int count = 0;
+        E element;
+        while (count < maxElements && (element = this.tryDequeue()) != null) {
+            collection.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        long size = this.tail.get() - this.head.get();
+        return (int) Math.max(0, Math.min(size, this.capacity));
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return this.capacity - this.size();
+    }
+
+    /**
+     * Returns a weakly consistent iterator over a snapshot of the elements in this queue in FIFO order. The snapshot
+     * contains each element that was held by this queue throughout its creation and no element twice. Elements that
+     * were added or taken concurrently may or may not be contained. The iterator does not support removal.
+     *
+     * @return the snapshot iterator.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        long position = this.head.get();
+        long end = Math.min(this.tail.get(), position + this.capacity);
+        List<E> snapshot = new ArrayList<>((int) Math.max(0, end - position));
+        for (; position < end; position++) {
+            int index = (int) (position & this.mask);
+            // Element belongs to this position only if the slot sequence is unchanged before and after reading it
+            if (this.sequences.get(index) == position + 1) {
+                E element = (E) this.elements[index];
+                if (element != null && this.sequences.get(index) == position + 1) {
+                    snapshot.add(element);
+                }
+            }
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+
+    /**
+     * Gets the number of elements that were dropped due to the overflow policy of this queue.
+     *
+     * @return the number of dropped elements.
+     */
+    public long getDropCount() {
+        return this.dropCount.sum();
+    }
+
+    /**
+     * Gets the maximum number of elements that were held by this queue at the same time.
+     *
+     * @return the peak queue depth.
+     */
+    public long getPeakSize() {
+        return this.peakSize.get();
+    }
+
+    private boolean tryEnqueue(E element) {
+        long position = this.tail.get();
+        while (true) {
+            int index = (int) (position & this.mask);
+            long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                // Slot is free for this position, claim it
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.elements[index] = element;
+                    this.sequences.set(index, position + 1);
+                    this.updatePeakSize(position + 1 - this.head.get());
+                    return true;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                // Slot still holds the element of the previous round, i.e. the buffer is full
+                return false;
+            } else {
+                // Another producer claimed this position already
+                position = this.tail.get();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E tryDequeue() {
+        long position = this.head.get();
+        while (true) {
+            int index = (int) (position & this.mask);
+            long difference = this.sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                // Slot holds the element for this position, claim it
+                if (this.head.compareAndSet(position, position + 1)) {
+                    E element = (E) this.elements[index];
+                    this.elements[index] = null;
+                    this.sequences.set(index, position + this.capacity);
+                    return element;
+                }
+                position = this.head.get();
+            } else if (difference < 0) {
+                // Slot was not filled yet, i.e. the buffer is empty
+                return null;
+            } else {
+                // Another consumer claimed this position already
+                position = this.head.get();
+            }
+        }
+    }
+
+    private void updatePeakSize(long size) {
+        if (size > this.peakSize.get()) {
+            this.peakSize.accumulateAndGet(size, Math::max);
+        }
+    }
+
+    private void signalNotEmpty() {
+        Thread consumer = this.waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Represents the policy of a {@link RingBuffer ring buffer} that is applied if an element is offered to the full
+     * buffer.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The offered element is dropped.
+         */
+        DROP_NEWEST,
+        /**
+         * The oldest element of the buffer is dropped to make room for the offered element.
+         */
+        DROP_OLDEST,
+        /**
+         * The producer blocks until the buffer has room for the offered element.
+         */
+        BLOCK;
+    }
+}
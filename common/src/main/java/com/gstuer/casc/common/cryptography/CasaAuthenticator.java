@@ -1,26 +1,47 @@
 package com.gstuer.casc.common.cryptography;
 
 import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
 import it.unisa.dia.gas.jpbc.Pairing;
+import it.unisa.dia.gas.jpbc.PairingPreProcessing;
 import it.unisa.dia.gas.plaf.jpbc.pairing.PairingFactory;
 import it.unisa.dia.gas.plaf.jpbc.pairing.parameters.PropertiesParameters;
 import org.apache.commons.lang3.RandomUtils;
 
 import java.io.Serial;
+import java.math.BigInteger;
 import java.security.Key;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 
+/**
+ * Represents an authenticator of the certificateless S_CASA signature scheme over a symmetric type A pairing e. An
+ * entity signs data m with its partial private key ppk and secret value x as sigma = ppk * H3(H2(m))^x. Its
+ * {@link PublicKey public key} is the pair (pk_agg, X = g2^x), against which a signature is valid if
+ * e(sigma, g2) = e(pk_agg, g2) * e(H3(H2(m)), X).
+ * <p>
+ * Encoded public keys, e.g. in key exchange messages, are the encoding of pk_agg in G1 followed by the encoding of X
+ * in G2, each with the fixed length of an element of its group. Earlier versions encoded pk_agg only, such keys are
+ * rejected since they cannot verify signatures of this scheme.
+ */
 public class CasaAuthenticator extends Authenticator<CasaAuthenticator.SecretKey, CasaAuthenticator.PublicKey> {
     public static final String ALGORITHM_IDENTIFIER = "S_CASA";
+    private static final int BATCH_EXPONENT_BITS = 64;
     // TODO Move to CAPP
     private final Element s;
     private final Element g2;
+    private final PairingPreProcessing g2Pairing;
 
     private final byte[] identity;
-    private final MessageDigest hash;
+    private final SecureRandom random;
+    private final ThreadLocal<MessageDigest> hash;
     private final Pairing pairing;
     private final Function<byte[], Element> H1;
     private final Function<byte[], Element> H2;
@@ -32,6 +53,7 @@ public class CasaAuthenticator extends Authenticator<CasaAuthenticator.SecretKey
 
     public CasaAuthenticator(byte[] identity) {
         this.identity = identity;
+        this.random = new SecureRandom();
         // Initialize pairing
         int rBits = 160;
         int qBits = 512;
@@ -50,37 +72,42 @@ public class CasaAuthenticator extends Authenticator<CasaAuthenticator.SecretKey
         parameters.put("sign1", "1");
         this.pairing = PairingFactory.getPairing(parameters);
 
-        // Initialize hashes
-        try {
-            this.hash = MessageDigest.getInstance("SHA-512");
-        } catch (NoSuchAlgorithmException exception) {
-            // Since the algorithm is static, this exception might only be thrown in case of an incompatible platform
-            throw new UnsupportedOperationException(exception);
-        }
+        // Initialize hashes, digests are stateful and thus kept per thread so that messages are hashed concurrently
+        this.hash = ThreadLocal.withInitial(() -> {
+            try {
+                return MessageDigest.getInstance("SHA-512");
+            } catch (NoSuchAlgorithmException exception) {
+                // Since the algorithm is static, this exception might only be thrown in case of an incompatible platform
+                throw new UnsupportedOperationException(exception);
+            }
+        });
         // H1: {0,1}* -> G1
         this.H1 = (bytes) -> {
-            byte[] hash = this.hash.digest(bytes);
+            byte[] hash = this.hash.get().digest(bytes);
             return this.pairing.getG1().newElementFromHash(hash, 0, hash.length).getImmutable();
         };
         // H2: {0,1}* -> Z_q*
         this.H2 = (bytes) -> {
-            byte[] hash = this.hash.digest(bytes);
+            byte[] hash = this.hash.get().digest(bytes);
             return this.pairing.getZr().newElementFromHash(hash, 0, hash.length).getImmutable();
         };
         // H3: Z_q* -> G2
         this.H3 = (element) -> {
-            byte[] hash = this.hash.digest(element.toBytes());
+            byte[] hash = this.hash.get().digest(element.toBytes());
             return this.pairing.getG2().newElementFromHash(hash, 0, hash.length).getImmutable();
         };
 
         // Initialize CAPP attributes
         // TODO Move to CAPP
-        byte[] sHash = hash.digest("ValuesS".getBytes());
+        byte[] sHash = hash.get().digest("ValuesS".getBytes());
         this.s = pairing.getZr().newElementFromHash(sHash, 0, sHash.length).getImmutable();
         //this.s = pairing.getZr().newRandomElement().getImmutable();
-        byte[] g2Hash = hash.digest("ValuesG2".getBytes());
+        byte[] g2Hash = hash.get().digest("ValuesG2".getBytes());
         this.g2 = pairing.getG2().newElementFromHash(g2Hash, 0, g2Hash.length).getImmutable();
         //this.g2 = pairing.getG2().newRandomElement().getImmutable();
+
+        // Precompute the Miller loop of g2, which is an argument of every pairing during verification
+        this.g2Pairing = pairing.getPairingPreProcessingFromElement(this.g2);
     }
 
     @Override
@@ -94,7 +121,7 @@ public class CasaAuthenticator extends Authenticator<CasaAuthenticator.SecretKey
         this.setSigningKey(new SecretKey(ppk, x));
 
         // TODO Replace with ppkAgg from CAPP
-        this.setVerificationKey(new PublicKey(ppk));
+        this.setVerificationKey(new PublicKey(ppk, g2.powZn(x)));
     }
 
     @Override
@@ -106,22 +133,143 @@ public class CasaAuthenticator extends Authenticator<CasaAuthenticator.SecretKey
         return new DigitalSignature(signature.toBytes(), this.getAlgorithmIdentifier());
     }
 
+    /**
+     * Verifies a signature sigma = ppk * H3(H2(m))^x with the public key (pk_agg, X = g2^x), i.e. checks
+     * e(sigma, g2) = e(pk_agg, g2) * e(H3(H2(m)), X). Signatures that do not encode a non-identity element of the
+     * subgroup of order r are rejected.
+     *
+     * @param data      the signed data
+     * @param signature the signature of the data
+     * @return whether the signature is valid.
+     */
     @Override
     public boolean verify(byte[] data, DigitalSignature signature) {
+        Optional<Element> signatureCurveElement = this.decodeSignature(signature);
+        return signatureCurveElement.isPresent() && this.verify(data, signatureCurveElement.get());
+    }
+
+    /**
+     * Verifies a batch of signatures with two pairings instead of two per signature. With random exponents r_i, the
+     * batch checks e(prod sigma_i^r_i, g2) = e(pk_agg, g2)^(sum r_i) * e(prod H3(H2(m_i))^r_i, X), which holds if all
+     * signatures are valid. The random exponents keep invalid signatures from cancelling each other out in the
+     * products. Since this only holds for elements of the subgroup of prime order r, signatures that do not encode a
+     * non-identity element of the subgroup are rejected before the batch is formed. If the batch fails, each signature
+     * is verified on its own to find the invalid ones.
+     *
+     * @param data       the signed data
+     * @param signatures the signatures of the data, one per data item
+     * @return for each data item, whether its signature is valid.
+     */
+    @Override
+    public boolean[] verifyAll(List<byte[]> data, List<DigitalSignature> signatures) {
+        if (data.size() != signatures.size()) {
+            throw new IllegalArgumentException("Numbers of data items and signatures differ.");
+        }
+        boolean[] results = new boolean[data.size()];
+        Element[] signatureCurveElements = new Element[results.length];
+        int elementCount = 0;
+        for (int index = 0; index < results.length; index++) {
+            signatureCurveElements[index] = this.decodeSignature(signatures.get(index)).orElse(null);
+            if (signatureCurveElements[index] != null) {
+                elementCount++;
+            }
+        }
+        if (elementCount > 1) {
+            PublicKey verificationKey = this.getVerificationKey();
+            Element signatureProduct = pairing.getG1().newOneElement();
+            Element hashProduct = pairing.getG2().newOneElement();
+            BigInteger exponentSum = BigInteger.ZERO;
+            for (int index = 0; index < results.length; index++) {
+                if (signatureCurveElements[index] == null) {
+                    continue;
+                }
+                BigInteger exponent = new BigInteger(BATCH_EXPONENT_BITS, this.random).setBit(BATCH_EXPONENT_BITS);
+                signatureProduct.mul(signatureCurveElements[index].pow(exponent));
+                hashProduct.mul(H3.apply(H2.apply(data.get(index))).pow(exponent));
+                exponentSum = exponentSum.add(exponent);
+            }
+            Element eServer = this.pairWithG2(signatureProduct);
+            Element eEntity = verificationKey.getPkAggPairing().pow(exponentSum)
+                    .mul(verificationKey.pairWithX(hashProduct));
+            if (eServer.isEqual(eEntity)) {
+                for (int index = 0; index < results.length; index++) {
+                    results[index] = signatureCurveElements[index] != null;
+                }
+                return results;
+            }
+        }
+        for (int index = 0; index < results.length; index++) {
+            results[index] = signatureCurveElements[index] != null
+                    && this.verify(data.get(index), signatureCurveElements[index]);
+        }
+        return results;
+    }
+
+    @Override
+    public boolean hasBatchVerification() {
+        return true;
+    }
+
+    /**
+     * Computes the pairing e(element, g2) with the preprocessed Miller loop of g2.
+     *
+     * @param element the element of G1 to pair with g2
+     * @return the pairing of the element with g2.
+     */
+    Element pairWithG2(Element element) {
+        // Type A pairings are symmetric, thus e(element, g2) equals the preprocessed e(g2, element)
+        return this.g2Pairing.pairing(element);
+    }
+
+    private boolean verify(byte[] data, Element signatureCurveElement) {
         // Server-Aided Verification
         // TODO Move to CAPP
         // TODO Calculate product of all devices
-        Element pk_agg = this.getVerificationKey().getPkAgg();
-        Element signatureCurveElement = pairing.getG1().newElementFromBytes(signature.getData());
-        Element eServer = pairing.pairing(signatureCurveElement, g2);
+        PublicKey verificationKey = this.getVerificationKey();
+        Element eServer = this.pairWithG2(signatureCurveElement);
 
-        // Entity Verification
-        Element eEntity = pairing.pairing(pk_agg.mul(signatureCurveElement.div(pk_agg)), g2);
+        // Entity Verification, all elements are immutable so that the verification key is not modified
+        Element eEntity = verificationKey.getPkAggPairing().mul(verificationKey.pairWithX(H3.apply(H2.apply(data))));
         return eServer.isEqual(eEntity);
     }
 
+    private Optional<Element> decodeSignature(DigitalSignature signature) {
+        byte[] encodedSignature = signature.getData();
+        if (encodedSignature.length != pairing.getG1().getLengthInBytes()) {
+            return Optional.empty();
+        }
+        return this.decodeSubgroupElement(pairing.getG1(), encodedSignature, 0);
+    }
+
+    /**
+     * Decodes an element of a signature or public key received from another entity. Only elements of the subgroup of
+     * prime order r except its identity are accepted. Elements of small order, e.g. points of the curve outside the
+     * subgroup, are not detected by the pairings and could otherwise be added to valid signatures or cancel out in the
+     * products of a batch verification.
+     *
+     * @param field  the group of the element
+     * @param bytes  the encoding containing the element
+     * @param offset the offset of the element in the encoding
+     * @return the immutable element, or an empty optional if it is the identity or outside the subgroup.
+     */
+    private Optional<Element> decodeSubgroupElement(Field<?> field, byte[] bytes, int offset) {
+        Element element = field.newElementFromBytes(bytes, offset).getImmutable();
+        if (element.isOne() || !element.pow(field.getOrder()).isOne()) {
+            return Optional.empty();
+        }
+        return Optional.of(element);
+    }
+
+    Pairing getPairing() {
+        return this.pairing;
+    }
+
+    Element getG2() {
+        return this.g2;
+    }
+
     @Override
-    public void setVerificationKey(EncodedKey encodedVerificationKey) {
+    public void setVerificationKey(EncodedKey encodedVerificationKey) throws InvalidKeySpecException {
         this.setVerificationKey(new PublicKey(encodedVerificationKey));
     }
 
@@ -138,8 +286,8 @@ public class CasaAuthenticator extends Authenticator<CasaAuthenticator.SecretKey
         private final Element x;
 
         public SecretKey(Element ppk, Element x) {
-            this.ppk = Objects.requireNonNull(ppk);
-            this.x = Objects.requireNonNull(x);
+            this.ppk = Objects.requireNonNull(ppk).getImmutable();
+            this.x = Objects.requireNonNull(x).getImmutable();
         }
 
         public Element getPpk() {
@@ -166,25 +314,71 @@ public class CasaAuthenticator extends Authenticator<CasaAuthenticator.SecretKey
         }
     }
 
+    /**
+     * Represents the public key of an entity, which consists of the aggregated partial private keys pk_agg and of
+     * X = g2^x for the secret value x of the entity. The pairing e(pk_agg, g2) and the Miller loop of X are computed
+     * once per key instead of per verification.
+     */
     public class PublicKey implements Key {
         @Serial
         private static final long serialVersionUID = 3301246079826707923L;
 
         private final Element pkAgg;
-
-        public PublicKey(EncodedKey encodedKey) {
+        private final Element x;
+        private final Element pkAggPairing;
+        private final PairingPreProcessing xPairing;
+
+        /**
+         * Constructs a public key from its encoding, the encoding of pk_agg in G1 followed by the encoding of X in G2.
+         *
+         * @param encodedKey the encoded key
+         * @throws InvalidKeySpecException if the key has not the length of the two group elements, e.g. a key of an
+         *                                 earlier version that consists of pk_agg only
+         */
+        public PublicKey(EncodedKey encodedKey) throws InvalidKeySpecException {
             // TODO Add check if algorithm is correct
-            this.pkAgg = pairing.getG1().newElementFromBytes(encodedKey.getKey());
+            this(decodeElements(encodedKey.getKey()));
+        }
+
+        public PublicKey(Element pkAgg, Element x) {
+            this(new Element[]{pkAgg, x});
         }
 
-        public PublicKey(Element pkAgg) {
-            this.pkAgg = Objects.requireNonNull(pkAgg);
+        private PublicKey(Element[] elements) {
+            this.pkAgg = Objects.requireNonNull(elements[0]).getImmutable();
+            this.x = Objects.requireNonNull(elements[1]).getImmutable();
+            this.pkAggPairing = CasaAuthenticator.this.pairWithG2(this.pkAgg).getImmutable();
+            this.xPairing = pairing.getPairingPreProcessingFromElement(this.x);
         }
 
         public Element getPkAgg() {
             return pkAgg;
         }
 
+        public Element getX() {
+            return x;
+        }
+
+        /**
+         * Gets the pairing e(pk_agg, g2), which is the same for all verifications with this key.
+         *
+         * @return the immutable pairing of the aggregated public key with g2.
+         */
+        public Element getPkAggPairing() {
+            return pkAggPairing;
+        }
+
+        /**
+         * Computes the pairing e(element, X) with the preprocessed Miller loop of X.
+         *
+         * @param element the element of G2 to pair with X
+         * @return the pairing of the element with X.
+         */
+        Element pairWithX(Element element) {
+            // Type A pairings are symmetric, thus e(element, X) equals the preprocessed e(X, element)
+            return this.xPairing.pairing(element);
+        }
+
         @Override
         public String getAlgorithm() {
             return ALGORITHM_IDENTIFIER;
@@ -195,9 +389,34 @@ public class CasaAuthenticator extends Authenticator<CasaAuthenticator.SecretKey
             return "RawBytes";
         }
 
+        /**
+         * Encodes this key as the encoding of pk_agg in G1 followed by the encoding of X in G2.
+         *
+         * @return the encoded key.
+         */
         @Override
         public byte[] getEncoded() {
-            return this.pkAgg.toBytes();
+            byte[] encodedPkAgg = this.pkAgg.toBytes();
+            byte[] encodedX = this.x.toBytes();
+            byte[] encoded = Arrays.copyOf(encodedPkAgg, encodedPkAgg.length + encodedX.length);
+            System.arraycopy(encodedX, 0, encoded, encodedPkAgg.length, encodedX.length);
+            return encoded;
+        }
+    }
+
+    private Element[] decodeElements(byte[] encodedKey) throws InvalidKeySpecException {
+        int pkAggLength = pairing.getG1().getLengthInBytes();
+        int xLength = pairing.getG2().getLengthInBytes();
+        if (encodedKey.length == pkAggLength) {
+            throw new InvalidKeySpecException("Encoded key consists of pk_agg only, X = g2^x is missing.");
+        } else if (encodedKey.length != pkAggLength + xLength) {
+            throw new InvalidKeySpecException("Encoded key has an illegal length.");
+        }
+        Optional<Element> pkAgg = this.decodeSubgroupElement(pairing.getG1(), encodedKey, 0);
+        Optional<Element> x = this.decodeSubgroupElement(pairing.getG2(), encodedKey, pkAggLength);
+        if (pkAgg.isEmpty() || x.isEmpty()) {
+            throw new InvalidKeySpecException("Encoded key contains the identity or an element outside the subgroup.");
         }
+        return new Element[]{pkAgg.get(), x.get()};
     }
 }
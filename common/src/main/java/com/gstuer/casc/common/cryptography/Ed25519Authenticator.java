@@ -44,33 +44,33 @@ import java.security.spec.X509EncodedKeySpec;
  */
 public class Ed25519Authenticator extends Authenticator<PrivateKey, PublicKey> {
     public static final String ALGORITHM_IDENTIFIER = "Ed25519";
+    private final ThreadLocalEngine<Signature, PrivateKey> signingEngine =
+            new ThreadLocalEngine<>(() -> Signature.getInstance(ALGORITHM_IDENTIFIER), Signature::initSign);
+    private final ThreadLocalEngine<Signature, PublicKey> verificationEngine =
+            new ThreadLocalEngine<>(() -> Signature.getInstance(ALGORITHM_IDENTIFIER), Signature::initVerify);
 
     @Override
     public DigitalSignature sign(byte[] data) throws InvalidKeyException, SignatureException {
-        Signature signer;
+        Signature signer = this.signingEngine.get(this.getSigningKey());
         try {
-            signer = Signature.getInstance(ALGORITHM_IDENTIFIER);
-        } catch (NoSuchAlgorithmException exception) {
-            // Since the algorithm is static, this exception might only be thrown in case of an incompatible platform
-            throw new UnsupportedOperationException(exception);
+            signer.update(data);
+            return new DigitalSignature(signer.sign(), ALGORITHM_IDENTIFIER);
+        } catch (SignatureException | RuntimeException exception) {
+            this.signingEngine.discard();
+            throw exception;
         }
-        signer.initSign(this.getSigningKey());
-        signer.update(data);
-        return new DigitalSignature(signer.sign(), ALGORITHM_IDENTIFIER);
     }
 
     @Override
     public boolean verify(byte[] data, DigitalSignature signature) throws InvalidKeyException, SignatureException {
-        Signature signer;
+        Signature verifier = this.verificationEngine.get(this.getVerificationKey());
         try {
-            signer = Signature.getInstance(ALGORITHM_IDENTIFIER);
-        } catch (NoSuchAlgorithmException exception) {
-            // Since the algorithm is static, this exception might only be thrown in case of an incompatible platform
-            throw new UnsupportedOperationException(exception);
+            verifier.update(data);
+            return verifier.verify(signature.getData());
+        } catch (SignatureException | RuntimeException exception) {
+            this.verificationEngine.discard();
+            throw exception;
         }
-        signer.initVerify(this.getVerificationKey());
-        signer.update(data);
-        return signer.verify(signature.getData());
     }
 
     @Override
@@ -9,6 +9,10 @@ import java.security.SecureRandom;
 
 public class HmacAuthenticator extends Authenticator<SecretKey, SecretKey> {
     public static final String ALGORITHM_IDENTIFIER = "HmacSHA512/256";
+    private final ThreadLocalEngine<Mac, SecretKey> signingEngine =
+            new ThreadLocalEngine<>(() -> Mac.getInstance(ALGORITHM_IDENTIFIER), Mac::init);
+    private final ThreadLocalEngine<Mac, SecretKey> verificationEngine =
+            new ThreadLocalEngine<>(() -> Mac.getInstance(ALGORITHM_IDENTIFIER), Mac::init);
 
     @Override
     public void initializeKeyPair() {
@@ -28,27 +32,13 @@ public class HmacAuthenticator extends Authenticator<SecretKey, SecretKey> {
 
     @Override
     public DigitalSignature sign(byte[] data) throws InvalidKeyException {
-        Mac hmac;
-        try {
-            hmac = Mac.getInstance(this.getAlgorithmIdentifier());
-        } catch (NoSuchAlgorithmException exception) {
-            // Since the algorithm is static, this exception might only be thrown in case of an incompatible platform
-            throw new UnsupportedOperationException(exception);
-        }
-        hmac.init(this.getSigningKey());
+        Mac hmac = this.signingEngine.get(this.getSigningKey());
         return new DigitalSignature(hmac.doFinal(data), this.getAlgorithmIdentifier());
     }
 
     @Override
     public boolean verify(byte[] data, DigitalSignature signature) throws InvalidKeyException {
-        Mac hmac;
-        try {
-            hmac = Mac.getInstance(this.getAlgorithmIdentifier());
-        } catch (NoSuchAlgorithmException exception) {
-            // Since the algorithm is static, this exception might only be thrown in case of an incompatible platform
-            throw new UnsupportedOperationException(exception);
-        }
-        hmac.init(this.getVerificationKey());
+        Mac hmac = this.verificationEngine.get(this.getVerificationKey());
         DigitalSignature verificationSignature = new DigitalSignature(hmac.doFinal(data), this.getAlgorithmIdentifier());
         return verificationSignature.equals(signature);
     }
@@ -0,0 +1,81 @@
+package com.gstuer.casc.common.cryptography;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Represents the inclusion proof of a data item in a {@link MerkleTree Merkle tree}, i.e. the position of its leaf and
+ * the sibling hashes on the path from its leaf to the root.
+ */
+public final class MerkleProof implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 8046913578112940374L;
+
+    private final int leafIndex;
+    private final int leafCount;
+    private final byte[][] siblings;
+
+    public MerkleProof(int leafIndex, int leafCount, byte[][] siblings) {
+        this.leafIndex = leafIndex;
+        this.leafCount = leafCount;
+        this.siblings = Objects.requireNonNull(siblings);
+    }
+
+    /**
+     * Computes the root of the tree from a data item and this proof. The data item is included in a tree iff the
+     * computed root equals the root of the tree.
+     *
+     * @param data the data item
+     * @return the computed root or an empty optional if this proof is malformed, e.g. received from a peer.
+     */
+    public Optional<byte[]> computeRoot(byte[] data) {
+        if (this.siblings == null || this.leafIndex < 0 || this.leafIndex >= this.leafCount) {
+            return Optional.empty();
+        }
+        byte[] hash = MerkleTree.hashLeaf(data);
+        int index = this.leafIndex;
+        int levelSize = this.leafCount;
+        int siblingIndex = 0;
+        while (levelSize > 1) {
+            if ((index & 1) == 1 || index + 1 < levelSize) {
+                if (siblingIndex >= this.siblings.length || this.siblings[siblingIndex] == null) {
+                    return Optional.empty();
+                }
+                byte[] sibling = this.siblings[siblingIndex++];
+                hash = (index & 1) == 1 ? MerkleTree.hashNode(sibling, hash) : MerkleTree.hashNode(hash, sibling);
+            }
+            index /= 2;
+            levelSize = (levelSize + 1) / 2;
+        }
+        return siblingIndex == this.siblings.length ? Optional.of(hash) : Optional.empty();
+    }
+
+    public int getLeafIndex() {
+        return this.leafIndex;
+    }
+
+    public int getLeafCount() {
+        return this.leafCount;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+        MerkleProof that = (MerkleProof) object;
+        return this.leafIndex == that.leafIndex && this.leafCount == that.leafCount
+                && Arrays.deepEquals(this.siblings, that.siblings);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.leafIndex, this.leafCount, Arrays.deepHashCode(this.siblings));
+    }
+}
@@ -0,0 +1,122 @@
+package com.gstuer.casc.common.cryptography;
+
+import com.google.common.primitives.Bytes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a binary hash tree over a batch of data items, whose root is signed once instead of signing each item.
+ * Each item is then authenticated by the signature of the root and its {@link MerkleProof inclusion proof}, i.e. the
+ * sibling hashes on the path from its leaf to the root.
+ * <p>
+ * Leaves and inner nodes are hashed with distinct prefixes (like RFC 6962), so that an inner node cannot be passed off
+ * as a leaf. A node without a sibling on its level is carried to the next level unchanged.
+ */
+public final class MerkleTree {
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final byte LEAF_PREFIX = 0;
+    private static final byte NODE_PREFIX = 1;
+    private static final byte[] ROOT_SIGNING_PREFIX = "CASC-MERKLE-ROOT".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException exception) {
+            // Since the algorithm is static, this exception might only be thrown in case of an incompatible platform
+            throw new UnsupportedOperationException(exception);
+        }
+    });
+
+    private final List<byte[][]> levels;
+
+    private MerkleTree(List<byte[][]> levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Builds the tree over a batch of data items.
+     *
+     * @param data the data items in order of their leaves
+     * @return the tree over the data items.
+     * @throws IllegalArgumentException if the batch is empty
+     */
+    public static MerkleTree of(List<byte[]> data) {
+        if (data.isEmpty()) {
+            throw new IllegalArgumentException("Merkle tree requires at least one data item.");
+        }
+        List<byte[][]> levels = new ArrayList<>();
+        byte[][] level = new byte[data.size()][];
+        for (int index = 0; index < level.length; index++) {
+            level[index] = hashLeaf(data.get(index));
+        }
+        levels.add(level);
+        while (level.length > 1) {
+            byte[][] parentLevel = new byte[(level.length + 1) / 2][];
+            for (int index = 0; index < parentLevel.length; index++) {
+                int leftIndex = 2 * index;
+                parentLevel[index] = leftIndex + 1 < level.length
+                        ? hashNode(level[leftIndex], level[leftIndex + 1]) : level[leftIndex];
+            }
+            levels.add(parentLevel);
+            level = parentLevel;
+        }
+        return new MerkleTree(levels);
+    }
+
+    /**
+     * Converts a root into the data to sign. The prefix separates signed roots from other signed data.
+     *
+     * @param root the root of a tree
+     * @return the signing data of the root.
+     */
+    public static byte[] toSigningData(byte[] root) {
+        return Bytes.concat(ROOT_SIGNING_PREFIX, root);
+    }
+
+    public byte[] getRoot() {
+        return this.levels.get(this.levels.size() - 1)[0].clone();
+    }
+
+    public int getLeafCount() {
+        return this.levels.get(0).length;
+    }
+
+    /**
+     * Gets the inclusion proof of a data item.
+     *
+     * @param leafIndex the index of the data item
+     * @return the inclusion proof of the data item.
+     * @throws IndexOutOfBoundsException if the index is not within the batch
+     */
+    public MerkleProof getProof(int leafIndex) {
+        if (leafIndex < 0 || leafIndex >= this.getLeafCount()) {
+            throw new IndexOutOfBoundsException(leafIndex);
+        }
+        List<byte[]> siblings = new ArrayList<>();
+        int index = leafIndex;
+        for (byte[][] level : this.levels.subList(0, this.levels.size() - 1)) {
+            int siblingIndex = index ^ 1;
+            if (siblingIndex < level.length) {
+                siblings.add(level[siblingIndex]);
+            }
+            index /= 2;
+        }
+        return new MerkleProof(leafIndex, this.getLeafCount(), siblings.toArray(byte[][]::new));
+    }
+
+    static byte[] hashLeaf(byte[] data) {
+        MessageDigest digest = DIGEST.get();
+        digest.update(LEAF_PREFIX);
+        return digest.digest(data);
+    }
+
+    static byte[] hashNode(byte[] left, byte[] right) {
+        MessageDigest digest = DIGEST.get();
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        return digest.digest(right);
+    }
+}
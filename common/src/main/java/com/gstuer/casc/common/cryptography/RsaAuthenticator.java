@@ -21,6 +21,10 @@ import java.util.Objects;
 public class RsaAuthenticator extends Authenticator<PrivateKey, PublicKey> {
     public final static String ALGORITHM_IDENTIFIER_SUFFIX = "withRSA";
     public final Algorithm algorithm;
+    private final ThreadLocalEngine<Signature, PrivateKey> signingEngine =
+            new ThreadLocalEngine<>(() -> Signature.getInstance(this.getAlgorithmIdentifier()), Signature::initSign);
+    private final ThreadLocalEngine<Signature, PublicKey> verificationEngine =
+            new ThreadLocalEngine<>(() -> Signature.getInstance(this.getAlgorithmIdentifier()), Signature::initVerify);
 
     public RsaAuthenticator(Algorithm algorithm) {
         this.algorithm = Objects.requireNonNull(algorithm);
@@ -28,30 +32,26 @@ public class RsaAuthenticator extends Authenticator<PrivateKey, PublicKey> {
 
     @Override
     public DigitalSignature sign(byte[] data) throws InvalidKeyException, SignatureException {
-        Signature signer;
+        Signature signer = this.signingEngine.get(this.getSigningKey());
         try {
-            signer = Signature.getInstance(this.getAlgorithmIdentifier());
-        } catch (NoSuchAlgorithmException exception) {
-            // Since the algorithm is static, this exception might only be thrown in case of an incompatible platform
-            throw new UnsupportedOperationException(exception);
+            signer.update(data);
+            return new DigitalSignature(signer.sign(), this.getAlgorithmIdentifier());
+        } catch (SignatureException | RuntimeException exception) {
+            this.signingEngine.discard();
+            throw exception;
         }
-        signer.initSign(this.getSigningKey());
-        signer.update(data);
-        return new DigitalSignature(signer.sign(), this.getAlgorithmIdentifier());
     }
 
     @Override
     public boolean verify(byte[] data, DigitalSignature signature) throws InvalidKeyException, SignatureException {
-        Signature signer;
+        Signature verifier = this.verificationEngine.get(this.getVerificationKey());
         try {
-            signer = Signature.getInstance(this.getAlgorithmIdentifier());
-        } catch (NoSuchAlgorithmException exception) {
-            // Since the algorithm is static, this exception might only be thrown in case of an incompatible platform
-            throw new UnsupportedOperationException(exception);
+            verifier.update(data);
+            return verifier.verify(signature.getData());
+        } catch (SignatureException | RuntimeException exception) {
+            this.verificationEngine.discard();
+            throw exception;
         }
-        signer.initVerify(this.getVerificationKey());
-        signer.update(data);
-        return signer.verify(signature.getData());
     }
 
     @Override
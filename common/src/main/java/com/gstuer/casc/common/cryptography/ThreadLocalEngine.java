@@ -0,0 +1,80 @@
+package com.gstuer.casc.common.cryptography;
+
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * Represents a per-thread cryptographic engine, e.g. a {@link java.security.Signature signature} or
+ * {@link javax.crypto.Mac MAC}, that is bound to a key. Looking up an engine at its provider and initializing it with
+ * a key is expensive compared to processing a short message, thus each thread keeps its engine and rebinds it only
+ * once a different key is requested, e.g. after the key of the owning authenticator was set.
+ * <p>
+ * Engines reset to their initialized state after each completed operation, so that a bound engine is reused as is.
+ * An engine whose operation failed might be left in an intermediate state and has to be {@link #discard() discarded}.
+ *
+ * @param <E> the type of the engine
+ * @param <K> the type of the key
+ */
+final class ThreadLocalEngine<E, K extends Key> {
+    private final ThreadLocal<Binding<E, K>> bindings;
+    private final Factory<E> factory;
+    private final Initializer<E, K> initializer;
+
+    ThreadLocalEngine(Factory<E> factory, Initializer<E, K> initializer) {
+        this.bindings = new ThreadLocal<>();
+        this.factory = Objects.requireNonNull(factory);
+        this.initializer = Objects.requireNonNull(initializer);
+    }
+
+    /**
+     * Gets the engine of the current thread bound to a key.
+     *
+     * @param key the key to bind the engine to
+     * @return the engine bound to the key.
+     * @throws InvalidKeyException if the key is invalid for the engine
+     */
+    E get(K key) throws InvalidKeyException {
+        Binding<E, K> binding = this.bindings.get();
+        // Keys are compared by identity, since only setting a key replaces the key instance
+        if (binding != null && binding.key() == key) {
+            return binding.engine();
+        }
+        E engine;
+        if (binding != null) {
+            engine = binding.engine();
+        } else {
+            try {
+                engine = this.factory.create();
+            } catch (NoSuchAlgorithmException exception) {
+                // Since the algorithm is static, this exception might only be thrown in case of an incompatible platform
+                throw new UnsupportedOperationException(exception);
+            }
+        }
+        this.bindings.remove();
+        this.initializer.initialize(engine, key);
+        this.bindings.set(new Binding<>(engine, key));
+        return engine;
+    }
+
+    /**
+     * Discards the engine of the current thread, e.g. after an operation of the engine failed.
+     */
+    void discard() {
+        this.bindings.remove();
+    }
+
+    @FunctionalInterface
+    interface Factory<E> {
+        E create() throws NoSuchAlgorithmException;
+    }
+
+    @FunctionalInterface
+    interface Initializer<E, K extends Key> {
+        void initialize(E engine, K key) throws InvalidKeyException;
+    }
+
+    private record Binding<E, K>(E engine, K key) {
+    }
+}
@@ -4,10 +4,44 @@ import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
+import java.util.List;
 
 public interface Verifier<T extends Key> {
     public boolean verify(byte[] data, DigitalSignature signature) throws InvalidKeyException, SignatureException;
 
+    /**
+     * Verifies a batch of signatures by the verification key of this verifier. Schemes that allow checking several
+     * signatures at once override this method, all others verify each signature on its own.
+     *
+     * @param data       the signed data
+     * @param signatures the signatures of the data, one per data item
+     * @return for each data item, whether its signature is valid.
+     * @throws InvalidKeyException      if the verification key is invalid
+     * @throws SignatureException       if a signature cannot be processed
+     * @throws IllegalArgumentException if the numbers of data items and signatures differ
+     */
+    public default boolean[] verifyAll(List<byte[]> data, List<DigitalSignature> signatures)
+            throws InvalidKeyException, SignatureException {
+        if (data.size() != signatures.size()) {
+            throw new IllegalArgumentException("Numbers of data items and signatures differ.");
+        }
+        boolean[] results = new boolean[data.size()];
+        for (int index = 0; index < results.length; index++) {
+            results[index] = this.verify(data.get(index), signatures.get(index));
+        }
+        return results;
+    }
+
+    /**
+     * Checks whether this verifier checks a batch of signatures faster than each signature on its own, i.e. whether
+     * it overrides {@link #verifyAll(List, List)} with a batch verification.
+     *
+     * @return {@code true} if this verifier has a batch verification, {@code false} otherwise.
+     */
+    public default boolean hasBatchVerification() {
+        return false;
+    }
+
     public T getVerificationKey();
 
     public void setVerificationKey(T verificationKey);
@@ -1,6 +1,9 @@
 package com.gstuer.casc.common.egress;
 
+import com.gstuer.casc.common.frame.Frame;
 import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.metrics.Histogram;
+import com.gstuer.casc.common.metrics.MetricRegistry;
 import com.gstuer.casc.common.serialization.JsonProcessor;
 import com.gstuer.casc.common.serialization.SerializationException;
 
@@ -15,12 +18,18 @@ import java.util.concurrent.BlockingQueue;
 public class AccessControlMessageEgressHandler extends EgressHandler<AccessControlMessage<?>> {
     private final int sourcePort;
     private final int destinationPort;
+    private final Histogram sendHistogram;
+    private final Histogram latencyHistogram;
     private DatagramSocket socket;
 
     public AccessControlMessageEgressHandler(int sourcePort, int destinationPort, BlockingQueue<AccessControlMessage<?>> egressQueue) {
         super(egressQueue);
         this.sourcePort = sourcePort;
         this.destinationPort = destinationPort;
+
+        MetricRegistry metricRegistry = MetricRegistry.getDefault();
+        this.sendHistogram = metricRegistry.histogram("egress.message.send-ns");
+        this.latencyHistogram = metricRegistry.histogram("egress.message.ingress-to-egress-ns");
     }
 
     @Override
@@ -57,11 +66,17 @@ public class AccessControlMessageEgressHandler extends EgressHandler<AccessContr
             throw new IllegalStateException("Handler already closed.");
         }
 
+        long startTime = System.nanoTime();
         try {
             byte[] serialMessage = new JsonProcessor().serialize(message);
             SocketAddress receiverSocketAddress = new InetSocketAddress(message.getDestination(), this.destinationPort);
             DatagramPacket packet = new DatagramPacket(serialMessage, serialMessage.length, receiverSocketAddress);
             this.socket.send(packet);
+            this.sendHistogram.record(System.nanoTime() - startTime);
+            if (message.hasIngressTimestamp()) {
+                // Latency from capture or receipt of the payload until the message left the host
+                this.latencyHistogram.record(Frame.currentEpochNanos() - message.getIngressTimestamp());
+            }
         } catch (SerializationException exception) {
             System.out.println("[Egress ACM] Serialization failed:" + exception.getMessage());
             return;
@@ -1,7 +1,9 @@
 package com.gstuer.casc.common.egress;
 
+import java.util.Collection;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 public abstract class EgressHandler<T> {
     private final BlockingQueue<T> egressQueue;
@@ -19,4 +21,33 @@ public abstract class EgressHandler<T> {
     protected T takeNextQueueItem() throws InterruptedException {
         return this.egressQueue.take();
     }
+
+    /**
+     * Takes the next queue item, waiting if necessary, and drains further queue items into the given batch until the
+     * batch holds the maximum number of items or the time budget, starting with the first item, is exhausted.
+     *
+     * @param batch       the collection to add the queue items to
+     * @param maxItems    the maximum number of items to add
+     * @param budgetNanos the time to wait for further items after the first one
+     * @return the number of items added to the batch.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    protected int drainQueueItems(Collection<? super T> batch, int maxItems, long budgetNanos) throws InterruptedException {
+        batch.add(this.egressQueue.take());
+        long deadline = System.nanoTime() + budgetNanos;
+        int count = 1 + this.egressQueue.drainTo(batch, maxItems - 1);
+        while (count < maxItems) {
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                break;
+            }
+            T item = this.egressQueue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (item == null) {
+                break;
+            }
+            batch.add(item);
+            count += 1 + this.egressQueue.drainTo(batch, maxItems - count - 1);
+        }
+        return count;
+    }
 }
@@ -1,62 +1,116 @@
 package com.gstuer.casc.common.egress;
 
-import org.pcap4j.core.NotOpenException;
-import org.pcap4j.core.PcapHandle;
+import com.gstuer.casc.common.capture.CaptureBackend;
+import com.gstuer.casc.common.capture.CaptureException;
+import com.gstuer.casc.common.capture.PcapCaptureBackend;
+import com.gstuer.casc.common.metrics.Histogram;
+import com.gstuer.casc.common.metrics.MetricRegistry;
 import org.pcap4j.core.PcapNativeException;
 import org.pcap4j.core.PcapNetworkInterface;
 import org.pcap4j.packet.Packet;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Represents an {@link EgressHandler egress handler} that transmits packets via a {@link CaptureBackend capture
+ * backend}. Queued packets are drained in batches of up to {@code batchSize} packets, waiting up to the batch budget
+ * for further packets once the first packet of a batch was taken, and each batch is handed to the backend at once. A
+ * batch size of one transmits each packet as soon as it is queued.
+ */
 public class PacketEgressHandler extends EgressHandler<Packet> {
-    private final PcapNetworkInterface egressInterface;
-    private final PcapHandle egressHandle;
+    public static final int DEFAULT_BATCH_SIZE = 1;
+
+    private final CaptureBackend captureBackend;
+    private final int batchSize;
+    private final long batchBudgetNanos;
+    private final List<Packet> batch;
+    private final Histogram batchSizes;
+    private final Histogram sendLatencies;
 
     public PacketEgressHandler(PcapNetworkInterface egressInterface, BlockingQueue<Packet> egressQueue) throws PcapNativeException {
+        this(egressInterface, egressQueue, DEFAULT_BATCH_SIZE, 0);
+    }
+
+    public PacketEgressHandler(PcapNetworkInterface egressInterface, BlockingQueue<Packet> egressQueue,
+                               int batchSize, long batchBudgetMicros) throws PcapNativeException {
+        this(new PcapCaptureBackend(egressInterface, CaptureBackend.Direction.EGRESS), egressQueue, batchSize, batchBudgetMicros);
+    }
+
+    public PacketEgressHandler(CaptureBackend captureBackend, BlockingQueue<Packet> egressQueue,
+                               int batchSize, long batchBudgetMicros) {
         super(egressQueue);
-        this.egressInterface = Objects.requireNonNull(egressInterface);
-        this.egressHandle = buildHandle(egressInterface);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        } else if (batchBudgetMicros < 0) {
+            throw new IllegalArgumentException("Batch budget must not be negative.");
+        }
+        this.captureBackend = Objects.requireNonNull(captureBackend);
+        this.batchSize = batchSize;
+        this.batchBudgetNanos = TimeUnit.MICROSECONDS.toNanos(batchBudgetMicros);
+        this.batch = new ArrayList<>(batchSize);
+
+        String metricPrefix = "egress." + captureBackend.getInterfaceName();
+        this.batchSizes = MetricRegistry.getDefault().histogram(metricPrefix + ".batch-size");
+        this.sendLatencies = MetricRegistry.getDefault().histogram(metricPrefix + ".batch-send-ns");
     }
 
     @Override
     public void open() {
-        if (!this.egressHandle.isOpen()) {
+        if (!this.captureBackend.isOpen()) {
             throw new IllegalStateException("Closed handler cannot be reopened.");
         }
-        while (this.egressHandle.isOpen()) {
-            Packet packet;
+        while (this.captureBackend.isOpen()) {
             try {
-                packet = this.takeNextQueueItem();
+                this.drainQueueItems(this.batch, this.batchSize, this.batchBudgetNanos);
             } catch (InterruptedException exception) {
                 // Handler interrupted during waiting for new packet
                 break;
             }
-            this.handle(packet);
+            this.handleBatch(this.batch);
+            this.batch.clear();
         }
-        System.out.printf("[Egress %s] Handler closed.\n", this.egressInterface.getName());
+        System.out.printf("[Egress %s] Handler closed.\n", this.captureBackend.getInterfaceName());
     }
 
     @Override
     public void handle(Packet packet) {
         try {
-            this.egressHandle.sendPacket(packet);
-        } catch (NotOpenException | PcapNativeException exception) {
+            byte[] rawPacket = packet.getRawData();
+            this.captureBackend.transmit(rawPacket, 0, rawPacket.length);
+        } catch (CaptureException exception) {
             // Throw no exception to continue sending after exception
             System.err.println(exception.getMessage());
         }
     }
 
-    @Override
-    public void close() {
-        this.egressHandle.close();
+    /**
+     * Transmits a batch of packets via a single {@link CaptureBackend#sendBatch(List) batch transmission} of the
+     * capture backend and records the batch size and transmission time.
+     *
+     * @param packets the packets to transmit in order
+     */
+    public void handleBatch(List<Packet> packets) {
+        long start = System.nanoTime();
+        List<byte[]> frames = new ArrayList<>(packets.size());
+        for (Packet packet : packets) {
+            frames.add(packet.getRawData());
+        }
+        try {
+            this.captureBackend.sendBatch(frames);
+        } catch (CaptureException exception) {
+            // Throw no exception to continue sending after exception
+            System.err.println(exception.getMessage());
+        }
+        this.sendLatencies.record(System.nanoTime() - start);
+        this.batchSizes.record(packets.size());
     }
 
-    protected PcapHandle buildHandle(PcapNetworkInterface networkInterface) throws PcapNativeException {
-        return new PcapHandle.Builder(networkInterface.getName())
-                .promiscuousMode(PcapNetworkInterface.PromiscuousMode.PROMISCUOUS)
-                .immediateMode(true)
-                .direction(PcapHandle.PcapDirection.OUT)
-                .build();
+    @Override
+    public void close() {
+        this.captureBackend.close();
     }
 }
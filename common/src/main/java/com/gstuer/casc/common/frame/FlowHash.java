@@ -0,0 +1,70 @@
+package com.gstuer.casc.common.frame;
+
+/**
+ * A utility class for hashing raw Ethernet II frames by the flow they belong to. Frames of the same flow, i.e. with
+ * equal addresses, protocols and ports, always have the same hash.
+ * <p>
+ * IPv4 frames are hashed by their addresses and protocol, unfragmented ones additionally by their TCP or UDP ports.
+ * Fragments are hashed without ports, since only the first fragment carries them. Other frames are hashed by their
+ * MAC addresses and EtherType.
+ */
+public final class FlowHash {
+    private FlowHash() {
+    }
+
+    public static int of(Frame frame) {
+        return of(frame.getBuffer(), frame.getOffset(), frame.getLength());
+    }
+
+    public static int of(byte[] frame) {
+        return of(frame, 0, frame.length);
+    }
+
+    /**
+     * Calculates the flow hash of a frame.
+     *
+     * @param buffer the buffer containing the frame
+     * @param offset the offset of the frame within the buffer
+     * @param length the length of the frame
+     * @return the flow hash of the frame, {@code 0} if the frame has no Ethernet header.
+     */
+    public static int of(byte[] buffer, int offset, int length) {
+        if (!FrameFields.hasEthernetHeader(length)) {
+            return 0;
+        }
+
+        int hash;
+        int ipOffset = FrameFields.locateIpV4Header(buffer, offset, length);
+        if (ipOffset < 0) {
+            hash = hashBytes(buffer, offset + FrameFields.ETHERNET_DESTINATION_OFFSET, 2 * FrameFields.MAC_ADDRESS_LENGTH);
+            hash = 31 * hash + FrameFields.getEtherType(buffer, offset);
+        } else {
+            hash = hashBytes(buffer, ipOffset + FrameFields.IPV4_SOURCE_OFFSET, 2 * FrameFields.IPV4_ADDRESS_LENGTH);
+            hash = 31 * hash + FrameFields.getIpV4Protocol(buffer, ipOffset);
+            int transportOffset = FrameFields.locateTransportHeader(buffer, offset, length);
+            if (transportOffset >= 0) {
+                hash = 31 * hash + FrameFields.getUnsignedShort(buffer, transportOffset + FrameFields.TRANSPORT_SOURCE_PORT_OFFSET);
+                hash = 31 * hash + FrameFields.getUnsignedShort(buffer, transportOffset + FrameFields.TRANSPORT_DESTINATION_PORT_OFFSET);
+            }
+        }
+        return mix(hash);
+    }
+
+    private static int hashBytes(byte[] buffer, int index, int length) {
+        int hash = 1;
+        for (int i = index; i < index + length; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        return hash;
+    }
+
+    private static int mix(int hash) {
+        // Finalization step of MurmurHash3 to spread similar flows (e.g. consecutive ports) across all bits
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
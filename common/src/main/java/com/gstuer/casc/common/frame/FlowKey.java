@@ -0,0 +1,81 @@
+package com.gstuer.casc.common.frame;
+
+import java.util.Arrays;
+
+/**
+ * Represents the key of the flow a raw Ethernet II frame belongs to. The key consists of exactly the header fields an
+ * {@link com.gstuer.casc.common.pattern.AccessRequestPattern access request pattern} is derived from, i.e. the MAC
+ * addresses and EtherType, the IPv4 addresses and protocol and, for unfragmented TCP or UDP packets, the ports.
+ * Frames with equal flow keys therefore have equal patterns, which allows caching per-pattern results by flow key
+ * without deriving the pattern of every frame.
+ */
+public final class FlowKey {
+    private static final int ETHERNET_FIELDS_LENGTH = FrameFields.ETHERNET_HEADER_LENGTH;
+    private static final int IPV4_FIELDS_LENGTH = 2 * FrameFields.IPV4_ADDRESS_LENGTH + 1;
+    private static final int TRANSPORT_FIELDS_LENGTH = 4;
+
+    private final byte[] fields;
+    private final int hashCode;
+
+    private FlowKey(byte[] fields) {
+        this.fields = fields;
+        this.hashCode = Arrays.hashCode(fields);
+    }
+
+    public static FlowKey of(Frame frame) {
+        return of(frame.getBuffer(), frame.getOffset(), frame.getLength());
+    }
+
+    public static FlowKey of(byte[] frame) {
+        return of(frame, 0, frame.length);
+    }
+
+    /**
+     * Extracts the flow key of a frame.
+     *
+     * @param buffer the buffer containing the frame
+     * @param offset the offset of the frame within the buffer
+     * @param length the length of the frame
+     * @return the flow key of the frame.
+     * @throws IllegalArgumentException if the frame has no Ethernet header
+     */
+    public static FlowKey of(byte[] buffer, int offset, int length) {
+        if (!FrameFields.hasEthernetHeader(length)) {
+            throw new IllegalArgumentException("Cannot derive flow key from frame without Ethernet header.");
+        }
+        int ipOffset = FrameFields.locateIpV4Header(buffer, offset, length);
+        if (ipOffset < 0) {
+            return new FlowKey(Arrays.copyOfRange(buffer, offset, offset + ETHERNET_FIELDS_LENGTH));
+        }
+        int transportOffset = FrameFields.locateTransportHeader(buffer, offset, length);
+        byte[] fields = new byte[ETHERNET_FIELDS_LENGTH + IPV4_FIELDS_LENGTH + (transportOffset < 0 ? 0 : TRANSPORT_FIELDS_LENGTH)];
+
+        // Ethernet addresses and type, IPv4 addresses and protocol, ports if present
+        System.arraycopy(buffer, offset, fields, 0, ETHERNET_FIELDS_LENGTH);
+        System.arraycopy(buffer, ipOffset + FrameFields.IPV4_SOURCE_OFFSET, fields, ETHERNET_FIELDS_LENGTH,
+                2 * FrameFields.IPV4_ADDRESS_LENGTH);
+        fields[ETHERNET_FIELDS_LENGTH + IPV4_FIELDS_LENGTH - 1] = buffer[ipOffset + FrameFields.IPV4_PROTOCOL_OFFSET];
+        if (transportOffset >= 0) {
+            System.arraycopy(buffer, transportOffset + FrameFields.TRANSPORT_SOURCE_PORT_OFFSET, fields,
+                    ETHERNET_FIELDS_LENGTH + IPV4_FIELDS_LENGTH, TRANSPORT_FIELDS_LENGTH);
+        }
+        return new FlowKey(fields);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+        FlowKey that = (FlowKey) object;
+        return this.hashCode == that.hashCode && Arrays.equals(this.fields, that.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+}
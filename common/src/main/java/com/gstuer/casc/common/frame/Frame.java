@@ -0,0 +1,175 @@
+package com.gstuer.casc.common.frame;
+
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.UnknownPacket;
+import org.pcap4j.packet.factory.PacketFactories;
+import org.pcap4j.packet.namednumber.DataLinkType;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a lightweight view on a captured link layer frame. A frame references a region of a byte buffer together
+ * with the capture timestamp of the frame. Parsing the frame into a {@link Packet packet} is deferred until
+ * {@link #getPacket()} is called for the first time.
+ * <p>
+ * Note: Frames handed to ingress consumers may be backed by reused buffers and are therefore only valid for the
+ * duration of the consumer call. Use {@link #copy()} to retain a frame beyond that.
+ */
+public class Frame {
+    private static final DataLinkType DEFAULT_DATA_LINK_TYPE = DataLinkType.EN10MB;
+
+    private byte[] buffer;
+    private int offset;
+    private int length;
+    private long timestamp;
+    private Packet packet;
+
+    /**
+     * Constructs a new empty {@link Frame frame} which has to be {@link #set(byte[], int, int, long) set} before use.
+     */
+    public Frame() {
+        this.buffer = new byte[0];
+    }
+
+    /**
+     * Constructs a new {@link Frame frame} referencing the given buffer region.
+     *
+     * @param buffer    the buffer containing the frame
+     * @param offset    the offset of the frame within the buffer
+     * @param length    the length of the frame in bytes
+     * @param timestamp the capture timestamp of the frame in nanoseconds since the epoch
+     */
+    public Frame(byte[] buffer, int offset, int length, long timestamp) {
+        this.set(buffer, offset, length, timestamp);
+    }
+
+    /**
+     * Points this frame to another buffer region and drops the previously parsed packet, if any.
+     *
+     * @param buffer    the buffer containing the frame
+     * @param offset    the offset of the frame within the buffer
+     * @param length    the length of the frame in bytes
+     * @param timestamp the capture timestamp of the frame in nanoseconds since the epoch
+     */
+    public void set(byte[] buffer, int offset, int length, long timestamp) {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.timestamp = timestamp;
+        this.packet = null;
+    }
+
+    /**
+     * Gets the buffer backing this frame. Only the region specified by {@link #getOffset()} and {@link #getLength()}
+     * belongs to this frame.
+     *
+     * @return the backing buffer.
+     */
+    public byte[] getBuffer() {
+        return this.buffer;
+    }
+
+    public int getOffset() {
+        return this.offset;
+    }
+
+    public int getLength() {
+        return this.length;
+    }
+
+    /**
+     * Gets the capture timestamp of this frame.
+     *
+     * @return the capture timestamp in nanoseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Wraps the region of this frame into a read-only {@link ByteBuffer byte buffer} without copying it.
+     *
+     * @return the byte buffer with position zero and a limit equal to the frame length.
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(this.buffer, this.offset, this.length).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Copies the bytes of this frame into a new array.
+     *
+     * @return the raw frame bytes.
+     */
+    public byte[] getRawData() {
+        return Arrays.copyOfRange(this.buffer, this.offset, this.offset + this.length);
+    }
+
+    /**
+     * Gets the {@link Packet packet} representation of this frame. The frame is parsed on the first call only.
+     *
+     * @return the parsed packet.
+     */
+    public Packet getPacket() {
+        if (this.packet == null) {
+            this.packet = PacketFactories.getFactory(Packet.class, DataLinkType.class)
+                    .newInstance(this.buffer, this.offset, this.length, DEFAULT_DATA_LINK_TYPE);
+        }
+        return this.packet;
+    }
+
+    /**
+     * Checks whether this frame has already been parsed into a {@link Packet packet}.
+     *
+     * @return {@code true} if {@link #getPacket()} does not have to parse the frame anymore, {@code false} otherwise.
+     */
+    public boolean isParsed() {
+        return this.packet != null;
+    }
+
+    /**
+     * Copies this frame into an {@link UnknownPacket unparsed packet}, e.g. to forward the frame without parsing it.
+     *
+     * @return the unparsed packet backed by its own buffer.
+     */
+    public Packet toUnparsedPacket() {
+        return UnknownPacket.newPacket(this.getRawData(), 0, this.length);
+    }
+
+    /**
+     * Creates a copy of this frame that is backed by its own buffer and can be retained safely.
+     *
+     * @return the copied frame.
+     */
+    public Frame copy() {
+        Frame frame = new Frame(this.getRawData(), 0, this.length, this.timestamp);
+        frame.packet = this.packet;
+        return frame;
+    }
+
+    /**
+     * Gets the current time in the representation of capture timestamps, e.g. to measure the latency since capture.
+     *
+     * @return the current time in nanoseconds since the epoch.
+     */
+    public static long currentEpochNanos() {
+        Instant now = Instant.now();
+        return TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+    }
+
+    /**
+     * Converts a pcap {@link Timestamp timestamp} into nanoseconds since the epoch.
+     *
+     * @param timestamp the timestamp to convert
+     * @return the timestamp in nanoseconds since the epoch.
+     */
+    public static long toEpochNanos(Timestamp timestamp) {
+        long seconds = Math.floorDiv(timestamp.getTime(), 1000);
+        return TimeUnit.SECONDS.toNanos(seconds) + timestamp.getNanos();
+    }
+}
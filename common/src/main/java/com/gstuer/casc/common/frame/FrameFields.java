@@ -0,0 +1,151 @@
+package com.gstuer.casc.common.frame;
+
+/**
+ * A utility class for reading header fields directly from fixed offsets of raw Ethernet II frames.
+ * The header checks mirror the ones pcap4j applies during parsing, i.e. a header that is located by this class is a
+ * header pcap4j would have parsed successfully.
+ */
+public final class FrameFields {
+    public static final int ETHERNET_HEADER_LENGTH = 14;
+    public static final int ETHERNET_DESTINATION_OFFSET = 0;
+    public static final int ETHERNET_SOURCE_OFFSET = 6;
+    public static final int ETHERNET_TYPE_OFFSET = 12;
+    public static final int MAC_ADDRESS_LENGTH = 6;
+
+    public static final int ETHER_TYPE_IPV4 = 0x0800;
+    public static final int ETHER_TYPE_VLAN = 0x8100;
+
+    public static final int IPV4_MIN_HEADER_LENGTH = 20;
+    public static final int IPV4_TOTAL_LENGTH_OFFSET = 2;
+    public static final int IPV4_FRAGMENT_OFFSET = 6;
+    public static final int IPV4_PROTOCOL_OFFSET = 9;
+    public static final int IPV4_SOURCE_OFFSET = 12;
+    public static final int IPV4_DESTINATION_OFFSET = 16;
+    public static final int IPV4_ADDRESS_LENGTH = 4;
+
+    public static final int IP_PROTOCOL_TCP = 6;
+    public static final int IP_PROTOCOL_UDP = 17;
+
+    public static final int UDP_HEADER_LENGTH = 8;
+    public static final int TCP_MIN_HEADER_LENGTH = 20;
+    public static final int TRANSPORT_SOURCE_PORT_OFFSET = 0;
+    public static final int TRANSPORT_DESTINATION_PORT_OFFSET = 2;
+
+    private FrameFields() {
+    }
+
+    /**
+     * Reads an unsigned big-endian 16-bit value.
+     *
+     * @param buffer the buffer to read from
+     * @param index  the absolute index of the first byte
+     * @return the unsigned value.
+     */
+    public static int getUnsignedShort(byte[] buffer, int index) {
+        return ((buffer[index] & 0xFF) << 8) | (buffer[index + 1] & 0xFF);
+    }
+
+    /**
+     * Checks whether a frame is long enough to contain an Ethernet II header.
+     *
+     * @param length the length of the frame
+     * @return {@code true} if an Ethernet header is present, {@code false} otherwise.
+     */
+    public static boolean hasEthernetHeader(int length) {
+        return length >= ETHERNET_HEADER_LENGTH;
+    }
+
+    /**
+     * Gets the EtherType of a frame. The frame must contain an Ethernet header.
+     *
+     * @param buffer the buffer containing the frame
+     * @param offset the offset of the frame within the buffer
+     * @return the unsigned EtherType value.
+     */
+    public static int getEtherType(byte[] buffer, int offset) {
+        return getUnsignedShort(buffer, offset + ETHERNET_TYPE_OFFSET);
+    }
+
+    /**
+     * Locates the IPv4 header of a frame.
+     *
+     * @param buffer the buffer containing the frame
+     * @param offset the offset of the frame within the buffer
+     * @param length the length of the frame
+     * @return the absolute index of the IPv4 header if the frame carries a valid one, {@code -1} otherwise.
+     */
+    public static int locateIpV4Header(byte[] buffer, int offset, int length) {
+        if (!hasEthernetHeader(length) || getEtherType(buffer, offset) != ETHER_TYPE_IPV4) {
+            return -1;
+        }
+        int ipOffset = offset + ETHERNET_HEADER_LENGTH;
+        int remaining = length - ETHERNET_HEADER_LENGTH;
+        if (remaining < IPV4_MIN_HEADER_LENGTH) {
+            return -1;
+        }
+        int headerLength = getIpV4HeaderLength(buffer, ipOffset);
+        if (headerLength < IPV4_MIN_HEADER_LENGTH || headerLength > remaining) {
+            return -1;
+        }
+        return ipOffset;
+    }
+
+    /**
+     * Gets the header length of an IPv4 header.
+     *
+     * @param buffer   the buffer containing the header
+     * @param ipOffset the absolute index of the IPv4 header
+     * @return the header length in bytes.
+     */
+    public static int getIpV4HeaderLength(byte[] buffer, int ipOffset) {
+        return (buffer[ipOffset] & 0x0F) * 4;
+    }
+
+    /**
+     * Gets the protocol number of an IPv4 header.
+     *
+     * @param buffer   the buffer containing the header
+     * @param ipOffset the absolute index of the IPv4 header
+     * @return the unsigned protocol number.
+     */
+    public static int getIpV4Protocol(byte[] buffer, int ipOffset) {
+        return buffer[ipOffset + IPV4_PROTOCOL_OFFSET] & 0xFF;
+    }
+
+    /**
+     * Locates the TCP or UDP header of a frame carrying an unfragmented IPv4 packet.
+     *
+     * @param buffer the buffer containing the frame
+     * @param offset the offset of the frame within the buffer
+     * @param length the length of the frame
+     * @return the absolute index of the transport header if the frame carries a valid one, {@code -1} otherwise.
+     */
+    public static int locateTransportHeader(byte[] buffer, int offset, int length) {
+        int ipOffset = locateIpV4Header(buffer, offset, length);
+        if (ipOffset < 0) {
+            return -1;
+        }
+        // Fragments (more fragments flag or fragment offset set) are not parsed into transport packets
+        if ((getUnsignedShort(buffer, ipOffset + IPV4_FRAGMENT_OFFSET) & 0x3FFF) != 0) {
+            return -1;
+        }
+
+        // Determine payload length as given by the total length field, bounded by the captured bytes
+        int headerLength = getIpV4HeaderLength(buffer, ipOffset);
+        int remaining = offset + length - ipOffset - headerLength;
+        int totalLength = getUnsignedShort(buffer, ipOffset + IPV4_TOTAL_LENGTH_OFFSET);
+        int payloadLength = totalLength == 0 ? remaining : Math.min(totalLength - headerLength, remaining);
+
+        int transportOffset = ipOffset + headerLength;
+        int protocol = getIpV4Protocol(buffer, ipOffset);
+        if (protocol == IP_PROTOCOL_UDP && payloadLength >= UDP_HEADER_LENGTH) {
+            return transportOffset;
+        } else if (protocol == IP_PROTOCOL_TCP && payloadLength >= TCP_MIN_HEADER_LENGTH) {
+            int dataOffset = ((buffer[transportOffset + 12] & 0xF0) >> 4) * 4;
+            if (dataOffset >= TCP_MIN_HEADER_LENGTH && dataOffset <= payloadLength) {
+                return transportOffset;
+            }
+        }
+        return -1;
+    }
+}
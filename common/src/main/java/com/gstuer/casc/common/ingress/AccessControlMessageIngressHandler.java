@@ -1,42 +1,80 @@
 package com.gstuer.casc.common.ingress;
 
+import com.gstuer.casc.common.frame.Frame;
 import com.gstuer.casc.common.message.AccessControlMessage;
 import com.gstuer.casc.common.serialization.JsonProcessor;
 import com.gstuer.casc.common.serialization.SerializationException;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
+/**
+ * Represents an ingress handler receiving access control messages via UDP. Received datagrams are deserialized and
+ * handed to the consumer by a fixed pool of worker threads, so that per-thread state of the consumer, e.g. the
+ * signature engines of authenticators, is reused across messages instead of being rebuilt for every datagram.
+ */
 public class AccessControlMessageIngressHandler extends IngressHandler<AccessControlMessage<?>> {
+    private static final int DEFAULT_WORKER_COUNT = Runtime.getRuntime().availableProcessors();
+
     private final int port;
-    private DatagramSocket socket;
+    private final JsonProcessor jsonProcessor;
+    private final ExecutorService workers;
+    private volatile DatagramSocket socket;
 
     public AccessControlMessageIngressHandler(int port, Consumer<AccessControlMessage<?>> messageConsumer) {
+        this(port, messageConsumer, DEFAULT_WORKER_COUNT);
+    }
+
+    public AccessControlMessageIngressHandler(int port, Consumer<AccessControlMessage<?>> messageConsumer,
+                                              int workerCount) {
         super(messageConsumer);
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive.");
+        }
         this.port = port;
+        this.jsonProcessor = new JsonProcessor();
+        AtomicInteger workerIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "message-ingress-worker-" + workerIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
     public void open() {
-        DatagramSocket socket;
-        try {
-            socket = new DatagramSocket(new InetSocketAddress("0.0.0.0", port));
+        try (DatagramSocket socket = new DatagramSocket(new InetSocketAddress("0.0.0.0", port))) {
+            this.socket = socket;
+            byte[] buffer = new byte[socket.getReceiveBufferSize()];
             while (!socket.isClosed()) {
-                byte[] buffer = new byte[socket.getReceiveBufferSize()];
                 DatagramPacket datagram = new DatagramPacket(buffer, buffer.length);
                 socket.receive(datagram);
+                long receiveTimestamp = Frame.currentEpochNanos();
 
-                // Remove "empty" bytes from buffer to avoid deserialization issues
-                datagram.setData(new DataInputStream(new ByteArrayInputStream(datagram.getData(), datagram.getOffset(), datagram.getLength())).readAllBytes());
-                new Thread(() -> this.handle(datagram)).start();
+                // Copy datagram out of the reused buffer, which also removes "empty" bytes to avoid deserialization issues
+                datagram.setData(Arrays.copyOfRange(datagram.getData(), datagram.getOffset(),
+                        datagram.getOffset() + datagram.getLength()));
+                try {
+                    this.workers.execute(() -> this.handle(datagram, receiveTimestamp));
+                } catch (RejectedExecutionException exception) {
+                    // Handler was closed while receiving
+                    break;
+                }
             }
         } catch (IOException exception) {
+            if (this.workers.isShutdown()) {
+                // Receiving was interrupted by closing the socket
+                return;
+            }
             System.err.println("[Ingress ACM] Binding socket failed: " + exception.getMessage());
             throw new IllegalStateException(exception);
         } finally {
@@ -46,15 +84,23 @@ public class AccessControlMessageIngressHandler extends IngressHandler<AccessCon
 
     @Override
     public void close() {
-        this.socket.close();
+        this.workers.shutdown();
+        DatagramSocket socket = this.socket;
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    public boolean isOpen() {
+        DatagramSocket socket = this.socket;
+        return socket != null && !socket.isClosed();
     }
 
-    protected void handle(DatagramPacket datagram) {
+    protected void handle(DatagramPacket datagram, long receiveTimestamp) {
         // Deserialize access control message transmitted
-        JsonProcessor jsonProcessor = new JsonProcessor();
         AccessControlMessage<?> message;
         try {
-            message = jsonProcessor.deserialize(datagram.getData(), AccessControlMessage.class);
+            message = this.jsonProcessor.deserialize(datagram.getData(), AccessControlMessage.class);
         } catch (SerializationException exception) {
             System.err.println("[Ingress ACM] Deserialization failed: " + exception.getMessage());
             return;
@@ -63,6 +109,7 @@ public class AccessControlMessageIngressHandler extends IngressHandler<AccessCon
         // Get sender of datagram and set sender of access control message
         InetAddress sender = datagram.getAddress();
         message = message.fromSource(sender);
+        message.setIngressTimestamp(receiveTimestamp);
         super.handle(message);
     }
 }
@@ -0,0 +1,51 @@
+package com.gstuer.casc.common.ingress;
+
+import com.gstuer.casc.common.capture.CaptureBackend;
+import com.gstuer.casc.common.capture.CaptureException;
+import com.gstuer.casc.common.capture.PcapCaptureBackend;
+import com.gstuer.casc.common.frame.Frame;
+import org.pcap4j.core.PcapNativeException;
+import org.pcap4j.core.PcapNetworkInterface;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Represents an {@link IngressHandler ingress handler} that captures raw frames without parsing them.
+ * Captured frames are handed to the consumer as a reused {@link Frame frame} view, i.e. a consumer has to
+ * {@link Frame#copy() copy} a frame if it is retained after the consumer call returned.
+ */
+public class FrameIngressHandler extends IngressHandler<Frame> {
+    public static final int DEFAULT_BATCH_SIZE = PcapCaptureBackend.DEFAULT_BATCH_SIZE;
+
+    private final CaptureBackend captureBackend;
+
+    public FrameIngressHandler(PcapNetworkInterface ingressInterface, Consumer<Frame> frameConsumer) throws PcapNativeException {
+        this(ingressInterface, frameConsumer, DEFAULT_BATCH_SIZE);
+    }
+
+    public FrameIngressHandler(PcapNetworkInterface ingressInterface, Consumer<Frame> frameConsumer, int batchSize) throws PcapNativeException {
+        this(new PcapCaptureBackend(ingressInterface, CaptureBackend.Direction.INGRESS, batchSize), frameConsumer);
+    }
+
+    public FrameIngressHandler(CaptureBackend captureBackend, Consumer<Frame> frameConsumer) {
+        super(frameConsumer);
+        this.captureBackend = Objects.requireNonNull(captureBackend);
+    }
+
+    @Override
+    public void open() {
+        try {
+            // Handle frames until backend is closed or exception is thrown
+            this.captureBackend.capture(this::handle);
+        } catch (CaptureException exception) {
+            throw new IllegalStateException(exception);
+        }
+        System.out.printf("[Ingress %s] Handler closed.\n", this.captureBackend.getInterfaceName());
+    }
+
+    @Override
+    public void close() {
+        this.captureBackend.close();
+    }
+}
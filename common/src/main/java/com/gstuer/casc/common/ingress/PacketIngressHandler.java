@@ -1,8 +1,9 @@
 package com.gstuer.casc.common.ingress;
 
-import org.pcap4j.core.NotOpenException;
+import com.gstuer.casc.common.capture.CaptureBackend;
+import com.gstuer.casc.common.capture.CaptureException;
+import com.gstuer.casc.common.capture.PcapCaptureBackend;
 import org.pcap4j.core.PacketListener;
-import org.pcap4j.core.PcapHandle;
 import org.pcap4j.core.PcapNativeException;
 import org.pcap4j.core.PcapNetworkInterface;
 import org.pcap4j.packet.Packet;
@@ -11,47 +12,34 @@ import java.util.Objects;
 import java.util.function.Consumer;
 
 public class PacketIngressHandler extends IngressHandler<Packet> {
-    private final PcapNetworkInterface ingressInterface;
-    private final PcapHandle ingressHandle;
+    private final CaptureBackend captureBackend;
 
     public PacketIngressHandler(PcapNetworkInterface ingressInterface, PacketListener packetListener) throws PcapNativeException {
         this(ingressInterface, (Consumer<Packet>) packetListener::gotPacket);
     }
 
     public PacketIngressHandler(PcapNetworkInterface ingressInterface, Consumer<Packet> packetConsumer) throws PcapNativeException {
+        this(new PcapCaptureBackend(ingressInterface, CaptureBackend.Direction.INGRESS), packetConsumer);
+    }
+
+    public PacketIngressHandler(CaptureBackend captureBackend, Consumer<Packet> packetConsumer) {
         super(packetConsumer);
-        this.ingressInterface = Objects.requireNonNull(ingressInterface);
-        this.ingressHandle = buildHandle(ingressInterface);
+        this.captureBackend = Objects.requireNonNull(captureBackend);
     }
 
     @Override
     public void open() {
         try {
-            // Handle packets until interrupted or exception is thrown
-            this.ingressHandle.loop(-1, this::handle);
-        } catch (InterruptedException exception) {
-            //No handling required: e.g. interrupted via breakloop() method call
-        } catch (NotOpenException | PcapNativeException exception) {
+            // Handle packets until backend is closed or exception is thrown
+            this.captureBackend.capture(frame -> this.handle(frame.getPacket()));
+        } catch (CaptureException exception) {
             throw new IllegalStateException(exception);
         }
-        System.out.printf("[Ingress %s] Handler closed.\n", this.ingressInterface.getName());
+        System.out.printf("[Ingress %s] Handler closed.\n", this.captureBackend.getInterfaceName());
     }
 
     @Override
     public void close() {
-        try {
-            this.ingressHandle.breakLoop();
-        } catch (NotOpenException exception) {
-            // Ignore, ingress loop already stopped
-        }
-        this.ingressHandle.close();
-    }
-
-    protected PcapHandle buildHandle(PcapNetworkInterface networkInterface) throws PcapNativeException {
-        return new PcapHandle.Builder(networkInterface.getName())
-                .promiscuousMode(PcapNetworkInterface.PromiscuousMode.PROMISCUOUS)
-                .immediateMode(true)
-                .direction(PcapHandle.PcapDirection.IN)
-                .build();
+        this.captureBackend.close();
     }
 }
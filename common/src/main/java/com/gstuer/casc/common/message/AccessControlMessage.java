@@ -23,6 +23,7 @@ public abstract class AccessControlMessage<T> implements Serializable, Signable
     private final String destinationAddress;
     private final DigitalSignature signature;
     private final T payload;
+    private transient long ingressTimestamp;
 
     protected AccessControlMessage(InetAddress source, InetAddress destination, DigitalSignature signature, T payload) {
         this.sourceAddress = Objects.isNull(source) ? null : source.getHostAddress();
@@ -70,6 +71,25 @@ public abstract class AccessControlMessage<T> implements Serializable, Signable
         return Objects.nonNull(this.payload);
     }
 
+    /**
+     * Gets the time this message or its payload entered the local host, e.g. the capture timestamp of an encapsulated
+     * packet or the receive timestamp of the message. The timestamp is local information and therefore neither
+     * serialized nor considered by {@link #equals(Object)}.
+     *
+     * @return the ingress timestamp in nanoseconds since the epoch or {@code 0} if unknown.
+     */
+    public long getIngressTimestamp() {
+        return this.ingressTimestamp;
+    }
+
+    public void setIngressTimestamp(long ingressTimestamp) {
+        this.ingressTimestamp = ingressTimestamp;
+    }
+
+    public boolean hasIngressTimestamp() {
+        return this.ingressTimestamp != 0;
+    }
+
     public abstract AccessControlMessage<T> fromSource(InetAddress source);
 
     public abstract AccessControlMessage<T> sign(Signer signer) throws SignatureException, InvalidKeyException;
@@ -0,0 +1,54 @@
+package com.gstuer.casc.common.message;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Ints;
+import com.gstuer.casc.common.cryptography.DigitalSignature;
+import com.gstuer.casc.common.cryptography.Signer;
+import com.gstuer.casc.common.pattern.AccessDecision;
+
+import java.io.Serial;
+import java.net.InetAddress;
+import java.security.InvalidKeyException;
+import java.security.SignatureException;
+import java.util.List;
+
+/**
+ * Represents a batch of access decisions under a single signature. Compared to an {@link AccessDecisionMessage} per
+ * decision, a batch of n decisions costs one signature and one verification instead of n.
+ */
+public class AccessDecisionBatchMessage extends AccessControlMessage<List<AccessDecision>> {
+    @Serial
+    private static final long serialVersionUID = 3377815460945016271L;
+
+    public AccessDecisionBatchMessage(InetAddress source, InetAddress destination, DigitalSignature signature, List<AccessDecision> payload) {
+        super(source, destination, signature, payload);
+    }
+
+    public AccessDecisionBatchMessage(InetAddress destination, DigitalSignature signature, List<AccessDecision> payload) {
+        super(destination, signature, payload);
+    }
+
+    @Override
+    public AccessDecisionBatchMessage fromSource(InetAddress source) {
+        return new AccessDecisionBatchMessage(source, this.getDestination(), this.getSignature(), this.getPayload());
+    }
+
+    @Override
+    public AccessDecisionBatchMessage sign(Signer signer) throws SignatureException, InvalidKeyException {
+        DigitalSignature signature = signer.sign(getSigningData());
+        return new AccessDecisionBatchMessage(this.getSource(), this.getDestination(), signature, this.getPayload());
+    }
+
+    @Override
+    public byte[] getSigningData() {
+        // Prefix the signing data of each decision with its length, since the data of decisions differs in length
+        byte[][] decisionBytes = new byte[2 * this.getPayload().size()][];
+        int index = 0;
+        for (AccessDecision decision : this.getPayload()) {
+            byte[] signingData = decision.getSigningData();
+            decisionBytes[index++] = Ints.toByteArray(signingData.length);
+            decisionBytes[index++] = signingData;
+        }
+        return Bytes.concat(decisionBytes);
+    }
+}
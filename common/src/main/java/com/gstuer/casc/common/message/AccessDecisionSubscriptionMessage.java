@@ -0,0 +1,44 @@
+package com.gstuer.casc.common.message;
+
+import com.gstuer.casc.common.cryptography.DigitalSignature;
+import com.gstuer.casc.common.cryptography.Signer;
+
+import java.io.Serial;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.security.InvalidKeyException;
+import java.security.SignatureException;
+
+/**
+ * Represents a subscription of a policy enforcement point to the access decisions of an authorization authority. The
+ * payload is the requested lease of the subscription in milliseconds. While the lease lasts, the authority pushes
+ * decisions to the subscriber as they are refreshed, so subscribers renew their subscription before it expires.
+ */
+public class AccessDecisionSubscriptionMessage extends AccessControlMessage<Long> {
+    @Serial
+    private static final long serialVersionUID = -2478531905462372081L;
+
+    public AccessDecisionSubscriptionMessage(InetAddress source, InetAddress destination, DigitalSignature signature, Long leaseMillis) {
+        super(source, destination, signature, leaseMillis);
+    }
+
+    public AccessDecisionSubscriptionMessage(InetAddress destination, DigitalSignature signature, Long leaseMillis) {
+        super(destination, signature, leaseMillis);
+    }
+
+    @Override
+    public AccessDecisionSubscriptionMessage fromSource(InetAddress source) {
+        return new AccessDecisionSubscriptionMessage(source, this.getDestination(), this.getSignature(), this.getPayload());
+    }
+
+    @Override
+    public AccessDecisionSubscriptionMessage sign(Signer signer) throws SignatureException, InvalidKeyException {
+        DigitalSignature signature = signer.sign(getSigningData());
+        return new AccessDecisionSubscriptionMessage(this.getSource(), this.getDestination(), signature, this.getPayload());
+    }
+
+    @Override
+    public byte[] getSigningData() {
+        return ByteBuffer.allocate(Long.BYTES).putLong(this.getPayload()).array();
+    }
+}
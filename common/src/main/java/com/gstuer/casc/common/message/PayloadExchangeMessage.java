@@ -1,6 +1,9 @@
 package com.gstuer.casc.common.message;
 
+import com.google.common.primitives.Bytes;
 import com.gstuer.casc.common.cryptography.DigitalSignature;
+import com.gstuer.casc.common.cryptography.MerkleProof;
+import com.gstuer.casc.common.cryptography.MerkleTree;
 import com.gstuer.casc.common.cryptography.Signer;
 import com.gstuer.casc.common.serialization.JsonProcessor;
 import com.gstuer.casc.common.serialization.SerializationException;
@@ -8,31 +11,78 @@ import org.pcap4j.packet.Packet;
 
 import java.io.Serial;
 import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.SignatureException;
 import java.util.Objects;
 
+/**
+ * Represents a message encapsulating a packet. The signature either covers the packet itself or, if the message carries
+ * a {@link MerkleProof Merkle proof}, the root of a {@link MerkleTree Merkle tree} over a batch of packets signed at
+ * once. In the latter case, the signing data is the root computed from the packet and its proof. Packets and roots are
+ * signed with distinct prefixes, so that a signed root cannot be passed off as a signed packet and vice versa.
+ */
 public class PayloadExchangeMessage extends AccessControlMessage<Packet> {
     @Serial
     private static final long serialVersionUID = 5060347937847810073L;
+    private static final byte[] PACKET_SIGNING_PREFIX = "CASC-PACKET".getBytes(StandardCharsets.US_ASCII);
+
+    private final MerkleProof proof;
 
     public PayloadExchangeMessage(InetAddress source, InetAddress destination, DigitalSignature signature, Packet packet) {
+        this(source, destination, signature, packet, null);
+    }
+
+    public PayloadExchangeMessage(InetAddress source, InetAddress destination, DigitalSignature signature, Packet packet,
+                                  MerkleProof proof) {
         super(source, destination, signature, packet);
+        this.proof = proof;
     }
 
     public PayloadExchangeMessage(InetAddress destination, DigitalSignature signature, Packet packet) {
         super(destination, signature, packet);
+        this.proof = null;
     }
 
     @Override
     public PayloadExchangeMessage fromSource(InetAddress source) {
-        return new PayloadExchangeMessage(source, this.getDestination(), this.getSignature(), this.getPayload());
+        return new PayloadExchangeMessage(source, this.getDestination(), this.getSignature(), this.getPayload(), this.proof);
+    }
+
+    /**
+     * Attaches the signature of a batch and the inclusion proof of the packet of this message in the batch.
+     *
+     * @param signature the signature of the root of the batch
+     * @param proof     the inclusion proof of the packet in the batch
+     * @return a copy of this message carrying the signature and proof.
+     */
+    public PayloadExchangeMessage withBatchSignature(DigitalSignature signature, MerkleProof proof) {
+        return new PayloadExchangeMessage(this.getSource(), this.getDestination(), signature, this.getPayload(),
+                Objects.requireNonNull(proof));
+    }
+
+    public MerkleProof getProof() {
+        return this.proof;
+    }
+
+    public boolean hasProof() {
+        return Objects.nonNull(this.proof);
+    }
+
+    /**
+     * Checks whether this message carries a proof that does not yield a root for its packet, e.g. a truncated proof
+     * received from a peer. Such a message has no signing data and thus cannot be verified.
+     *
+     * @return {@code true} if the proof of this message is malformed, {@code false} otherwise.
+     */
+    public boolean hasMalformedProof() {
+        return this.hasProof() && this.proof.computeRoot(this.getPayload().getRawData()).isEmpty();
     }
 
     @Override
     public PayloadExchangeMessage sign(Signer signer) throws SignatureException, InvalidKeyException {
         DigitalSignature signature = signer.sign(this);
-        return new PayloadExchangeMessage(this.getSource(), this.getDestination(), signature, this.getPayload());
+        return new PayloadExchangeMessage(this.getSource(), this.getDestination(), signature, this.getPayload(), this.proof);
     }
 
     @Override
@@ -44,9 +94,19 @@ public class PayloadExchangeMessage extends AccessControlMessage<Packet> {
         }
     }
 
+    /**
+     * Gets the data covered by the signature of this message, i.e. the prefixed packet or the prefixed root of its batch.
+     *
+     * @return the signing data of this message.
+     * @throws IllegalStateException if the proof of this message is malformed
+     */
     @Override
     public byte[] getSigningData() {
-        return this.getPayload().getRawData();
+        if (!this.hasProof()) {
+            return Bytes.concat(PACKET_SIGNING_PREFIX, this.getPayload().getRawData());
+        }
+        return this.proof.computeRoot(this.getPayload().getRawData()).map(MerkleTree::toSigningData)
+                .orElseThrow(() -> new IllegalStateException("Merkle proof is malformed."));
     }
 
     @Override
@@ -55,6 +115,7 @@ public class PayloadExchangeMessage extends AccessControlMessage<Packet> {
             return false;
         }
         PayloadExchangeMessage that = (PayloadExchangeMessage) message;
-        return Objects.deepEquals(this.getPayload().getRawData(), that.getPayload().getRawData());
+        return Objects.deepEquals(this.getPayload().getRawData(), that.getPayload().getRawData())
+                && Objects.equals(this.proof, that.proof);
     }
 }
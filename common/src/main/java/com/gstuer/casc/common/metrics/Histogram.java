@@ -0,0 +1,75 @@
+package com.gstuer.casc.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a lock-free histogram of non-negative values with logarithmic buckets, i.e. bucket {@code i} counts the
+ * values within {@code [2^(i-1), 2^i)}. Percentiles are therefore approximated by the upper bound of their bucket.
+ */
+public class Histogram {
+    private static final int BUCKET_COUNT = Long.SIZE;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final AtomicLong maximum;
+
+    public Histogram() {
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.maximum = new AtomicLong();
+    }
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        long boundedValue = Math.max(0, value);
+        this.buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(boundedValue));
+        this.count.increment();
+        this.sum.add(boundedValue);
+        if (boundedValue > this.maximum.get()) {
+            this.maximum.accumulateAndGet(boundedValue, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public double getMean() {
+        long currentCount = this.count.sum();
+        return currentCount == 0 ? 0 : (double) this.sum.sum() / currentCount;
+    }
+
+    public long getMaximum() {
+        return this.maximum.get();
+    }
+
+    /**
+     * Approximates a percentile of the recorded values.
+     *
+     * @param quantile the quantile within {@code [0, 1]}, e.g. {@code 0.99} for the 99th percentile
+     * @return the upper bound of the bucket containing the percentile, at most the maximum recorded value.
+     */
+    public long getPercentile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be within [0, 1].");
+        }
+        long threshold = (long) Math.ceil(quantile * this.count.sum());
+        long cumulativeCount = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            cumulativeCount += this.buckets.get(bucket);
+            if (cumulativeCount >= threshold && cumulativeCount > 0) {
+                long upperBound = bucket == 0 ? 0 : (bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << bucket) - 1);
+                return Math.min(upperBound, this.maximum.get());
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.gstuer.casc.common.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+
+/**
+ * Represents an HTTP endpoint that serves a snapshot of all metrics of a {@link MetricRegistry metric registry} in
+ * the Prometheus text format, so that metrics can be scraped at runtime. Metric names are prefixed with
+ * {@code casc_} and characters not allowed by Prometheus are replaced by underscores.
+ */
+public class MetricEndpoint {
+    public static final String PATH = "/metrics";
+
+    private final MetricRegistry registry;
+    private final int port;
+
+    private HttpServer server;
+
+    public MetricEndpoint(MetricRegistry registry, int port) {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Port must be within [0, 65535].");
+        }
+        this.registry = Objects.requireNonNull(registry);
+        this.port = port;
+    }
+
+    public synchronized void start() throws IOException {
+        // If endpoint is already running, ignore method call
+        if (this.server != null) {
+            return;
+        }
+        this.server = HttpServer.create(new InetSocketAddress(this.port), 0);
+        this.server.createContext(PATH, this::handle);
+        this.server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metric-endpoint");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        this.server.start();
+        System.out.printf("[Metrics] Serving metrics at port %d, path %s.\n", this.server.getAddress().getPort(), PATH);
+    }
+
+    public synchronized void stop() {
+        if (this.server != null) {
+            this.server.stop(0);
+            this.server = null;
+        }
+    }
+
+    /**
+     * Gets the port of this endpoint. While running, this is the bound port, e.g. if the endpoint was constructed with
+     * port 0 to bind an ephemeral port.
+     *
+     * @return the port of this endpoint.
+     */
+    public synchronized int getPort() {
+        return this.server != null ? this.server.getAddress().getPort() : this.port;
+    }
+
+    public String format() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Number> metric : this.registry.snapshot().entrySet()) {
+            builder.append("casc_").append(metric.getKey().replaceAll("[^a-zA-Z0-9_]", "_"))
+                    .append(' ').append(metric.getValue()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] response = this.format().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response);
+            }
+        }
+    }
+}
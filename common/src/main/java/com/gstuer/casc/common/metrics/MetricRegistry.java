@@ -0,0 +1,95 @@
+package com.gstuer.casc.common.metrics;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Represents a registry of named runtime metrics, i.e. counters that are incremented by the data path, histograms of
+ * recorded values and gauges that are sampled on demand. Metrics of a process are usually registered at the
+ * {@link #getDefault() default registry}.
+ */
+public class MetricRegistry {
+    private static final MetricRegistry DEFAULT_REGISTRY = new MetricRegistry();
+
+    private final Map<String, LongAdder> counters;
+    private final Map<String, Histogram> histograms;
+    private final Map<String, Supplier<? extends Number>> gauges;
+
+    public MetricRegistry() {
+        this.counters = new ConcurrentHashMap<>();
+        this.histograms = new ConcurrentHashMap<>();
+        this.gauges = new ConcurrentHashMap<>();
+    }
+
+    public static MetricRegistry getDefault() {
+        return DEFAULT_REGISTRY;
+    }
+
+    /**
+     * Gets the counter with the given name. If no such counter exists, a new counter starting at zero is registered.
+     *
+     * @param name the name of the counter
+     * @return the counter registered with the given name.
+     */
+    public LongAdder counter(String name) {
+        return this.counters.computeIfAbsent(Objects.requireNonNull(name), (key) -> new LongAdder());
+    }
+
+    /**
+     * Gets the histogram with the given name. If no such histogram exists, a new empty histogram is registered.
+     *
+     * @param name the name of the histogram
+     * @return the histogram registered with the given name.
+     */
+    public Histogram histogram(String name) {
+        return this.histograms.computeIfAbsent(Objects.requireNonNull(name), (key) -> new Histogram());
+    }
+
+    /**
+     * Registers a gauge that is sampled whenever a {@link #snapshot() snapshot} is taken. An existing gauge with the
+     * same name is replaced.
+     *
+     * @param name  the name of the gauge
+     * @param gauge the supplier of the current value
+     */
+    public void registerGauge(String name, Supplier<? extends Number> gauge) {
+        this.gauges.put(Objects.requireNonNull(name), Objects.requireNonNull(gauge));
+    }
+
+    /**
+     * Removes all counters, histograms and gauges whose name starts with the given prefix.
+     *
+     * @param prefix the prefix of the metric names to remove
+     */
+    public void unregister(String prefix) {
+        Objects.requireNonNull(prefix);
+        this.counters.keySet().removeIf(name -> name.startsWith(prefix));
+        this.histograms.keySet().removeIf(name -> name.startsWith(prefix));
+        this.gauges.keySet().removeIf(name -> name.startsWith(prefix));
+    }
+
+    /**
+     * Takes a snapshot of all counters, histograms and gauges of this registry. Each histogram is summarized by its
+     * count, mean, median, 99th percentile and maximum.
+     *
+     * @return the current metric values sorted by name.
+     */
+    public SortedMap<String, Number> snapshot() {
+        SortedMap<String, Number> snapshot = new TreeMap<>();
+        this.counters.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        this.histograms.forEach((name, histogram) -> {
+            snapshot.put(name + ".count", histogram.getCount());
+            snapshot.put(name + ".mean", histogram.getMean());
+            snapshot.put(name + ".p50", histogram.getPercentile(0.5));
+            snapshot.put(name + ".p99", histogram.getPercentile(0.99));
+            snapshot.put(name + ".max", histogram.getMaximum());
+        });
+        this.gauges.forEach((name, gauge) -> snapshot.put(name, gauge.get()));
+        return snapshot;
+    }
+}
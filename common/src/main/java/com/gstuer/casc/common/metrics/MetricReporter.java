@@ -0,0 +1,53 @@
+package com.gstuer.casc.common.metrics;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a reporter that periodically prints all metrics of a {@link MetricRegistry metric registry} to the
+ * standard output.
+ */
+public class MetricReporter {
+    private final MetricRegistry registry;
+    private final long intervalMillis;
+
+    private ScheduledExecutorService executor;
+
+    public MetricReporter(MetricRegistry registry, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Reporting interval must be positive.");
+        }
+        this.registry = Objects.requireNonNull(registry);
+        this.intervalMillis = intervalMillis;
+    }
+
+    public synchronized void start() {
+        // If reporter is already running, ignore method call
+        if (this.executor != null && !this.executor.isShutdown()) {
+            return;
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metric-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleAtFixedRate(this::report, this.intervalMillis, this.intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    public void report() {
+        StringBuilder builder = new StringBuilder("[Metrics]\n");
+        for (Map.Entry<String, Number> metric : this.registry.snapshot().entrySet()) {
+            builder.append(String.format("    %-40s %s\n", metric.getKey(), metric.getValue()));
+        }
+        System.out.print(builder);
+    }
+}
@@ -0,0 +1,40 @@
+package com.gstuer.casc.common.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Represents a gauge reporting the rate at which a counter increased since the gauge was sampled last, e.g. the
+ * throughput of a data path in frames per second. The rate is therefore averaged over the sampling interval of the
+ * {@link MetricReporter reporter} or scraper.
+ */
+public class RateGauge implements Supplier<Double> {
+    private final LongAdder counter;
+
+    private long lastCount;
+    private long lastTime;
+
+    public RateGauge(LongAdder counter) {
+        this.counter = Objects.requireNonNull(counter);
+        this.lastCount = counter.sum();
+        this.lastTime = System.nanoTime();
+    }
+
+    /**
+     * Samples the rate of the counter and starts a new sampling interval.
+     *
+     * @return the increase of the counter per second since the last sample.
+     */
+    @Override
+    public synchronized Double get() {
+        long count = this.counter.sum();
+        long time = System.nanoTime();
+        long elapsedNanos = time - this.lastTime;
+        double rate = elapsedNanos <= 0 ? 0 : (double) (count - this.lastCount) * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        this.lastCount = count;
+        this.lastTime = time;
+        return rate;
+    }
+}
@@ -10,6 +10,7 @@ import com.gstuer.casc.common.serialization.SerializationException;
 import java.net.InetAddress;
 import java.time.Instant;
 import java.time.temporal.TemporalAmount;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -112,6 +113,30 @@ public class AccessDecision implements Signable, Comparable<AccessDecision> {
         return Instant.now().plus(temporalOffset).isBefore(this.validUntil);
     }
 
+    /**
+     * Checks whether this access decision is valid at a specified time, e.g. the time of a
+     * {@link com.gstuer.casc.common.time.MillisClock clock} plus an offset. Unlike {@link #isValid()}, this neither
+     * queries the system time nor allocates, which makes it suitable for checking many decisions per packet.
+     *
+     * @param timeMillis the time in milliseconds since the epoch for which the validity is checked
+     * @return {@code true} if the decision is valid at the specified time, {@code false} otherwise.
+     */
+    public boolean isValid(long timeMillis) {
+        return timeMillis < this.validUntil.toEpochMilli();
+    }
+
+    /**
+     * Checks whether this access decision renews another access decision, i.e. takes the same action for an equal
+     * {@link AccessRequestPattern pattern} and is valid at least as long as the other decision.
+     *
+     * @param that the access decision that might be renewed
+     * @return {@code true} if this decision renews the other decision, {@code false} otherwise.
+     */
+    public boolean isRenewalOf(AccessDecision that) {
+        return this.action == that.action && !this.validUntil.isBefore(that.validUntil)
+                && this.pattern.equals(that.pattern);
+    }
+
     @Override
     public byte[] getSigningData() {
         byte[] patternBytes = this.pattern.getSigningData();
@@ -149,23 +174,40 @@ public class AccessDecision implements Signable, Comparable<AccessDecision> {
         return Objects.hash(pattern, action, nextHop, validUntil);
     }
 
+    /**
+     * Compares this decision with another decision. Denying decisions come before granting ones first, so that a
+     * matching deny takes precedence over all matching grants regardless of their specificity. Decisions with the same
+     * action are ordered by the specificity of their patterns second, i.e. decisions with more pattern layers come
+     * first. Remaining ties are broken by the {@link PatternKey keys} of the patterns, the next hops and the validity,
+     * such that the ordering is total and consistent with equals.
+     *
+     * @param that the decision to be compared
+     * @return a negative integer, zero, or a positive integer as this decision is less than, equal to, or greater than
+     * the other decision.
+     */
     @Override
     public int compareTo(AccessDecision that) {
-        int patternComparison = this.getPattern().compareTo(that.getPattern());
+        // Deny > Grant
+        int actionComparison = Boolean.compare(this.isGranting(), that.isGranting());
+        if (actionComparison != 0) {
+            return actionComparison;
+        }
+        PatternKey thisKey = this.pattern.getKey();
+        PatternKey thatKey = that.pattern.getKey();
+        int depthComparison = Integer.compare(thatKey.getDepth(), thisKey.getDepth());
+        if (depthComparison != 0) {
+            return depthComparison;
+        }
+        int patternComparison = thisKey.compareTo(thatKey);
         if (patternComparison != 0) {
-            // Related but unequal patterns
             return patternComparison;
-        } else {
-            // Equal or unrelated patterns: Deny > Grant
-            if (this.isGranting() && that.isDenying()) {
-                return 1;
-            } else if (this.isDenying() && that.isGranting()) {
-                return -1;
-            } else {
-                // Same pattern, same action -> Fall back on hash values.
-                return Integer.compare(this.hashCode(), that.hashCode());
-            }
         }
+        int nextHopComparison = Arrays.compareUnsigned(this.nextHop != null ? this.nextHop.getAddress() : null,
+                that.nextHop != null ? that.nextHop.getAddress() : null);
+        if (nextHopComparison != 0) {
+            return nextHopComparison;
+        }
+        return this.validUntil.compareTo(that.validUntil);
     }
 
     /**
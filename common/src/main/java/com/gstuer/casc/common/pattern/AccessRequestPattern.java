@@ -4,15 +4,18 @@ import com.gstuer.casc.common.cryptography.Signable;
 import com.gstuer.casc.common.serialization.JsonProcessor;
 import com.gstuer.casc.common.serialization.SerializationException;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 /**
  * A pattern that represents an access request in a network. The access request pattern is either used as a rule for
  * matching network traffic or it represents a specific packet of the network traffic that has to satisfy the network rules.
- * Note: This class has a natural ordering that is inconsistent with equals.
+ * The natural ordering of patterns is the ordering of their {@link PatternKey keys}, which is consistent with equals and
+ * orders more specific patterns first.
  */
 public abstract class AccessRequestPattern implements Signable, Comparable<AccessRequestPattern> {
     public final AccessRequestPattern enclosedPattern;
+    private transient PatternKey key;
 
     protected AccessRequestPattern(AccessRequestPattern enclosedPattern) {
         this.enclosedPattern = enclosedPattern;
@@ -106,6 +109,29 @@ public abstract class AccessRequestPattern implements Signable, Comparable<Acces
      */
     public abstract boolean equalsIsolated(Object object);
 
+    /**
+     * Writes the tag and the fields of this pattern, ignoring its enclosed patterns, to its {@link PatternKey key} in a
+     * fixed layout. Patterns write equal bytes iff they are {@link #equalsIsolated(Object) equal in isolation}.
+     *
+     * @param buffer the buffer of the key
+     */
+    protected abstract void writeKeyFields(ByteBuffer buffer);
+
+    /**
+     * Gets the canonical {@link PatternKey key} of this pattern and its enclosed patterns. The key is computed once.
+     *
+     * @return the key of this pattern.
+     */
+    public PatternKey getKey() {
+        // Benign race: keys are immutable and equal if computed concurrently
+        PatternKey key = this.key;
+        if (key == null) {
+            key = PatternKey.of(this);
+            this.key = key;
+        }
+        return key;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hashCode(enclosedPattern);
@@ -125,17 +151,16 @@ public abstract class AccessRequestPattern implements Signable, Comparable<Acces
         return this.enclosedPattern.getSigningData();
     }
 
+    /**
+     * Compares this pattern with another pattern by their {@link PatternKey keys}. Since a pattern that contains another
+     * unequal pattern has more layers, it is ordered before the contained pattern.
+     *
+     * @param that the pattern to be compared
+     * @return a negative integer, zero, or a positive integer as this pattern is less than, equal to, or greater than
+     * the other pattern.
+     */
     @Override
     public int compareTo(AccessRequestPattern that) {
-        if (this.contains(that) && that.contains(this)) {
-            // Equal patterns
-            return 0;
-        } else if (this.contains(that)) {
-            return -1;
-        } else if (that.contains(this)) {
-            return 1;
-        }
-        // Unequal pattern without relation
-        return 0;
+        return this.getKey().compareTo(that.getKey());
     }
 }
@@ -0,0 +1,210 @@
+package com.gstuer.casc.common.pattern;
+
+import com.gstuer.casc.common.time.MillisClock;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Represents a thread-safe table of {@link AccessDecision access decisions} that are looked up by the
+ * {@link AccessRequestPattern pattern} of a packet.
+ * <p>
+ * A pattern contains a decision pattern iff the layers of the decision pattern are equal in isolation to consecutive
+ * layers of the pattern (see {@link AccessRequestPattern#contains(AccessRequestPattern)}). Decisions are therefore
+ * indexed by the {@link PatternKey key} of their pattern, and a lookup probes the index once per
+ * {@link PatternKey#subKey(int, int) sub-key} of consecutive layers of the looked up pattern instead of scanning all
+ * decisions. For the three layers of a TCP or UDP pattern these are at most six hash lookups, independent of the
+ * number of decisions.
+ * <p>
+ * A decision replaces decisions with the same pattern and action that expire earlier, i.e. renewed decisions do not
+ * accumulate. Expired decisions are queued by their expiration time and removed by {@link #removeExpired()}.
+ */
+public class DecisionTable {
+    private final MillisClock clock;
+    private final ConcurrentMap<PatternKey, SortedSet<AccessDecision>> decisions;
+    private final AtomicInteger size;
+    private final DelayQueue<Expiration> expirations;
+    private final LongAdder expiredCounter;
+    private final LongAdder replacedCounter;
+
+    public DecisionTable() {
+        this(MillisClock.getDefault());
+    }
+
+    /**
+     * Constructs a new {@link DecisionTable decision table}.
+     *
+     * @param clock the clock deciding when decisions expire
+     */
+    public DecisionTable(MillisClock clock) {
+        this.clock = Objects.requireNonNull(clock);
+        this.decisions = new ConcurrentHashMap<>();
+        this.size = new AtomicInteger();
+        this.expirations = new DelayQueue<>();
+        this.expiredCounter = new LongAdder();
+        this.replacedCounter = new LongAdder();
+    }
+
+    /**
+     * Adds a decision to this table. Decisions with the same pattern and action that expire earlier are replaced.
+     *
+     * @param decision the decision to add
+     * @return {@code true} if the decision was added, {@code false} if the table already contained it or a decision
+     * with the same pattern and action that expires later.
+     */
+    public boolean add(AccessDecision decision) {
+        Objects.requireNonNull(decision);
+        int[] sizeChange = new int[1];
+        boolean[] added = new boolean[1];
+        this.decisions.compute(decision.getPattern().getKey(), (key, bucket) -> {
+            SortedSet<AccessDecision> decisions = bucket == null ? new ConcurrentSkipListSet<>() : bucket;
+            for (AccessDecision existingDecision : decisions) {
+                if (existingDecision.getAction() != decision.getAction()) {
+                    continue;
+                }
+                if (!decision.isRenewalOf(existingDecision)) {
+                    // Outdated renewal, e.g. due to reordered messages
+                    return decisions;
+                } else if (!existingDecision.equals(decision) && decisions.remove(existingDecision)) {
+                    this.replacedCounter.increment();
+                    sizeChange[0]--;
+                }
+            }
+            added[0] = decisions.add(decision);
+            if (added[0]) {
+                sizeChange[0]++;
+            }
+            return decisions;
+        });
+        this.size.addAndGet(sizeChange[0]);
+        if (added[0]) {
+            this.expirations.add(new Expiration(decision, this.clock));
+        }
+        return added[0];
+    }
+
+    /**
+     * Removes a decision from this table.
+     *
+     * @param decision the decision to remove
+     * @return {@code true} if the decision was removed, {@code false} if the table did not contain it.
+     */
+    public boolean remove(AccessDecision decision) {
+        Objects.requireNonNull(decision);
+        boolean[] removed = new boolean[1];
+        this.decisions.computeIfPresent(decision.getPattern().getKey(), (key, bucket) -> {
+            removed[0] = bucket.remove(decision);
+            return bucket.isEmpty() ? null : bucket;
+        });
+        if (removed[0]) {
+            this.size.decrementAndGet();
+        }
+        return removed[0];
+    }
+
+    /**
+     * Checks whether this table contains a decision, i.e. the decision was neither removed, replaced nor expired.
+     *
+     * @param decision the decision to check
+     * @return {@code true} if the table contains the decision, {@code false} otherwise.
+     */
+    public boolean contains(AccessDecision decision) {
+        SortedSet<AccessDecision> bucket = this.decisions.get(decision.getPattern().getKey());
+        return bucket != null && bucket.contains(decision);
+    }
+
+    /**
+     * Finds the first decision in {@link AccessDecision natural order} whose pattern is contained in the given pattern
+     * and that satisfies the filter. Hence, denying decisions take precedence over granting ones and more specific
+     * decisions take precedence over less specific ones with the same action.
+     *
+     * @param pattern the pattern of the packet to find a decision for
+     * @param filter  the filter a decision has to satisfy, e.g. a validity check
+     * @return the first matching decision or an empty {@link Optional optional} if no decision matches.
+     */
+    public Optional<AccessDecision> findFirst(AccessRequestPattern pattern, Predicate<? super AccessDecision> filter) {
+        PatternKey key = pattern.getKey();
+        AccessDecision firstDecision = null;
+        for (int start = 0; start < key.getDepth(); start++) {
+            for (int end = start + 1; end <= key.getDepth(); end++) {
+                SortedSet<AccessDecision> bucket = this.decisions.get(key.subKey(start, end));
+                if (bucket == null) {
+                    continue;
+                }
+                // Buckets are sorted in natural order, so only their first satisfying decision is a candidate
+                for (AccessDecision decision : bucket) {
+                    if (filter.test(decision)) {
+                        if (firstDecision == null || decision.compareTo(firstDecision) < 0) {
+                            firstDecision = decision;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        return Optional.ofNullable(firstDecision);
+    }
+
+    /**
+     * Removes all decisions that expired until now.
+     *
+     * @return the number of removed decisions.
+     */
+    public int removeExpired() {
+        int removedCount = 0;
+        Expiration expiration;
+        while ((expiration = this.expirations.poll()) != null) {
+            // Decisions replaced by a renewal have already been removed
+            if (this.remove(expiration.decision())) {
+                removedCount++;
+            }
+        }
+        this.expiredCounter.add(removedCount);
+        return removedCount;
+    }
+
+    public long getExpiredCount() {
+        return this.expiredCounter.sum();
+    }
+
+    public long getReplacedCount() {
+        return this.replacedCounter.sum();
+    }
+
+    public int size() {
+        return this.size.get();
+    }
+
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * Represents the expiration of a decision queued until its validity ends.
+     */
+    private record Expiration(AccessDecision decision, MillisClock clock) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            long delayMillis = this.decision.getValidUntil().toEpochMilli() - this.clock.currentTimeMillis();
+            return unit.convert(delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Expiration that) {
+                return this.decision.getValidUntil().compareTo(that.decision.getValidUntil());
+            }
+            return Long.compare(this.getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
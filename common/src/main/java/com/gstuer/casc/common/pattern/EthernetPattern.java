@@ -5,6 +5,7 @@ import com.google.common.primitives.Shorts;
 import org.pcap4j.packet.namednumber.EtherType;
 import org.pcap4j.util.MacAddress;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 public class EthernetPattern extends AccessRequestPattern {
@@ -64,6 +65,12 @@ public class EthernetPattern extends AccessRequestPattern {
                 && Objects.equals(this.etherType.value(), that.etherType.value());
     }
 
+    @Override
+    protected void writeKeyFields(ByteBuffer buffer) {
+        buffer.put(PatternKey.ETHERNET_TAG).put(source.getAddress()).put(destination.getAddress())
+                .putShort(etherType.value());
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), source, destination, etherType);
@@ -3,10 +3,14 @@ package com.gstuer.casc.common.pattern;
 import com.google.common.primitives.Bytes;
 import org.pcap4j.packet.namednumber.IpNumber;
 
+import java.net.Inet6Address;
 import java.net.InetAddress;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 public class IpPattern extends AccessRequestPattern {
+    private static final int IPV6_ADDRESS_LENGTH = 16;
+
     private final InetAddress source;
     private final InetAddress destination;
     private final IpNumber protocol;
@@ -63,6 +67,23 @@ public class IpPattern extends AccessRequestPattern {
                 && Objects.equals(this.protocol, that.protocol);
     }
 
+    @Override
+    protected void writeKeyFields(ByteBuffer buffer) {
+        // Flags of present fields and IPv6 addresses, addresses in IPv6 length, protocol
+        int flags = (source != null ? 0x01 : 0) | (source instanceof Inet6Address ? 0x02 : 0)
+                | (destination != null ? 0x04 : 0) | (destination instanceof Inet6Address ? 0x08 : 0)
+                | (protocol != null ? 0x10 : 0);
+        buffer.put(PatternKey.IP_TAG).put((byte) flags);
+        writeKeyAddress(buffer, source);
+        writeKeyAddress(buffer, destination);
+        buffer.put(protocol != null ? protocol.value() : 0);
+    }
+
+    private static void writeKeyAddress(ByteBuffer buffer, InetAddress address) {
+        byte[] addressBytes = address != null ? address.getAddress() : new byte[0];
+        buffer.put(new byte[IPV6_ADDRESS_LENGTH - addressBytes.length]).put(addressBytes);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), source, destination, protocol);
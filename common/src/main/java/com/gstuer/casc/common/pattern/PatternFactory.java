@@ -1,10 +1,20 @@
 package com.gstuer.casc.common.pattern;
 
+import com.gstuer.casc.common.frame.Frame;
+import com.gstuer.casc.common.frame.FrameFields;
 import org.pcap4j.packet.EthernetPacket;
 import org.pcap4j.packet.IpV4Packet;
 import org.pcap4j.packet.Packet;
 import org.pcap4j.packet.TcpPacket;
 import org.pcap4j.packet.UdpPacket;
+import org.pcap4j.packet.namednumber.EtherType;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.pcap4j.util.MacAddress;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * A utility class for the creation of {@link AccessRequestPattern pattern} instances.
@@ -47,4 +57,102 @@ public final class PatternFactory {
                     + packet.getClass().getSimpleName());
         }
     }
+
+    /**
+     * Creates a {@link AccessRequestPattern pattern} from a raw Ethernet frame without parsing it into a
+     * {@link Packet packet}. The created pattern is equal to the pattern created by {@link #derivePatternFrom(Packet)}
+     * for the parsed frame.
+     *
+     * @param frame the raw frame the pattern should be created for.
+     * @return a pattern that represents the given frame.
+     */
+    public static AccessRequestPattern derivePatternFrom(byte[] frame) {
+        return derivePatternFrom(frame, 0, frame.length);
+    }
+
+    /**
+     * Creates a {@link AccessRequestPattern pattern} from a {@link Frame frame} without parsing it into a
+     * {@link Packet packet}.
+     *
+     * @param frame the frame the pattern should be created for.
+     * @return a pattern that represents the given frame.
+     * @see #derivePatternFrom(byte[], int, int)
+     */
+    public static AccessRequestPattern derivePatternFrom(Frame frame) {
+        return derivePatternFrom(frame.getBuffer(), frame.getOffset(), frame.getLength());
+    }
+
+    /**
+     * Creates a {@link AccessRequestPattern pattern} from the remaining bytes of a {@link ByteBuffer buffer} holding a
+     * raw Ethernet frame. The position of the buffer is not modified.
+     *
+     * @param frame the buffer holding the frame the pattern should be created for.
+     * @return a pattern that represents the given frame.
+     * @see #derivePatternFrom(byte[], int, int)
+     */
+    public static AccessRequestPattern derivePatternFrom(ByteBuffer frame) {
+        if (frame.hasArray()) {
+            return derivePatternFrom(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+        }
+        byte[] bytes = new byte[frame.remaining()];
+        frame.duplicate().get(bytes);
+        return derivePatternFrom(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Creates a {@link AccessRequestPattern pattern} from a raw Ethernet frame by reading the EtherType, IPv4
+     * addresses and protocol as well as TCP or UDP ports from their fixed offsets.
+     *
+     * @param buffer the buffer containing the frame
+     * @param offset the offset of the frame within the buffer
+     * @param length the length of the frame
+     * @return a pattern that represents the given frame.
+     */
+    public static AccessRequestPattern derivePatternFrom(byte[] buffer, int offset, int length) {
+        if (!FrameFields.hasEthernetHeader(length)) {
+            throw new IllegalArgumentException("Cannot derive pattern from frame without Ethernet header.");
+        }
+
+        // Construct ethernet pattern from ethernet header
+        MacAddress destination = readMacAddress(buffer, offset + FrameFields.ETHERNET_DESTINATION_OFFSET);
+        MacAddress source = readMacAddress(buffer, offset + FrameFields.ETHERNET_SOURCE_OFFSET);
+        EtherType etherType = EtherType.getInstance((short) FrameFields.getEtherType(buffer, offset));
+        EthernetPattern ethernetPattern = new EthernetPattern(source, destination, etherType);
+
+        // Construct pattern for enclosed IPv4 header
+        int ipOffset = FrameFields.locateIpV4Header(buffer, offset, length);
+        if (ipOffset < 0) {
+            return ethernetPattern;
+        }
+        InetAddress ipSource = readIpV4Address(buffer, ipOffset + FrameFields.IPV4_SOURCE_OFFSET);
+        InetAddress ipDestination = readIpV4Address(buffer, ipOffset + FrameFields.IPV4_DESTINATION_OFFSET);
+        int protocol = FrameFields.getIpV4Protocol(buffer, ipOffset);
+        IpPattern ipV4Pattern = new IpPattern(ipSource, ipDestination, IpNumber.getInstance((byte) protocol), ethernetPattern);
+
+        // Construct pattern for enclosed TCP or UDP header
+        int transportOffset = FrameFields.locateTransportHeader(buffer, offset, length);
+        if (transportOffset < 0) {
+            return ipV4Pattern;
+        }
+        int sourcePort = FrameFields.getUnsignedShort(buffer, transportOffset + FrameFields.TRANSPORT_SOURCE_PORT_OFFSET);
+        int destinationPort = FrameFields.getUnsignedShort(buffer, transportOffset + FrameFields.TRANSPORT_DESTINATION_PORT_OFFSET);
+        if (protocol == FrameFields.IP_PROTOCOL_UDP) {
+            return new UdpPattern(sourcePort, destinationPort, ipV4Pattern);
+        } else {
+            return new TcpPattern(sourcePort, destinationPort, ipV4Pattern);
+        }
+    }
+
+    private static MacAddress readMacAddress(byte[] buffer, int index) {
+        return MacAddress.getByAddress(Arrays.copyOfRange(buffer, index, index + FrameFields.MAC_ADDRESS_LENGTH));
+    }
+
+    private static InetAddress readIpV4Address(byte[] buffer, int index) {
+        try {
+            return InetAddress.getByAddress(Arrays.copyOfRange(buffer, index, index + FrameFields.IPV4_ADDRESS_LENGTH));
+        } catch (UnknownHostException exception) {
+            // Only thrown for illegal address lengths, which cannot occur for fixed-size IPv4 addresses
+            throw new IllegalStateException(exception);
+        }
+    }
 }
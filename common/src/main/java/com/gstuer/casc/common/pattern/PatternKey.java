@@ -0,0 +1,132 @@
+package com.gstuer.casc.common.pattern;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Represents the canonical binary key of an {@link AccessRequestPattern access request pattern}. Each layer of a
+ * pattern is packed into a tag identifying its type followed by its fields in a fixed layout, from the outermost to
+ * the innermost enclosed pattern. Hence, patterns are equal iff their keys are equal, and the keys of the consecutive
+ * layers of a pattern are {@link #subKey(int, int) sub-keys} of its key.
+ * <p>
+ * Keys are ordered by their number of layers in descending order first, i.e. more specific keys come first, and
+ * lexicographically by their unsigned bytes second. The order is total and consistent with equals.
+ */
+public final class PatternKey implements Comparable<PatternKey> {
+    static final byte ETHERNET_TAG = 1;
+    static final byte IP_TAG = 2;
+    static final byte TCP_TAG = 3;
+    static final byte UDP_TAG = 4;
+    private static final int MAX_LAYER_LENGTH = 64;
+
+    private final byte[] bytes;
+    private final int[] layerOffsets;
+    private final int fromLayer;
+    private final int toLayer;
+    private final int hashCode;
+
+    private PatternKey(byte[] bytes, int[] layerOffsets, int fromLayer, int toLayer) {
+        this.bytes = bytes;
+        this.layerOffsets = layerOffsets;
+        this.fromLayer = fromLayer;
+        this.toLayer = toLayer;
+        int hashCode = 1;
+        for (int index = this.getFromIndex(); index < this.getToIndex(); index++) {
+            hashCode = 31 * hashCode + bytes[index];
+        }
+        this.hashCode = hashCode;
+    }
+
+    /**
+     * Computes the key of a pattern. Prefer {@link AccessRequestPattern#getKey()}, which caches the key.
+     *
+     * @param pattern the pattern to compute the key of
+     * @return the key of the pattern.
+     */
+    public static PatternKey of(AccessRequestPattern pattern) {
+        int depth = 0;
+        for (AccessRequestPattern layer = pattern; layer != null; layer = layer.getEnclosedPattern()) {
+            depth++;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(depth * MAX_LAYER_LENGTH);
+        int[] layerOffsets = new int[depth + 1];
+        int index = 0;
+        for (AccessRequestPattern layer = pattern; layer != null; layer = layer.getEnclosedPattern()) {
+            layer.writeKeyFields(buffer);
+            layerOffsets[++index] = buffer.position();
+        }
+        return new PatternKey(Arrays.copyOf(buffer.array(), buffer.position()), layerOffsets, 0, depth);
+    }
+
+    /**
+     * Gets the key of consecutive layers of the pattern of this key without copying it.
+     *
+     * @param fromLayer the index of the first layer, inclusive
+     * @param toLayer   the index of the last layer, exclusive
+     * @return the key of the layers.
+     * @throws IndexOutOfBoundsException if the layers are not within this key
+     */
+    public PatternKey subKey(int fromLayer, int toLayer) {
+        if (fromLayer < 0 || toLayer > this.getDepth() || fromLayer > toLayer) {
+            throw new IndexOutOfBoundsException("Layers [%d, %d) are not within key of depth %d."
+                    .formatted(fromLayer, toLayer, this.getDepth()));
+        }
+        return new PatternKey(this.bytes, this.layerOffsets, this.fromLayer + fromLayer, this.fromLayer + toLayer);
+    }
+
+    /**
+     * Gets the number of layers of the pattern of this key.
+     *
+     * @return the number of layers.
+     */
+    public int getDepth() {
+        return this.toLayer - this.fromLayer;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOfRange(this.bytes, this.getFromIndex(), this.getToIndex());
+    }
+
+    private int getFromIndex() {
+        return this.layerOffsets[this.fromLayer];
+    }
+
+    private int getToIndex() {
+        return this.layerOffsets[this.toLayer];
+    }
+
+    @Override
+    public int compareTo(PatternKey that) {
+        int depthComparison = Integer.compare(that.getDepth(), this.getDepth());
+        if (depthComparison != 0) {
+            return depthComparison;
+        }
+        return Arrays.compareUnsigned(this.bytes, this.getFromIndex(), this.getToIndex(),
+                that.bytes, that.getFromIndex(), that.getToIndex());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+        PatternKey that = (PatternKey) object;
+        return this.hashCode == that.hashCode && this.getDepth() == that.getDepth()
+                && Arrays.equals(this.bytes, this.getFromIndex(), this.getToIndex(),
+                that.bytes, that.getFromIndex(), that.getToIndex());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return HexFormat.of().formatHex(this.bytes, this.getFromIndex(), this.getToIndex());
+    }
+}
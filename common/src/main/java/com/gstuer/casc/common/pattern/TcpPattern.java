@@ -4,4 +4,9 @@ public class TcpPattern extends TransportProtocolPattern {
     public TcpPattern(int sourcePort, int destinationPort, AccessRequestPattern enclosedPattern) {
         super(sourcePort, destinationPort, enclosedPattern);
     }
+
+    @Override
+    protected byte getKeyTag() {
+        return PatternKey.TCP_TAG;
+    }
 }
@@ -3,6 +3,7 @@ package com.gstuer.casc.common.pattern;
 import com.google.common.primitives.Ints;
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 public abstract class TransportProtocolPattern extends AccessRequestPattern {
@@ -50,6 +51,18 @@ public abstract class TransportProtocolPattern extends AccessRequestPattern {
         return sourcePort == that.sourcePort && destinationPort == that.destinationPort;
     }
 
+    /**
+     * Gets the tag of the transport protocol in the {@link PatternKey key} of a pattern.
+     *
+     * @return the tag of the transport protocol.
+     */
+    protected abstract byte getKeyTag();
+
+    @Override
+    protected void writeKeyFields(ByteBuffer buffer) {
+        buffer.put(this.getKeyTag()).putInt(sourcePort).putInt(destinationPort);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), sourcePort, destinationPort);
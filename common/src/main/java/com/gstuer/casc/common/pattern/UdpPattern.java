@@ -4,4 +4,9 @@ public class UdpPattern extends TransportProtocolPattern {
     public UdpPattern(int sourcePort, int destinationPort, AccessRequestPattern enclosedPattern) {
         super(sourcePort, destinationPort, enclosedPattern);
     }
+
+    @Override
+    protected byte getKeyTag() {
+        return PatternKey.UDP_TAG;
+    }
 }
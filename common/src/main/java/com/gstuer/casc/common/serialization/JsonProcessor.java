@@ -4,7 +4,9 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParseException;
 import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.message.AccessDecisionBatchMessage;
 import com.gstuer.casc.common.message.AccessDecisionMessage;
+import com.gstuer.casc.common.message.AccessDecisionSubscriptionMessage;
 import com.gstuer.casc.common.message.AccessRequestMessage;
 import com.gstuer.casc.common.message.KeyExchangeMessage;
 import com.gstuer.casc.common.message.KeyExchangeRequestMessage;
@@ -46,6 +48,8 @@ public class JsonProcessor {
                 .registerSubtype(KeyExchangeRequestMessage.class)
                 .registerSubtype(AccessRequestMessage.class)
                 .registerSubtype(AccessDecisionMessage.class)
+                .registerSubtype(AccessDecisionBatchMessage.class)
+                .registerSubtype(AccessDecisionSubscriptionMessage.class)
                 .recognizeSubtypes();
         builder.registerTypeAdapterFactory(messageAdapterFactory);
         RuntimeTypeAdapterFactory<?> patternAdapterFactory = RuntimeTypeAdapterFactory
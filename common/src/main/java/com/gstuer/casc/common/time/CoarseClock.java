@@ -0,0 +1,96 @@
+package com.gstuer.casc.common.time;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Represents a clock with millisecond resolution that is updated by a ticker thread. Reading the clock is a single
+ * volatile read instead of a system call, which makes it suitable for time checks on the data path. The clock reads
+ * the system time once as anchor and advances by the elapsed {@link System#nanoTime() monotonic time} afterward, i.e.
+ * it keeps ticking steadily if the system time is stepped back or forth but does not follow such steps either.
+ */
+public final class CoarseClock implements MillisClock, AutoCloseable {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final CoarseClock DEFAULT_CLOCK = new CoarseClock("coarse-clock-ticker");
+
+    private final long anchorMillis;
+    private final long anchorNanos;
+    private final LongSupplier nanoTime;
+    private final Thread ticker;
+    private volatile long currentTimeMillis;
+    private volatile boolean running;
+
+    /**
+     * Constructs and starts a new {@link CoarseClock coarse clock}. Prefer the {@link #getDefault() default clock}
+     * instead of starting additional ticker threads.
+     *
+     * @param tickerName the name of the ticker thread
+     */
+    public CoarseClock(String tickerName) {
+        this(System::currentTimeMillis, System::nanoTime, Objects.requireNonNull(tickerName));
+    }
+
+    /**
+     * Constructs a new {@link CoarseClock coarse clock} without a ticker thread. The clock only advances when it is
+     * {@link #update() updated} explicitly, which allows to test the clock deterministically.
+     *
+     * @param anchor   the clock providing the anchor time, read once on construction
+     * @param nanoTime the monotonic time source in nanoseconds the clock advances with
+     */
+    CoarseClock(MillisClock anchor, LongSupplier nanoTime) {
+        this(anchor, nanoTime, null);
+    }
+
+    private CoarseClock(MillisClock anchor, LongSupplier nanoTime, String tickerName) {
+        this.nanoTime = Objects.requireNonNull(nanoTime);
+        this.anchorNanos = nanoTime.getAsLong();
+        this.anchorMillis = anchor.currentTimeMillis();
+        this.currentTimeMillis = this.anchorMillis;
+        this.running = true;
+        if (tickerName == null) {
+            this.ticker = null;
+        } else {
+            this.ticker = new Thread(this::tick, tickerName);
+            this.ticker.setDaemon(true);
+            this.ticker.start();
+        }
+    }
+
+    public static CoarseClock getDefault() {
+        return DEFAULT_CLOCK;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return this.currentTimeMillis;
+    }
+
+    /**
+     * Stops the ticker thread. The clock is frozen afterward.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        if (this.ticker != null) {
+            this.ticker.interrupt();
+        }
+    }
+
+    /**
+     * Advances this clock by the monotonic time elapsed since its anchor. Only the ticker thread, or the caller of a
+     * clock without ticker thread, updates the clock.
+     */
+    void update() {
+        long elapsedNanos = this.nanoTime.getAsLong() - this.anchorNanos;
+        this.currentTimeMillis = this.anchorMillis + TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    private void tick() {
+        while (this.running && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(TICK_NANOS);
+            this.update();
+        }
+    }
+}
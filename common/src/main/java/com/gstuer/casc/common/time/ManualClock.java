@@ -0,0 +1,28 @@
+package com.gstuer.casc.common.time;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a clock that only advances when told to, e.g. to test time-dependent components deterministically.
+ */
+public final class ManualClock implements MillisClock {
+    private final AtomicLong currentTimeMillis;
+
+    public ManualClock(long currentTimeMillis) {
+        this.currentTimeMillis = new AtomicLong(currentTimeMillis);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return this.currentTimeMillis.get();
+    }
+
+    public void setTimeMillis(long currentTimeMillis) {
+        this.currentTimeMillis.set(currentTimeMillis);
+    }
+
+    public void advance(Duration duration) {
+        this.currentTimeMillis.addAndGet(duration.toMillis());
+    }
+}
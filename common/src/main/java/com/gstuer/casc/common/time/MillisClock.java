@@ -0,0 +1,25 @@
+package com.gstuer.casc.common.time;
+
+/**
+ * Represents a source of the current time in milliseconds since the epoch. Time-dependent components take a clock
+ * instead of querying the system time, so that the data path can use a {@link CoarseClock coarse clock} and tests or
+ * benchmarks can drive time deterministically with a {@link ManualClock manual clock}.
+ */
+@FunctionalInterface
+public interface MillisClock {
+    /**
+     * Gets the current time.
+     *
+     * @return the current time in milliseconds since the epoch.
+     */
+    long currentTimeMillis();
+
+    /**
+     * Gets the shared {@link CoarseClock coarse clock} of the process.
+     *
+     * @return the default clock.
+     */
+    static MillisClock getDefault() {
+        return CoarseClock.getDefault();
+    }
+}
@@ -0,0 +1,206 @@
+package com.gstuer.casc.common.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RingBufferTest {
+    @Test
+    public void testCapacityRoundedToPowerOfTwo() {
+        // Test data
+        RingBuffer<Integer> buffer = new RingBuffer<>(5, RingBuffer.OverflowPolicy.DROP_NEWEST);
+
+        // Assertion
+        assertEquals(8, buffer.getCapacity());
+        assertEquals(8, buffer.remainingCapacity());
+    }
+
+    @Test
+    public void testFifoOrder() throws InterruptedException {
+        // Test data
+        RingBuffer<Integer> buffer = new RingBuffer<>(4, RingBuffer.OverflowPolicy.DROP_NEWEST);
+
+        // Execution
+        for (int i = 0; i < 10; i++) {
+            buffer.offer(i);
+            // Assertion
+            assertEquals(i, (int) buffer.take());
+        }
+
+        // Assertion
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testDropNewest() {
+        // Test data
+        RingBuffer<Integer> buffer = new RingBuffer<>(2, RingBuffer.OverflowPolicy.DROP_NEWEST);
+
+        // Execution
+        boolean first = buffer.offer(1);
+        boolean second = buffer.offer(2);
+        boolean third = buffer.offer(3);
+
+        // Assertions
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(1, buffer.getDropCount());
+        assertEquals(1, (int) buffer.poll());
+        assertEquals(2, (int) buffer.poll());
+    }
+
+    @Test
+    public void testDropOldest() {
+        // Test data
+        RingBuffer<Integer> buffer = new RingBuffer<>(2, RingBuffer.OverflowPolicy.DROP_OLDEST);
+
+        // Execution
+        buffer.offer(1);
+        buffer.offer(2);
+        boolean third = buffer.offer(3);
+
+        // Assertions
+        assertTrue(third);
+        assertEquals(1, buffer.getDropCount());
+        assertEquals(2, (int) buffer.poll());
+        assertEquals(3, (int) buffer.poll());
+    }
+
+    @Test
+    public void testBlockUntilConsumed() throws InterruptedException {
+        // Test data
+        RingBuffer<Integer> buffer = new RingBuffer<>(2, RingBuffer.OverflowPolicy.BLOCK);
+        buffer.offer(0);
+        buffer.offer(1);
+        Thread producer = new Thread(() -> buffer.offer(2));
+
+        // Execution
+        producer.start();
+        Thread.sleep(20);
+        buffer.take();
+        int first = buffer.take();
+        int second = buffer.take();
+        producer.join();
+
+        // Assertions
+        assertEquals(1, first);
+        assertEquals(2, second);
+        assertEquals(0, buffer.getDropCount());
+    }
+
+    @Test
+    public void testPollTimeout() throws InterruptedException {
+        // Test data
+        RingBuffer<Integer> buffer = new RingBuffer<>(1, RingBuffer.OverflowPolicy.BLOCK);
+
+        // Execution
+        Integer element = buffer.poll(5, TimeUnit.MILLISECONDS);
+
+        // Assertion
+        assertNull(element);
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        // Test data
+        int producerCount = 4;
+        int elementsPerProducer = 10_000;
+        RingBuffer<Integer> buffer = new RingBuffer<>(64, RingBuffer.OverflowPolicy.BLOCK);
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < producerCount; i++) {
+            producers.add(new Thread(() -> {
+                for (int j = 0; j < elementsPerProducer; j++) {
+                    buffer.offer(1);
+                }
+            }));
+        }
+
+        // Execution
+        producers.forEach(Thread::start);
+        long sum = 0;
+        for (int i = 0; i < producerCount * elementsPerProducer; i++) {
+            sum += buffer.take();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        // Assertions
+        assertEquals((long) producerCount * elementsPerProducer, sum);
+        assertEquals(0, buffer.size());
+        assertTrue(buffer.getPeakSize() <= buffer.getCapacity());
+    }
+
+    @Test
+    public void testIterationAfterWrapAround() {
+        // Test data
+        RingBuffer<Integer> buffer = new RingBuffer<>(4, RingBuffer.OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 6; i++) {
+            buffer.offer(i);
+        }
+
+        // Execution
+        List<Integer> elements = new ArrayList<>(buffer);
+        Iterator<Integer> iterator = buffer.iterator();
+        iterator.next();
+
+        // Assertions
+        assertEquals(List.of(2, 3, 4, 5), elements);
+        assertEquals("[2, 3, 4, 5]", buffer.toString());
+        assertTrue(buffer.containsAll(List.of(5, 2)));
+        assertFalse(buffer.contains(1));
+        assertThrows(UnsupportedOperationException.class, iterator::remove);
+        assertEquals(4, buffer.size());
+    }
+
+    @Test
+    public void testIterationDuringConcurrentUse() throws InterruptedException {
+        // Test data
+        int elementCount = 200_000;
+        RingBuffer<Integer> buffer = new RingBuffer<>(16, RingBuffer.OverflowPolicy.BLOCK);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < elementCount; i++) {
+                buffer.offer(i);
+            }
+        });
+        Thread consumer = new Thread(() -> {
+            for (int i = 0; i < elementCount; i++) {
+                try {
+                    buffer.take();
+                } catch (InterruptedException exception) {
+                    return;
+                }
+            }
+        });
+
+        // Execution
+        producer.start();
+        consumer.start();
+        List<Integer> invalidSnapshot = null;
+        while (consumer.isAlive() && invalidSnapshot == null) {
+            List<Integer> snapshot = new ArrayList<>(buffer);
+            for (int i = 1; i < snapshot.size(); i++) {
+                if (snapshot.get(i - 1) >= snapshot.get(i)) {
+                    invalidSnapshot = snapshot;
+                }
+            }
+        }
+        producer.join();
+        consumer.join();
+
+        // Assertions: Each snapshot holds ascending elements without duplicates
+        assertNull(invalidSnapshot);
+        assertFalse(buffer.iterator().hasNext());
+    }
+}
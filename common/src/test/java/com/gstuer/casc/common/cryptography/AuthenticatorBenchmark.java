@@ -0,0 +1,60 @@
+package com.gstuer.casc.common.cryptography;
+
+import java.security.InvalidKeyException;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures signing and verification of the JCA-based {@link Authenticator authenticators} created by the
+ * {@link AuthenticatorFactory}. Run via the main method, e.g. from the IDE, since the benchmark is not part of the
+ * test suite.
+ */
+public class AuthenticatorBenchmark {
+    private static final int DATA_LENGTH = 128;
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MEASUREMENT_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    public static void main(String[] args) throws InvalidKeyException, SignatureException {
+        List<String> algorithmIdentifiers = new ArrayList<>();
+        algorithmIdentifiers.add(Ed25519Authenticator.ALGORITHM_IDENTIFIER);
+        for (RsaAuthenticator.Algorithm algorithm : RsaAuthenticator.Algorithm.values()) {
+            algorithmIdentifiers.add(algorithm.getAlgorithmIdentifier());
+        }
+        algorithmIdentifiers.add(HmacAuthenticator.ALGORITHM_IDENTIFIER);
+
+        byte[] data = new byte[DATA_LENGTH];
+        for (String algorithmIdentifier : algorithmIdentifiers) {
+            Authenticator<?, ?> authenticator = AuthenticatorFactory.createByIdentifier(algorithmIdentifier).orElseThrow();
+            authenticator.initializeKeyPair();
+            DigitalSignature signature = authenticator.sign(data);
+
+            System.out.printf("%s:\n", algorithmIdentifier);
+            measure("sign", () -> authenticator.sign(data) != null);
+            measure("verify", () -> authenticator.verify(data, signature));
+        }
+    }
+
+    private static void measure(String name, Operation operation) throws InvalidKeyException, SignatureException {
+        int sink = 0;
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            sink += operation.run() ? 1 : 0;
+        }
+        long iterations = 0;
+        long start = System.nanoTime();
+        long duration;
+        do {
+            sink += operation.run() ? 1 : 0;
+            iterations++;
+            duration = System.nanoTime() - start;
+        } while (duration < MEASUREMENT_NANOS);
+        System.out.printf("    %-30s %12.1f ns/op (%d)\n", name, (double) duration / iterations, sink & 1);
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        boolean run() throws InvalidKeyException, SignatureException;
+    }
+}
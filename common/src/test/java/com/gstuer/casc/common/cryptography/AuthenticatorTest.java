@@ -0,0 +1,109 @@
+package com.gstuer.casc.common.cryptography;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.InvalidKeyException;
+import java.security.SignatureException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuthenticatorTest {
+    private static final List<String> ALGORITHM_IDENTIFIERS = List.of(Ed25519Authenticator.ALGORITHM_IDENTIFIER,
+            RsaAuthenticator.Algorithm.SHA2_256.getAlgorithmIdentifier(), HmacAuthenticator.ALGORITHM_IDENTIFIER,
+            CasaAuthenticator.ALGORITHM_IDENTIFIER);
+
+    @Test
+    public void testVerificationFollowsKeyChange() throws InvalidKeyException, SignatureException {
+        for (String algorithmIdentifier : ALGORITHM_IDENTIFIERS) {
+            // Test data
+            byte[] data = {1, 2, 3, 4};
+            Authenticator<?, ?> authenticator = AuthenticatorFactory.createByIdentifier(algorithmIdentifier).orElseThrow();
+            authenticator.initializeKeyPair();
+            DigitalSignature signature = authenticator.sign(data);
+
+            // Execution
+            boolean isVerified = authenticator.verify(data, signature);
+            authenticator.initializeKeyPair();
+            boolean isVerifiedAfterKeyChange = authenticator.verify(data, signature);
+            boolean isResignedVerified = authenticator.verify(data, authenticator.sign(data));
+
+            // Assertions
+            assertTrue(isVerified, algorithmIdentifier);
+            assertFalse(isVerifiedAfterKeyChange, algorithmIdentifier);
+            assertTrue(isResignedVerified, algorithmIdentifier);
+        }
+    }
+
+    @Test
+    public void testVerifyAllReportsInvalidSignatures() throws InvalidKeyException, SignatureException {
+        for (String algorithmIdentifier : ALGORITHM_IDENTIFIERS) {
+            // Test data
+            Authenticator<?, ?> authenticator = AuthenticatorFactory.createByIdentifier(algorithmIdentifier).orElseThrow();
+            authenticator.initializeKeyPair();
+            List<byte[]> data = List.of(new byte[]{1}, new byte[]{2}, new byte[]{3});
+            List<DigitalSignature> signatures = List.of(authenticator.sign(data.get(0)), authenticator.sign(data.get(0)),
+                    authenticator.sign(data.get(2)));
+
+            // Execution
+            boolean[] results = authenticator.verifyAll(data, signatures);
+
+            // Assertion
+            assertArrayEquals(new boolean[]{true, false, true}, results, algorithmIdentifier);
+        }
+    }
+
+    @Test
+    public void testOnlyCasaHasBatchVerification() {
+        for (String algorithmIdentifier : ALGORITHM_IDENTIFIERS) {
+            // Test data
+            Authenticator<?, ?> authenticator = AuthenticatorFactory.createByIdentifier(algorithmIdentifier).orElseThrow();
+
+            // Execution
+            boolean hasBatchVerification = authenticator.hasBatchVerification();
+
+            // Assertion
+            assertEquals(CasaAuthenticator.ALGORITHM_IDENTIFIER.equals(algorithmIdentifier), hasBatchVerification,
+                    algorithmIdentifier);
+        }
+    }
+
+    @Test
+    public void testConcurrentSigningAndVerification() throws InterruptedException, ExecutionException {
+        // Test data
+        int threadCount = 4;
+        int operationCount = 200;
+        Authenticator<?, ?> authenticator = new HmacAuthenticator();
+        authenticator.initializeKeyPair();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+        // Execution
+        List<Future<Boolean>> results;
+        try {
+            results = executor.invokeAll(Collections.nCopies(threadCount, () -> {
+                for (int index = 0; index < operationCount; index++) {
+                    byte[] data = {(byte) index, 1, 2, 3};
+                    if (!authenticator.verify(data, authenticator.sign(data))) {
+                        return false;
+                    }
+                }
+                return true;
+            }));
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assertion
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.gstuer.casc.common.cryptography;
+
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Pairing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Measures the pairings of the {@link CasaAuthenticator} with and without the preprocessed Miller loop of g2, as well
+ * as its signing and verification. Run via the main method, e.g. from the IDE, since the benchmark is not part of the
+ * test suite.
+ */
+public class CasaAuthenticatorBenchmark {
+    private static final int DATA_LENGTH = 128;
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final long MEASUREMENT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    public static void main(String[] args) {
+        CasaAuthenticator authenticator = new CasaAuthenticator();
+        authenticator.initializeKeyPair();
+        Pairing pairing = authenticator.getPairing();
+        Element g2 = authenticator.getG2();
+        byte[] data = new byte[DATA_LENGTH];
+        DigitalSignature signature = authenticator.sign(data);
+        Element sigma = pairing.getG1().newElementFromBytes(signature.getData()).getImmutable();
+
+        System.out.printf("%s:\n", CasaAuthenticator.ALGORITHM_IDENTIFIER);
+        measure("pairing e(sigma, g2)", () -> pairing.pairing(sigma, g2) != null);
+        measure("preprocessed pairing e(g2, sigma)", () -> authenticator.pairWithG2(sigma) != null);
+        measure("sign", () -> authenticator.sign(data) != null);
+        measure("verify", () -> authenticator.verify(data, signature));
+    }
+
+    private static void measure(String name, BooleanSupplier operation) {
+        int sink = 0;
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            sink += operation.getAsBoolean() ? 1 : 0;
+        }
+        long iterations = 0;
+        long start = System.nanoTime();
+        long duration;
+        do {
+            sink += operation.getAsBoolean() ? 1 : 0;
+            iterations++;
+            duration = System.nanoTime() - start;
+        } while (duration < MEASUREMENT_NANOS);
+        System.out.printf("    %-40s %12.1f ns/op (%d)\n", name, (double) duration / iterations, sink & 1);
+    }
+}
@@ -0,0 +1,266 @@
+package com.gstuer.casc.common.cryptography;
+
+import it.unisa.dia.gas.jpbc.Element;
+import it.unisa.dia.gas.jpbc.Field;
+import it.unisa.dia.gas.jpbc.Pairing;
+import org.junit.jupiter.api.Test;
+
+import java.security.spec.InvalidKeySpecException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CasaAuthenticatorTest {
+    @Test
+    public void testSignAndVerify() {
+        // Test data
+        CasaAuthenticator authenticator = new CasaAuthenticator();
+        authenticator.initializeKeyPair();
+        byte[] data = {1, 2, 3, 4};
+
+        // Execution
+        DigitalSignature signature = authenticator.sign(data);
+
+        // Assertions
+        assertEquals(CasaAuthenticator.ALGORITHM_IDENTIFIER, signature.getAlgorithmIdentifier());
+        assertEquals(signature, authenticator.sign(data));
+        assertTrue(authenticator.verify(data, signature));
+    }
+
+    @Test
+    public void testVerifyRejectsOtherData() {
+        // Test data
+        CasaAuthenticator authenticator = new CasaAuthenticator();
+        authenticator.initializeKeyPair();
+        DigitalSignature signature = authenticator.sign(new byte[]{1, 2, 3, 4});
+
+        // Execution & Assertion
+        assertFalse(authenticator.verify(new byte[]{1, 2, 3, 5}, signature));
+    }
+
+    @Test
+    public void testVerifyWithEncodedKey() throws InvalidKeySpecException {
+        // Test data
+        CasaAuthenticator signer = new CasaAuthenticator();
+        signer.initializeKeyPair();
+        CasaAuthenticator otherSigner = new CasaAuthenticator();
+        otherSigner.initializeKeyPair();
+        CasaAuthenticator verifier = new CasaAuthenticator();
+        byte[] data = {1, 2, 3, 4};
+        EncodedKey encodedKey = new EncodedKey(CasaAuthenticator.ALGORITHM_IDENTIFIER,
+                signer.getVerificationKey().getEncoded());
+
+        // Execution
+        verifier.setVerificationKey(encodedKey);
+
+        // Assertions
+        assertTrue(verifier.verify(data, signer.sign(data)));
+        assertFalse(verifier.verify(data, otherSigner.sign(data)));
+        assertThrows(InvalidKeySpecException.class, () -> verifier.setVerificationKey(
+                new EncodedKey(CasaAuthenticator.ALGORITHM_IDENTIFIER, new byte[]{1, 2, 3, 4})));
+    }
+
+    @Test
+    public void testEncodedKeyLayout() {
+        // Test data
+        CasaAuthenticator authenticator = new CasaAuthenticator();
+        authenticator.initializeKeyPair();
+        CasaAuthenticator.PublicKey publicKey = authenticator.getVerificationKey();
+        byte[] encodedPkAgg = publicKey.getPkAgg().toBytes();
+        byte[] encodedX = publicKey.getX().toBytes();
+
+        // Execution
+        byte[] encodedKey = publicKey.getEncoded();
+
+        // Assertions: pk_agg followed by X, a key of pk_agg only is rejected
+        assertArrayEquals(encodedPkAgg, Arrays.copyOfRange(encodedKey, 0, encodedPkAgg.length));
+        assertArrayEquals(encodedX, Arrays.copyOfRange(encodedKey, encodedPkAgg.length, encodedKey.length));
+        assertThrows(InvalidKeySpecException.class, () -> authenticator.setVerificationKey(
+                new EncodedKey(CasaAuthenticator.ALGORITHM_IDENTIFIER, encodedPkAgg)));
+    }
+
+    @Test
+    public void testVerifyAllRejectsMismatchedPairs() {
+        // Test data
+        CasaAuthenticator authenticator = new CasaAuthenticator();
+        authenticator.initializeKeyPair();
+        List<byte[]> data = new ArrayList<>();
+        List<DigitalSignature> signatures = new ArrayList<>();
+        for (int index = 0; index < 4; index++) {
+            data.add(("message-" + index).getBytes());
+            signatures.add(authenticator.sign(data.get(index)));
+        }
+        List<DigitalSignature> swappedSignatures = new ArrayList<>(signatures);
+        Collections.swap(swappedSignatures, 1, 2);
+
+        // Execution
+        boolean[] results = authenticator.verifyAll(data, signatures);
+        boolean[] swappedResults = authenticator.verifyAll(data, swappedSignatures);
+
+        // Assertions
+        assertArrayEquals(new boolean[]{true, true, true, true}, results);
+        assertArrayEquals(new boolean[]{true, false, false, true}, swappedResults);
+    }
+
+    @Test
+    public void testVerifyAllRejectsForgedSignature() {
+        // Test data
+        CasaAuthenticator authenticator = new CasaAuthenticator();
+        authenticator.initializeKeyPair();
+        List<byte[]> data = new ArrayList<>();
+        List<DigitalSignature> signatures = new ArrayList<>();
+        for (int index = 0; index < 4; index++) {
+            data.add(("message-" + index).getBytes());
+            signatures.add(authenticator.sign(data.get(index)));
+        }
+        Element forgedElement = authenticator.getPairing().getG1().newRandomElement();
+        signatures.set(2, new DigitalSignature(forgedElement.toBytes(), CasaAuthenticator.ALGORITHM_IDENTIFIER));
+
+        // Execution
+        boolean[] results = authenticator.verifyAll(data, signatures);
+
+        // Assertion
+        assertArrayEquals(new boolean[]{true, true, false, true}, results);
+    }
+
+    @Test
+    public void testVerifyAllRejectsCancellingSignatures() {
+        // Test data: Two signatures forged so that their product equals the product of the valid signatures
+        CasaAuthenticator authenticator = new CasaAuthenticator();
+        authenticator.initializeKeyPair();
+        Field<?> g1 = authenticator.getPairing().getG1();
+        List<byte[]> data = new ArrayList<>();
+        List<DigitalSignature> signatures = new ArrayList<>();
+        for (int index = 0; index < 4; index++) {
+            data.add(("message-" + index).getBytes());
+            signatures.add(authenticator.sign(data.get(index)));
+        }
+        Element delta = g1.newRandomElement().getImmutable();
+        Element firstForgery = g1.newElementFromBytes(signatures.get(1).getData()).getImmutable().mul(delta);
+        Element secondForgery = g1.newElementFromBytes(signatures.get(2).getData()).getImmutable().div(delta);
+        signatures.set(1, new DigitalSignature(firstForgery.toBytes(), CasaAuthenticator.ALGORITHM_IDENTIFIER));
+        signatures.set(2, new DigitalSignature(secondForgery.toBytes(), CasaAuthenticator.ALGORITHM_IDENTIFIER));
+
+        // Execution
+        boolean[] results = authenticator.verifyAll(data, signatures);
+
+        // Assertion
+        assertArrayEquals(new boolean[]{true, false, false, true}, results);
+    }
+
+    @Test
+    public void testVerifyRejectsElementsOutsideSubgroup() {
+        // Test data: The all-zero encoding is a point of order two on type A curves, not in the subgroup of order r
+        CasaAuthenticator authenticator = new CasaAuthenticator();
+        authenticator.initializeKeyPair();
+        Field<?> g1 = authenticator.getPairing().getG1();
+        Element torsionElement = g1.newElementFromBytes(new byte[g1.getLengthInBytes()]).getImmutable();
+        List<byte[]> data = List.of(new byte[]{1}, new byte[]{2}, new byte[]{3});
+        List<DigitalSignature> signatures = new ArrayList<>();
+        for (byte[] item : data) {
+            signatures.add(authenticator.sign(item));
+        }
+        Element validElement = g1.newElementFromBytes(signatures.get(1).getData()).getImmutable();
+        signatures.set(1, new DigitalSignature(validElement.mul(torsionElement).toBytes(),
+                CasaAuthenticator.ALGORITHM_IDENTIFIER));
+        DigitalSignature identitySignature = new DigitalSignature(g1.newOneElement().toBytes(),
+                CasaAuthenticator.ALGORITHM_IDENTIFIER);
+        byte[] encodedKey = authenticator.getVerificationKey().getEncoded();
+        byte[] torsionKey = Arrays.copyOf(encodedKey, encodedKey.length);
+        Arrays.fill(torsionKey, 0, g1.getLengthInBytes(), (byte) 0);
+
+        // Execution
+        boolean isTorsionSignatureVerified = authenticator.verify(data.get(1), signatures.get(1));
+        boolean isIdentitySignatureVerified = authenticator.verify(data.get(1), identitySignature);
+        boolean[] results = authenticator.verifyAll(data, signatures);
+
+        // Assertions
+        assertFalse(torsionElement.pow(g1.getOrder()).isOne());
+        assertFalse(isTorsionSignatureVerified);
+        assertFalse(isIdentitySignatureVerified);
+        assertArrayEquals(new boolean[]{true, false, true}, results);
+        assertThrows(InvalidKeySpecException.class, () -> authenticator.setVerificationKey(
+                new EncodedKey(CasaAuthenticator.ALGORITHM_IDENTIFIER, torsionKey)));
+    }
+
+    @Test
+    public void testPreprocessedPairingEqualsPairing() {
+        // Test data
+        CasaAuthenticator authenticator = new CasaAuthenticator();
+        authenticator.initializeKeyPair();
+        Pairing pairing = authenticator.getPairing();
+        List<Element> elements = new ArrayList<>();
+        elements.add(pairing.getG1().newRandomElement().getImmutable());
+        elements.add(pairing.getG1().newOneElement().getImmutable());
+        elements.add(authenticator.getVerificationKey().getPkAgg());
+        elements.add(pairing.getG1().newElementFromBytes(authenticator.sign(new byte[]{1, 2, 3, 4}).getData())
+                .getImmutable());
+
+        for (Element element : elements) {
+            // Execution
+            Element preprocessedPairing = authenticator.pairWithG2(element);
+
+            // Assertion
+            assertTrue(preprocessedPairing.isEqual(pairing.pairing(element, authenticator.getG2())));
+        }
+    }
+
+    @Test
+    public void testConcurrentSigningAndVerification() throws InterruptedException, ExecutionException {
+        // Test data
+        int threadCount = 8;
+        int messageCount = 16;
+        CasaAuthenticator authenticator = new CasaAuthenticator();
+        authenticator.initializeKeyPair();
+        List<byte[]> messages = new ArrayList<>();
+        List<DigitalSignature> expectedSignatures = new ArrayList<>();
+        for (int index = 0; index < messageCount; index++) {
+            byte[] message = ("message-" + index).getBytes();
+            messages.add(message);
+            expectedSignatures.add(authenticator.sign(message));
+        }
+
+        // Execution: Signing is deterministic, thus races on shared hash state would change signatures
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < threadCount; thread++) {
+                int offset = thread;
+                results.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int index = 0; index < messageCount; index++) {
+                        int messageIndex = (index + offset) % messageCount;
+                        byte[] message = messages.get(messageIndex);
+                        DigitalSignature signature = authenticator.sign(message);
+                        if (!signature.equals(expectedSignatures.get(messageIndex))
+                                || !authenticator.verify(message, signature)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            startLatch.countDown();
+
+            // Assertion
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.gstuer.casc.common.cryptography;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MerkleTreeTest {
+    @Test
+    public void testProofsComputeRoot() {
+        for (int leafCount = 1; leafCount <= 17; leafCount++) {
+            // Test data
+            List<byte[]> data = createData(leafCount);
+
+            // Execution
+            MerkleTree tree = MerkleTree.of(data);
+
+            // Assertions
+            assertEquals(leafCount, tree.getLeafCount());
+            for (int index = 0; index < leafCount; index++) {
+                Optional<byte[]> root = tree.getProof(index).computeRoot(data.get(index));
+                assertTrue(root.isPresent());
+                assertArrayEquals(tree.getRoot(), root.get());
+            }
+        }
+    }
+
+    @Test
+    public void testProofRejectsOtherData() {
+        // Test data
+        List<byte[]> data = createData(5);
+        MerkleTree tree = MerkleTree.of(data);
+        MerkleProof proof = tree.getProof(2);
+
+        // Execution
+        Optional<byte[]> root = proof.computeRoot(data.get(3));
+
+        // Assertions
+        assertTrue(root.isPresent());
+        assertFalse(Arrays.equals(tree.getRoot(), root.get()));
+    }
+
+    @Test
+    public void testMalformedProofYieldsNoRoot() {
+        // Test data
+        List<byte[]> data = createData(4);
+        MerkleTree tree = MerkleTree.of(data);
+        MerkleProof proof = tree.getProof(1);
+        byte[][] extendedSiblings = {tree.getRoot(), tree.getRoot(), tree.getRoot()};
+
+        // Execution & Assertions
+        assertTrue(new MerkleProof(4, 4, new byte[2][]).computeRoot(data.get(1)).isEmpty());
+        assertTrue(new MerkleProof(-1, 4, new byte[2][]).computeRoot(data.get(1)).isEmpty());
+        assertTrue(new MerkleProof(proof.getLeafIndex(), proof.getLeafCount(), extendedSiblings)
+                .computeRoot(data.get(1)).isEmpty());
+    }
+
+    @Test
+    public void testLeafCannotBeInnerNode() {
+        // Test data
+        List<byte[]> data = createData(2);
+        MerkleTree tree = MerkleTree.of(data);
+        List<byte[]> innerNodeAsLeaf = List.of(ByteBuffer.allocate(64)
+                .put(MerkleTree.hashLeaf(data.get(0))).put(MerkleTree.hashLeaf(data.get(1))).array());
+
+        // Execution & Assertion
+        assertFalse(Arrays.equals(tree.getRoot(), MerkleTree.of(innerNodeAsLeaf).getRoot()));
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        assertThrows(IllegalArgumentException.class, () -> MerkleTree.of(List.of()));
+    }
+
+    private static List<byte[]> createData(int count) {
+        List<byte[]> data = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            data.add(("packet-" + index).getBytes());
+        }
+        return data;
+    }
+}
@@ -0,0 +1,108 @@
+package com.gstuer.casc.common.egress;
+
+import com.gstuer.casc.common.capture.CaptureBackend;
+import com.gstuer.casc.common.capture.CaptureException;
+import com.gstuer.casc.common.frame.Frame;
+import org.junit.jupiter.api.Test;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.UnknownPacket;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PacketEgressHandlerTest {
+    @Test
+    public void testDrainedPacketsAreSentAsOneBatch() {
+        // Test data
+        int packetCount = 5;
+        RecordingCaptureBackend backend = new RecordingCaptureBackend();
+        BlockingQueue<Packet> egressQueue = new LinkedBlockingQueue<>();
+        for (int index = 0; index < packetCount; index++) {
+            egressQueue.add(UnknownPacket.newPacket(new byte[]{(byte) index}, 0, 1));
+        }
+        PacketEgressHandler handler = new PacketEgressHandler(backend, egressQueue, 8, 0);
+
+        // Execution: Backend closes itself after the first transmission, which ends the handler loop
+        handler.open();
+
+        // Assertions
+        assertEquals(1, backend.batches.size());
+        assertEquals(0, backend.transmittedFrames.size());
+        List<byte[]> batch = backend.batches.get(0);
+        assertEquals(packetCount, batch.size());
+        for (int index = 0; index < packetCount; index++) {
+            assertArrayEquals(new byte[]{(byte) index}, batch.get(index));
+        }
+        assertTrue(egressQueue.isEmpty());
+    }
+
+    @Test
+    public void testDefaultBatchContinuesAfterFailedFrame() {
+        // Test data
+        RecordingCaptureBackend backend = new RecordingCaptureBackend();
+        List<byte[]> frames = List.of(new byte[]{1}, new byte[0], new byte[]{2}, new byte[0]);
+
+        // Execution
+        CaptureException exception = assertThrows(CaptureException.class, () -> backend.transmitEachOf(frames));
+
+        // Assertions
+        assertEquals(2, backend.transmittedFrames.size());
+        assertArrayEquals(new byte[]{1}, backend.transmittedFrames.get(0));
+        assertArrayEquals(new byte[]{2}, backend.transmittedFrames.get(1));
+        assertEquals(1, exception.getSuppressed().length);
+    }
+
+    private static class RecordingCaptureBackend implements CaptureBackend {
+        private final List<List<byte[]>> batches = new ArrayList<>();
+        private final List<byte[]> transmittedFrames = new ArrayList<>();
+        private boolean open = true;
+
+        @Override
+        public void capture(Consumer<Frame> frameConsumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void transmit(byte[] buffer, int offset, int length) throws CaptureException {
+            if (length == 0) {
+                throw new CaptureException("Empty frame.");
+            }
+            this.transmittedFrames.add(Arrays.copyOfRange(buffer, offset, offset + length));
+            this.close();
+        }
+
+        @Override
+        public void sendBatch(List<byte[]> frames) {
+            this.batches.add(List.copyOf(frames));
+            this.close();
+        }
+
+        private void transmitEachOf(List<byte[]> frames) throws CaptureException {
+            CaptureBackend.super.sendBatch(frames);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return this.open;
+        }
+
+        @Override
+        public void close() {
+            this.open = false;
+        }
+
+        @Override
+        public String getInterfaceName() {
+            return "test0";
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.gstuer.casc.common.frame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class FlowHashTest {
+    // Ethernet: ff:ff:ff:ff:ff:ff <- 00:00:00:00:00:01, IPv4: 192.168.0.50 -> 192.168.0.51, UDP: 10001 -> 10000
+    private static final String UDP_FRAME = "ffffffffffff" + "000000000001" + "0800"
+            + "4500001c000040004011" + "0000" + "c0a80032" + "c0a80033"
+            + "2711" + "2710" + "0008" + "0000";
+
+    @Test
+    public void testEqualFlowsHaveEqualHash() {
+        // Test data
+        byte[] frame = HexFormat.of().parseHex(UDP_FRAME);
+        byte[] sameFlowFrame = HexFormat.of().parseHex(UDP_FRAME);
+        sameFlowFrame[14 + 4] = 0x12; // Different IPv4 identification
+        byte[] buffer = new byte[frame.length + 3];
+        System.arraycopy(frame, 0, buffer, 3, frame.length);
+
+        // Assertions
+        assertEquals(FlowHash.of(frame), FlowHash.of(sameFlowFrame));
+        assertEquals(FlowHash.of(frame), FlowHash.of(buffer, 3, frame.length));
+    }
+
+    @Test
+    public void testPortsDistinguishFlows() {
+        // Test data
+        byte[] frame = HexFormat.of().parseHex(UDP_FRAME);
+        byte[] otherFlowFrame = HexFormat.of().parseHex(UDP_FRAME);
+        otherFlowFrame[14 + 20 + 1] = 0x12; // Different UDP source port
+
+        // Assertion
+        assertNotEquals(FlowHash.of(frame), FlowHash.of(otherFlowFrame));
+    }
+
+    @Test
+    public void testFragmentsIgnorePorts() {
+        // Test data: fragments (more fragments flag set) with different ports
+        byte[] fragment = HexFormat.of().parseHex(UDP_FRAME);
+        fragment[14 + 6] = 0x20;
+        byte[] otherFragment = fragment.clone();
+        otherFragment[14 + 20 + 1] = 0x12;
+
+        // Assertion
+        assertEquals(FlowHash.of(fragment), FlowHash.of(otherFragment));
+    }
+
+    @Test
+    public void testTruncatedFrame() {
+        // Assertion
+        assertEquals(0, FlowHash.of(new byte[13]));
+    }
+}
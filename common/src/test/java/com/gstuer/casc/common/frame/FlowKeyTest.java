@@ -0,0 +1,63 @@
+package com.gstuer.casc.common.frame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FlowKeyTest {
+    // Ethernet: ff:ff:ff:ff:ff:ff <- 00:00:00:00:00:01, IPv4: 192.168.0.50 -> 192.168.0.51, UDP: 10001 -> 10000
+    private static final String UDP_FRAME = "ffffffffffff" + "000000000001" + "0800"
+            + "4500001c000040004011" + "0000" + "c0a80032" + "c0a80033"
+            + "2711" + "2710" + "0008" + "0000";
+
+    @Test
+    public void testEqualFlowsHaveEqualKeys() {
+        // Test data
+        byte[] frame = HexFormat.of().parseHex(UDP_FRAME);
+        byte[] sameFlowFrame = HexFormat.of().parseHex(UDP_FRAME);
+        sameFlowFrame[14 + 4] = 0x12; // Different IPv4 identification
+        byte[] buffer = new byte[frame.length + 3];
+        System.arraycopy(frame, 0, buffer, 3, frame.length);
+
+        // Assertions
+        assertEquals(FlowKey.of(frame), FlowKey.of(sameFlowFrame));
+        assertEquals(FlowKey.of(frame), FlowKey.of(buffer, 3, frame.length));
+    }
+
+    @Test
+    public void testHeaderFieldsDistinguishFlows() {
+        // Test data
+        byte[] frame = HexFormat.of().parseHex(UDP_FRAME);
+        byte[] otherPortFrame = HexFormat.of().parseHex(UDP_FRAME);
+        otherPortFrame[14 + 20 + 1] = 0x12; // Different UDP source port
+        byte[] otherMacFrame = HexFormat.of().parseHex(UDP_FRAME);
+        otherMacFrame[11] = 0x02; // Different source MAC address
+
+        // Assertions
+        assertNotEquals(FlowKey.of(frame), FlowKey.of(otherPortFrame));
+        assertNotEquals(FlowKey.of(frame), FlowKey.of(otherMacFrame));
+    }
+
+    @Test
+    public void testFragmentsIgnorePorts() {
+        // Test data: fragments (more fragments flag set) with different ports
+        byte[] fragment = HexFormat.of().parseHex(UDP_FRAME);
+        fragment[14 + 6] = 0x20;
+        byte[] otherFragment = fragment.clone();
+        otherFragment[14 + 20 + 1] = 0x12;
+
+        // Assertions
+        assertEquals(FlowKey.of(fragment), FlowKey.of(otherFragment));
+        assertNotEquals(FlowKey.of(fragment), FlowKey.of(HexFormat.of().parseHex(UDP_FRAME)));
+    }
+
+    @Test
+    public void testTruncatedFrame() {
+        // Assertion
+        assertThrows(IllegalArgumentException.class, () -> FlowKey.of(new byte[13]));
+    }
+}
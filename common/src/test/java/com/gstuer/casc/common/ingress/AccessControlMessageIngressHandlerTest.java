@@ -0,0 +1,86 @@
+package com.gstuer.casc.common.ingress;
+
+import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.message.KeyExchangeRequestMessage;
+import com.gstuer.casc.common.serialization.JsonProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccessControlMessageIngressHandlerTest {
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Test
+    public void testMessagesAreHandledByWorkerPool() throws Exception {
+        // Test data
+        int messageCount = 32;
+        int workerCount = 2;
+        InetAddress localhost = InetAddress.getLoopbackAddress();
+        List<AccessControlMessage<?>> messages = new CopyOnWriteArrayList<>();
+        Set<Thread> handlingThreads = ConcurrentHashMap.newKeySet();
+        CountDownLatch receivedLatch = new CountDownLatch(messageCount);
+        int port = findFreePort();
+        AccessControlMessageIngressHandler handler = new AccessControlMessageIngressHandler(port, message -> {
+            messages.add(message);
+            handlingThreads.add(Thread.currentThread());
+            receivedLatch.countDown();
+        }, workerCount);
+        Thread handlerThread = new Thread(handler::open);
+        handlerThread.start();
+
+        // Execution
+        try (DatagramSocket socket = new DatagramSocket()) {
+            awaitOpen(handler);
+            byte[] serialMessage = new JsonProcessor().serialize(
+                    new KeyExchangeRequestMessage(null, localhost, null, "Ed25519"));
+            for (int index = 0; index < messageCount; index++) {
+                socket.send(new DatagramPacket(serialMessage, serialMessage.length, localhost, port));
+            }
+            assertTrue(receivedLatch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        } finally {
+            handler.close();
+            handlerThread.join(TIMEOUT_MILLIS);
+        }
+
+        // Assertions
+        assertEquals(messageCount, messages.size());
+        for (AccessControlMessage<?> message : messages) {
+            assertTrue(message instanceof KeyExchangeRequestMessage);
+            assertEquals(localhost, message.getSource());
+            assertEquals("Ed25519", message.getPayload());
+            assertTrue(message.hasIngressTimestamp());
+        }
+        assertTrue(handlingThreads.size() <= workerCount);
+        for (Thread thread : handlingThreads) {
+            assertTrue(thread.getName().startsWith("message-ingress-worker-"));
+        }
+        assertFalse(handler.isOpen());
+        assertFalse(handlerThread.isAlive());
+    }
+
+    private static int findFreePort() throws Exception {
+        try (DatagramSocket socket = new DatagramSocket()) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void awaitOpen(AccessControlMessageIngressHandler handler) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+        while (!handler.isOpen() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(handler.isOpen());
+    }
+}
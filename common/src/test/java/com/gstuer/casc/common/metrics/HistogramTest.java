@@ -0,0 +1,38 @@
+package com.gstuer.casc.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HistogramTest {
+    @Test
+    public void testEmptyHistogram() {
+        // Test data
+        Histogram histogram = new Histogram();
+
+        // Assertions
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    public void testPercentiles() {
+        // Test data
+        Histogram histogram = new Histogram();
+
+        // Execution
+        for (int i = 0; i < 99; i++) {
+            histogram.record(3);
+        }
+        histogram.record(1000);
+
+        // Assertions
+        assertEquals(100, histogram.getCount());
+        assertEquals(1000, histogram.getMaximum());
+        assertEquals(3, histogram.getPercentile(0.5));
+        assertEquals(3, histogram.getPercentile(0.99));
+        assertEquals(1000, histogram.getPercentile(1));
+        assertEquals(12.97, histogram.getMean(), 0.001);
+    }
+}
@@ -0,0 +1,71 @@
+package com.gstuer.casc.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricEndpointTest {
+    @Test
+    public void testScrapeMetrics() throws IOException, InterruptedException {
+        // Test data
+        MetricRegistry registry = new MetricRegistry();
+        registry.counter("queue.egress-message.drops").add(3);
+        Histogram histogram = registry.histogram("latency.outgoing.sign-ns");
+        histogram.record(5);
+        histogram.record(7);
+        MetricEndpoint endpoint = new MetricEndpoint(registry, 0);
+
+        // Execution
+        HttpResponse<String> response;
+        endpoint.start();
+        try {
+            assertNotEquals(0, endpoint.getPort());
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + endpoint.getPort() + MetricEndpoint.PATH)).GET().build();
+            response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        } finally {
+            endpoint.stop();
+        }
+
+        // Assertions
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/plain; version=0.0.4"));
+        List<String> lines = response.body().lines().toList();
+        assertTrue(lines.contains("casc_queue_egress_message_drops 3"), response.body());
+        assertTrue(lines.contains("casc_latency_outgoing_sign_ns_count 2"), response.body());
+        assertTrue(lines.contains("casc_latency_outgoing_sign_ns_max 7"), response.body());
+        for (String line : lines) {
+            assertTrue(line.matches("casc_[a-zA-Z0-9_]+ [0-9.E-]+"), line);
+        }
+    }
+
+    @Test
+    public void testRejectNonGetRequest() throws IOException, InterruptedException {
+        // Test data
+        MetricEndpoint endpoint = new MetricEndpoint(new MetricRegistry(), 0);
+
+        // Execution
+        HttpResponse<String> response;
+        endpoint.start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + endpoint.getPort() + MetricEndpoint.PATH))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+            response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        } finally {
+            endpoint.stop();
+        }
+
+        // Assertion
+        assertEquals(405, response.statusCode());
+    }
+}
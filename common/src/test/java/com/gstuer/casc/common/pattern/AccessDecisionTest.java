@@ -12,6 +12,8 @@ import java.util.SortedSet;
 import java.util.concurrent.ConcurrentSkipListSet;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class AccessDecisionTest {
     @Test
@@ -111,9 +113,48 @@ public class AccessDecisionTest {
 
         // Assertions
         Object[] decisions = set.toArray();
-        assertEquals(grantUdpDecision, decisions[0]);
-        assertEquals(grantIpDecision, decisions[1]);
-        assertEquals(denyIpIsolatedDecision, decisions[2]);
+        assertEquals(denyIpIsolatedDecision, decisions[0]);
+        assertEquals(grantUdpDecision, decisions[1]);
+        assertEquals(grantIpDecision, decisions[2]);
         assertEquals(grantEthernetDecision, decisions[3]);
     }
+
+    @Test
+    public void testNaturalOrderingConsistentWithEquals() throws UnknownHostException {
+        // Test data
+        SortedSet<AccessDecision> set = new ConcurrentSkipListSet<>();
+        EthernetPattern ethernetPattern = new EthernetPattern(MacAddress.getByName("00:00:00:00:00:00"), MacAddress.getByName("ff:ff:ff:ff:ff:ff"), EtherType.IPV4);
+        EthernetPattern otherEthernetPattern = new EthernetPattern(MacAddress.getByName("00:00:00:00:00:01"), MacAddress.getByName("ff:ff:ff:ff:ff:ff"), EtherType.IPV4);
+
+        Instant now = Instant.now();
+        AccessDecision decision = new AccessDecision(ethernetPattern, AccessDecision.Action.GRANT, null, now);
+        AccessDecision renewedDecision = new AccessDecision(ethernetPattern, AccessDecision.Action.GRANT, null, now.plusSeconds(1));
+        AccessDecision otherNextHopDecision = new AccessDecision(ethernetPattern, AccessDecision.Action.GRANT, InetAddress.getByName("127.0.0.1"), now);
+        AccessDecision otherPatternDecision = new AccessDecision(otherEthernetPattern, AccessDecision.Action.GRANT, null, now);
+        AccessDecision otherPatternDenyDecision = new AccessDecision(otherEthernetPattern, AccessDecision.Action.DENY, null, now);
+
+        // Execution
+        set.add(decision);
+        set.add(renewedDecision);
+        set.add(otherNextHopDecision);
+        set.add(otherPatternDecision);
+        set.add(otherPatternDenyDecision);
+        set.add(new AccessDecision(ethernetPattern, AccessDecision.Action.GRANT, null, now));
+
+        // Assertions
+        assertEquals(5, set.size());
+        //// Denying decisions first
+        assertEquals(otherPatternDenyDecision, set.first());
+    }
+
+    @Test
+    public void testIsValidAtTime() throws UnknownHostException {
+        // Test data
+        EthernetPattern ethernetPattern = new EthernetPattern(MacAddress.getByName("00:00:00:00:00:00"), MacAddress.getByName("ff:ff:ff:ff:ff:ff"), EtherType.IPV4);
+        AccessDecision decision = new AccessDecision(ethernetPattern, AccessDecision.Action.GRANT, null, Instant.ofEpochMilli(1000));
+
+        // Assertions
+        assertTrue(decision.isValid(999));
+        assertFalse(decision.isValid(1000));
+    }
 }
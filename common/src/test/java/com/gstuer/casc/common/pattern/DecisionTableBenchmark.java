@@ -0,0 +1,70 @@
+package com.gstuer.casc.common.pattern;
+
+import org.pcap4j.packet.namednumber.EtherType;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.pcap4j.util.MacAddress;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * Compares the decision lookup of a {@link DecisionTable decision table} with the parallel scan of a sorted decision
+ * set for different numbers of decisions. Run via the main method, e.g. from the IDE, since the benchmark is not part
+ * of the test suite.
+ */
+public class DecisionTableBenchmark {
+    private static final int[] DECISION_COUNTS = {10, 1_000, 100_000};
+    private static final int LOOKUP_BUDGET = 2_000_000;
+
+    public static void main(String[] args) throws UnknownHostException {
+        for (int decisionCount : DECISION_COUNTS) {
+            // Populate table and set with decisions on distinct UDP flows
+            DecisionTable table = new DecisionTable();
+            SortedSet<AccessDecision> set = new ConcurrentSkipListSet<>();
+            Instant validUntil = Instant.now().plusSeconds(3600);
+            for (int index = 0; index < decisionCount; index++) {
+                AccessDecision decision = new AccessDecision(createUdpPattern(index), AccessDecision.Action.GRANT, null, validUntil);
+                table.add(decision);
+                set.add(decision);
+            }
+
+            // Look up patterns of matching and non-matching packets alternately
+            AccessRequestPattern[] patterns = {createUdpPattern(decisionCount / 2), createUdpPattern(decisionCount)};
+            int iterations = Math.max(100, LOOKUP_BUDGET / decisionCount);
+            System.out.printf("Decision lookup (%d decisions):\n", decisionCount);
+            measure("parallel scan", iterations, patterns, pattern -> set.stream().parallel()
+                    .filter(decision -> pattern.contains(decision.getPattern()) && decision.isValid())
+                    .findFirst());
+            measure("decision table", Math.max(iterations, LOOKUP_BUDGET), patterns,
+                    pattern -> table.findFirst(pattern, AccessDecision::isValid));
+        }
+    }
+
+    private static void measure(String name, int iterations, AccessRequestPattern[] patterns,
+                                Function<AccessRequestPattern, Optional<AccessDecision>> lookup) {
+        int sink = 0;
+        for (int i = 0; i < iterations / 10; i++) {
+            sink += lookup.apply(patterns[i & 1]).isPresent() ? 1 : 0;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += lookup.apply(patterns[i & 1]).isPresent() ? 1 : 0;
+        }
+        long duration = System.nanoTime() - start;
+        System.out.printf("    %-30s %12.1f ns/op (%d)\n", name, (double) duration / iterations, sink & 1);
+    }
+
+    private static AccessRequestPattern createUdpPattern(int index) throws UnknownHostException {
+        EthernetPattern ethernetPattern = new EthernetPattern(MacAddress.getByName("00:00:00:00:00:01"),
+                MacAddress.getByName("00:00:00:00:00:02"), EtherType.IPV4);
+        byte[] destination = {10, (byte) (index >> 16), (byte) (index >> 8), (byte) index};
+        IpPattern ipPattern = new IpPattern(InetAddress.getByName("10.255.0.1"), InetAddress.getByAddress(destination),
+                IpNumber.UDP, ethernetPattern);
+        return new UdpPattern(10000 + index % 1000, 102, ipPattern);
+    }
+}
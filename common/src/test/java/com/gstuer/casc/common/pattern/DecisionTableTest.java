@@ -0,0 +1,228 @@
+package com.gstuer.casc.common.pattern;
+
+import com.gstuer.casc.common.time.ManualClock;
+import org.junit.jupiter.api.Test;
+import org.pcap4j.packet.namednumber.EtherType;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.pcap4j.util.MacAddress;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DecisionTableTest {
+    @Test
+    public void testFindFirstExactMatch() throws UnknownHostException {
+        // Test data
+        DecisionTable table = new DecisionTable();
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        AccessDecision decision = new AccessDecision(createUdpPattern(10000, 10001), AccessDecision.Action.GRANT, null, Instant.now());
+        table.add(decision);
+
+        // Execution
+        Optional<AccessDecision> foundDecision = table.findFirst(udpPattern, entry -> true);
+
+        // Assertion
+        assertEquals(Optional.of(decision), foundDecision);
+    }
+
+    @Test
+    public void testFindFirstEnclosedPatternMatch() throws UnknownHostException {
+        // Test data
+        DecisionTable table = new DecisionTable();
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        AccessDecision ipDecision = new AccessDecision(udpPattern.getEnclosedPattern(), AccessDecision.Action.GRANT, null, Instant.now());
+        AccessDecision ethernetDecision = new AccessDecision(udpPattern.getEnclosedPattern().getEnclosedPattern(), AccessDecision.Action.GRANT, null, Instant.now());
+        AccessDecision otherDecision = new AccessDecision(createUdpPattern(10000, 10002), AccessDecision.Action.GRANT, null, Instant.now());
+        table.add(ethernetDecision);
+        table.add(otherDecision);
+        table.add(ipDecision);
+
+        // Execution
+        Optional<AccessDecision> foundDecision = table.findFirst(udpPattern, entry -> true);
+
+        // Assertion
+        //// Most specific decision first
+        assertEquals(Optional.of(ipDecision), foundDecision);
+    }
+
+    @Test
+    public void testFindFirstIsolatedLayerMatch() throws UnknownHostException {
+        // Test data
+        DecisionTable table = new DecisionTable();
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        AccessRequestPattern portPattern = new UdpPattern(10000, 10001, null);
+        AccessDecision decision = new AccessDecision(portPattern, AccessDecision.Action.DENY, null, Instant.now());
+        table.add(decision);
+
+        // Execution
+        Optional<AccessDecision> foundDecision = table.findFirst(udpPattern, entry -> true);
+        Optional<AccessDecision> foundTcpDecision = table.findFirst(new TcpPattern(10000, 10001, udpPattern.getEnclosedPattern()), entry -> true);
+
+        // Assertions
+        assertEquals(Optional.of(decision), foundDecision);
+        assertEquals(Optional.empty(), foundTcpDecision);
+    }
+
+    @Test
+    public void testFindFirstDenyBeforeGrant() throws UnknownHostException {
+        // Test data
+        DecisionTable table = new DecisionTable();
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        Instant now = Instant.now();
+        AccessDecision grantDecision = new AccessDecision(udpPattern, AccessDecision.Action.GRANT, null, now);
+        AccessDecision denyDecision = new AccessDecision(udpPattern, AccessDecision.Action.DENY, null, now);
+        table.add(grantDecision);
+        table.add(denyDecision);
+
+        // Execution
+        Optional<AccessDecision> foundDecision = table.findFirst(udpPattern, entry -> true);
+        Optional<AccessDecision> foundGrantingDecision = table.findFirst(udpPattern, AccessDecision::isGranting);
+
+        // Assertions
+        assertEquals(Optional.of(denyDecision), foundDecision);
+        assertEquals(Optional.of(grantDecision), foundGrantingDecision);
+    }
+
+    @Test
+    public void testFindFirstLessSpecificDenyBeforeGrant() throws UnknownHostException {
+        // Test data
+        DecisionTable table = new DecisionTable();
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        AccessRequestPattern ethernetPattern = udpPattern.getEnclosedPattern().getEnclosedPattern();
+        Instant now = Instant.now();
+        AccessDecision grantDecision = new AccessDecision(udpPattern, AccessDecision.Action.GRANT, null, now);
+        AccessDecision denyDecision = new AccessDecision(ethernetPattern, AccessDecision.Action.DENY, null, now);
+        table.add(grantDecision);
+        table.add(denyDecision);
+
+        // Execution
+        Optional<AccessDecision> foundDecision = table.findFirst(udpPattern, entry -> true);
+
+        // Assertion: Matching deny takes precedence over the more specific grant
+        assertEquals(Optional.of(denyDecision), foundDecision);
+    }
+
+    @Test
+    public void testFindFirstMatchesLinearScan() throws UnknownHostException {
+        // Test data
+        DecisionTable table = new DecisionTable();
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        AccessRequestPattern ipPattern = udpPattern.getEnclosedPattern();
+        AccessRequestPattern ethernetPattern = ipPattern.getEnclosedPattern();
+        AccessRequestPattern[] decisionPatterns = {udpPattern, ipPattern, ethernetPattern, new UdpPattern(10000, 10001, null),
+                new IpPattern(InetAddress.getByName("127.0.0.1"), InetAddress.getByName("255.255.255.255"), IpNumber.UDP, null),
+                createUdpPattern(10001, 10000)};
+        Instant now = Instant.now();
+        for (AccessRequestPattern decisionPattern : decisionPatterns) {
+            for (AccessDecision.Action action : AccessDecision.Action.values()) {
+                table.add(new AccessDecision(decisionPattern, action, null, now));
+            }
+        }
+
+        // Execution & Assertions
+        for (AccessRequestPattern decisionPattern : decisionPatterns) {
+            for (AccessDecision.Action action : AccessDecision.Action.values()) {
+                AccessDecision decision = new AccessDecision(decisionPattern, action, null, now);
+                assertEquals(udpPattern.contains(decisionPattern), table.findFirst(udpPattern, decision::equals).isPresent());
+            }
+        }
+    }
+
+    @Test
+    public void testRemove() throws UnknownHostException {
+        // Test data
+        DecisionTable table = new DecisionTable();
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        AccessDecision decision = new AccessDecision(udpPattern, AccessDecision.Action.GRANT, null, Instant.now());
+        table.add(decision);
+
+        // Execution
+        boolean isRemoved = table.remove(decision);
+        boolean isRemovedAgain = table.remove(decision);
+
+        // Assertions
+        assertTrue(isRemoved);
+        assertFalse(isRemovedAgain);
+        assertTrue(table.isEmpty());
+        assertEquals(Optional.empty(), table.findFirst(udpPattern, entry -> true));
+    }
+
+    @Test
+    public void testAddReplacesRenewedDecision() throws UnknownHostException {
+        // Test data
+        DecisionTable table = new DecisionTable();
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        Instant now = Instant.now();
+        AccessDecision decision = new AccessDecision(udpPattern, AccessDecision.Action.GRANT, null, now.plusSeconds(10));
+        AccessDecision renewedDecision = new AccessDecision(udpPattern, AccessDecision.Action.GRANT, null, now.plusSeconds(20));
+        AccessDecision denyDecision = new AccessDecision(udpPattern, AccessDecision.Action.DENY, null, now.plusSeconds(10));
+        table.add(decision);
+        table.add(denyDecision);
+
+        // Execution
+        boolean isAdded = table.add(renewedDecision);
+        boolean isOutdatedAdded = table.add(decision);
+
+        // Assertions
+        assertTrue(isAdded);
+        assertFalse(isOutdatedAdded);
+        assertEquals(2, table.size());
+        assertEquals(1, table.getReplacedCount());
+        assertEquals(Optional.of(renewedDecision), table.findFirst(udpPattern, AccessDecision::isGranting));
+        assertEquals(Optional.of(denyDecision), table.findFirst(udpPattern, entry -> true));
+    }
+
+    @Test
+    public void testRemoveExpired() throws UnknownHostException {
+        // Test data
+        DecisionTable table = new DecisionTable();
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        Instant now = Instant.now();
+        AccessDecision expiredDecision = new AccessDecision(udpPattern, AccessDecision.Action.DENY, null, now.minusSeconds(1));
+        AccessDecision validDecision = new AccessDecision(udpPattern, AccessDecision.Action.GRANT, null, now.plusSeconds(60));
+        table.add(expiredDecision);
+        table.add(validDecision);
+
+        // Execution
+        int removedCount = table.removeExpired();
+
+        // Assertions
+        assertEquals(1, removedCount);
+        assertEquals(1, table.size());
+        assertEquals(1, table.getExpiredCount());
+        assertEquals(Optional.of(validDecision), table.findFirst(udpPattern, entry -> true));
+    }
+
+    @Test
+    public void testRemoveExpiredFollowsClock() throws UnknownHostException {
+        // Test data
+        ManualClock clock = new ManualClock(0);
+        DecisionTable table = new DecisionTable(clock);
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        AccessDecision decision = new AccessDecision(udpPattern, AccessDecision.Action.GRANT, null, Instant.ofEpochMilli(1000));
+        table.add(decision);
+
+        // Execution
+        int removedBeforeCount = table.removeExpired();
+        clock.advance(Duration.ofSeconds(1));
+        int removedAfterCount = table.removeExpired();
+
+        // Assertions
+        assertEquals(0, removedBeforeCount);
+        assertEquals(1, removedAfterCount);
+        assertTrue(table.isEmpty());
+    }
+
+    private static AccessRequestPattern createUdpPattern(int sourcePort, int destinationPort) throws UnknownHostException {
+        EthernetPattern ethernetPattern = new EthernetPattern(MacAddress.getByName("00:00:00:00:00:00"), MacAddress.getByName("ff:ff:ff:ff:ff:ff"), EtherType.IPV4);
+        IpPattern ipPattern = new IpPattern(InetAddress.getByName("127.0.0.1"), InetAddress.getByName("255.255.255.255"), IpNumber.UDP, ethernetPattern);
+        return new UdpPattern(sourcePort, destinationPort, ipPattern);
+    }
+}
@@ -0,0 +1,46 @@
+package com.gstuer.casc.common.pattern;
+
+import org.pcap4j.packet.EthernetPacket;
+import org.pcap4j.packet.IllegalRawDataException;
+
+import java.util.function.Supplier;
+
+/**
+ * Compares the pattern derivation from parsed {@link org.pcap4j.packet.Packet packets} with the byte-level derivation
+ * from raw frames. Run via the main method, e.g. from the IDE, since the benchmark is not part of the test suite.
+ */
+public class PatternFactoryBenchmark {
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASUREMENT_ITERATIONS = 1_000_000;
+
+    public static void main(String[] args) throws IllegalRawDataException {
+        byte[] frame = PatternFactoryTest.parseHex("ffffffffffff" + "000000000001" + "0800"
+                + "4500001c000040004011" + "0000" + "c0a80032" + "c0a80033"
+                + "2711" + "2710" + "0008" + "0000");
+        EthernetPacket packet = EthernetPacket.newPacket(frame, 0, frame.length);
+
+        System.out.println("Pattern derivation (UDP/IPv4/Ethernet frame):");
+        measure("parse + derive from packet", () -> {
+            try {
+                return PatternFactory.derivePatternFrom(EthernetPacket.newPacket(frame, 0, frame.length));
+            } catch (IllegalRawDataException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+        measure("derive from parsed packet", () -> PatternFactory.derivePatternFrom(packet));
+        measure("derive from raw bytes", () -> PatternFactory.derivePatternFrom(frame));
+    }
+
+    private static void measure(String name, Supplier<AccessRequestPattern> operation) {
+        int sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += operation.get().hashCode();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            sink += operation.get().hashCode();
+        }
+        long duration = System.nanoTime() - start;
+        System.out.printf("    %-30s %8.1f ns/op (%d)\n", name, (double) duration / MEASUREMENT_ITERATIONS, sink & 1);
+    }
+}
@@ -0,0 +1,141 @@
+package com.gstuer.casc.common.pattern;
+
+import org.junit.jupiter.api.Test;
+import org.pcap4j.packet.EthernetPacket;
+import org.pcap4j.packet.IllegalRawDataException;
+import org.pcap4j.packet.namednumber.EtherType;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.pcap4j.util.MacAddress;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PatternFactoryTest {
+    // Ethernet: ff:ff:ff:ff:ff:ff <- 00:00:00:00:00:01, IPv4: 192.168.0.50 -> 192.168.0.51, UDP: 10001 -> 10000
+    private static final String UDP_FRAME = "ffffffffffff" + "000000000001" + "0800"
+            + "4500001c000040004011" + "0000" + "c0a80032" + "c0a80033"
+            + "2711" + "2710" + "0008" + "0000";
+    // Ethernet: ff:ff:ff:ff:ff:ff <- 00:00:00:00:00:01, IPv4: 192.168.0.50 -> 192.168.0.51, TCP: 102 -> 50000
+    private static final String TCP_FRAME = "ffffffffffff" + "000000000001" + "0800"
+            + "450000280000400040060000" + "c0a80032" + "c0a80033"
+            + "0066" + "c350" + "00000000" + "00000000" + "5002" + "0000" + "0000" + "0000";
+    // Ethernet: ff:ff:ff:ff:ff:ff <- 00:00:00:00:00:01, ARP request
+    private static final String ARP_FRAME = "ffffffffffff" + "000000000001" + "0806"
+            + "0001" + "0800" + "06" + "04" + "0001"
+            + "000000000001" + "c0a80032" + "000000000000" + "c0a80033";
+
+    @Test
+    public void testDeriveUdpPatternFromBytes() throws UnknownHostException {
+        // Test data
+        byte[] frame = parseHex(UDP_FRAME);
+        EthernetPattern ethernetPattern = new EthernetPattern(MacAddress.getByName("00:00:00:00:00:01"),
+                MacAddress.getByName("ff:ff:ff:ff:ff:ff"), EtherType.IPV4);
+        IpPattern ipPattern = new IpPattern(InetAddress.getByName("192.168.0.50"),
+                InetAddress.getByName("192.168.0.51"), IpNumber.UDP, ethernetPattern);
+        UdpPattern expectedPattern = new UdpPattern(10001, 10000, ipPattern);
+
+        // Execution
+        AccessRequestPattern pattern = PatternFactory.derivePatternFrom(frame);
+
+        // Assertion
+        assertEquals(expectedPattern, pattern);
+    }
+
+    @Test
+    public void testDeriveTcpPatternFromBytes() throws UnknownHostException {
+        // Test data
+        byte[] frame = parseHex(TCP_FRAME);
+        EthernetPattern ethernetPattern = new EthernetPattern(MacAddress.getByName("00:00:00:00:00:01"),
+                MacAddress.getByName("ff:ff:ff:ff:ff:ff"), EtherType.IPV4);
+        IpPattern ipPattern = new IpPattern(InetAddress.getByName("192.168.0.50"),
+                InetAddress.getByName("192.168.0.51"), IpNumber.TCP, ethernetPattern);
+        TcpPattern expectedPattern = new TcpPattern(102, 50000, ipPattern);
+
+        // Execution
+        AccessRequestPattern pattern = PatternFactory.derivePatternFrom(frame);
+
+        // Assertion
+        assertEquals(expectedPattern, pattern);
+    }
+
+    @Test
+    public void testDeriveEthernetPatternFromBytes() {
+        // Test data
+        byte[] frame = parseHex(ARP_FRAME);
+        EthernetPattern expectedPattern = new EthernetPattern(MacAddress.getByName("00:00:00:00:00:01"),
+                MacAddress.getByName("ff:ff:ff:ff:ff:ff"), EtherType.ARP);
+
+        // Execution
+        AccessRequestPattern pattern = PatternFactory.derivePatternFrom(frame);
+
+        // Assertion
+        assertEquals(expectedPattern, pattern);
+    }
+
+    @Test
+    public void testDeriveIpPatternFromFragmentBytes() throws UnknownHostException {
+        // Test data: UDP frame with more fragments flag set
+        byte[] frame = parseHex(UDP_FRAME);
+        frame[14 + 6] = 0x20;
+        EthernetPattern ethernetPattern = new EthernetPattern(MacAddress.getByName("00:00:00:00:00:01"),
+                MacAddress.getByName("ff:ff:ff:ff:ff:ff"), EtherType.IPV4);
+        IpPattern expectedPattern = new IpPattern(InetAddress.getByName("192.168.0.50"),
+                InetAddress.getByName("192.168.0.51"), IpNumber.UDP, ethernetPattern);
+
+        // Execution
+        AccessRequestPattern pattern = PatternFactory.derivePatternFrom(frame);
+
+        // Assertion
+        assertEquals(expectedPattern, pattern);
+    }
+
+    @Test
+    public void testDerivePatternFromByteBufferWithOffset() {
+        // Test data
+        byte[] frame = parseHex(UDP_FRAME);
+        byte[] buffer = new byte[frame.length + 8];
+        System.arraycopy(frame, 0, buffer, 4, frame.length);
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 4, frame.length);
+
+        // Execution
+        AccessRequestPattern pattern = PatternFactory.derivePatternFrom(byteBuffer);
+
+        // Assertion
+        assertEquals(PatternFactory.derivePatternFrom(frame), pattern);
+        assertEquals(4, byteBuffer.position());
+    }
+
+    @Test
+    public void testDerivePatternFromTruncatedBytes() {
+        // Test data
+        byte[] frame = new byte[13];
+
+        // Assertion
+        assertThrows(IllegalArgumentException.class, () -> PatternFactory.derivePatternFrom(frame));
+    }
+
+    @Test
+    public void testDerivePatternFromBytesEqualsParsedPacket() throws IllegalRawDataException {
+        for (String hexFrame : new String[]{UDP_FRAME, TCP_FRAME, ARP_FRAME}) {
+            // Test data
+            byte[] frame = parseHex(hexFrame);
+            EthernetPacket packet = EthernetPacket.newPacket(frame, 0, frame.length);
+
+            // Execution
+            AccessRequestPattern rawPattern = PatternFactory.derivePatternFrom(frame);
+            AccessRequestPattern packetPattern = PatternFactory.derivePatternFrom(packet);
+
+            // Assertion
+            assertEquals(packetPattern, rawPattern);
+        }
+    }
+
+    static byte[] parseHex(String hex) {
+        return HexFormat.of().parseHex(hex);
+    }
+}
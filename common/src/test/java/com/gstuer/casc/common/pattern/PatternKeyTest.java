@@ -0,0 +1,90 @@
+package com.gstuer.casc.common.pattern;
+
+import org.junit.jupiter.api.Test;
+import org.pcap4j.packet.namednumber.EtherType;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.pcap4j.util.MacAddress;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PatternKeyTest {
+    @Test
+    public void testEqualPatternsHaveEqualKeys() throws UnknownHostException {
+        // Test data
+        AccessRequestPattern firstPattern = createUdpPattern(10000, 10001);
+        AccessRequestPattern secondPattern = createUdpPattern(10000, 10001);
+
+        // Assertions
+        assertEquals(firstPattern.getKey(), secondPattern.getKey());
+        assertEquals(firstPattern.getKey().hashCode(), secondPattern.getKey().hashCode());
+        assertEquals(0, firstPattern.getKey().compareTo(secondPattern.getKey()));
+    }
+
+    @Test
+    public void testUnequalPatternsHaveUnequalKeys() throws UnknownHostException {
+        // Test data
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        AccessRequestPattern tcpPattern = new TcpPattern(10000, 10001, udpPattern.getEnclosedPattern());
+        AccessRequestPattern otherPortPattern = createUdpPattern(10000, 10002);
+        AccessRequestPattern missingAddressPattern = new IpPattern(null, InetAddress.getByName("255.255.255.255"),
+                IpNumber.UDP, udpPattern.getEnclosedPattern().getEnclosedPattern());
+        AccessRequestPattern ipV6Pattern = new IpPattern(InetAddress.getByName("::1"), InetAddress.getByName("255.255.255.255"),
+                IpNumber.UDP, udpPattern.getEnclosedPattern().getEnclosedPattern());
+
+        // Assertions
+        List<AccessRequestPattern> patterns = List.of(udpPattern, tcpPattern, otherPortPattern,
+                udpPattern.getEnclosedPattern(), missingAddressPattern, ipV6Pattern);
+        for (AccessRequestPattern pattern : patterns) {
+            for (AccessRequestPattern otherPattern : patterns) {
+                assertEquals(pattern.equals(otherPattern), pattern.getKey().equals(otherPattern.getKey()));
+                assertEquals(pattern.equals(otherPattern), pattern.compareTo(otherPattern) == 0);
+            }
+        }
+    }
+
+    @Test
+    public void testSubKeysAreKeysOfConsecutiveLayers() throws UnknownHostException {
+        // Test data
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        AccessRequestPattern ipPattern = udpPattern.getEnclosedPattern();
+        AccessRequestPattern ethernetPattern = ipPattern.getEnclosedPattern();
+        AccessRequestPattern isolatedIpPattern = new IpPattern(InetAddress.getByName("127.0.0.1"),
+                InetAddress.getByName("255.255.255.255"), IpNumber.UDP);
+        PatternKey key = udpPattern.getKey();
+
+        // Assertions
+        assertEquals(3, key.getDepth());
+        assertEquals(key, key.subKey(0, 3));
+        assertEquals(ipPattern.getKey(), key.subKey(1, 3));
+        assertEquals(ethernetPattern.getKey(), key.subKey(2, 3));
+        assertEquals(isolatedIpPattern.getKey(), key.subKey(1, 2));
+        assertNotEquals(isolatedIpPattern.getKey(), key.subKey(1, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> key.subKey(2, 4));
+    }
+
+    @Test
+    public void testMoreSpecificKeysFirst() throws UnknownHostException {
+        // Test data
+        AccessRequestPattern udpPattern = createUdpPattern(10000, 10001);
+        AccessRequestPattern ipPattern = udpPattern.getEnclosedPattern();
+        AccessRequestPattern unrelatedPattern = new UdpPattern(1, 1, null);
+
+        // Assertions
+        assertTrue(udpPattern.getKey().compareTo(ipPattern.getKey()) < 0);
+        assertTrue(ipPattern.getKey().compareTo(unrelatedPattern.getKey()) < 0);
+        assertTrue(unrelatedPattern.getKey().compareTo(udpPattern.getKey()) > 0);
+    }
+
+    private static AccessRequestPattern createUdpPattern(int sourcePort, int destinationPort) throws UnknownHostException {
+        EthernetPattern ethernetPattern = new EthernetPattern(MacAddress.getByName("00:00:00:00:00:00"), MacAddress.getByName("ff:ff:ff:ff:ff:ff"), EtherType.IPV4);
+        IpPattern ipPattern = new IpPattern(InetAddress.getByName("127.0.0.1"), InetAddress.getByName("255.255.255.255"), IpNumber.UDP, ethernetPattern);
+        return new UdpPattern(sourcePort, destinationPort, ipPattern);
+    }
+}
@@ -3,7 +3,9 @@ package com.gstuer.casc.common.serialization;
 import com.gstuer.casc.common.cryptography.DigitalSignature;
 import com.gstuer.casc.common.cryptography.EncodedKey;
 import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.message.AccessDecisionBatchMessage;
 import com.gstuer.casc.common.message.AccessDecisionMessage;
+import com.gstuer.casc.common.message.AccessDecisionSubscriptionMessage;
 import com.gstuer.casc.common.message.AccessRequestMessage;
 import com.gstuer.casc.common.message.KeyExchangeMessage;
 import com.gstuer.casc.common.message.KeyExchangeRequestMessage;
@@ -32,6 +34,7 @@ import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.time.Instant;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -202,6 +205,34 @@ public class JsonProcessorTest {
         assertEquals(message, deserialized);
     }
 
+    @Test
+    public void testSerializationAndDeserializationOfAccessDecisionBatchMessage() throws SerializationException, UnknownHostException {
+        // Test data
+        //// Construct access decisions
+        JsonProcessor jsonProcessor = new JsonProcessor();
+        InetAddress address = InetAddress.getByName("127.0.0.1");
+        Instant validUntilNow = Instant.now();
+        EthernetPattern pattern = new EthernetPattern(MacAddress.getByName("00:00:00:00:00:00"),
+                MacAddress.getByName("ff:ff:ff:ff:ff:ff"), EtherType.IPV4);
+        AccessDecision grantDecision = new AccessDecision(pattern, AccessDecision.Action.GRANT, address, validUntilNow);
+        AccessDecision denyDecision = new AccessDecision(new UdpPattern(10000, 10002, pattern),
+                AccessDecision.Action.DENY, null, validUntilNow);
+
+        //// Construct message
+        DigitalSignature signature = new DigitalSignature(new byte[]{1, 2, 3, 4}, "test");
+        AccessDecisionBatchMessage message = new AccessDecisionBatchMessage(address, signature,
+                List.of(grantDecision, denyDecision));
+
+        // Execution
+        byte[] serial = jsonProcessor.serialize(message);
+        AccessDecisionBatchMessage deserialized = (AccessDecisionBatchMessage) jsonProcessor.deserialize(serial, AccessControlMessage.class);
+
+        // Assertion
+        assertNotNull(deserialized);
+        assertEquals(message, deserialized);
+        assertArrayEquals(message.getSigningData(), deserialized.getSigningData());
+    }
+
     @Test
     public void testSerializationAndDeserializationOfAccessRequestMessage() throws SerializationException, UnknownHostException {
         // Test data
@@ -222,4 +253,21 @@ public class JsonProcessorTest {
         assertNotNull(deserialized);
         assertEquals(message, deserialized);
     }
+
+    @Test
+    public void testSerializationAndDeserializationOfAccessDecisionSubscriptionMessage() throws SerializationException, UnknownHostException {
+        // Test data
+        JsonProcessor jsonProcessor = new JsonProcessor();
+        InetAddress address = InetAddress.getByName("127.0.0.1");
+        DigitalSignature signature = new DigitalSignature(new byte[]{1, 2, 3, 4}, "test");
+        AccessDecisionSubscriptionMessage message = new AccessDecisionSubscriptionMessage(address, signature, 60000L);
+
+        // Execution
+        byte[] serial = jsonProcessor.serialize(message);
+        AccessDecisionSubscriptionMessage deserialized = (AccessDecisionSubscriptionMessage) jsonProcessor.deserialize(serial, AccessControlMessage.class);
+
+        // Assertion
+        assertNotNull(deserialized);
+        assertEquals(message, deserialized);
+    }
 }
@@ -0,0 +1,79 @@
+package com.gstuer.casc.common.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CoarseClockTest {
+    @Test
+    public void testClockAdvancesWithNanoTimeOnUpdate() {
+        // Test data
+        ManualClock anchor = new ManualClock(1000);
+        AtomicLong nanoTime = new AtomicLong(-TimeUnit.SECONDS.toNanos(5));
+        CoarseClock clock = new CoarseClock(anchor, nanoTime::get);
+
+        // Execution
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        long millisBeforeUpdate = clock.currentTimeMillis();
+        clock.update();
+        long millisAfterUpdate = clock.currentTimeMillis();
+
+        // Assertions
+        assertEquals(1000, millisBeforeUpdate);
+        assertEquals(1050, millisAfterUpdate);
+    }
+
+    @Test
+    public void testClockKeepsTickingWhenSystemTimeIsSetBack() {
+        // Test data
+        ManualClock anchor = new ManualClock(1000);
+        AtomicLong nanoTime = new AtomicLong();
+        CoarseClock clock = new CoarseClock(anchor, nanoTime::get);
+
+        // Execution: System time is set back while monotonic time advances
+        anchor.setTimeMillis(500);
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        clock.update();
+        long millisAfterSetBack = clock.currentTimeMillis();
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        clock.update();
+
+        // Assertions
+        assertEquals(1001, millisAfterSetBack);
+        assertEquals(1002, clock.currentTimeMillis());
+    }
+
+    @Test
+    public void testTickerAdvancesClock() throws InterruptedException {
+        // Test data
+        try (CoarseClock clock = new CoarseClock("test-clock-ticker")) {
+            long startMillis = clock.currentTimeMillis();
+            long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+            // Execution: Only waits for the ticker to make progress, without bounding its timing
+            while (clock.currentTimeMillis() == startMillis && System.nanoTime() < deadlineNanos) {
+                Thread.sleep(1);
+            }
+
+            // Assertion
+            assertTrue(clock.currentTimeMillis() > startMillis);
+        }
+    }
+
+    @Test
+    public void testManualClock() {
+        // Test data
+        ManualClock clock = new ManualClock(1000);
+
+        // Execution
+        clock.advance(Duration.ofSeconds(1));
+
+        // Assertion
+        assertEquals(2000, clock.currentTimeMillis());
+    }
+}
@@ -2,38 +2,75 @@ package com.gstuer.casc.pdp;
 
 import com.gstuer.casc.common.AuthenticationClient;
 import com.gstuer.casc.common.cryptography.Authenticator;
+import com.gstuer.casc.common.cryptography.DigitalSignature;
 import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.message.AccessDecisionBatchMessage;
 import com.gstuer.casc.common.message.AccessDecisionMessage;
+import com.gstuer.casc.common.message.AccessDecisionSubscriptionMessage;
 import com.gstuer.casc.common.message.AccessRequestMessage;
 import com.gstuer.casc.common.message.KeyExchangeMessage;
 import com.gstuer.casc.common.message.KeyExchangeRequestMessage;
 import com.gstuer.casc.common.pattern.AccessDecision;
 import com.gstuer.casc.common.pattern.AccessRequestPattern;
 import com.gstuer.casc.common.pattern.EthernetPattern;
+import com.gstuer.casc.common.time.MillisClock;
 import org.pcap4j.packet.namednumber.EtherType;
 import org.pcap4j.util.MacAddress;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.SortedSet;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class AuthorizationController {
     private static final long FALLBACK_DENY_VALIDITY_MILLISECONDS = TimeUnit.SECONDS.toMillis(60);
+    private static final long MAX_SUBSCRIPTION_LEASE_MILLISECONDS = TimeUnit.MINUTES.toMillis(5);
+    private static final long PUBLISH_DELAY_MILLISECONDS = 10;
+    // Keeps batches well below the maximum size of a datagram
+    private static final int MAX_BATCH_SIZE = 32;
 
+    private final MillisClock clock;
     private final AuthenticationClient authenticationClient;
     private final SortedSet<AccessDecision> accessDecisions;
     private final BlockingQueue<AccessControlMessage<?>> egressQueue;
+    private final ConcurrentMap<InetAddress, Long> subscriptions;
+    private final Queue<AccessDecision> publishedDecisions;
+    private final AtomicBoolean isPublishScheduled;
+    private final ScheduledExecutorService publishScheduler;
 
     public AuthorizationController(BlockingQueue<AccessControlMessage<?>> egressQueue,
                                    InetAddress authenticationAuthority, Authenticator<?, ?> authenticator) {
+        this(egressQueue, authenticationAuthority, authenticator, MillisClock.getDefault());
+    }
+
+    public AuthorizationController(BlockingQueue<AccessControlMessage<?>> egressQueue,
+                                   InetAddress authenticationAuthority, Authenticator<?, ?> authenticator,
+                                   MillisClock clock) {
+        this.clock = Objects.requireNonNull(clock);
         this.accessDecisions = new ConcurrentSkipListSet<>();
         this.egressQueue = egressQueue;
+        this.subscriptions = new ConcurrentHashMap<>();
+        this.publishedDecisions = new ConcurrentLinkedQueue<>();
+        this.isPublishScheduled = new AtomicBoolean();
+        this.publishScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "decision-publish-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
         this.authenticationClient = new AuthenticationClient(authenticationAuthority, authenticator, this.egressQueue);
 
         // TODO Remove static rules
@@ -48,9 +85,9 @@ public class AuthorizationController {
 
         try {
             AccessDecision blueToBlackDecision = new AccessDecision(blueToBlackPattern, AccessDecision.Action.GRANT,
-                    InetAddress.getByName("192.168.0.61"), Instant.now().plusSeconds(15));
+                    InetAddress.getByName("192.168.0.61"), this.currentInstant().plusSeconds(15));
             AccessDecision blackToBlueDecision = new AccessDecision(blackToBluePattern, AccessDecision.Action.GRANT,
-                    InetAddress.getByName("192.168.0.60"), Instant.now().plusSeconds(15));
+                    InetAddress.getByName("192.168.0.60"), this.currentInstant().plusSeconds(15));
             this.accessDecisions.add(blueToBlackDecision);
             this.accessDecisions.add(blackToBlueDecision);
             new Thread(new DecisionRefresher(blueToBlackDecision, TimeUnit.SECONDS.toMillis(15))).start();
@@ -121,13 +158,14 @@ public class AuthorizationController {
 
             // Get matching decisions for message
             AccessRequestPattern pattern = message.getPayload();
+            long now = this.clock.currentTimeMillis();
             Optional<AccessDecision> optionalMatchingDecision = this.accessDecisions.stream().parallel()
-                    .filter(decision -> pattern.contains(decision.getPattern()) && decision.isValid()).findFirst();
+                    .filter(decision -> pattern.contains(decision.getPattern()) && decision.isValid(now)).findFirst();
 
             // Fallback to deny if no decision fits
             if (optionalMatchingDecision.isEmpty()) {
                 AccessDecision decision = new AccessDecision(pattern, AccessDecision.Action.DENY,
-                        null, Instant.now().plusMillis(FALLBACK_DENY_VALIDITY_MILLISECONDS));
+                        null, this.currentInstant().plusMillis(FALLBACK_DENY_VALIDITY_MILLISECONDS));
                 AccessDecisionMessage decisionMessage = new AccessDecisionMessage(message.getSource(), null, decision);
                 authenticationClient.signMessage(decisionMessage).ifPresent(this.egressQueue::offer);
                 System.out.println("[PDP] Deny: No match.");
@@ -135,34 +173,124 @@ public class AuthorizationController {
             }
 
             AccessDecision decision = optionalMatchingDecision.get();
-            // Send decision to next hop if granted
+            AccessDecisionMessage decisionMessage = new AccessDecisionMessage(message.getSource(), null, decision);
+            Optional<AccessControlMessage<?>> optionalDecisionMessage = authenticationClient.signMessage(decisionMessage);
+            if (optionalDecisionMessage.isEmpty()) {
+                System.out.println("[PDP] Signing failed.");
+                return;
+            }
+
+            // Send decision to next hop if granted, the signature only covers the decision and is thus reused
             if (decision.isGranting()) {
-                AccessDecisionMessage decisionMessage = new AccessDecisionMessage(decision.getNextHop(), null, decision);
-                Optional<AccessControlMessage<?>> optionalDecisionMessage = authenticationClient.signMessage(decisionMessage);
-                if (optionalDecisionMessage.isPresent()) {
-                    this.egressQueue.offer(optionalDecisionMessage.get());
-                } else {
-                    System.out.println("[PDP] Signing failed.");
-                    return;
-                }
+                DigitalSignature signature = optionalDecisionMessage.get().getSignature();
+                this.egressQueue.offer(new AccessDecisionMessage(decision.getNextHop(), signature, decision));
             }
 
             // Send decision to requester
-            AccessDecisionMessage decisionMessage = new AccessDecisionMessage(message.getSource(), null, decision);
-            Optional<AccessControlMessage<?>> optionalDecisionMessage = authenticationClient.signMessage(decisionMessage);
-            if (optionalDecisionMessage.isPresent()) {
-                this.egressQueue.offer(optionalDecisionMessage.get());
-                System.out.printf("[PDP] Grant: %s -> %s. (took %d ms)\n", message.getSource(), decision.getNextHop(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - arrivalTime));
-
-            } else {
-                System.out.println("[PDP] Signing failed.");
+            this.egressQueue.offer(optionalDecisionMessage.get());
+            System.out.printf("[PDP] Grant: %s -> %s. (took %d ms)\n", message.getSource(), decision.getNextHop(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - arrivalTime));
+        } else if (accessControlMessage instanceof AccessDecisionSubscriptionMessage message) {
+            // Verify signature
+            if (!this.authenticationClient.verifyMessage(message) || !message.hasPayload()) {
                 return;
             }
+            this.subscribe(message.getSource(), message.getPayload());
         } else {
             System.out.println("[PDP] Unknown message type.");
         }
     }
 
+    /**
+     * Subscribes a policy enforcement point to the access decisions of this controller. The subscriber receives all
+     * valid decisions up front on every subscription, so that it does not request them one by one once its flows
+     * start. This includes renewals within the lease, since the subscriber might have restarted and lost its decisions
+     * meanwhile. Afterwards, all subscribers receive each decision as it is refreshed until their lease expires.
+     * <p>
+     * Since this controller does not know which flows pass a subscriber, all decisions are relevant to it: The
+     * subscriber adds decisions with itself as next hop to its incoming rules and all others to its outgoing rules.
+     *
+     * @param subscriber  the address of the subscriber
+     * @param leaseMillis the requested lease of the subscription in milliseconds
+     */
+    private void subscribe(InetAddress subscriber, long leaseMillis) {
+        long now = this.clock.currentTimeMillis();
+        long expiresAtMillis = now + Math.min(Math.max(leaseMillis, 0), MAX_SUBSCRIPTION_LEASE_MILLISECONDS);
+        this.subscriptions.put(subscriber, expiresAtMillis);
+
+        // Decisions refreshed from now on are pushed by the refresher
+        List<AccessDecision> decisions = this.accessDecisions.stream().filter(decision -> decision.isValid(now)).toList();
+        int pushedCount = this.pushDecisions(List.of(subscriber), decisions);
+        System.out.printf("[PDP] Subscription of %s, pushed %d decisions.\n", subscriber.getHostAddress(), pushedCount);
+    }
+
+    /**
+     * Publishes a refreshed decision to all subscribers. Since refreshers renew many decisions at about the same time,
+     * decisions published within a short delay are pushed together in batches.
+     *
+     * @param decision the refreshed decision
+     */
+    private void publishDecision(AccessDecision decision) {
+        this.publishedDecisions.add(decision);
+        if (this.isPublishScheduled.compareAndSet(false, true)) {
+            this.publishScheduler.schedule(this::pushPublishedDecisions, PUBLISH_DELAY_MILLISECONDS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void pushPublishedDecisions() {
+        // Reset flag before draining, so that decisions published while draining schedule another push
+        this.isPublishScheduled.set(false);
+        List<AccessDecision> decisions = new ArrayList<>();
+        for (AccessDecision decision = this.publishedDecisions.poll(); decision != null; decision = this.publishedDecisions.poll()) {
+            decisions.add(decision);
+        }
+
+        // Remove expired subscriptions
+        long now = this.clock.currentTimeMillis();
+        List<InetAddress> subscribers = new ArrayList<>();
+        this.subscriptions.forEach((subscriber, expiresAtMillis) -> {
+            if (expiresAtMillis <= now) {
+                this.subscriptions.remove(subscriber, expiresAtMillis);
+            } else {
+                subscribers.add(subscriber);
+            }
+        });
+        this.pushDecisions(subscribers, decisions);
+    }
+
+    /**
+     * Pushes decisions to subscribers in batches. Each batch is signed once and sent to all subscribers, since the
+     * signature only covers the decisions of the batch.
+     *
+     * @param subscribers the addresses of the subscribers
+     * @param decisions   the decisions to push
+     * @return the number of decisions pushed to each subscriber.
+     */
+    private int pushDecisions(List<InetAddress> subscribers, List<AccessDecision> decisions) {
+        if (subscribers.isEmpty()) {
+            return 0;
+        }
+        int pushedCount = 0;
+        for (int index = 0; index < decisions.size(); index += MAX_BATCH_SIZE) {
+            List<AccessDecision> batch = decisions.subList(index, Math.min(index + MAX_BATCH_SIZE, decisions.size()));
+            AccessDecisionBatchMessage batchMessage = new AccessDecisionBatchMessage(subscribers.get(0), null, List.copyOf(batch));
+            Optional<AccessControlMessage<?>> optionalBatchMessage = this.authenticationClient.signMessage(batchMessage);
+            if (optionalBatchMessage.isEmpty()) {
+                System.out.println("[PDP] Signing failed.");
+                continue;
+            }
+            DigitalSignature signature = optionalBatchMessage.get().getSignature();
+            for (InetAddress subscriber : subscribers) {
+                this.egressQueue.offer(new AccessDecisionBatchMessage(subscriber, signature, batchMessage.getPayload()));
+            }
+            pushedCount += batch.size();
+        }
+        return pushedCount;
+    }
+
+    private Instant currentInstant() {
+        return Instant.ofEpochMilli(this.clock.currentTimeMillis());
+    }
+
     private final class DecisionRefresher implements Runnable {
         private final static long REFRESH_THRESHOLD = 50;
         private final static long SLEEP_OFFSET = 30;
@@ -178,13 +306,15 @@ public class AuthorizationController {
         public void run() {
             System.out.println("[PDP] Starting refresh thread.");
             while (true) {
-                long timeLeft = Instant.now().until(decision.getValidUntil(), TimeUnit.MILLISECONDS.toChronoUnit());
+                long timeLeft = AuthorizationController.this.currentInstant().until(decision.getValidUntil(), TimeUnit.MILLISECONDS.toChronoUnit());
                 if (timeLeft < REFRESH_THRESHOLD) {
                     AccessDecision renewDecision = new AccessDecision(decision.getPattern(), decision.getAction(),
-                            decision.getNextHop(), Instant.now().plusMillis(this.validityMilliseconds));
+                            decision.getNextHop(), AuthorizationController.this.currentInstant()
+                                    .plusMillis(this.validityMilliseconds));
                     AuthorizationController.this.accessDecisions.remove(this.decision);
                     AuthorizationController.this.accessDecisions.add(renewDecision);
                     this.decision = renewDecision;
+                    AuthorizationController.this.publishDecision(renewDecision);
                     continue;
                 }
                 try {
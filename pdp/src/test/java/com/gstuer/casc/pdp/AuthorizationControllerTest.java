@@ -0,0 +1,88 @@
+package com.gstuer.casc.pdp;
+
+import com.gstuer.casc.common.cryptography.Authenticator;
+import com.gstuer.casc.common.cryptography.Ed25519Authenticator;
+import com.gstuer.casc.common.cryptography.EncodedKey;
+import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.message.AccessDecisionBatchMessage;
+import com.gstuer.casc.common.message.AccessDecisionSubscriptionMessage;
+import com.gstuer.casc.common.message.KeyExchangeMessage;
+import com.gstuer.casc.common.time.ManualClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.InvalidKeyException;
+import java.security.SignatureException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class AuthorizationControllerTest {
+    private static final long LEASE_MILLIS = 60000;
+
+    private InetAddress controllerAddress;
+    private InetAddress subscriber;
+    private Authenticator<?, ?> subscriberAuthenticator;
+    private BlockingQueue<AccessControlMessage<?>> egressQueue;
+    private ManualClock clock;
+    private AuthorizationController controller;
+
+    @BeforeEach
+    public void setUp() throws UnknownHostException, InvalidKeyException, SignatureException {
+        this.controllerAddress = InetAddress.getByName("10.0.0.5");
+        this.subscriber = InetAddress.getByName("10.0.0.2");
+        this.subscriberAuthenticator = new Ed25519Authenticator();
+        this.subscriberAuthenticator.initializeKeyPair();
+        Authenticator<?, ?> authenticator = new Ed25519Authenticator();
+        authenticator.initializeKeyPair();
+        this.egressQueue = new LinkedBlockingQueue<>();
+        this.clock = new ManualClock(System.currentTimeMillis());
+        this.controller = new AuthorizationController(this.egressQueue, InetAddress.getByName("10.0.0.1"),
+                authenticator, this.clock);
+        // Trust the key of the subscriber like after a key exchange
+        EncodedKey encodedKey = new EncodedKey(this.subscriberAuthenticator.getAlgorithmIdentifier(),
+                this.subscriberAuthenticator.getVerificationKey().getEncoded());
+        this.controller.handleRequest(new KeyExchangeMessage(this.controllerAddress, null, encodedKey)
+                .sign(this.subscriberAuthenticator).fromSource(this.subscriber));
+        this.egressQueue.clear();
+    }
+
+    @Test
+    public void testSubscriptionWithinLeaseReceivesSnapshot() throws InvalidKeyException, SignatureException {
+        // Test data
+        AccessDecisionSubscriptionMessage subscription = new AccessDecisionSubscriptionMessage(this.controllerAddress,
+                null, LEASE_MILLIS).sign(this.subscriberAuthenticator).fromSource(this.subscriber);
+
+        // Execution: Subscriber restarts and subscribes again before its lease expired
+        this.controller.handleRequest(subscription);
+        List<AccessDecisionBatchMessage> snapshot = this.drainBatchMessages();
+        this.clock.advance(Duration.ofSeconds(5));
+        this.controller.handleRequest(subscription);
+        List<AccessDecisionBatchMessage> renewedSnapshot = this.drainBatchMessages();
+
+        // Assertions
+        assertFalse(snapshot.isEmpty());
+        assertEquals(snapshot.size(), renewedSnapshot.size());
+        for (int index = 0; index < snapshot.size(); index++) {
+            assertEquals(this.subscriber, renewedSnapshot.get(index).getDestination());
+            assertEquals(snapshot.get(index).getPayload(), renewedSnapshot.get(index).getPayload());
+        }
+    }
+
+    private List<AccessDecisionBatchMessage> drainBatchMessages() {
+        List<AccessDecisionBatchMessage> batchMessages = new ArrayList<>();
+        for (AccessControlMessage<?> message = this.egressQueue.poll(); message != null; message = this.egressQueue.poll()) {
+            if (message instanceof AccessDecisionBatchMessage batchMessage) {
+                batchMessages.add(batchMessage);
+            }
+        }
+        return batchMessages;
+    }
+}
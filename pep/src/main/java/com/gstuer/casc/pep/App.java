@@ -1,7 +1,12 @@
 package com.gstuer.casc.pep;
 
+import com.gstuer.casc.common.capture.CaptureBackendType;
+import com.gstuer.casc.common.concurrency.RingBuffer;
 import com.gstuer.casc.common.cryptography.Authenticator;
 import com.gstuer.casc.common.cryptography.AuthenticatorFactory;
+import com.gstuer.casc.common.metrics.MetricEndpoint;
+import com.gstuer.casc.common.metrics.MetricRegistry;
+import com.gstuer.casc.common.metrics.MetricReporter;
 import com.gstuer.casc.pep.forwarding.ForwardingBridge;
 import com.gstuer.casc.pep.predicate.ArpPredicate;
 import com.gstuer.casc.pep.predicate.IcmpV4Predicate;
@@ -18,9 +23,11 @@ import org.pcap4j.core.PcapNetworkInterface;
 import org.pcap4j.core.Pcaps;
 import org.pcap4j.util.LinkLayerAddress;
 
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 public class App {
@@ -105,18 +112,82 @@ public class App {
         }
         Authenticator<?, ?> authenticator = optionalAuthenticator.get();
 
+        // Parse bridge configuration from command line arguments
+        BridgeConfiguration.Builder configurationBuilder = new BridgeConfiguration.Builder();
+        try {
+            if (commandLine.hasOption("backend")) {
+                String backendIdentifier = commandLine.getOptionValue("backend");
+                configurationBuilder.captureBackendType(CaptureBackendType.getByIdentifier(backendIdentifier)
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown capture backend " + backendIdentifier + ".")));
+            }
+            if (commandLine.hasOption("workers")) {
+                configurationBuilder.workerCount(Integer.parseInt(commandLine.getOptionValue("workers")));
+            }
+            if (commandLine.hasOption("queue-capacity")) {
+                configurationBuilder.queueCapacity(Integer.parseInt(commandLine.getOptionValue("queue-capacity")));
+            }
+            if (commandLine.hasOption("queue-overflow")) {
+                String policyIdentifier = commandLine.getOptionValue("queue-overflow").replace('-', '_').toUpperCase(Locale.ROOT);
+                configurationBuilder.overflowPolicy(RingBuffer.OverflowPolicy.valueOf(policyIdentifier));
+            }
+            if (commandLine.hasOption("egress-batch")) {
+                configurationBuilder.egressBatchSize(Integer.parseInt(commandLine.getOptionValue("egress-batch")));
+            }
+            if (commandLine.hasOption("egress-budget")) {
+                configurationBuilder.egressBatchBudgetMicros(Long.parseLong(commandLine.getOptionValue("egress-budget")));
+            }
+            if (commandLine.hasOption("signing-batch")) {
+                configurationBuilder.signingBatchSize(Integer.parseInt(commandLine.getOptionValue("signing-batch")));
+            }
+            if (commandLine.hasOption("signing-window")) {
+                configurationBuilder.signingBatchWindowMicros(Long.parseLong(commandLine.getOptionValue("signing-window")));
+            }
+            if (commandLine.hasOption("verification-batch")) {
+                configurationBuilder.verificationBatchSize(Integer.parseInt(commandLine.getOptionValue("verification-batch")));
+            }
+            if (commandLine.hasOption("verification-window")) {
+                configurationBuilder.verificationBatchWindowMicros(Long.parseLong(commandLine.getOptionValue("verification-window")));
+            }
+        } catch (IllegalArgumentException exception) {
+            System.err.println("Parsing bridge configuration failed: " + exception.getMessage());
+            return;
+        }
+        BridgeConfiguration configuration = configurationBuilder.build();
+
+        // Start periodic metric reports if requested by user
+        if (commandLine.hasOption("metrics")) {
+            try {
+                long intervalSeconds = Long.parseLong(commandLine.getOptionValue("metrics"));
+                new MetricReporter(MetricRegistry.getDefault(), intervalSeconds * 1000).start();
+            } catch (IllegalArgumentException exception) {
+                System.err.println("Parsing metric interval failed: " + exception.getMessage());
+                return;
+            }
+        }
+
+        // Serve metrics for scraping if requested by user
+        if (commandLine.hasOption("metrics-port")) {
+            try {
+                int port = Integer.parseInt(commandLine.getOptionValue("metrics-port"));
+                new MetricEndpoint(MetricRegistry.getDefault(), port).start();
+            } catch (IllegalArgumentException | IOException exception) {
+                System.err.println("Starting metric endpoint failed: " + exception.getMessage());
+                return;
+            }
+        }
+
         if (commandLine.hasOption("f")) {
             // Start forwarding traffic between the specified interfaces w/o access control
             System.out.printf("Forward Mode: %s <-> %s\n", insecureNetworkInterface.getName(), secureNetworkInterface.getName());
-            ForwardingBridge inBridge = new ForwardingBridge(insecureNetworkInterface, secureNetworkInterface);
-            ForwardingBridge outBridge = new ForwardingBridge(secureNetworkInterface, insecureNetworkInterface);
+            ForwardingBridge inBridge = new ForwardingBridge(insecureNetworkInterface, secureNetworkInterface, configuration);
+            ForwardingBridge outBridge = new ForwardingBridge(secureNetworkInterface, insecureNetworkInterface, configuration);
             inBridge.startForwarding();
             outBridge.startForwarding();
         } else {
             // Start forwarding traffic between the specified interfaces using a secured network bridge instance
             System.out.printf("Supervisory Mode: %s <-> %s\n", insecureNetworkInterface.getName(), secureNetworkInterface.getName());
             NetworkBridge networkBridge = new NetworkBridge(insecureNetworkInterface, secureNetworkInterface,
-                    authorizationAuthority, authenticationAuthority, authenticator, new ArpPredicate(), new IcmpV4Predicate(), new SampledValuesPredicate());
+                    authorizationAuthority, authenticationAuthority, authenticator, configuration, new ArpPredicate(), new IcmpV4Predicate(), new SampledValuesPredicate());
             networkBridge.open();
         }
     }
@@ -179,6 +250,78 @@ public class App {
                 .argName("algorithm")
                 .required(enableRequiredOptions)
                 .build());
+        options.addOption(Option.builder()
+                .longOpt("backend")
+                .desc("set the backend used to capture and transmit packets: pcap (default) or mmap (Linux only)")
+                .numberOfArgs(1)
+                .argName("backend")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("workers")
+                .desc("set the number of worker threads handling secure packets and messages by flow (default: 0, none)")
+                .numberOfArgs(1)
+                .argName("count")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("queue-capacity")
+                .desc("set the capacity of each egress and worker queue (default: 0, unbounded)")
+                .numberOfArgs(1)
+                .argName("packets")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("queue-overflow")
+                .desc("set the policy of bounded egress queues if full: drop-newest (default), drop-oldest or block")
+                .numberOfArgs(1)
+                .argName("policy")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("egress-batch")
+                .desc("set the maximum number of packets transmitted per egress batch (default: 1)")
+                .numberOfArgs(1)
+                .argName("packets")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("egress-budget")
+                .desc("set the time waited for further packets of an egress batch (default: 0)")
+                .numberOfArgs(1)
+                .argName("microseconds")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("signing-batch")
+                .desc("set the maximum number of outgoing packets per destination signed at once (default: 1)")
+                .numberOfArgs(1)
+                .argName("packets")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("signing-window")
+                .desc("set the time waited for further packets of a signing batch (default: 500)")
+                .numberOfArgs(1)
+                .argName("microseconds")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("verification-batch")
+                .desc("set the maximum number of incoming packets per source verified at once, S_CASA only (default: 1)")
+                .numberOfArgs(1)
+                .argName("packets")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("verification-window")
+                .desc("set the time waited for further packets of a verification batch (default: 500)")
+                .numberOfArgs(1)
+                .argName("microseconds")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("metrics")
+                .desc("periodically prints runtime metrics, e.g. queue depths, drops and stage latencies")
+                .numberOfArgs(1)
+                .argName("seconds")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("metrics-port")
+                .desc("serves runtime metrics for scraping via HTTP at /metrics on the given port")
+                .numberOfArgs(1)
+                .argName("port")
+                .build());
         options.addOption(Option.builder("f")
                 .longOpt("forward")
                 .desc("forwards all traffic without filtering and access control")
@@ -0,0 +1,281 @@
+package com.gstuer.casc.pep;
+
+import com.gstuer.casc.common.capture.CaptureBackendType;
+import com.gstuer.casc.common.concurrency.RingBuffer;
+import com.gstuer.casc.common.egress.PacketEgressHandler;
+import com.gstuer.casc.common.metrics.MetricRegistry;
+
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Represents the tuning parameters of a bridge, e.g. the capture backend of its packet handlers, the number of worker
+ * threads, the capacity and overflow policy of its queues, the batching of its packet egress handlers, the batching
+ * of signatures of outgoing messages or the batching of signature verifications of incoming messages.
+ * Instances are created via the {@link Builder builder}.
+ */
+public final class BridgeConfiguration {
+    public static final int UNBOUNDED_QUEUE_CAPACITY = 0;
+
+    private final CaptureBackendType captureBackendType;
+    private final int workerCount;
+    private final int queueCapacity;
+    private final RingBuffer.OverflowPolicy overflowPolicy;
+    private final int egressBatchSize;
+    private final long egressBatchBudgetMicros;
+    private final int signingBatchSize;
+    private final long signingBatchWindowMicros;
+    private final int verificationBatchSize;
+    private final long verificationBatchWindowMicros;
+    private final MetricRegistry metricRegistry;
+
+    private BridgeConfiguration(Builder builder) {
+        this.captureBackendType = builder.captureBackendType;
+        this.workerCount = builder.workerCount;
+        this.queueCapacity = builder.queueCapacity;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.egressBatchSize = builder.egressBatchSize;
+        this.egressBatchBudgetMicros = builder.egressBatchBudgetMicros;
+        this.signingBatchSize = builder.signingBatchSize;
+        this.signingBatchWindowMicros = builder.signingBatchWindowMicros;
+        this.verificationBatchSize = builder.verificationBatchSize;
+        this.verificationBatchWindowMicros = builder.verificationBatchWindowMicros;
+        this.metricRegistry = builder.metricRegistry;
+    }
+
+    public static BridgeConfiguration getDefault() {
+        return new Builder().build();
+    }
+
+    /**
+     * Creates a queue as configured and registers its metrics under the given name.
+     * Unbounded configurations yield a linked queue, bounded ones a preallocated {@link RingBuffer ring buffer}.
+     *
+     * @param name the name of the queue used as prefix of its metrics
+     * @param <T>  the type of elements held in the queue
+     * @return the created queue.
+     */
+    public <T> BlockingQueue<T> createQueue(String name) {
+        String prefix = "queue." + Objects.requireNonNull(name);
+        if (this.queueCapacity == UNBOUNDED_QUEUE_CAPACITY) {
+            BlockingQueue<T> queue = new LinkedBlockingQueue<>();
+            this.metricRegistry.registerGauge(prefix + ".depth", queue::size);
+            return queue;
+        }
+        RingBuffer<T> queue = new RingBuffer<>(this.queueCapacity, this.overflowPolicy);
+        this.metricRegistry.registerGauge(prefix + ".depth", queue::size);
+        this.metricRegistry.registerGauge(prefix + ".peak", queue::getPeakSize);
+        this.metricRegistry.registerGauge(prefix + ".drops", queue::getDropCount);
+        return queue;
+    }
+
+    public CaptureBackendType getCaptureBackendType() {
+        return this.captureBackendType;
+    }
+
+    public int getWorkerCount() {
+        return this.workerCount;
+    }
+
+    public int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    public RingBuffer.OverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+
+    public int getEgressBatchSize() {
+        return this.egressBatchSize;
+    }
+
+    public long getEgressBatchBudgetMicros() {
+        return this.egressBatchBudgetMicros;
+    }
+
+    public int getSigningBatchSize() {
+        return this.signingBatchSize;
+    }
+
+    public long getSigningBatchWindowMicros() {
+        return this.signingBatchWindowMicros;
+    }
+
+    public int getVerificationBatchSize() {
+        return this.verificationBatchSize;
+    }
+
+    public long getVerificationBatchWindowMicros() {
+        return this.verificationBatchWindowMicros;
+    }
+
+    public MetricRegistry getMetricRegistry() {
+        return this.metricRegistry;
+    }
+
+    public static final class Builder {
+        private CaptureBackendType captureBackendType;
+        private int workerCount;
+        private int queueCapacity;
+        private RingBuffer.OverflowPolicy overflowPolicy;
+        private int egressBatchSize;
+        private long egressBatchBudgetMicros;
+        private int signingBatchSize;
+        private long signingBatchWindowMicros;
+        private int verificationBatchSize;
+        private long verificationBatchWindowMicros;
+        private MetricRegistry metricRegistry;
+
+        public Builder() {
+            this.captureBackendType = CaptureBackendType.PCAP;
+            this.workerCount = 0;
+            this.queueCapacity = UNBOUNDED_QUEUE_CAPACITY;
+            this.overflowPolicy = RingBuffer.OverflowPolicy.DROP_NEWEST;
+            this.egressBatchSize = PacketEgressHandler.DEFAULT_BATCH_SIZE;
+            this.egressBatchBudgetMicros = 0;
+            this.signingBatchSize = 1;
+            this.signingBatchWindowMicros = 500;
+            this.verificationBatchSize = 1;
+            this.verificationBatchWindowMicros = 500;
+            this.metricRegistry = MetricRegistry.getDefault();
+        }
+
+        public Builder captureBackendType(CaptureBackendType captureBackendType) {
+            this.captureBackendType = Objects.requireNonNull(captureBackendType);
+            return this;
+        }
+
+        /**
+         * Sets the number of worker threads handling packets of the secure interface and access control messages.
+         * Packets are distributed across the workers by their flow, so packets of the same flow keep their order.
+         * Without workers, packets are handled by the threads capturing them.
+         *
+         * @param workerCount the number of worker threads per dispatcher
+         * @return this builder.
+         */
+        public Builder workerCount(int workerCount) {
+            if (workerCount < 0) {
+                throw new IllegalArgumentException("Worker count must not be negative.");
+            }
+            this.workerCount = workerCount;
+            return this;
+        }
+
+        /**
+         * Sets the capacity of the egress and worker queues. A capacity of {@link #UNBOUNDED_QUEUE_CAPACITY} keeps the
+         * queues unbounded.
+         *
+         * @param queueCapacity the capacity of each queue
+         * @return this builder.
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity < 0) {
+                throw new IllegalArgumentException("Queue capacity must not be negative.");
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder overflowPolicy(RingBuffer.OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of packets a packet egress handler transmits per batch.
+         *
+         * @param egressBatchSize the maximum batch size
+         * @return this builder.
+         */
+        public Builder egressBatchSize(int egressBatchSize) {
+            if (egressBatchSize <= 0) {
+                throw new IllegalArgumentException("Egress batch size must be positive.");
+            }
+            this.egressBatchSize = egressBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the time a packet egress handler waits for further packets after the first packet of a batch.
+         *
+         * @param egressBatchBudgetMicros the time budget in microseconds
+         * @return this builder.
+         */
+        public Builder egressBatchBudgetMicros(long egressBatchBudgetMicros) {
+            if (egressBatchBudgetMicros < 0) {
+                throw new IllegalArgumentException("Egress batch budget must not be negative.");
+            }
+            this.egressBatchBudgetMicros = egressBatchBudgetMicros;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of outgoing messages of a destination that are signed at once via the root of a
+         * Merkle tree. A batch size of one signs each message on its own.
+         *
+         * @param signingBatchSize the maximum batch size
+         * @return this builder.
+         */
+        public Builder signingBatchSize(int signingBatchSize) {
+            if (signingBatchSize <= 0) {
+                throw new IllegalArgumentException("Signing batch size must be positive.");
+            }
+            this.signingBatchSize = signingBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the time an outgoing message waits for further messages of its destination before its batch is signed.
+         *
+         * @param signingBatchWindowMicros the time window in microseconds
+         * @return this builder.
+         */
+        public Builder signingBatchWindowMicros(long signingBatchWindowMicros) {
+            if (signingBatchWindowMicros < 0) {
+                throw new IllegalArgumentException("Signing batch window must not be negative.");
+            }
+            this.signingBatchWindowMicros = signingBatchWindowMicros;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of incoming messages of a source whose signatures are verified at once. Batches are
+         * only formed if the authenticator has a batch verification, e.g. S_CASA. A batch size of one verifies each
+         * message on its own by the thread handling it.
+         *
+         * @param verificationBatchSize the maximum batch size
+         * @return this builder.
+         */
+        public Builder verificationBatchSize(int verificationBatchSize) {
+            if (verificationBatchSize <= 0) {
+                throw new IllegalArgumentException("Verification batch size must be positive.");
+            }
+            this.verificationBatchSize = verificationBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the time an incoming message waits for further messages of its source before its batch is verified.
+         *
+         * @param verificationBatchWindowMicros the time window in microseconds
+         * @return this builder.
+         */
+        public Builder verificationBatchWindowMicros(long verificationBatchWindowMicros) {
+            if (verificationBatchWindowMicros < 0) {
+                throw new IllegalArgumentException("Verification batch window must not be negative.");
+            }
+            this.verificationBatchWindowMicros = verificationBatchWindowMicros;
+            return this;
+        }
+
+        public Builder metricRegistry(MetricRegistry metricRegistry) {
+            this.metricRegistry = Objects.requireNonNull(metricRegistry);
+            return this;
+        }
+
+        public BridgeConfiguration build() {
+            return new BridgeConfiguration(this);
+        }
+    }
+}
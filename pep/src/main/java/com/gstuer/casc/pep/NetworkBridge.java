@@ -1,25 +1,35 @@
 package com.gstuer.casc.pep;
 
+import com.gstuer.casc.common.capture.CaptureBackend;
+import com.gstuer.casc.common.capture.CaptureBackendType;
+import com.gstuer.casc.common.capture.CaptureException;
 import com.gstuer.casc.common.cryptography.Authenticator;
 import com.gstuer.casc.common.egress.AccessControlMessageEgressHandler;
 import com.gstuer.casc.common.egress.PacketEgressHandler;
+import com.gstuer.casc.common.frame.FlowHash;
+import com.gstuer.casc.common.frame.Frame;
 import com.gstuer.casc.common.ingress.AccessControlMessageIngressHandler;
+import com.gstuer.casc.common.ingress.FrameIngressHandler;
+import com.gstuer.casc.common.ingress.IngressHandler;
 import com.gstuer.casc.common.ingress.PacketIngressHandler;
 import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.message.PayloadExchangeMessage;
 import com.gstuer.casc.pep.access.AccessController;
+import com.gstuer.casc.pep.dispatch.FlowDispatcher;
 import com.gstuer.casc.pep.predicate.PacketPredicate;
 import org.pcap4j.core.PcapAddress;
-import org.pcap4j.core.PcapNativeException;
 import org.pcap4j.core.PcapNetworkInterface;
 import org.pcap4j.packet.Packet;
 
 import java.net.InetAddress;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Consumer;
 
 public class NetworkBridge {
@@ -35,19 +45,31 @@ public class NetworkBridge {
     private final BlockingQueue<Packet> egressQueueSecure;
     private final BlockingQueue<AccessControlMessage<?>> egressQueueMessage;
     private final PacketPredicate bypassPredicate;
+    private final BridgeConfiguration configuration;
 
     private PacketEgressHandler egressHandlerInsecure;
     private PacketEgressHandler egressHandlerSecure;
     private AccessControlMessageEgressHandler egressHandlerMessage;
-    private PacketIngressHandler ingressHandlerInsecure;
-    private PacketIngressHandler ingressHandlerSecure;
+    private IngressHandler<?> ingressHandlerInsecure;
+    private IngressHandler<?> ingressHandlerSecure;
+    private FrameIngressHandler ingressHandlerBypass;
     private AccessControlMessageIngressHandler ingressHandlerMessage;
+    private FlowDispatcher<Frame> dispatcherSecure;
+    private FlowDispatcher<AccessControlMessage<?>> dispatcherMessage;
     private AccessController accessController;
     private ExecutorService threadPool;
 
     public NetworkBridge(PcapNetworkInterface networkInterfaceInsecure, PcapNetworkInterface networkInterfaceSecure,
                          InetAddress authorizationAuthority, InetAddress authenticationAuthority,
                          Authenticator<?, ?> authenticator, PacketPredicate... bypassPredicates) {
+        this(networkInterfaceInsecure, networkInterfaceSecure, authorizationAuthority, authenticationAuthority,
+                authenticator, BridgeConfiguration.getDefault(), bypassPredicates);
+    }
+
+    public NetworkBridge(PcapNetworkInterface networkInterfaceInsecure, PcapNetworkInterface networkInterfaceSecure,
+                         InetAddress authorizationAuthority, InetAddress authenticationAuthority,
+                         Authenticator<?, ?> authenticator, BridgeConfiguration configuration,
+                         PacketPredicate... bypassPredicates) {
         this.networkInterfaceInsecure = Objects.requireNonNull(networkInterfaceInsecure);
         this.networkInterfaceSecure = Objects.requireNonNull(networkInterfaceSecure);
 
@@ -55,14 +77,16 @@ public class NetworkBridge {
         this.authenticationAuthority = Objects.requireNonNull(authenticationAuthority);
         this.authenticator = Objects.requireNonNull(authenticator);
 
-        this.egressQueueInsecure = new LinkedBlockingQueue<>();
-        this.egressQueueSecure = new LinkedBlockingQueue<>();
-        this.egressQueueMessage = new LinkedBlockingQueue<>();
+        this.configuration = Objects.requireNonNull(configuration);
+        this.egressQueueInsecure = configuration.createQueue("egress.insecure");
+        this.egressQueueSecure = configuration.createQueue("egress.secure");
+        this.egressQueueMessage = configuration.createQueue("egress.message");
 
-        // Compose predicates for traffic bypass to single predicate
-        PacketPredicate composedPredicate = PacketPredicate.getStaticPredicate(false);
-        for (PacketPredicate bypassPredicate : bypassPredicates) {
-            composedPredicate = composedPredicate.or(bypassPredicate);
+        // Compose predicates for traffic bypass to single predicate, keeping their filter expression if possible
+        PacketPredicate composedPredicate = bypassPredicates.length == 0 ? PacketPredicate.getStaticPredicate(false)
+                : bypassPredicates[0];
+        for (int index = 1; index < bypassPredicates.length; index++) {
+            composedPredicate = composedPredicate.or(bypassPredicates[index]);
         }
         this.bypassPredicate = composedPredicate;
     }
@@ -87,47 +111,120 @@ public class NetworkBridge {
         }
         InetAddress authorizationScope = insecureAddresses.get(0).getAddress();
         this.accessController = new AccessController(this.egressQueueMessage, this.egressQueueSecure,
-                this.authorizationAuthority, authorizationScope, this.authenticationAuthority, authenticator);
+                this.authorizationAuthority, authorizationScope, this.authenticationAuthority, authenticator,
+                this.configuration.getSigningBatchSize(),
+                Duration.of(this.configuration.getSigningBatchWindowMicros(), ChronoUnit.MICROS),
+                this.configuration.getVerificationBatchSize(),
+                Duration.of(this.configuration.getVerificationBatchWindowMicros(), ChronoUnit.MICROS));
 
-        // Specify ingress packet consumers
+        // Specify ingress packet and frame consumers
         Consumer<Packet> egressEnqueueInsecure = this.egressQueueInsecure::offer;
         Consumer<Packet> egressEnqueueSecure = this.egressQueueSecure::offer;
         Consumer<Packet> packetConsumerInsecure = (packet) -> bypassPredicate.doIfMatches(packet, egressEnqueueSecure);
-        Consumer<Packet> packetConsumerSecure = (packet) -> bypassPredicate.doIfMatchesOrElse(packet,
-                egressEnqueueInsecure, this.accessController::handleOutgoingRequest);
+        Consumer<Frame> frameConsumerSecure = (frame) -> bypassPredicate.doIfMatchesOrElse(frame.getPacket(),
+                egressEnqueueInsecure, packet -> this.accessController.handleOutgoingRequest(packet, frame.getTimestamp()));
+        Consumer<Frame> bypassConsumerInsecure = (frame) -> egressEnqueueSecure.accept(frame.toUnparsedPacket());
+        Consumer<Frame> bypassConsumerSecure = (frame) -> egressEnqueueInsecure.accept(frame.toUnparsedPacket());
+        Consumer<AccessControlMessage<?>> messageConsumer = this.accessController::handleIncomingRequest;
 
         // Construct ingress and egress handlers
+        CaptureBackendType backendType = this.configuration.getCaptureBackendType();
+        Optional<String> bypassExpression = this.bypassPredicate.getCaptureFilterExpression();
+        this.ingressHandlerBypass = null;
         try {
             // Egress handler
             this.egressHandlerMessage = new AccessControlMessageEgressHandler(UDP_PORT_OUTGOING, UDP_PORT_INCOMING, this.egressQueueMessage);
-            this.egressHandlerInsecure = new PacketEgressHandler(this.networkInterfaceInsecure, this.egressQueueInsecure);
-            this.egressHandlerSecure = new PacketEgressHandler(this.networkInterfaceSecure, this.egressQueueSecure);
-
-            // Ingress handler
-            this.ingressHandlerMessage = new AccessControlMessageIngressHandler(UDP_PORT_INCOMING, this.accessController::handleIncomingRequest);
-            this.ingressHandlerInsecure = new PacketIngressHandler(this.networkInterfaceInsecure, packetConsumerInsecure);
-            this.ingressHandlerSecure = new PacketIngressHandler(this.networkInterfaceSecure, packetConsumerSecure);
-        } catch (PcapNativeException exception) {
+            this.egressHandlerInsecure = new PacketEgressHandler(backendType.open(this.networkInterfaceInsecure, CaptureBackend.Direction.EGRESS),
+                    this.egressQueueInsecure, this.configuration.getEgressBatchSize(), this.configuration.getEgressBatchBudgetMicros());
+            this.egressHandlerSecure = new PacketEgressHandler(backendType.open(this.networkInterfaceSecure, CaptureBackend.Direction.EGRESS),
+                    this.egressQueueSecure, this.configuration.getEgressBatchSize(), this.configuration.getEgressBatchBudgetMicros());
+
+            // Ingress handler of insecure interface: Only bypass traffic is forwarded, unparsed if filtered by kernel
+            CaptureBackend ingressBackendInsecure = backendType.open(this.networkInterfaceInsecure, CaptureBackend.Direction.INGRESS);
+            if (applyFilter(ingressBackendInsecure, bypassExpression)) {
+                this.ingressHandlerInsecure = new FrameIngressHandler(ingressBackendInsecure, bypassConsumerInsecure);
+            } else {
+                this.ingressHandlerInsecure = new PacketIngressHandler(ingressBackendInsecure, packetConsumerInsecure);
+            }
+
+            // Ingress handlers of secure interface: If supported, bypass traffic is separated by the kernel and
+            // captured by another backend, so that only access-controlled traffic is parsed
+            CaptureBackend ingressBackendSecure = backendType.open(this.networkInterfaceSecure, CaptureBackend.Direction.INGRESS);
+            Consumer<Frame> controlledConsumerSecure = frameConsumerSecure;
+            if (applyFilter(ingressBackendSecure, bypassExpression.map(expression -> "not (" + expression + ")"))) {
+                CaptureBackend bypassBackendSecure = backendType.open(this.networkInterfaceSecure, CaptureBackend.Direction.INGRESS);
+                if (!applyFilter(bypassBackendSecure, bypassExpression)) {
+                    throw new IllegalStateException("Capture backend supports filters inconsistently.");
+                }
+                this.ingressHandlerBypass = new FrameIngressHandler(bypassBackendSecure, bypassConsumerSecure);
+                controlledConsumerSecure = (frame) -> this.accessController.handleOutgoingRequest(frame.getPacket(), frame.getTimestamp());
+            }
+
+            // Distribute secure packets and messages across workers by flow if configured
+            int workerCount = this.configuration.getWorkerCount();
+            if (workerCount > 0) {
+                this.dispatcherSecure = new FlowDispatcher<>("secure", workerCount, FlowHash::of,
+                        controlledConsumerSecure, this.configuration::createQueue);
+                this.dispatcherMessage = new FlowDispatcher<>("message", workerCount, NetworkBridge::hashMessageFlow,
+                        messageConsumer, this.configuration::createQueue);
+                messageConsumer = this.dispatcherMessage;
+
+                // Frames are reused by the ingress handler and therefore copied before being dispatched
+                FlowDispatcher<Frame> dispatcher = this.dispatcherSecure;
+                this.ingressHandlerSecure = new FrameIngressHandler(ingressBackendSecure, frame -> dispatcher.accept(frame.copy()));
+            } else {
+                // Frames carry their capture timestamp to the access controller
+                this.ingressHandlerSecure = new FrameIngressHandler(ingressBackendSecure, controlledConsumerSecure);
+            }
+            this.ingressHandlerMessage = new AccessControlMessageIngressHandler(UDP_PORT_INCOMING, messageConsumer);
+        } catch (CaptureException exception) {
             throw new IllegalStateException(exception);
         }
 
-        // Start handler threads
-        this.threadPool = Executors.newFixedThreadPool(6);
+        // Start worker and handler threads
+        if (this.dispatcherSecure != null) {
+            this.dispatcherSecure.open();
+            this.dispatcherMessage.open();
+        }
+        this.threadPool = Executors.newFixedThreadPool(this.ingressHandlerBypass != null ? 7 : 6);
         this.threadPool.submit(this.egressHandlerMessage::open);
         this.threadPool.submit(this.egressHandlerInsecure::open);
         this.threadPool.submit(this.egressHandlerSecure::open);
         this.threadPool.submit(this.ingressHandlerMessage::open);
         this.threadPool.submit(this.ingressHandlerInsecure::open);
         this.threadPool.submit(this.ingressHandlerSecure::open);
+        if (this.ingressHandlerBypass != null) {
+            this.threadPool.submit(this.ingressHandlerBypass::open);
+        }
     }
 
     public void close() {
         this.ingressHandlerInsecure.close();
         this.ingressHandlerSecure.close();
+        if (this.ingressHandlerBypass != null) {
+            this.ingressHandlerBypass.close();
+        }
         this.ingressHandlerMessage.close();
         this.egressHandlerInsecure.close();
         this.egressHandlerSecure.close();
         this.egressHandlerMessage.close();
+        if (this.dispatcherSecure != null) {
+            this.dispatcherSecure.close();
+            this.dispatcherMessage.close();
+        }
+        this.accessController.close();
         this.threadPool.shutdownNow();
     }
+
+    private static boolean applyFilter(CaptureBackend backend, Optional<String> filterExpression) throws CaptureException {
+        return filterExpression.isPresent() && backend.applyFilter(filterExpression.get());
+    }
+
+    private static int hashMessageFlow(AccessControlMessage<?> message) {
+        // Messages encapsulating packets belong to the flow of the packet, other messages are not ordered by flow
+        if (message instanceof PayloadExchangeMessage payloadMessage && payloadMessage.hasPayload()) {
+            return FlowHash.of(payloadMessage.getPayload().getRawData());
+        }
+        return 0;
+    }
 }
@@ -2,14 +2,19 @@ package com.gstuer.casc.pep.access;
 
 import com.gstuer.casc.common.AuthenticationClient;
 import com.gstuer.casc.common.cryptography.Authenticator;
+import com.gstuer.casc.common.frame.Frame;
 import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.message.AccessDecisionBatchMessage;
 import com.gstuer.casc.common.message.AccessDecisionMessage;
 import com.gstuer.casc.common.message.KeyExchangeMessage;
 import com.gstuer.casc.common.message.KeyExchangeRequestMessage;
 import com.gstuer.casc.common.message.PayloadExchangeMessage;
+import com.gstuer.casc.common.metrics.Histogram;
+import com.gstuer.casc.common.metrics.MetricRegistry;
 import org.pcap4j.packet.Packet;
 
 import java.net.InetAddress;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
@@ -19,49 +24,105 @@ public class AccessController {
     private final BlockingQueue<Packet> packetEgress;
     private final AuthenticationClient authenticationClient;
     private final AuthorizationManager authorizationManager;
+    private final VerificationBatcher verificationBatcher;
+    private final SigningBatcher signingBatcher;
+    private final Histogram captureHistogram;
+    private final Histogram signHistogram;
+    private final Histogram verifyHistogram;
+    private final Histogram ingressToEnqueueHistogram;
 
     public AccessController(BlockingQueue<AccessControlMessage<?>> messageEgress, BlockingQueue<Packet> packetEgress,
                             InetAddress authorizationAuthority, InetAddress authorizationScope,
                             InetAddress authenticationAuthority, Authenticator<?, ?> authenticator) {
+        this(messageEgress, packetEgress, authorizationAuthority, authorizationScope, authenticationAuthority,
+                authenticator, 1, Duration.ZERO);
+    }
+
+    public AccessController(BlockingQueue<AccessControlMessage<?>> messageEgress, BlockingQueue<Packet> packetEgress,
+                            InetAddress authorizationAuthority, InetAddress authorizationScope,
+                            InetAddress authenticationAuthority, Authenticator<?, ?> authenticator,
+                            int signingBatchSize, Duration signingBatchWindow) {
+        this(messageEgress, packetEgress, authorizationAuthority, authorizationScope, authenticationAuthority,
+                authenticator, signingBatchSize, signingBatchWindow, 1, Duration.ZERO);
+    }
+
+    /**
+     * Constructs a new {@link AccessController access controller}. Outgoing messages are signed in batches per
+     * destination if the signing batch size is greater than one, otherwise each message is signed on its own.
+     * Incoming messages are verified in batches per source if the verification batch size is greater than one and the
+     * authenticator has a {@link com.gstuer.casc.common.cryptography.Verifier#hasBatchVerification() batch
+     * verification}, otherwise each message is verified on its own by the thread handling it.
+     *
+     * @param messageEgress           the queue of outgoing access control messages
+     * @param packetEgress            the queue of packets for the secure interface
+     * @param authorizationAuthority  the address of the authorization authority
+     * @param authorizationScope      the address whose traffic is authorized
+     * @param authenticationAuthority the address of the authentication authority
+     * @param authenticator           the authenticator signing outgoing messages
+     * @param signingBatchSize        the number of outgoing messages of a destination that are signed at once
+     * @param signingBatchWindow      the time an outgoing message waits for further messages of its destination
+     * @param verificationBatchSize   the number of incoming messages of a source that are verified at once
+     * @param verificationBatchWindow the time an incoming message waits for further messages of its source
+     */
+    public AccessController(BlockingQueue<AccessControlMessage<?>> messageEgress, BlockingQueue<Packet> packetEgress,
+                            InetAddress authorizationAuthority, InetAddress authorizationScope,
+                            InetAddress authenticationAuthority, Authenticator<?, ?> authenticator,
+                            int signingBatchSize, Duration signingBatchWindow,
+                            int verificationBatchSize, Duration verificationBatchWindow) {
         this.messageEgress = Objects.requireNonNull(messageEgress);
         this.packetEgress = Objects.requireNonNull(packetEgress);
         this.authenticationClient = new AuthenticationClient(authenticationAuthority, authenticator, this.messageEgress);
         this.authorizationManager = new AuthorizationManager(authorizationAuthority, authorizationScope,
                 this.authenticationClient, this.messageEgress);
+        this.verificationBatcher = verificationBatchSize > 1 && authenticator.hasBatchVerification()
+                ? new VerificationBatcher(this.authenticationClient, this::handleVerifiedPayload, verificationBatchSize,
+                verificationBatchWindow) : null;
+        if (verificationBatchSize > 1 && this.verificationBatcher == null) {
+            System.out.printf("[AC] %s has no batch verification, messages are verified on their own.\n",
+                    authenticator.getAlgorithmIdentifier());
+        }
+        this.signingBatcher = signingBatchSize > 1 ? new SigningBatcher(this.authenticationClient, this.messageEgress,
+                signingBatchSize, signingBatchWindow) : null;
+
+        MetricRegistry metricRegistry = MetricRegistry.getDefault();
+        this.captureHistogram = metricRegistry.histogram("latency.outgoing.capture-ns");
+        this.signHistogram = metricRegistry.histogram("latency.outgoing.sign-ns");
+        this.verifyHistogram = metricRegistry.histogram("latency.incoming.verify-ns");
+        this.ingressToEnqueueHistogram = metricRegistry.histogram("latency.incoming.ingress-to-enqueue-ns");
     }
 
-    public void handleOutgoingRequest(Packet packet) {
-        // Step 1: Check authorization for outgoing packet
-        Optional<PayloadExchangeMessage> optionalMessage = this.authorizationManager.authorizeOutgoing(packet);
-        if (optionalMessage.isEmpty()) {
+    /**
+     * Handles an outgoing packet captured on the secure interface.
+     *
+     * @param packet           the outgoing packet
+     * @param captureTimestamp the capture timestamp of the packet in nanoseconds since the epoch
+     */
+    public void handleOutgoingRequest(Packet packet, long captureTimestamp) {
+        // Latency from capture until handling, including the time spent in ingress and worker queues
+        this.captureHistogram.record(Frame.currentEpochNanos() - captureTimestamp);
+
+        // Step 1: Check authorization for outgoing packet, granted packets are sent immediately or once resolved
+        AuthorizationManager.AuthorizationResult result = this.authorizationManager.authorizeOutgoing(packet,
+                message -> this.sendPayloadMessage(message, captureTimestamp));
+        if (result == AuthorizationManager.AuthorizationResult.DENIED) {
             System.out.println("[AC] Unauthorized outgoing packet: " + packet.getHeader());
-            return;
         }
-
-        // Step 2: Derive signature for payload exchange message
-        Optional<AccessControlMessage<?>> signedMessage = this.authenticationClient.signMessage(optionalMessage.get());
-
-        // Step 3: Queue access request for insecure egress
-        signedMessage.ifPresent(this.messageEgress::offer);
     }
 
     public void handleIncomingRequest(AccessControlMessage<?> accessControlMessage) {
         // Step 1: Identify type of message
         if (accessControlMessage instanceof PayloadExchangeMessage message) {
-            // Step 2: Verify signature
-            if (!this.authenticationClient.verifyMessage(message)) {
+            // Step 2: Verify signature, batched messages are handled once verified with other messages of the source
+            if (this.verificationBatcher != null) {
+                this.verificationBatcher.accept(message);
                 return;
             }
-
-            // Step 3: Verify access control decision (access control decision lookup)
-            Optional<Packet> optionalPacket = this.authorizationManager.authorizeIncoming(message);
-            if (optionalPacket.isEmpty()) {
-                System.out.println("[AC] Unauthorized incoming packet: " + message.getPayload().getHeader());
-                return;
+            long startTime = System.nanoTime();
+            boolean isVerified = this.authenticationClient.verifyMessage(message);
+            this.verifyHistogram.record(System.nanoTime() - startTime);
+            if (isVerified) {
+                this.handleVerifiedPayload(message);
             }
-
-            // Step 4: Queue encapsulated packet for secure egress
-            this.packetEgress.offer(optionalPacket.get());
         } else if (accessControlMessage instanceof KeyExchangeMessage message) {
             // Forward message to authentication manager for processing
             this.authenticationClient.processMessage(message);
@@ -71,8 +132,55 @@ public class AccessController {
         } else if (accessControlMessage instanceof AccessDecisionMessage message) {
             // Forward message to authorization manager for processing
             this.authorizationManager.processMessage(message);
+        } else if (accessControlMessage instanceof AccessDecisionBatchMessage message) {
+            // Forward message to authorization manager for processing
+            this.authorizationManager.processMessage(message);
         } else {
             System.out.println("[AC] Unknown message type.");
         }
     }
+
+    /**
+     * Closes the batchers of this controller. Messages still waiting in a batch are verified or signed and handed over.
+     */
+    public void close() {
+        if (this.verificationBatcher != null) {
+            this.verificationBatcher.close();
+        }
+        if (this.signingBatcher != null) {
+            this.signingBatcher.close();
+        }
+    }
+
+    private void handleVerifiedPayload(PayloadExchangeMessage message) {
+        // Step 3: Verify access control decision (access control decision lookup)
+        Optional<Packet> optionalPacket = this.authorizationManager.authorizeIncoming(message);
+        if (optionalPacket.isEmpty()) {
+            System.out.println("[AC] Unauthorized incoming packet: " + message.getPayload().getHeader());
+            return;
+        }
+
+        // Step 4: Queue encapsulated packet for secure egress
+        this.packetEgress.offer(optionalPacket.get());
+        if (message.hasIngressTimestamp()) {
+            this.ingressToEnqueueHistogram.record(Frame.currentEpochNanos() - message.getIngressTimestamp());
+        }
+    }
+
+    private void sendPayloadMessage(PayloadExchangeMessage message, long captureTimestamp) {
+        // Step 2: Derive signature for payload exchange message, batched messages are queued once their batch is signed
+        if (this.signingBatcher != null) {
+            this.signingBatcher.accept(message, captureTimestamp);
+            return;
+        }
+        long startTime = System.nanoTime();
+        Optional<AccessControlMessage<?>> signedMessage = this.authenticationClient.signMessage(message);
+        this.signHistogram.record(System.nanoTime() - startTime);
+
+        // Step 3: Queue access request for insecure egress, the egress handler measures the latency since capture
+        signedMessage.ifPresent(signed -> {
+            signed.setIngressTimestamp(captureTimestamp);
+            this.messageEgress.offer(signed);
+        });
+    }
 }
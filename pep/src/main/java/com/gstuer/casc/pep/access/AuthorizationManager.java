@@ -1,87 +1,229 @@
 package com.gstuer.casc.pep.access;
 
 import com.gstuer.casc.common.AuthenticationClient;
-import com.gstuer.casc.common.concurrency.RequestableAccessDecision;
-import com.gstuer.casc.common.concurrency.exception.RequestTimeoutException;
+import com.gstuer.casc.common.frame.FlowKey;
 import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.message.AccessDecisionBatchMessage;
 import com.gstuer.casc.common.message.AccessDecisionMessage;
+import com.gstuer.casc.common.message.AccessDecisionSubscriptionMessage;
+import com.gstuer.casc.common.message.AccessRequestMessage;
 import com.gstuer.casc.common.message.PayloadExchangeMessage;
 import com.gstuer.casc.common.pattern.AccessDecision;
 import com.gstuer.casc.common.pattern.AccessRequestPattern;
+import com.gstuer.casc.common.pattern.DecisionTable;
+import com.gstuer.casc.common.metrics.Histogram;
+import com.gstuer.casc.common.metrics.MetricRegistry;
 import com.gstuer.casc.common.pattern.PatternFactory;
+import com.gstuer.casc.common.time.MillisClock;
 import org.pcap4j.packet.Packet;
 
 import java.net.InetAddress;
+import java.security.InvalidKeyException;
+import java.security.SignatureException;
 import java.time.Duration;
-import java.time.temporal.TemporalAmount;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.SortedSet;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 public class AuthorizationManager {
-    private final TemporalAmount ACCESS_DECISION_VALIDITY_OFFSET = Duration.ofMillis(50);
+    private static final long REQUEST_TIMEOUT_MILLIS = 250;
+    private static final int REQUEST_RETRIES = 3;
+    private static final int PENDING_PACKET_CAPACITY = 64;
+    private static final long DECISION_EXPIRY_INTERVAL_MILLIS = 100;
+    private static final Duration SUBSCRIPTION_LEASE = Duration.ofSeconds(60);
+    private static final Duration INITIAL_ROUND_TRIP_BOUND = Duration.ofMillis(REQUEST_TIMEOUT_MILLIS);
+    private static final Duration MINIMUM_ROUND_TRIP_BOUND = Duration.ofMillis(20);
+    private static final Duration MAXIMUM_ROUND_TRIP_BOUND = Duration.ofMillis(4 * REQUEST_TIMEOUT_MILLIS);
 
+    private final Duration ACCESS_DECISION_VALIDITY_OFFSET = Duration.ofMillis(50);
+
+    private final MillisClock clock;
     private final InetAddress authorizationAuthority;
     private final InetAddress authorizationScope;
     private final AuthenticationClient authenticationClient;
     private final BlockingQueue<AccessControlMessage<?>> messageEgress;
-    private final ConcurrentMap<AccessRequestPattern, RequestableAccessDecision> requestedDecisions;
-    private final SortedSet<AccessDecision> outgoingDecisions;
-    private final SortedSet<AccessDecision> incomingDecisions;
+    private final PendingRequestTable requestedDecisions;
+    private final DecisionTable outgoingDecisions;
+    private final DecisionTable incomingDecisions;
+    private final FlowVerdictCache outgoingVerdicts;
+    private final FlowVerdictCache incomingVerdicts;
+    private final FlowVerdictCache deniedVerdicts;
+    private final ScheduledExecutorService requestScheduler;
+    private final Duration subscriptionLease;
+    private final RoundTripEstimator roundTripEstimator;
+    private final ConcurrentMap<AccessRequestPattern, Long> pendingRenewals;
+    private final LongAdder parkedCounter;
+    private final LongAdder releasedCounter;
+    private final LongAdder droppedCounter;
+    private final LongAdder renewalCounter;
+    private final Histogram outgoingDeriveHistogram;
+    private final Histogram outgoingLookupHistogram;
+    private final Histogram incomingDeriveHistogram;
+    private final Histogram incomingLookupHistogram;
 
     public AuthorizationManager(InetAddress authorizationAuthority,
                                 InetAddress authorizationScope,
                                 AuthenticationClient authenticationClient,
                                 BlockingQueue<AccessControlMessage<?>> messageEgress) {
+        this(authorizationAuthority, authorizationScope, authenticationClient, messageEgress, MillisClock.getDefault());
+    }
+
+    public AuthorizationManager(InetAddress authorizationAuthority,
+                                InetAddress authorizationScope,
+                                AuthenticationClient authenticationClient,
+                                BlockingQueue<AccessControlMessage<?>> messageEgress,
+                                MillisClock clock) {
+        this(authorizationAuthority, authorizationScope, authenticationClient, messageEgress, clock, SUBSCRIPTION_LEASE);
+    }
+
+    AuthorizationManager(InetAddress authorizationAuthority,
+                         InetAddress authorizationScope,
+                         AuthenticationClient authenticationClient,
+                         BlockingQueue<AccessControlMessage<?>> messageEgress,
+                         MillisClock clock,
+                         Duration subscriptionLease) {
+        this.clock = Objects.requireNonNull(clock);
+        this.subscriptionLease = Objects.requireNonNull(subscriptionLease);
         this.authorizationAuthority = Objects.requireNonNull(authorizationAuthority);
         this.authorizationScope = Objects.requireNonNull(authorizationScope);
         this.authenticationClient = Objects.requireNonNull(authenticationClient);
         this.messageEgress = Objects.requireNonNull(messageEgress);
-        this.requestedDecisions = new ConcurrentHashMap<>();
-        this.outgoingDecisions = new ConcurrentSkipListSet<>();
-        this.incomingDecisions = new ConcurrentSkipListSet<>();
+        this.requestedDecisions = new PendingRequestTable();
+        this.outgoingDecisions = new DecisionTable(clock);
+        this.incomingDecisions = new DecisionTable(clock);
+        this.requestScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "access-request-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.roundTripEstimator = new RoundTripEstimator(INITIAL_ROUND_TRIP_BOUND, MINIMUM_ROUND_TRIP_BOUND,
+                MAXIMUM_ROUND_TRIP_BOUND);
+        this.pendingRenewals = new ConcurrentHashMap<>();
+
+        MetricRegistry metricRegistry = MetricRegistry.getDefault();
+        this.outgoingVerdicts = new FlowVerdictCache("outgoing", FlowVerdictCache.DEFAULT_CAPACITY, metricRegistry, clock);
+        this.incomingVerdicts = new FlowVerdictCache("incoming", FlowVerdictCache.DEFAULT_CAPACITY, metricRegistry, clock);
+        this.deniedVerdicts = new FlowVerdictCache("denied", FlowVerdictCache.DEFAULT_CAPACITY, metricRegistry, clock);
+        this.parkedCounter = metricRegistry.counter("authorization.pending.parked");
+        this.releasedCounter = metricRegistry.counter("authorization.pending.released");
+        this.droppedCounter = metricRegistry.counter("authorization.pending.dropped");
+        metricRegistry.registerGauge("authorization.pending.requests", this.requestedDecisions::size);
+        this.renewalCounter = metricRegistry.counter("authorization.renewal.requests");
+        metricRegistry.registerGauge("authorization.renewal.round-trip-ms",
+                () -> this.roundTripEstimator.getSmoothedRoundTrip().toMillis());
+        metricRegistry.registerGauge("authorization.renewal.lead-ms", () -> this.getRenewalLeadTime().toMillis());
+        registerDecisionGauges(metricRegistry, "outgoing", this.outgoingDecisions);
+        registerDecisionGauges(metricRegistry, "incoming", this.incomingDecisions);
+        this.outgoingDeriveHistogram = metricRegistry.histogram("latency.outgoing.derive-ns");
+        this.outgoingLookupHistogram = metricRegistry.histogram("latency.outgoing.lookup-ns");
+        this.incomingDeriveHistogram = metricRegistry.histogram("latency.incoming.derive-ns");
+        this.incomingLookupHistogram = metricRegistry.histogram("latency.incoming.lookup-ns");
+
+        // Remove expired decisions so that neither tables nor buckets grow with every renewal period
+        this.requestScheduler.scheduleWithFixedDelay(this::removeExpiredDecisions, DECISION_EXPIRY_INTERVAL_MILLIS,
+                DECISION_EXPIRY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+        // Subscribe to decisions of the authority to warm up the tables, renew the lease well before it expires
+        this.requestScheduler.scheduleAtFixedRate(this::subscribe, 0, this.subscriptionLease.toMillis() / 2,
+                TimeUnit.MILLISECONDS);
     }
 
-    public Optional<PayloadExchangeMessage> authorizeOutgoing(Packet packet) {
-        AccessRequestPattern pattern = PatternFactory.derivePatternFrom(packet);
-        Optional<AccessDecision> optionalDecision = this.outgoingDecisions.stream().parallel()
-                .filter(decision -> pattern.contains(decision.getPattern())
-                        && decision.isValid(ACCESS_DECISION_VALIDITY_OFFSET))
-                .findFirst();
+    /**
+     * Authorizes an outgoing packet without blocking. If a valid decision for the packet exists, the packet is granted
+     * or denied immediately. Otherwise, the packet is parked and a decision is requested from the authorization
+     * authority. A parked packet is handed to the consumer once a granting decision arrives, or is dropped once a
+     * denying decision arrives or the request expires. Matched decisions are cached per flow until they expire and
+     * granting ones are renewed ahead of their expiration while flows use them. Denies of requested flows, e.g. the
+     * fallback deny of the authority for unknown flows, are cached per flow in a separate bounded cache.
+     *
+     * @param packet   the outgoing packet
+     * @param consumer the consumer of the unsigned payload exchange message if access is granted
+     * @return the result of the authorization.
+     */
+    public AuthorizationResult authorizeOutgoing(Packet packet, Consumer<PayloadExchangeMessage> consumer) {
+        // Enforce cached verdict of the flow if available
+        byte[] rawPacket = packet.getRawData();
+        FlowKey flowKey = FlowKey.of(rawPacket);
+        Optional<AccessDecision> cachedDecision = this.outgoingVerdicts.get(flowKey);
+        if (cachedDecision.isPresent()) {
+            return this.enforceOutgoing(cachedDecision.get(), packet, consumer);
+        } else if (this.deniedVerdicts.get(flowKey).isPresent()) {
+            return AuthorizationResult.DENIED;
+        }
 
-        if (optionalDecision.isPresent()) {
-            AccessDecision decision = optionalDecision.get();
-            if (decision.isGranting()) {
-                // Access Granted -> Construct unsigned payload exchange message
-                PayloadExchangeMessage message = new PayloadExchangeMessage(decision.getNextHop(), null, packet);
-                return Optional.of(message);
-            }
-            // Access Denied -> Reject packet
-            return Optional.empty();
-        } else {
-            // Request new decision from authorization authority
-            RequestableAccessDecision requestableDecision = this.requestedDecisions.computeIfAbsent(pattern,
-                    key -> new RequestableAccessDecision(this.messageEgress, this.authenticationClient.getSigner(),
-                            authorizationAuthority, pattern));
-
-            // Wait until decision is available
-            AccessDecision decision;
-            try {
-                decision = requestableDecision.get();
-            } catch (RequestTimeoutException exception) {
-                return Optional.empty();
+        long startTime = System.nanoTime();
+        AccessRequestPattern pattern = PatternFactory.derivePatternFrom(rawPacket);
+        this.outgoingDeriveHistogram.record(System.nanoTime() - startTime);
+        while (true) {
+            long lookupTime = System.nanoTime();
+            long generation = this.outgoingVerdicts.getGeneration();
+            long usableUntilMillis = this.clock.currentTimeMillis() + ACCESS_DECISION_VALIDITY_OFFSET.toMillis();
+            Optional<AccessDecision> optionalDecision = this.outgoingDecisions.findFirst(pattern,
+                    decision -> decision.isValid(usableUntilMillis));
+            this.outgoingLookupHistogram.record(System.nanoTime() - lookupTime);
+
+            if (optionalDecision.isPresent()) {
+                AccessDecision decision = optionalDecision.get();
+                // Packets of a flow with a pending request queue up behind its parked packets to keep their order
+                PendingAccessRequest pendingRequest = this.requestedDecisions.get(pattern);
+                if (pendingRequest != null) {
+                    switch (pendingRequest.park(packet, consumer)) {
+                        case PARKED -> {
+                            this.parkedCounter.increment();
+                            return AuthorizationResult.PENDING;
+                        }
+                        case DROPPED -> {
+                            this.droppedCounter.increment();
+                            return AuthorizationResult.PENDING;
+                        }
+                        case COMPLETED -> {
+                            // Parked packets were already handed over, thus the packet is enforced directly
+                        }
+                    }
+                }
+                long expiresAtMillis = decision.getValidUntil().toEpochMilli() - ACCESS_DECISION_VALIDITY_OFFSET.toMillis();
+                this.outgoingVerdicts.put(flowKey, pattern, decision, expiresAtMillis, generation);
+                return this.enforceOutgoing(decision, packet, consumer);
             }
 
-            // If decision was positive return unsigned payload exchange message, return empty optional otherwise
-            PayloadExchangeMessage message = null;
-            if (decision.isGranting() && decision.isValid()) {
-                message = new PayloadExchangeMessage(decision.getNextHop(), null, packet);
+            // Park packet until decision of authorization authority is available
+            PendingAccessRequest request = this.requestedDecisions.computeIfAbsent(pattern,
+                    key -> new PendingAccessRequest(key, flowKey, PENDING_PACKET_CAPACITY));
+            switch (request.park(packet, consumer)) {
+                case PARKED -> {
+                    this.parkedCounter.increment();
+                    // Only the first packet of a request triggers sending the request
+                    if (request.start()) {
+                        // Decision might have been added after the lookup but before the request was indexed
+                        long lateUsableUntilMillis = this.clock.currentTimeMillis() + ACCESS_DECISION_VALIDITY_OFFSET.toMillis();
+                        Optional<AccessDecision> lateDecision = this.outgoingDecisions.findFirst(pattern,
+                                decision -> decision.isValid(lateUsableUntilMillis));
+                        if (lateDecision.isPresent()) {
+                            this.resolveRequest(request, lateDecision.get());
+                            return AuthorizationResult.PENDING;
+                        }
+                        this.sendRequest(request);
+                        request.setRetryTask(this.requestScheduler.scheduleWithFixedDelay(() -> this.retryRequest(request),
+                                REQUEST_TIMEOUT_MILLIS, REQUEST_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+                    }
+                    return AuthorizationResult.PENDING;
+                }
+                case DROPPED -> {
+                    this.droppedCounter.increment();
+                    return AuthorizationResult.PENDING;
+                }
+                case COMPLETED -> {
+                    // Request was resolved concurrently, remove it and look up decision again
+                    this.requestedDecisions.remove(request);
+                }
             }
-            return Optional.ofNullable(message);
         }
     }
 
@@ -91,38 +233,84 @@ public class AuthorizationManager {
             return Optional.empty();
         }
 
+        // Accept payload if a granting verdict of the flow is cached
+        byte[] rawPacket = message.getPayload().getRawData();
+        FlowKey flowKey = FlowKey.of(rawPacket);
+        if (this.incomingVerdicts.get(flowKey).isPresent()) {
+            return Optional.of(message.getPayload());
+        }
+
         // Check if pattern for message exists in incoming rules
-        AccessRequestPattern pattern = PatternFactory.derivePatternFrom(message.getPayload());
-        Optional<AccessDecision> optionalDecision = this.incomingDecisions.stream().parallel()
-                .filter(decision -> pattern.contains(decision.getPattern())
-                        && decision.isGranting() && decision.isValid())
-                .findFirst();
+        long startTime = System.nanoTime();
+        AccessRequestPattern pattern = PatternFactory.derivePatternFrom(rawPacket);
+        long derivedTime = System.nanoTime();
+        long generation = this.incomingVerdicts.getGeneration();
+        long now = this.clock.currentTimeMillis();
+        Optional<AccessDecision> optionalDecision = this.incomingDecisions.findFirst(pattern,
+                decision -> decision.isGranting() && decision.isValid(now));
+        this.incomingDeriveHistogram.record(derivedTime - startTime);
+        this.incomingLookupHistogram.record(System.nanoTime() - derivedTime);
 
         // Return payload if decision is present, return empty optional otherwise
         if (optionalDecision.isPresent()) {
+            AccessDecision decision = optionalDecision.get();
+            this.incomingVerdicts.put(flowKey, pattern, decision, decision.getValidUntil().toEpochMilli(), generation);
             return Optional.of(message.getPayload());
         }
         return Optional.empty();
     }
 
     public void processMessage(AccessDecisionMessage message) {
-        // Reject empty messages and messages which do not come from a policy decision point (authorization authority)
-        if (!this.authenticationClient.verifyMessage(message) || !message.hasPayload()
-                || !this.authorizationAuthority.equals(message.getSource())) {
-            return;
+        if (this.isFromAuthority(message)) {
+            this.processDecision(message.getPayload());
         }
+    }
+
+    public void processMessage(AccessDecisionBatchMessage message) {
+        // Decisions of a batch share a single signature, thus the batch is verified once
+        if (this.isFromAuthority(message)) {
+            message.getPayload().forEach(this::processDecision);
+        }
+    }
 
+    private boolean isFromAuthority(AccessControlMessage<?> message) {
+        // Reject empty messages and messages which do not come from a policy decision point (authorization authority)
+        return this.authenticationClient.verifyMessage(message) && message.hasPayload()
+                && this.authorizationAuthority.equals(message.getSource());
+    }
+
+    private void processDecision(AccessDecision decision) {
         // Add decision to either the outgoing or incoming rules
-        AccessDecision decision = message.getPayload();
         if (authorizationScope.equals(decision.getNextHop())) {
             // If nextHop equals own scope, decision is still valid, & is granted -> Add to incoming rules
-            if (decision.isGranting() && decision.isValid()) {
+            if (decision.isGranting() && decision.isValid(this.clock.currentTimeMillis())) {
                 // Only save granted decisions as incoming rules
-                this.incomingDecisions.add(decision);
+                if (this.incomingDecisions.add(decision)) {
+                    this.incomingVerdicts.renew(decision, decision.getValidUntil().toEpochMilli());
+                }
             }
-        } else if (decision.isValid()) {
+        } else if (decision.isValid(this.clock.currentTimeMillis())) {
             // If nextHop does not equal own scope, add decision to outgoing rules and resolve possible waiting packets
-            this.outgoingDecisions.add(decision);
+            Long renewalStartNanos = this.pendingRenewals.remove(decision.getPattern());
+            if (renewalStartNanos != null) {
+                this.roundTripEstimator.record(System.nanoTime() - renewalStartNanos);
+            }
+            PendingAccessRequest request = this.requestedDecisions.get(decision.getPattern());
+            if (decision.isDenying() && request != null) {
+                // Deny of exactly the requested flow, e.g. the fallback deny of the authority. Takes precedence over
+                // all other decisions for the flow, thus cache it per flow instead of growing the outgoing rules.
+                this.deniedVerdicts.put(request.getFlowKey(), request.getPattern(), decision,
+                        decision.getValidUntil().toEpochMilli(), this.deniedVerdicts.getGeneration());
+            } else if (this.outgoingDecisions.add(decision)) {
+                long expiresAtMillis = decision.getValidUntil().toEpochMilli() - ACCESS_DECISION_VALIDITY_OFFSET.toMillis();
+                this.outgoingVerdicts.renew(decision, expiresAtMillis);
+                // Cached denies of affected flows are superseded, e.g. once the authority grants a denied flow
+                this.deniedVerdicts.renew(decision, expiresAtMillis);
+                if (decision.isGranting()) {
+                    // Denied flows request again once the deny expires
+                    this.scheduleRenewal(decision, this.clock.currentTimeMillis());
+                }
+            }
             this.resolveRequests(decision);
         } else {
             // If nextHop does not equal own scope and decision is not valid (anymore), only resolve waiting packets
@@ -130,13 +318,154 @@ public class AuthorizationManager {
         }
     }
 
+    private void removeExpiredDecisions() {
+        this.outgoingDecisions.removeExpired();
+        this.incomingDecisions.removeExpired();
+    }
+
+    private static void registerDecisionGauges(MetricRegistry metricRegistry, String name, DecisionTable decisions) {
+        String prefix = "authorization.decisions." + name;
+        metricRegistry.registerGauge(prefix + ".live", decisions::size);
+        metricRegistry.registerGauge(prefix + ".expired", decisions::getExpiredCount);
+        metricRegistry.registerGauge(prefix + ".replaced", decisions::getReplacedCount);
+    }
+
+    private AuthorizationResult enforceOutgoing(AccessDecision decision, Packet packet, Consumer<PayloadExchangeMessage> consumer) {
+        if (decision.isGranting()) {
+            // Access Granted -> Construct unsigned payload exchange message
+            consumer.accept(new PayloadExchangeMessage(decision.getNextHop(), null, packet));
+            return AuthorizationResult.GRANTED;
+        }
+        // Access Denied -> Reject packet
+        return AuthorizationResult.DENIED;
+    }
+
     private void resolveRequests(AccessDecision decision) {
-        AccessRequestPattern pattern = decision.getPattern();
-        requestedDecisions.entrySet().stream().parallel()
-                .filter(entry -> entry.getValue().isUnavailable() && entry.getKey().contains(pattern))
-                .forEach(entry -> {
-                    entry.getValue().set(decision);
-                    this.requestedDecisions.remove(entry.getKey());
-                });
+        for (PendingAccessRequest request : this.requestedDecisions.findResolvedBy(decision)) {
+            this.roundTripEstimator.record(request.getRoundTripNanos());
+            this.resolveRequest(request, decision);
+        }
+    }
+
+    private void resolveRequest(PendingAccessRequest request, AccessDecision decision) {
+        long now = this.clock.currentTimeMillis();
+        int parkedCount = request.resolve(decision, now);
+        if (decision.isGranting() && decision.isValid(now)) {
+            this.releasedCounter.add(parkedCount);
+        } else {
+            this.droppedCounter.add(parkedCount);
+            if (parkedCount > 0) {
+                System.out.printf("[AM] Access denied, dropped %d parked packets.\n", parkedCount);
+            }
+        }
+        this.requestedDecisions.remove(request);
+    }
+
+    private void retryRequest(PendingAccessRequest request) {
+        if (request.isCompleted()) {
+            return;
+        }
+        if (request.attempt() > REQUEST_RETRIES + 1) {
+            // Unsatisfied request reached maximum number of retries, drop parked packets
+            int droppedCount = request.expire();
+            this.droppedCounter.add(droppedCount);
+            this.requestedDecisions.remove(request);
+            System.out.printf("[AM] Access request timed out, dropped %d parked packets.\n", droppedCount);
+            return;
+        }
+        this.sendRequest(request);
+    }
+
+    /**
+     * Schedules the renewal of an outgoing decision ahead of its expiration. The renewal is requested such that the
+     * renewed decision arrives within the estimated upper bound of a round trip to the authorization authority before
+     * the decision becomes unusable. Thus, flows of the decision do not wait for a new decision once it expires.
+     *
+     * @param decision    the decision to renew
+     * @param sinceMillis the time in milliseconds since the epoch since when the decision counts as in use if a flow
+     *                    hits it
+     */
+    private void scheduleRenewal(AccessDecision decision, long sinceMillis) {
+        long deadlineMillis = decision.getValidUntil().toEpochMilli() - ACCESS_DECISION_VALIDITY_OFFSET.toMillis();
+        long delayMillis = deadlineMillis - this.getRenewalLeadTime().toMillis() - this.clock.currentTimeMillis();
+        this.requestScheduler.schedule(() -> this.renewDecision(decision, sinceMillis, false), Math.max(0, delayMillis),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void renewDecision(AccessDecision decision, long sinceMillis, boolean isRetry) {
+        // Skip decisions that were renewed or are no longer usable, and decisions not used by any flow
+        if (!this.outgoingDecisions.contains(decision) || !decision.isValid(this.clock.currentTimeMillis() + ACCESS_DECISION_VALIDITY_OFFSET.toMillis())
+                || !this.outgoingVerdicts.isActive(decision, sinceMillis)) {
+            return;
+        }
+        if (isRetry) {
+            // Round trip of retried renewals is ambiguous
+            this.pendingRenewals.remove(decision.getPattern());
+        } else {
+            this.pendingRenewals.put(decision.getPattern(), System.nanoTime());
+        }
+        this.sendRequest(decision.getPattern());
+        this.renewalCounter.increment();
+
+        // Request again if the renewal does not arrive in time, e.g. since the authority has not renewed it yet
+        this.requestScheduler.schedule(() -> this.renewDecision(decision, sinceMillis, true),
+                this.getRenewalLeadTime().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private Duration getRenewalLeadTime() {
+        return this.roundTripEstimator.getUpperBound();
+    }
+
+    /**
+     * Subscribes to the decisions of the authorization authority. The authority pushes all valid decisions to a new
+     * subscriber and each refreshed decision to all subscribers, which are processed like requested decisions. Thus,
+     * the first packets of flows after startup find a decision instead of waiting for a round trip to the authority.
+     * <p>
+     * A failed subscription is not rethrown, since that would cancel all later renewals of the periodic task. The
+     * next renewal subscribes again instead.
+     */
+    private void subscribe() {
+        try {
+            AccessDecisionSubscriptionMessage message = new AccessDecisionSubscriptionMessage(this.authorizationAuthority,
+                    null, this.subscriptionLease.toMillis()).sign(this.authenticationClient.getSigner());
+            this.messageEgress.offer(message);
+        } catch (InvalidKeyException | SignatureException exception) {
+            System.out.printf("[AM] Subscription failed: %s\n", exception.getMessage());
+        }
+    }
+
+    private void sendRequest(PendingAccessRequest request) {
+        this.sendRequest(request.getPattern());
+    }
+
+    private void sendRequest(AccessRequestPattern pattern) {
+        try {
+            AccessRequestMessage message = new AccessRequestMessage(this.authorizationAuthority, null, pattern)
+                    .sign(this.authenticationClient.getSigner());
+            this.messageEgress.offer(message);
+        } catch (InvalidKeyException | SignatureException exception) {
+            // Retries and renewals run on the request scheduler and would be cancelled by an exception
+            System.out.printf("[AM] Access request failed: %s\n", exception.getMessage());
+            return;
+        }
+        System.out.printf("[Request] Access request sent to %s.\n", this.authorizationAuthority.getHostAddress());
+    }
+
+    /**
+     * Represents the result of an outgoing authorization.
+     */
+    public enum AuthorizationResult {
+        /**
+         * Access was granted and the packet was handed to the consumer.
+         */
+        GRANTED,
+        /**
+         * Access was denied by a valid decision.
+         */
+        DENIED,
+        /**
+         * No valid decision exists yet; the packet was parked or, if the pending buffer is full, dropped.
+         */
+        PENDING;
     }
 }
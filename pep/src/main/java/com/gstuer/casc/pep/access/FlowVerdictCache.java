@@ -0,0 +1,246 @@
+package com.gstuer.casc.pep.access;
+
+import com.gstuer.casc.common.frame.FlowKey;
+import com.gstuer.casc.common.metrics.MetricRegistry;
+import com.gstuer.casc.common.pattern.AccessDecision;
+import com.gstuer.casc.common.pattern.AccessRequestPattern;
+import com.gstuer.casc.common.time.MillisClock;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a bounded cache of the {@link AccessDecision decisions} matched for flows, so that subsequent packets of
+ * a flow are authorized without deriving their pattern and looking up decisions again. Each verdict is cached until
+ * its decision expires. Verdicts that may be superseded by a newly added decision are
+ * {@link #renew(AccessDecision, long) renewed or invalidated} explicitly. The time of the last hit is tracked per
+ * decision, shared by all verdicts of the decision, to tell in constant time whether a decision is still
+ * {@link #isActive(AccessDecision, long) in use}.
+ * <p>
+ * Lookups that race with an invalidation must not cache outdated verdicts. Callers therefore read the
+ * {@link #getGeneration() generation} before looking up a decision and pass it to {@link #put}, which discards the
+ * verdict if an invalidation happened in between.
+ */
+public class FlowVerdictCache {
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final long PURGE_INTERVAL_MILLIS = 1000;
+
+    private final int capacity;
+    private final MillisClock clock;
+    private final ConcurrentMap<FlowKey, Verdict> verdicts;
+    private final ConcurrentMap<AccessDecision, Usage> usages;
+    private final AtomicLong generation;
+    private final LongAdder hitCounter;
+    private final LongAdder missCounter;
+    private final LongAdder evictionCounter;
+    private volatile long lastPurgeMillis;
+    private volatile long lastUsagePurgeMillis;
+
+    public FlowVerdictCache(String name, int capacity, MetricRegistry metricRegistry) {
+        this(name, capacity, metricRegistry, MillisClock.getDefault());
+    }
+
+    public FlowVerdictCache(String name, int capacity, MetricRegistry metricRegistry, MillisClock clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.clock = Objects.requireNonNull(clock);
+        this.verdicts = new ConcurrentHashMap<>();
+        this.usages = new ConcurrentHashMap<>();
+        this.generation = new AtomicLong();
+
+        String prefix = "authorization.cache." + Objects.requireNonNull(name);
+        this.hitCounter = metricRegistry.counter(prefix + ".hits");
+        this.missCounter = metricRegistry.counter(prefix + ".misses");
+        this.evictionCounter = metricRegistry.counter(prefix + ".evictions");
+        metricRegistry.registerGauge(prefix + ".size", this.verdicts::size);
+        metricRegistry.registerGauge(prefix + ".hit-rate", this::getHitRate);
+    }
+
+    /**
+     * Gets the cached decision of a flow. Expired verdicts are removed and count as miss.
+     *
+     * @param flowKey the key of the flow
+     * @return the cached decision or an empty {@link Optional optional} if no valid verdict is cached.
+     */
+    public Optional<AccessDecision> get(FlowKey flowKey) {
+        Verdict verdict = this.verdicts.get(flowKey);
+        if (verdict != null) {
+            long now = this.clock.currentTimeMillis();
+            if (now < verdict.expiresAtMillis()) {
+                this.hitCounter.increment();
+                verdict.usage().hit(now);
+                return Optional.of(verdict.decision());
+            }
+            if (this.verdicts.remove(flowKey, verdict)) {
+                this.evictionCounter.increment();
+            }
+        }
+        this.missCounter.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Caches the decision matched for a flow until the given expiration time.
+     *
+     * @param flowKey         the key of the flow
+     * @param pattern         the pattern of the flow
+     * @param decision        the decision matched for the pattern
+     * @param expiresAtMillis the time in milliseconds since the epoch until the verdict may be used
+     * @param generation      the {@link #getGeneration() generation} read before the decision was looked up
+     */
+    public void put(FlowKey flowKey, AccessRequestPattern pattern, AccessDecision decision, long expiresAtMillis,
+                    long generation) {
+        if (this.verdicts.size() >= this.capacity) {
+            this.evict();
+        }
+        long now = this.clock.currentTimeMillis();
+        this.purgeUsages(now);
+        Usage usage = this.usages.computeIfAbsent(Objects.requireNonNull(decision), key -> new Usage());
+        usage.hit(now);
+        Verdict verdict = new Verdict(Objects.requireNonNull(pattern), decision, expiresAtMillis, usage);
+        this.verdicts.put(Objects.requireNonNull(flowKey), verdict);
+        if (this.generation.get() != generation) {
+            // Invalidated concurrently, verdict might be based on outdated decisions
+            this.verdicts.remove(flowKey, verdict);
+        }
+    }
+
+    /**
+     * Updates the verdicts of flows whose pattern contains the pattern of a new decision, since the new decision may
+     * take precedence over the cached ones. Verdicts of decisions {@link AccessDecision#isRenewalOf renewed} by the new
+     * decision are renewed in place, so that flows of renewed decisions do not miss the cache. All other affected
+     * verdicts are invalidated.
+     *
+     * @param decision        the decision added to the decisions of the cached flows
+     * @param expiresAtMillis the time in milliseconds since the epoch until renewed verdicts may be used
+     */
+    public void renew(AccessDecision decision, long expiresAtMillis) {
+        AccessRequestPattern decisionPattern = decision.getPattern();
+        this.generation.incrementAndGet();
+        for (Map.Entry<FlowKey, Verdict> entry : this.verdicts.entrySet()) {
+            Verdict verdict = entry.getValue();
+            if (!verdict.pattern().contains(decisionPattern)) {
+                continue;
+            }
+            if (decision.isRenewalOf(verdict.decision())) {
+                // Renewed verdicts keep counting as used since the last hit of the renewed decision
+                Usage usage = this.usages.computeIfAbsent(decision, key -> new Usage());
+                usage.hit(verdict.usage().lastHitMillis);
+                Verdict renewedVerdict = new Verdict(verdict.pattern(), decision, expiresAtMillis, usage);
+                this.verdicts.replace(entry.getKey(), verdict, renewedVerdict);
+            } else {
+                this.verdicts.remove(entry.getKey(), verdict);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a decision is in use, i.e. a cached verdict of the decision was hit since a specified time.
+     *
+     * @param decision    the decision to check
+     * @param sinceMillis the time in milliseconds since the epoch since when a hit counts
+     * @return {@code true} if the decision is in use, {@code false} otherwise.
+     */
+    public boolean isActive(AccessDecision decision, long sinceMillis) {
+        Usage usage = this.usages.get(decision);
+        return usage != null && usage.lastHitMillis >= sinceMillis;
+    }
+
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.verdicts.clear();
+        this.usages.clear();
+    }
+
+    public long getGeneration() {
+        return this.generation.get();
+    }
+
+    public int size() {
+        return this.verdicts.size();
+    }
+
+    public double getHitRate() {
+        long hits = this.hitCounter.sum();
+        long lookups = hits + this.missCounter.sum();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    private void evict() {
+        // Purge expired verdicts at most once per interval, evict arbitrary verdicts otherwise
+        long now = this.clock.currentTimeMillis();
+        if (now - this.lastPurgeMillis >= PURGE_INTERVAL_MILLIS) {
+            this.lastPurgeMillis = now;
+            this.verdicts.values().removeIf(verdict -> {
+                boolean isExpired = now >= verdict.expiresAtMillis();
+                if (isExpired) {
+                    this.evictionCounter.increment();
+                }
+                return isExpired;
+            });
+        }
+        Iterator<FlowKey> iterator = this.verdicts.keySet().iterator();
+        while (this.verdicts.size() >= this.capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            this.evictionCounter.increment();
+        }
+    }
+
+    private void purgeUsages(long now) {
+        // Remove usages of expired decisions at most once per interval, so that usages do not grow with every renewal
+        if (now - this.lastUsagePurgeMillis >= PURGE_INTERVAL_MILLIS) {
+            this.lastUsagePurgeMillis = now;
+            this.usages.keySet().removeIf(decision -> !decision.isValid(now));
+        }
+    }
+
+    private static final class Usage {
+        private volatile long lastHitMillis = Long.MIN_VALUE;
+
+        private void hit(long now) {
+            // Avoid contended writes by packets of flows of the same decision within the same millisecond
+            if (this.lastHitMillis < now) {
+                this.lastHitMillis = now;
+            }
+        }
+    }
+
+    private static final class Verdict {
+        private final AccessRequestPattern pattern;
+        private final AccessDecision decision;
+        private final long expiresAtMillis;
+        private final Usage usage;
+
+        private Verdict(AccessRequestPattern pattern, AccessDecision decision, long expiresAtMillis, Usage usage) {
+            this.pattern = pattern;
+            this.decision = decision;
+            this.expiresAtMillis = expiresAtMillis;
+            this.usage = usage;
+        }
+
+        private Usage usage() {
+            return this.usage;
+        }
+
+        private AccessRequestPattern pattern() {
+            return this.pattern;
+        }
+
+        private AccessDecision decision() {
+            return this.decision;
+        }
+
+        private long expiresAtMillis() {
+            return this.expiresAtMillis;
+        }
+    }
+}
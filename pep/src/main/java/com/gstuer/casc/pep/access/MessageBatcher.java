@@ -0,0 +1,135 @@
+package com.gstuer.casc.pep.access;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Represents a batcher that groups items by a key, e.g. messages by their peer, and hands them over in small batches.
+ * Items of a key are accumulated until the batch is full or its time window has passed, so that bursts are handled at
+ * once, while an item waits at most one window. Batches of a key are handed over one at a time in order of arrival.
+ * Full batches are handed over by the thread adding the last item, batches whose window passed by a pool of flush
+ * threads of the batcher, so that slow consumers of one key do not delay the batches of other keys.
+ *
+ * @param <K> the type of the keys
+ * @param <T> the type of the batched items
+ */
+public class MessageBatcher<K, T> implements Consumer<T>, AutoCloseable {
+    private static final int FLUSH_THREAD_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private final Function<T, K> keyFunction;
+    private final Consumer<List<T>> batchConsumer;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final ConcurrentMap<K, Batch<T>> batches;
+    private final ScheduledExecutorService flushScheduler;
+
+    /**
+     * Constructs a new {@link MessageBatcher message batcher}.
+     *
+     * @param name          the name of the batcher used for thread names
+     * @param keyFunction   the function calculating the key of an item
+     * @param batchConsumer the consumer of batches, has to be thread-safe
+     * @param maxBatchSize  the number of items of a key that are handed over at once
+     * @param window        the time an item waits for further items of its key at most
+     */
+    public MessageBatcher(String name, Function<T, K> keyFunction, Consumer<List<T>> batchConsumer, int maxBatchSize,
+                          Duration window) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        Objects.requireNonNull(name);
+        this.keyFunction = Objects.requireNonNull(keyFunction);
+        this.batchConsumer = Objects.requireNonNull(batchConsumer);
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.batches = new ConcurrentHashMap<>();
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.flushScheduler = Executors.newScheduledThreadPool(FLUSH_THREAD_COUNT, runnable -> {
+            Thread thread = new Thread(runnable, name + "-batch-flusher-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds an item to the batch of its key. The batch is handed over once it is full or its window has passed. After
+     * the batcher is closed, items are handed over immediately.
+     *
+     * @param item the item to batch
+     */
+    @Override
+    public void accept(T item) {
+        Batch<T> batch = this.batches.computeIfAbsent(this.keyFunction.apply(item), key -> new Batch<>());
+        switch (batch.add(item, this.maxBatchSize)) {
+            case FIRST -> this.scheduleFlush(batch);
+            case FULL -> this.flush(batch);
+            case ADDED -> {
+                // Batch is flushed once full or by the scheduled flush of its first item
+            }
+        }
+    }
+
+    /**
+     * Stops the flush threads and hands over all batches that are still waiting for their window to pass.
+     */
+    @Override
+    public void close() {
+        this.flushScheduler.shutdownNow();
+        this.batches.values().forEach(this::flush);
+    }
+
+    private void scheduleFlush(Batch<T> batch) {
+        try {
+            this.flushScheduler.schedule(() -> this.flush(batch), this.windowNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException exception) {
+            // Batcher is closed
+            this.flush(batch);
+        }
+    }
+
+    private void flush(Batch<T> batch) {
+        // Drain and hand over under the lock of the batch, so that items of a key are handed over in order
+        synchronized (batch.flushLock) {
+            List<T> items = batch.drain();
+            if (!items.isEmpty()) {
+                this.batchConsumer.accept(items);
+            }
+        }
+    }
+
+    private enum AddResult {
+        FIRST,
+        ADDED,
+        FULL;
+    }
+
+    private static final class Batch<T> {
+        private final Object flushLock = new Object();
+        private List<T> items = new ArrayList<>();
+
+        private synchronized AddResult add(T item, int maxBatchSize) {
+            this.items.add(item);
+            if (this.items.size() >= maxBatchSize) {
+                return AddResult.FULL;
+            }
+            return this.items.size() == 1 ? AddResult.FIRST : AddResult.ADDED;
+        }
+
+        private synchronized List<T> drain() {
+            List<T> drained = this.items;
+            this.items = new ArrayList<>();
+            return drained;
+        }
+    }
+}
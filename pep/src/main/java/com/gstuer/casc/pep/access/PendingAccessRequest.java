@@ -0,0 +1,173 @@
+package com.gstuer.casc.pep.access;
+
+import com.gstuer.casc.common.frame.FlowKey;
+import com.gstuer.casc.common.message.PayloadExchangeMessage;
+import com.gstuer.casc.common.pattern.AccessDecision;
+import com.gstuer.casc.common.pattern.AccessRequestPattern;
+import org.pcap4j.packet.Packet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+/**
+ * Represents an access request that was sent to the authorization authority but not answered yet. Packets matching
+ * the requested pattern are parked in a bounded buffer until the request is resolved by an access decision or
+ * expires. Packets exceeding the capacity of the buffer are dropped.
+ */
+public class PendingAccessRequest {
+    private final AccessRequestPattern pattern;
+    private final FlowKey flowKey;
+    private final int capacity;
+    private final List<ParkedPacket> parkedPackets;
+
+    private int attempts;
+    private long startNanos;
+    private boolean completed;
+    private ScheduledFuture<?> retryTask;
+
+    public PendingAccessRequest(AccessRequestPattern pattern, FlowKey flowKey, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative.");
+        }
+        this.pattern = Objects.requireNonNull(pattern);
+        this.flowKey = Objects.requireNonNull(flowKey);
+        this.capacity = capacity;
+        this.parkedPackets = new ArrayList<>();
+    }
+
+    /**
+     * Parks a packet until this request is completed.
+     *
+     * @param packet   the packet to park
+     * @param consumer the consumer of the payload exchange message if access is granted
+     * @return the result of parking the packet.
+     */
+    public synchronized ParkingResult park(Packet packet, Consumer<PayloadExchangeMessage> consumer) {
+        if (this.completed) {
+            return ParkingResult.COMPLETED;
+        } else if (this.parkedPackets.size() >= this.capacity) {
+            return ParkingResult.DROPPED;
+        }
+        this.parkedPackets.add(new ParkedPacket(Objects.requireNonNull(packet), Objects.requireNonNull(consumer)));
+        return ParkingResult.PARKED;
+    }
+
+    /**
+     * Completes this request with an access decision. If the decision grants access, the parked packets are released
+     * in order of arrival, otherwise they are dropped. Packets are released while holding the lock of this request,
+     * so that a packet that finds this request {@link ParkingResult#COMPLETED completed} is handed over after all
+     * parked packets.
+     *
+     * @param decision   the decision resolving this request
+     * @param timeMillis the current time in milliseconds since the epoch
+     * @return the number of released or dropped packets.
+     */
+    public synchronized int resolve(AccessDecision decision, long timeMillis) {
+        List<ParkedPacket> packets = this.complete();
+        if (!decision.isGranting() || !decision.isValid(timeMillis)) {
+            return packets.size();
+        }
+        for (ParkedPacket parkedPacket : packets) {
+            parkedPacket.consumer().accept(new PayloadExchangeMessage(decision.getNextHop(), null, parkedPacket.packet()));
+        }
+        return packets.size();
+    }
+
+    /**
+     * Completes this request without an access decision and drops its parked packets.
+     *
+     * @return the number of dropped packets.
+     */
+    public int expire() {
+        return this.complete().size();
+    }
+
+    /**
+     * Registers the first request attempt.
+     *
+     * @return {@code true} if this was the first attempt, {@code false} if the request was already started.
+     */
+    public synchronized boolean start() {
+        if (this.attempts > 0) {
+            return false;
+        }
+        this.attempts = 1;
+        this.startNanos = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Registers another request attempt.
+     *
+     * @return the number of attempts including this one.
+     */
+    public synchronized int attempt() {
+        return ++this.attempts;
+    }
+
+    /**
+     * Gets the round-trip time of this request if it was answered without retries. The round trip of a retried request
+     * is ambiguous, since the answer cannot be attributed to a single attempt.
+     *
+     * @return the round-trip time in nanoseconds or {@code -1} if the request was retried.
+     */
+    public synchronized long getRoundTripNanos() {
+        return this.attempts == 1 ? System.nanoTime() - this.startNanos : -1;
+    }
+
+    public synchronized void setRetryTask(ScheduledFuture<?> retryTask) {
+        this.retryTask = retryTask;
+        if (this.completed) {
+            retryTask.cancel(false);
+        }
+    }
+
+    public synchronized boolean isCompleted() {
+        return this.completed;
+    }
+
+    public AccessRequestPattern getPattern() {
+        return this.pattern;
+    }
+
+    public FlowKey getFlowKey() {
+        return this.flowKey;
+    }
+
+    private synchronized List<ParkedPacket> complete() {
+        if (this.completed) {
+            return List.of();
+        }
+        this.completed = true;
+        if (this.retryTask != null) {
+            this.retryTask.cancel(false);
+        }
+        List<ParkedPacket> packets = new ArrayList<>(this.parkedPackets);
+        this.parkedPackets.clear();
+        return packets;
+    }
+
+    /**
+     * Represents the result of {@link #park(Packet, Consumer) parking} a packet.
+     */
+    public enum ParkingResult {
+        /**
+         * The packet was parked until the request is completed.
+         */
+        PARKED,
+        /**
+         * The packet was dropped since the buffer of the request is full.
+         */
+        DROPPED,
+        /**
+         * The packet was not parked since the request is already completed.
+         */
+        COMPLETED;
+    }
+
+    private record ParkedPacket(Packet packet, Consumer<PayloadExchangeMessage> consumer) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.gstuer.casc.pep.access;
+
+import com.gstuer.casc.common.pattern.AccessDecision;
+import com.gstuer.casc.common.pattern.AccessRequestPattern;
+import com.gstuer.casc.common.pattern.PatternKey;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Represents a thread-safe table of {@link PendingAccessRequest pending access requests} that are looked up by their
+ * pattern or by the {@link AccessDecision access decisions} resolving them.
+ * <p>
+ * A decision resolves a request iff the pattern of the request contains the pattern of the decision, i.e. the
+ * {@link PatternKey key} of the decision pattern is a {@link PatternKey#subKey(int, int) sub-key} of the key of the
+ * request pattern. Requests are therefore indexed by all sub-keys of their pattern, and the requests resolved by a
+ * decision are found by a single lookup of the key of its pattern instead of scanning all requests.
+ */
+public class PendingRequestTable {
+    private final ConcurrentMap<AccessRequestPattern, PendingAccessRequest> requests;
+    private final ConcurrentMap<PatternKey, Set<PendingAccessRequest>> requestsBySubKey;
+
+    public PendingRequestTable() {
+        this.requests = new ConcurrentHashMap<>();
+        this.requestsBySubKey = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the request for a pattern or creates and indexes a new request if none exists. The new request is indexed
+     * before it becomes visible to other threads, so that decisions resolve it as soon as it can be parked on.
+     *
+     * @param pattern the pattern of the request
+     * @param factory the factory creating the request if none exists
+     * @return the existing or new request.
+     */
+    public PendingAccessRequest computeIfAbsent(AccessRequestPattern pattern,
+                                                Function<AccessRequestPattern, PendingAccessRequest> factory) {
+        return this.requests.computeIfAbsent(pattern, key -> {
+            PendingAccessRequest request = factory.apply(key);
+            forEachSubKey(key.getKey(), subKey -> this.requestsBySubKey.compute(subKey, (indexKey, requests) -> {
+                Set<PendingAccessRequest> indexedRequests = requests == null ? ConcurrentHashMap.newKeySet() : requests;
+                indexedRequests.add(request);
+                return indexedRequests;
+            }));
+            return request;
+        });
+    }
+
+    public PendingAccessRequest get(AccessRequestPattern pattern) {
+        return this.requests.get(pattern);
+    }
+
+    /**
+     * Finds the requests that are resolved by a decision.
+     *
+     * @param decision the decision
+     * @return a snapshot of the requests whose pattern contains the pattern of the decision.
+     */
+    public List<PendingAccessRequest> findResolvedBy(AccessDecision decision) {
+        Set<PendingAccessRequest> requests = this.requestsBySubKey.get(decision.getPattern().getKey());
+        return requests == null ? List.of() : List.copyOf(requests);
+    }
+
+    /**
+     * Removes a request from this table.
+     *
+     * @param request the request to remove
+     * @return {@code true} if the request was removed, {@code false} if the table did not contain it.
+     */
+    public boolean remove(PendingAccessRequest request) {
+        if (!this.requests.remove(request.getPattern(), request)) {
+            return false;
+        }
+        forEachSubKey(request.getPattern().getKey(), subKey -> this.requestsBySubKey.computeIfPresent(subKey,
+                (indexKey, requests) -> {
+                    requests.remove(request);
+                    return requests.isEmpty() ? null : requests;
+                }));
+        return true;
+    }
+
+    public int size() {
+        return this.requests.size();
+    }
+
+    private static void forEachSubKey(PatternKey key, Consumer<PatternKey> action) {
+        for (int start = 0; start < key.getDepth(); start++) {
+            for (int end = start + 1; end <= key.getDepth(); end++) {
+                action.accept(key.subKey(start, end));
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.gstuer.casc.pep.access;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Represents an estimator of the round-trip time of access requests to the authorization authority. Like the
+ * retransmission timer of TCP (RFC 6298), measured round trips are smoothed by exponentially weighted moving averages
+ * of the round-trip time and of its variation, and the upper bound of a round trip is estimated from both. The
+ * estimated upper bound is clamped to a configured range, so that neither sporadic outliers nor very short round trips
+ * in a quiet network yield unusable bounds.
+ */
+public class RoundTripEstimator {
+    private static final double ROUND_TRIP_GAIN = 1.0 / 8;
+    private static final double VARIATION_GAIN = 1.0 / 4;
+    private static final int VARIATION_FACTOR = 4;
+
+    private final Duration initialUpperBound;
+    private final Duration minimumUpperBound;
+    private final Duration maximumUpperBound;
+    private boolean hasSample;
+    private double smoothedNanos;
+    private double variationNanos;
+
+    /**
+     * Constructs a new {@link RoundTripEstimator round-trip estimator}.
+     *
+     * @param initialUpperBound the upper bound of a round trip assumed until the first round trip was measured
+     * @param minimumUpperBound the lower limit of the estimated upper bound
+     * @param maximumUpperBound the upper limit of the estimated upper bound
+     */
+    public RoundTripEstimator(Duration initialUpperBound, Duration minimumUpperBound, Duration maximumUpperBound) {
+        if (minimumUpperBound.compareTo(maximumUpperBound) > 0) {
+            throw new IllegalArgumentException("Minimum upper bound exceeds maximum upper bound.");
+        }
+        this.initialUpperBound = Objects.requireNonNull(initialUpperBound);
+        this.minimumUpperBound = minimumUpperBound;
+        this.maximumUpperBound = maximumUpperBound;
+    }
+
+    /**
+     * Records a measured round trip.
+     *
+     * @param roundTripNanos the round-trip time in nanoseconds
+     */
+    public synchronized void record(long roundTripNanos) {
+        if (roundTripNanos < 0) {
+            return;
+        }
+        if (!this.hasSample) {
+            this.hasSample = true;
+            this.smoothedNanos = roundTripNanos;
+            this.variationNanos = roundTripNanos / 2.0;
+            return;
+        }
+        this.variationNanos += VARIATION_GAIN * (Math.abs(this.smoothedNanos - roundTripNanos) - this.variationNanos);
+        this.smoothedNanos += ROUND_TRIP_GAIN * (roundTripNanos - this.smoothedNanos);
+    }
+
+    /**
+     * Gets the smoothed round-trip time.
+     *
+     * @return the smoothed round-trip time or {@link Duration#ZERO} if no round trip was measured yet.
+     */
+    public synchronized Duration getSmoothedRoundTrip() {
+        return Duration.ofNanos((long) this.smoothedNanos);
+    }
+
+    /**
+     * Gets the estimated upper bound of a round trip, i.e. the smoothed round-trip time plus four times its variation
+     * clamped to the configured range.
+     *
+     * @return the upper bound or the initial upper bound if no round trip was measured yet.
+     */
+    public synchronized Duration getUpperBound() {
+        if (!this.hasSample) {
+            return this.initialUpperBound;
+        }
+        Duration upperBound = Duration.ofNanos((long) (this.smoothedNanos + VARIATION_FACTOR * this.variationNanos));
+        if (upperBound.compareTo(this.minimumUpperBound) < 0) {
+            return this.minimumUpperBound;
+        }
+        return upperBound.compareTo(this.maximumUpperBound) > 0 ? this.maximumUpperBound : upperBound;
+    }
+}
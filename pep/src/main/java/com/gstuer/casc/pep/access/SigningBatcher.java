@@ -0,0 +1,96 @@
+package com.gstuer.casc.pep.access;
+
+import com.gstuer.casc.common.AuthenticationClient;
+import com.gstuer.casc.common.cryptography.DigitalSignature;
+import com.gstuer.casc.common.cryptography.MerkleTree;
+import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.message.PayloadExchangeMessage;
+import com.gstuer.casc.common.metrics.Histogram;
+import com.gstuer.casc.common.metrics.MetricRegistry;
+
+import java.net.InetAddress;
+import java.security.InvalidKeyException;
+import java.security.SignatureException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Represents a batcher that signs outgoing payload exchange messages per destination in small batches.
+ * Messages of a destination are accumulated until the batch is full or its time window has passed. The packets of a
+ * batch are the leaves of a {@link MerkleTree Merkle tree} whose root is signed once, and each message carries the
+ * signature of the root together with the inclusion proof of its packet. Thus, each message is still verified on its
+ * own by the receiver, while the signing costs are shared by the messages of a batch.
+ */
+public class SigningBatcher implements AutoCloseable {
+    private final AuthenticationClient authenticationClient;
+    private final BlockingQueue<AccessControlMessage<?>> messageEgress;
+    private final MessageBatcher<InetAddress, PendingMessage> batcher;
+    private final Histogram signHistogram;
+    private final Histogram batchSizeHistogram;
+
+    /**
+     * Constructs a new {@link SigningBatcher signing batcher}.
+     *
+     * @param authenticationClient the client signing the batches
+     * @param messageEgress        the queue of signed messages
+     * @param maxBatchSize         the number of messages of a destination that are signed at once
+     * @param window               the time a message waits for further messages of its destination at most
+     */
+    public SigningBatcher(AuthenticationClient authenticationClient, BlockingQueue<AccessControlMessage<?>> messageEgress,
+                          int maxBatchSize, Duration window) {
+        this.authenticationClient = Objects.requireNonNull(authenticationClient);
+        this.messageEgress = Objects.requireNonNull(messageEgress);
+        this.batcher = new MessageBatcher<>("signing", pending -> pending.message().getDestination(), this::sign,
+                maxBatchSize, window);
+
+        MetricRegistry metricRegistry = MetricRegistry.getDefault();
+        this.signHistogram = metricRegistry.histogram("latency.outgoing.sign-ns");
+        this.batchSizeHistogram = metricRegistry.histogram("authentication.sign.batch-size");
+    }
+
+    /**
+     * Adds an unsigned message to the batch of its destination. The batch is signed and queued for egress once it is
+     * full or its window has passed.
+     *
+     * @param message          the unsigned message
+     * @param captureTimestamp the capture timestamp of the packet in nanoseconds since the epoch
+     */
+    public void accept(PayloadExchangeMessage message, long captureTimestamp) {
+        this.batcher.accept(new PendingMessage(Objects.requireNonNull(message), captureTimestamp));
+    }
+
+    /**
+     * Stops the flush threads of this batcher and signs all messages that are still waiting for their window to pass.
+     */
+    @Override
+    public void close() {
+        this.batcher.close();
+    }
+
+    private void sign(List<PendingMessage> batch) {
+        long startTime = System.nanoTime();
+        MerkleTree tree = MerkleTree.of(batch.stream().map(pending -> pending.message().getPayload().getRawData()).toList());
+        DigitalSignature signature;
+        try {
+            signature = this.authenticationClient.getSigner().sign(MerkleTree.toSigningData(tree.getRoot()));
+        } catch (InvalidKeyException | SignatureException exception) {
+            System.out.println("[AC] Batch signing failed: " + exception.getMessage());
+            return;
+        }
+        // Record the signing time per message to keep it comparable to single signatures
+        long durationPerMessage = (System.nanoTime() - startTime) / batch.size();
+        this.batchSizeHistogram.record(batch.size());
+        for (int index = 0; index < batch.size(); index++) {
+            this.signHistogram.record(durationPerMessage);
+            PendingMessage pending = batch.get(index);
+            PayloadExchangeMessage signed = pending.message().withBatchSignature(signature, tree.getProof(index));
+            signed.setIngressTimestamp(pending.captureTimestamp());
+            this.messageEgress.offer(signed);
+        }
+    }
+
+    private record PendingMessage(PayloadExchangeMessage message, long captureTimestamp) {
+    }
+}
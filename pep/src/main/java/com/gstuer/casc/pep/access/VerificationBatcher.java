@@ -0,0 +1,80 @@
+package com.gstuer.casc.pep.access;
+
+import com.gstuer.casc.common.AuthenticationClient;
+import com.gstuer.casc.common.cryptography.Verifier;
+import com.gstuer.casc.common.message.PayloadExchangeMessage;
+import com.gstuer.casc.common.metrics.Histogram;
+import com.gstuer.casc.common.metrics.MetricRegistry;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Represents a batcher that verifies the signatures of incoming payload exchange messages per source in small batches.
+ * Messages of a source are accumulated until the batch is full or its time window has passed, so that bursts of a
+ * peer are checked by a single {@link Verifier#verifyAll(List, List) batch verification}, while a message waits at
+ * most one window. Verified messages of a source are handed to the consumer in order of arrival, messages with an
+ * invalid signature are dropped.
+ */
+public class VerificationBatcher implements Consumer<PayloadExchangeMessage>, AutoCloseable {
+    private final AuthenticationClient authenticationClient;
+    private final Consumer<PayloadExchangeMessage> consumer;
+    private final MessageBatcher<InetAddress, PayloadExchangeMessage> batcher;
+    private final Histogram verifyHistogram;
+    private final Histogram batchSizeHistogram;
+
+    /**
+     * Constructs a new {@link VerificationBatcher verification batcher}.
+     *
+     * @param authenticationClient the client verifying the signatures
+     * @param consumer             the consumer of verified messages, has to be thread-safe
+     * @param maxBatchSize         the number of messages of a source that are verified at once
+     * @param window               the time a message waits for further messages of its source at most
+     */
+    public VerificationBatcher(AuthenticationClient authenticationClient, Consumer<PayloadExchangeMessage> consumer,
+                               int maxBatchSize, Duration window) {
+        this.authenticationClient = Objects.requireNonNull(authenticationClient);
+        this.consumer = Objects.requireNonNull(consumer);
+        this.batcher = new MessageBatcher<>("verification", PayloadExchangeMessage::getSource, this::verify,
+                maxBatchSize, window);
+
+        MetricRegistry metricRegistry = MetricRegistry.getDefault();
+        this.verifyHistogram = metricRegistry.histogram("latency.incoming.verify-ns");
+        this.batchSizeHistogram = metricRegistry.histogram("authentication.verify.batch-size");
+    }
+
+    /**
+     * Adds a message to the batch of its source. The batch is verified once it is full or its window has passed.
+     *
+     * @param message the message to verify
+     */
+    @Override
+    public void accept(PayloadExchangeMessage message) {
+        this.batcher.accept(message);
+    }
+
+    /**
+     * Stops the flush threads of this batcher and verifies all messages that are still waiting for their window to pass.
+     */
+    @Override
+    public void close() {
+        this.batcher.close();
+    }
+
+    private void verify(List<PayloadExchangeMessage> messages) {
+        long startTime = System.nanoTime();
+        boolean[] results = this.authenticationClient.verifyMessages(messages);
+        // Record the verification time per message to keep it comparable to single verifications
+        long durationPerMessage = (System.nanoTime() - startTime) / messages.size();
+        this.batchSizeHistogram.record(messages.size());
+        for (int index = 0; index < messages.size(); index++) {
+            this.verifyHistogram.record(durationPerMessage);
+            if (results[index]) {
+                this.consumer.accept(messages.get(index));
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.gstuer.casc.pep.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Represents a dispatcher that distributes items across a fixed number of worker threads by the flow hash of each
+ * item. Every worker has its own queue and handles its items in order, so items of the same flow are handled in the
+ * order they were dispatched while different flows are handled in parallel.
+ *
+ * @param <T> the type of dispatched items
+ */
+public class FlowDispatcher<T> implements Consumer<T> {
+    private final String name;
+    private final ToIntFunction<T> flowHash;
+    private final Consumer<T> consumer;
+    private final List<BlockingQueue<T>> workerQueues;
+    private final List<Thread> workers;
+
+    /**
+     * Constructs a new {@link FlowDispatcher flow dispatcher}.
+     *
+     * @param name         the name of the dispatcher used for thread and queue names
+     * @param workerCount  the number of worker threads
+     * @param flowHash     the function calculating the flow hash of an item
+     * @param consumer     the consumer called by the workers for each item, has to be thread-safe
+     * @param queueFactory the factory creating the queue of a worker by its name
+     */
+    public FlowDispatcher(String name, int workerCount, ToIntFunction<T> flowHash, Consumer<T> consumer,
+                          Function<String, BlockingQueue<T>> queueFactory) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive.");
+        }
+        this.name = Objects.requireNonNull(name);
+        this.flowHash = Objects.requireNonNull(flowHash);
+        this.consumer = Objects.requireNonNull(consumer);
+        this.workerQueues = new ArrayList<>(workerCount);
+        for (int index = 0; index < workerCount; index++) {
+            this.workerQueues.add(queueFactory.apply("worker." + name + "." + index));
+        }
+        this.workers = new ArrayList<>(workerCount);
+    }
+
+    /**
+     * Queues an item for the worker responsible for the flow of the item. Items are retained until handled, i.e.
+     * reused items have to be copied before being dispatched.
+     *
+     * @param item the item to dispatch
+     */
+    @Override
+    public void accept(T item) {
+        int workerIndex = Math.floorMod(this.flowHash.applyAsInt(item), this.workerQueues.size());
+        this.workerQueues.get(workerIndex).offer(item);
+    }
+
+    public synchronized void open() {
+        // If dispatcher is already open, ignore method call
+        if (!this.workers.isEmpty()) {
+            return;
+        }
+        for (int index = 0; index < this.workerQueues.size(); index++) {
+            BlockingQueue<T> workerQueue = this.workerQueues.get(index);
+            workerQueue.clear();
+            Thread worker = new Thread(() -> this.work(workerQueue), "worker-" + this.name + "-" + index);
+            this.workers.add(worker);
+            worker.start();
+        }
+    }
+
+    public synchronized void close() {
+        this.workers.forEach(Thread::interrupt);
+        this.workers.clear();
+    }
+
+    public int getWorkerCount() {
+        return this.workerQueues.size();
+    }
+
+    private void work(BlockingQueue<T> workerQueue) {
+        while (!Thread.currentThread().isInterrupted()) {
+            T item;
+            try {
+                item = workerQueue.take();
+            } catch (InterruptedException exception) {
+                // Worker interrupted during waiting for new item
+                break;
+            }
+            try {
+                this.consumer.accept(item);
+            } catch (RuntimeException exception) {
+                // Continue with next item to not stall the flows of this worker
+                System.err.printf("[Worker %s] Handling item failed: %s\n", Thread.currentThread().getName(), exception);
+            }
+        }
+    }
+}
@@ -1,58 +1,94 @@
 package com.gstuer.casc.pep.forwarding;
 
-import com.gstuer.casc.common.egress.PacketEgressHandler;
-import com.gstuer.casc.common.ingress.PacketIngressHandler;
-import org.pcap4j.core.PcapNativeException;
+import com.gstuer.casc.common.capture.CaptureBackend;
+import com.gstuer.casc.common.capture.CaptureBackendType;
+import com.gstuer.casc.common.capture.CaptureException;
+import com.gstuer.casc.common.frame.Frame;
+import com.gstuer.casc.common.ingress.FrameIngressHandler;
+import com.gstuer.casc.common.metrics.MetricRegistry;
+import com.gstuer.casc.common.metrics.RateGauge;
+import com.gstuer.casc.pep.BridgeConfiguration;
 import org.pcap4j.core.PcapNetworkInterface;
-import org.pcap4j.packet.Packet;
 
 import java.util.Objects;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Represents a bridge forwarding all frames from an ingress to an egress interface without access control.
+ * Captured frames are transmitted as raw bytes directly from the capture thread, i.e. frames are neither parsed into
+ * packets nor queued. The throughput of the bridge is registered as metrics under {@code forward.<ingress>-<egress>}.
+ */
 public class ForwardingBridge {
     private final PcapNetworkInterface ingressInterface;
     private final PcapNetworkInterface egressInterface;
-    private final BlockingQueue<Packet> egressQueue;
+    private final BridgeConfiguration configuration;
+    private final LongAdder frameCounter;
+    private final LongAdder byteCounter;
+    private final LongAdder errorCounter;
 
-    private PacketIngressHandler ingressHandler;
-    private PacketEgressHandler egressHandler;
+    private FrameIngressHandler ingressHandler;
+    private CaptureBackend egressBackend;
     private ExecutorService threadPool;
 
     public ForwardingBridge(PcapNetworkInterface ingressInterface, PcapNetworkInterface egressInterface) {
+        this(ingressInterface, egressInterface, BridgeConfiguration.getDefault());
+    }
+
+    public ForwardingBridge(PcapNetworkInterface ingressInterface, PcapNetworkInterface egressInterface,
+                            BridgeConfiguration configuration) {
         this.ingressInterface = Objects.requireNonNull(ingressInterface);
         this.egressInterface = Objects.requireNonNull(egressInterface);
-        this.egressQueue = new LinkedBlockingQueue<>();
+        this.configuration = Objects.requireNonNull(configuration);
+
+        MetricRegistry metricRegistry = configuration.getMetricRegistry();
+        String prefix = "forward." + ingressInterface.getName() + "-" + egressInterface.getName();
+        this.frameCounter = metricRegistry.counter(prefix + ".frames");
+        this.byteCounter = metricRegistry.counter(prefix + ".bytes");
+        this.errorCounter = metricRegistry.counter(prefix + ".errors");
+        metricRegistry.registerGauge(prefix + ".frames-per-second", new RateGauge(this.frameCounter));
+        metricRegistry.registerGauge(prefix + ".bytes-per-second", new RateGauge(this.byteCounter));
     }
 
     public void startForwarding() {
         // If forwarding is already in progress, ignore method call
-        if (ingressHandler != null && egressHandler != null && !this.threadPool.isTerminated()) {
+        if (this.ingressHandler != null && !this.threadPool.isTerminated()) {
             return;
         }
 
-        // Construct packet capture handlers for ingress & egress
+        // Construct capture backends for ingress & egress
+        CaptureBackendType backendType = this.configuration.getCaptureBackendType();
         try {
-            ingressHandler = new PacketIngressHandler(this.ingressInterface, new UnfilteredForwardingListener(this.egressQueue));
-            egressHandler = new PacketEgressHandler(this.egressInterface, this.egressQueue);
-        } catch (PcapNativeException exception) {
+            this.egressBackend = backendType.open(this.egressInterface, CaptureBackend.Direction.EGRESS);
+            this.ingressHandler = new FrameIngressHandler(backendType.open(this.ingressInterface, CaptureBackend.Direction.INGRESS),
+                    this::forward);
+        } catch (CaptureException exception) {
             throw new IllegalStateException(exception);
         }
 
-        // Clear egress queue of prior forwarding
-        this.egressQueue.clear();
-
-        // Start ingress and egress threads
-        threadPool = Executors.newFixedThreadPool(2);
-        this.threadPool.submit(egressHandler::open);
-        this.threadPool.submit(ingressHandler::open);
+        // Start ingress thread, frames are transmitted by the capturing thread
+        this.threadPool = Executors.newSingleThreadExecutor();
+        this.threadPool.submit(this.ingressHandler::open);
     }
 
     public void stopForwarding() {
         this.ingressHandler.close();
-        this.egressHandler.close();
+        this.egressBackend.close();
         this.threadPool.shutdownNow();
+        System.out.printf("[Forward %s-%s] Forwarded %d frames (%d bytes), %d failed.\n", this.ingressInterface.getName(),
+                this.egressInterface.getName(), this.frameCounter.sum(), this.byteCounter.sum(), this.errorCounter.sum());
+    }
+
+    private void forward(Frame frame) {
+        try {
+            this.egressBackend.transmit(frame.getBuffer(), frame.getOffset(), frame.getLength());
+            this.frameCounter.increment();
+            this.byteCounter.add(frame.getLength());
+        } catch (CaptureException exception) {
+            // Throw no exception to continue forwarding after exception
+            this.errorCounter.increment();
+            System.err.println(exception.getMessage());
+        }
     }
 }
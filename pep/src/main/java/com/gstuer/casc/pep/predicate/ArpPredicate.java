@@ -3,6 +3,8 @@ package com.gstuer.casc.pep.predicate;
 import org.pcap4j.packet.ArpPacket;
 import org.pcap4j.packet.Packet;
 
+import java.util.Optional;
+
 /**
  * Represents a {@link PacketPredicate predicate} that evaluates if a {@link Packet packet} is an ARP packet.
  */
@@ -11,4 +13,9 @@ public class ArpPredicate extends PacketPredicate {
     public boolean test(Packet packet) {
         return packet.contains(ArpPacket.class);
     }
+
+    @Override
+    public Optional<String> getFilterExpression() {
+        return Optional.of("arp");
+    }
 }
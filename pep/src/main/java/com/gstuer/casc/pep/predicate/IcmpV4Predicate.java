@@ -14,6 +14,8 @@ import org.pcap4j.packet.IcmpV4TimestampPacket;
 import org.pcap4j.packet.IcmpV4TimestampReplyPacket;
 import org.pcap4j.packet.Packet;
 
+import java.util.Optional;
+
 /**
  * Represents a {@link PacketPredicate predicate} that evaluates if a {@link Packet packet} is an ICMPv4 packet.
  */
@@ -28,4 +30,16 @@ public class IcmpV4Predicate extends PacketPredicate {
                 || packet.contains(IcmpV4RedirectPacket.class) || packet.contains(IcmpV4SourceQuenchPacket.class)
                 || packet.contains(IcmpV4TimeExceededPacket.class);
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The expression excludes IPv4 fragments (more fragments flag or fragment offset set) because they do not contain
+     * a parsed ICMPv4 header and are rejected by {@link #test(Packet)}. Otherwise, a bypass filter would let them pass
+     * without access control while the negated filter would keep them away from the access controlled capture.
+     */
+    @Override
+    public Optional<String> getFilterExpression() {
+        return Optional.of("icmp and ip[6:2] & 0x3fff = 0");
+    }
 }
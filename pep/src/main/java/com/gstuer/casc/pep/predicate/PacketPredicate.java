@@ -8,7 +8,9 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
- * Represents a {@link Predicate predicate} that is evaluated on {@link Packet packet} objects.
+ * Represents a {@link Predicate predicate} that is evaluated on {@link Packet packet} objects. A predicate may
+ * additionally describe itself as a libpcap {@link #getFilterExpression() filter expression}, which allows capture
+ * backends to evaluate it in the kernel before frames are handed to the JVM.
  */
 public abstract class PacketPredicate implements Predicate<Packet> {
     public static PacketPredicate getStaticPredicate(boolean isMatching) {
@@ -35,6 +37,32 @@ public abstract class PacketPredicate implements Predicate<Packet> {
         };
     }
 
+    /**
+     * Gets the libpcap filter expression matching the same untagged Ethernet frames as this predicate. Predicates
+     * composed via {@link #and(Predicate)}, {@link #or(Predicate)} and {@link #negate()} have an expression if all of
+     * their parts have one.
+     *
+     * @return the filter expression or an empty {@link Optional optional} if this predicate cannot be expressed as
+     * filter expression.
+     * @see #getCaptureFilterExpression()
+     */
+    public Optional<String> getFilterExpression() {
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the libpcap filter expression to install on capture handles. In addition to the untagged frames matched by
+     * the {@link #getFilterExpression() filter expression}, it matches frames with a VLAN tag whose payload matches.
+     * Since the {@code vlan} keyword shifts the offsets of all subsequent terms, it is placed at the very end.
+     *
+     * @return the capture filter expression or an empty {@link Optional optional} if this predicate cannot be
+     * expressed as filter expression.
+     */
+    public Optional<String> getCaptureFilterExpression() {
+        return this.getFilterExpression()
+                .map(expression -> "(" + expression + ") or (vlan and (" + expression + "))");
+    }
+
     /**
      * Applies a {@link Consumer consumer} on a {@link Packet packet} if the packet matches this predicate.
      *
@@ -81,16 +109,39 @@ public abstract class PacketPredicate implements Predicate<Packet> {
 
     @Override
     public PacketPredicate and(Predicate<? super Packet> other) {
-        return PacketPredicate.from(Predicate.super.and(other));
+        return PacketPredicate.from(Predicate.super.and(other), this.composeFilterExpression(other, "and"));
     }
 
     @Override
     public PacketPredicate negate() {
-        return PacketPredicate.from(Predicate.super.negate());
+        return PacketPredicate.from(Predicate.super.negate(),
+                this.getFilterExpression().map(expression -> "not (" + expression + ")"));
     }
 
     @Override
     public PacketPredicate or(Predicate<? super Packet> other) {
-        return PacketPredicate.from(Predicate.super.or(other));
+        return PacketPredicate.from(Predicate.super.or(other), this.composeFilterExpression(other, "or"));
+    }
+
+    private Optional<String> composeFilterExpression(Predicate<? super Packet> other, String operator) {
+        if (!(other instanceof PacketPredicate otherPredicate)) {
+            return Optional.empty();
+        }
+        return this.getFilterExpression().flatMap(expression -> otherPredicate.getFilterExpression()
+                .map(otherExpression -> "(" + expression + ") " + operator + " (" + otherExpression + ")"));
+    }
+
+    private static PacketPredicate from(Predicate<Packet> predicate, Optional<String> filterExpression) {
+        return new PacketPredicate() {
+            @Override
+            public boolean test(Packet packet) {
+                return predicate.test(packet);
+            }
+
+            @Override
+            public Optional<String> getFilterExpression() {
+                return filterExpression;
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import org.pcap4j.packet.Packet;
 
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.Optional;
 
 public class SampledValuesPredicate extends PacketPredicate {
     @Override
@@ -39,4 +40,15 @@ public class SampledValuesPredicate extends PacketPredicate {
         // Captured packet does not contain sampled values frame
         return false;
     }
+
+    /**
+     * Gets the filter expression of this predicate. In contrast to the Java evaluation, the expression does not look
+     * into frames encapsulated in non-Ethernet packets, which cannot occur on Ethernet capture handles anyway.
+     *
+     * @return the filter expression matching untagged sampled values frames.
+     */
+    @Override
+    public Optional<String> getFilterExpression() {
+        return Optional.of("ether proto 0x88ba");
+    }
 }
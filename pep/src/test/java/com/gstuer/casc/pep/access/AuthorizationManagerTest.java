@@ -0,0 +1,313 @@
+package com.gstuer.casc.pep.access;
+
+import com.gstuer.casc.common.AuthenticationClient;
+import com.gstuer.casc.common.cryptography.Authenticator;
+import com.gstuer.casc.common.cryptography.DigitalSignature;
+import com.gstuer.casc.common.cryptography.Ed25519Authenticator;
+import com.gstuer.casc.common.cryptography.EncodedKey;
+import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.message.AccessDecisionMessage;
+import com.gstuer.casc.common.message.AccessDecisionSubscriptionMessage;
+import com.gstuer.casc.common.message.AccessRequestMessage;
+import com.gstuer.casc.common.message.KeyExchangeMessage;
+import com.gstuer.casc.common.message.PayloadExchangeMessage;
+import com.gstuer.casc.common.pattern.AccessDecision;
+import com.gstuer.casc.common.pattern.AccessRequestPattern;
+import com.gstuer.casc.common.pattern.PatternFactory;
+import com.gstuer.casc.common.time.ManualClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pcap4j.packet.EthernetPacket;
+import org.pcap4j.packet.IllegalRawDataException;
+import org.pcap4j.packet.Packet;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.InvalidKeyException;
+import java.security.SignatureException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuthorizationManagerTest {
+    // Ethernet: ff:ff:ff:ff:ff:ff <- 00:00:00:00:00:01, IPv4: 192.168.0.50 -> 192.168.0.51, UDP: 10001 -> 10000
+    private static final String UDP_FRAME = "ffffffffffff" + "000000000001" + "0800"
+            + "4500001c000040004011" + "0000" + "c0a80032" + "c0a80033"
+            + "2711" + "2710" + "0008" + "0000";
+    // Validity offset of decisions plus initial renewal lead time of the authorization manager
+    private static final long RENEWAL_HORIZON_MILLIS = 50 + 250;
+    private static final long TIMEOUT_MILLIS = 2000;
+    private static final long QUIET_MILLIS = 500;
+
+    private InetAddress authority;
+    private InetAddress scope;
+    private InetAddress nextHop;
+    private Authenticator<?, ?> authorityAuthenticator;
+    private BlockingQueue<AccessControlMessage<?>> messageEgress;
+    private ManualClock clock;
+    private Packet packet;
+    private AccessRequestPattern pattern;
+
+    @BeforeEach
+    public void setUp() throws UnknownHostException, IllegalRawDataException {
+        this.authority = InetAddress.getByName("10.0.0.1");
+        this.scope = InetAddress.getByName("10.0.0.2");
+        this.nextHop = InetAddress.getByName("10.0.0.3");
+        this.authorityAuthenticator = new Ed25519Authenticator();
+        this.authorityAuthenticator.initializeKeyPair();
+        this.messageEgress = new LinkedBlockingQueue<>();
+        this.clock = new ManualClock(System.currentTimeMillis());
+        byte[] frame = HexFormat.of().parseHex(UDP_FRAME);
+        this.packet = EthernetPacket.newPacket(frame, 0, frame.length);
+        this.pattern = PatternFactory.derivePatternFrom(frame);
+    }
+
+    @Test
+    public void testUsedDecisionIsRenewed() throws Exception {
+        // Test data
+        AuthorizationManager manager = this.createManager(this.createClient());
+        long validUntil = this.clock.currentTimeMillis() + RENEWAL_HORIZON_MILLIS + 100;
+        manager.processMessage(this.createDecisionMessage(AccessDecision.Action.GRANT, this.nextHop, validUntil));
+
+        // Execution
+        AuthorizationManager.AuthorizationResult result = manager.authorizeOutgoing(this.packet, message -> {
+        });
+
+        // Assertions
+        assertEquals(AuthorizationManager.AuthorizationResult.GRANTED, result);
+        Optional<AccessRequestMessage> renewal = pollMessage(this.messageEgress, AccessRequestMessage.class,
+                TIMEOUT_MILLIS);
+        assertTrue(renewal.isPresent());
+        assertEquals(this.pattern, renewal.get().getPayload());
+    }
+
+    @Test
+    public void testUnusedDecisionIsNotRenewed() throws Exception {
+        // Test data
+        AuthorizationManager manager = this.createManager(this.createClient());
+        long validUntil = this.clock.currentTimeMillis() + RENEWAL_HORIZON_MILLIS + 100;
+
+        // Execution
+        manager.processMessage(this.createDecisionMessage(AccessDecision.Action.GRANT, this.nextHop, validUntil));
+
+        // Assertion
+        assertTrue(pollMessage(this.messageEgress, AccessRequestMessage.class, QUIET_MILLIS).isEmpty());
+    }
+
+    @Test
+    public void testUnusableDecisionIsNotRenewed() throws Exception {
+        // Test data
+        AuthorizationManager manager = this.createManager(this.createClient());
+        long validUntil = this.clock.currentTimeMillis() + RENEWAL_HORIZON_MILLIS + 100;
+        manager.processMessage(this.createDecisionMessage(AccessDecision.Action.GRANT, this.nextHop, validUntil));
+        manager.authorizeOutgoing(this.packet, message -> {
+        });
+
+        // Execution: Decision became unusable before its renewal is due
+        this.clock.advance(Duration.ofMillis(RENEWAL_HORIZON_MILLIS + 100));
+
+        // Assertion
+        assertTrue(pollMessage(this.messageEgress, AccessRequestMessage.class, QUIET_MILLIS).isEmpty());
+    }
+
+    @Test
+    public void testDeniedFlowIsAnsweredFromCache() throws Exception {
+        // Test data
+        AuthorizationManager manager = this.createManager(this.createClient());
+        AuthorizationManager.AuthorizationResult firstResult = manager.authorizeOutgoing(this.packet, message -> {
+        });
+        assertTrue(pollMessage(this.messageEgress, AccessRequestMessage.class, TIMEOUT_MILLIS).isPresent());
+        long validUntil = this.clock.currentTimeMillis() + 10_000;
+        manager.processMessage(this.createDecisionMessage(AccessDecision.Action.DENY, null, validUntil));
+        this.messageEgress.clear();
+
+        // Execution
+        AuthorizationManager.AuthorizationResult result = manager.authorizeOutgoing(this.packet, message -> {
+        });
+
+        // Assertions
+        assertEquals(AuthorizationManager.AuthorizationResult.PENDING, firstResult);
+        assertEquals(AuthorizationManager.AuthorizationResult.DENIED, result);
+        assertTrue(pollMessage(this.messageEgress, AccessRequestMessage.class, QUIET_MILLIS).isEmpty());
+    }
+
+    @Test
+    public void testDeniedFlowExpires() throws Exception {
+        // Test data
+        AuthorizationManager manager = this.createManager(this.createClient());
+        manager.authorizeOutgoing(this.packet, message -> {
+        });
+        long validUntil = this.clock.currentTimeMillis() + 10_000;
+        manager.processMessage(this.createDecisionMessage(AccessDecision.Action.DENY, null, validUntil));
+        this.messageEgress.clear();
+
+        // Execution
+        this.clock.setTimeMillis(validUntil);
+        AuthorizationManager.AuthorizationResult result = manager.authorizeOutgoing(this.packet, message -> {
+        });
+
+        // Assertions
+        assertEquals(AuthorizationManager.AuthorizationResult.PENDING, result);
+        assertTrue(pollMessage(this.messageEgress, AccessRequestMessage.class, TIMEOUT_MILLIS).isPresent());
+    }
+
+    @Test
+    public void testGrantSupersedesDeniedFlow() throws Exception {
+        // Test data
+        AuthorizationManager manager = this.createManager(this.createClient());
+        manager.authorizeOutgoing(this.packet, message -> {
+        });
+        long validUntil = this.clock.currentTimeMillis() + 10_000;
+        manager.processMessage(this.createDecisionMessage(AccessDecision.Action.DENY, null, validUntil));
+        List<PayloadExchangeMessage> grantedMessages = new ArrayList<>();
+
+        // Execution
+        manager.processMessage(this.createDecisionMessage(AccessDecision.Action.GRANT, this.nextHop, validUntil));
+        AuthorizationManager.AuthorizationResult result = manager.authorizeOutgoing(this.packet, grantedMessages::add);
+
+        // Assertions
+        assertEquals(AuthorizationManager.AuthorizationResult.GRANTED, result);
+        assertEquals(1, grantedMessages.size());
+        assertEquals(this.nextHop, grantedMessages.get(0).getDestination());
+    }
+
+    @Test
+    public void testPacketsOfFlowKeepOrderWhileParkedPacketsAreReleased() throws Exception {
+        // Test data
+        int parkedCount = 16;
+        int laterCount = 16;
+        AuthorizationManager manager = this.createManager(this.createClient());
+        Map<Packet, Integer> packetIndices = new IdentityHashMap<>();
+        List<Packet> packets = new ArrayList<>();
+        byte[] frame = HexFormat.of().parseHex(UDP_FRAME);
+        for (int index = 0; index < parkedCount + laterCount; index++) {
+            Packet packet = EthernetPacket.newPacket(frame, 0, frame.length);
+            packets.add(packet);
+            packetIndices.put(packet, index);
+        }
+        List<Integer> sentIndices = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch releaseLatch = new CountDownLatch(1);
+        Consumer<PayloadExchangeMessage> consumer = message -> {
+            int index = packetIndices.get(message.getPayload());
+            sentIndices.add(index);
+            if (index < parkedCount) {
+                // Slow down the release of parked packets, so that later packets find the decision meanwhile
+                releaseLatch.countDown();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+            }
+        };
+        for (Packet packet : packets.subList(0, parkedCount)) {
+            manager.authorizeOutgoing(packet, consumer);
+        }
+        long validUntil = this.clock.currentTimeMillis() + 10_000;
+
+        // Execution: Worker handles later packets of the flow while the decision releases the parked ones
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> worker = executor.submit(() -> {
+                releaseLatch.await();
+                for (Packet packet : packets.subList(parkedCount, packets.size())) {
+                    manager.authorizeOutgoing(packet, consumer);
+                }
+                return null;
+            });
+            manager.processMessage(this.createDecisionMessage(AccessDecision.Action.GRANT, this.nextHop, validUntil));
+            worker.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assertion: All packets are sent in order of arrival
+        assertEquals(IntStream.range(0, packets.size()).boxed().toList(), List.copyOf(sentIndices));
+    }
+
+    @Test
+    public void testSubscriptionIsRenewedAfterFailedSigning() throws Exception {
+        // Test data: Signer fails once armed, i.e. on the first subscription
+        AtomicBoolean isFailing = new AtomicBoolean();
+        Ed25519Authenticator failingAuthenticator = new Ed25519Authenticator() {
+            @Override
+            public DigitalSignature sign(byte[] data) throws InvalidKeyException, SignatureException {
+                if (isFailing.getAndSet(false)) {
+                    throw new SignatureException("Signing failed for testing.");
+                }
+                return super.sign(data);
+            }
+        };
+        AuthenticationClient client = this.createClient(failingAuthenticator);
+        isFailing.set(true);
+
+        // Execution
+        new AuthorizationManager(this.authority, this.scope, client, this.messageEgress, this.clock,
+                Duration.ofMillis(200));
+
+        // Assertions: Renewal after the failed subscription is still scheduled
+        Optional<AccessDecisionSubscriptionMessage> subscription = pollMessage(this.messageEgress,
+                AccessDecisionSubscriptionMessage.class, TIMEOUT_MILLIS);
+        assertTrue(subscription.isPresent());
+        assertFalse(isFailing.get());
+        assertEquals(200L, subscription.get().getPayload());
+        assertTrue(pollMessage(this.messageEgress, AccessDecisionSubscriptionMessage.class, TIMEOUT_MILLIS).isPresent());
+    }
+
+    AuthenticationClient createClient() throws InvalidKeyException, SignatureException {
+        return this.createClient(new Ed25519Authenticator());
+    }
+
+    AuthenticationClient createClient(Authenticator<?, ?> authenticator) throws InvalidKeyException, SignatureException {
+        AuthenticationClient client = new AuthenticationClient(this.authority, authenticator, this.messageEgress);
+        // Trust the key of the authority like after a key exchange
+        EncodedKey encodedKey = new EncodedKey(this.authorityAuthenticator.getAlgorithmIdentifier(),
+                this.authorityAuthenticator.getVerificationKey().getEncoded());
+        client.processMessage(new KeyExchangeMessage(this.scope, null, encodedKey).sign(this.authorityAuthenticator)
+                .fromSource(this.authority));
+        return client;
+    }
+
+    AuthorizationManager createManager(AuthenticationClient client) {
+        return new AuthorizationManager(this.authority, this.scope, client, this.messageEgress, this.clock);
+    }
+
+    AccessDecisionMessage createDecisionMessage(AccessDecision.Action action, InetAddress decisionNextHop,
+                                                long validUntil) throws InvalidKeyException, SignatureException {
+        AccessDecision decision = new AccessDecision(this.pattern, action, decisionNextHop,
+                Instant.ofEpochMilli(validUntil));
+        return new AccessDecisionMessage(this.scope, null, decision).sign(this.authorityAuthenticator)
+                .fromSource(this.authority);
+    }
+
+    static <T extends AccessControlMessage<?>> Optional<T> pollMessage(BlockingQueue<AccessControlMessage<?>> queue,
+                                                                       Class<T> type, long timeoutMillis)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long remainingNanos;
+        while ((remainingNanos = deadline - System.nanoTime()) > 0) {
+            AccessControlMessage<?> message = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (type.isInstance(message)) {
+                return Optional.of(type.cast(message));
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,199 @@
+package com.gstuer.casc.pep.access;
+
+import com.gstuer.casc.common.frame.FlowKey;
+import com.gstuer.casc.common.metrics.MetricRegistry;
+import com.gstuer.casc.common.pattern.AccessDecision;
+import com.gstuer.casc.common.pattern.AccessRequestPattern;
+import com.gstuer.casc.common.pattern.EthernetPattern;
+import com.gstuer.casc.common.pattern.IpPattern;
+import com.gstuer.casc.common.pattern.UdpPattern;
+import com.gstuer.casc.common.time.ManualClock;
+import org.junit.jupiter.api.Test;
+import org.pcap4j.packet.namednumber.EtherType;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.pcap4j.util.MacAddress;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlowVerdictCacheTest {
+    // Ethernet: ff:ff:ff:ff:ff:ff <- 00:00:00:00:00:01, IPv4: 192.168.0.50 -> 192.168.0.51, UDP: 10001 -> 10000
+    private static final String UDP_FRAME = "ffffffffffff" + "000000000001" + "0800"
+            + "4500001c000040004011" + "0000" + "c0a80032" + "c0a80033"
+            + "2711" + "2710" + "0008" + "0000";
+    private static final long START_MILLIS = 1_000_000;
+
+    @Test
+    public void testHit() throws UnknownHostException {
+        // Test data
+        ManualClock clock = new ManualClock(START_MILLIS);
+        MetricRegistry registry = new MetricRegistry();
+        FlowVerdictCache cache = new FlowVerdictCache("test", 16, registry, clock);
+        AccessRequestPattern pattern = createPattern(10000);
+        AccessDecision decision = createDecision(pattern, AccessDecision.Action.GRANT, START_MILLIS + 1000);
+
+        // Execution
+        cache.put(flowKey(0), pattern, decision, START_MILLIS + 1000, cache.getGeneration());
+        Optional<AccessDecision> cachedDecision = cache.get(flowKey(0));
+
+        // Assertions
+        assertEquals(Optional.of(decision), cachedDecision);
+        assertEquals(1, cache.size());
+        assertEquals(1.0, cache.getHitRate());
+        assertEquals(1L, registry.snapshot().get("authorization.cache.test.hits"));
+    }
+
+    @Test
+    public void testMiss() throws UnknownHostException {
+        // Test data
+        ManualClock clock = new ManualClock(START_MILLIS);
+        MetricRegistry registry = new MetricRegistry();
+        FlowVerdictCache cache = new FlowVerdictCache("test", 16, registry, clock);
+        AccessRequestPattern pattern = createPattern(10000);
+        AccessDecision decision = createDecision(pattern, AccessDecision.Action.GRANT, START_MILLIS + 1000);
+        cache.put(flowKey(0), pattern, decision, START_MILLIS + 1000, cache.getGeneration());
+
+        // Execution
+        Optional<AccessDecision> cachedDecision = cache.get(flowKey(1));
+
+        // Assertions
+        assertTrue(cachedDecision.isEmpty());
+        assertEquals(0.0, cache.getHitRate());
+        assertEquals(1L, registry.snapshot().get("authorization.cache.test.misses"));
+    }
+
+    @Test
+    public void testExpiry() throws UnknownHostException {
+        // Test data
+        ManualClock clock = new ManualClock(START_MILLIS);
+        MetricRegistry registry = new MetricRegistry();
+        FlowVerdictCache cache = new FlowVerdictCache("test", 16, registry, clock);
+        AccessRequestPattern pattern = createPattern(10000);
+        AccessDecision decision = createDecision(pattern, AccessDecision.Action.GRANT, START_MILLIS + 1000);
+        cache.put(flowKey(0), pattern, decision, START_MILLIS + 1000, cache.getGeneration());
+
+        // Execution
+        clock.advance(Duration.ofMillis(999));
+        Optional<AccessDecision> validDecision = cache.get(flowKey(0));
+        clock.advance(Duration.ofMillis(1));
+        Optional<AccessDecision> expiredDecision = cache.get(flowKey(0));
+
+        // Assertions
+        assertEquals(Optional.of(decision), validDecision);
+        assertTrue(expiredDecision.isEmpty());
+        assertEquals(0, cache.size());
+        assertEquals(1L, registry.snapshot().get("authorization.cache.test.evictions"));
+    }
+
+    @Test
+    public void testStaleGenerationIsNotCached() throws UnknownHostException {
+        // Test data
+        FlowVerdictCache cache = new FlowVerdictCache("test", 16, new MetricRegistry(), new ManualClock(START_MILLIS));
+        AccessRequestPattern pattern = createPattern(10000);
+        AccessDecision decision = createDecision(pattern, AccessDecision.Action.GRANT, START_MILLIS + 1000);
+
+        // Execution: Invalidation between reading the generation and caching the looked up decision
+        long generation = cache.getGeneration();
+        cache.invalidateAll();
+        cache.put(flowKey(0), pattern, decision, START_MILLIS + 1000, generation);
+
+        // Assertions
+        assertTrue(cache.get(flowKey(0)).isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRenewReplacesRenewedAndInvalidatesSupersededVerdicts() throws UnknownHostException {
+        // Test data
+        FlowVerdictCache cache = new FlowVerdictCache("test", 16, new MetricRegistry(), new ManualClock(START_MILLIS));
+        AccessRequestPattern pattern = createPattern(10000);
+        AccessRequestPattern otherPattern = createPattern(20000);
+        AccessDecision decision = createDecision(pattern, AccessDecision.Action.GRANT, START_MILLIS + 1000);
+        AccessDecision otherDecision = createDecision(otherPattern, AccessDecision.Action.GRANT, START_MILLIS + 1000);
+        AccessDecision renewal = createDecision(pattern, AccessDecision.Action.GRANT, START_MILLIS + 5000);
+        AccessDecision denial = createDecision(otherPattern, AccessDecision.Action.DENY, START_MILLIS + 5000);
+        long generation = cache.getGeneration();
+        cache.put(flowKey(0), pattern, decision, START_MILLIS + 1000, generation);
+        cache.put(flowKey(1), otherPattern, otherDecision, START_MILLIS + 1000, generation);
+
+        // Execution
+        cache.renew(renewal, START_MILLIS + 5000);
+        cache.renew(denial, START_MILLIS + 5000);
+
+        // Assertions
+        assertEquals(generation + 2, cache.getGeneration());
+        assertEquals(Optional.of(renewal), cache.get(flowKey(0)));
+        assertTrue(cache.get(flowKey(1)).isEmpty());
+    }
+
+    @Test
+    public void testActiveDecision() throws UnknownHostException {
+        // Test data
+        ManualClock clock = new ManualClock(START_MILLIS);
+        FlowVerdictCache cache = new FlowVerdictCache("test", 16, new MetricRegistry(), clock);
+        AccessRequestPattern pattern = createPattern(10000);
+        AccessDecision decision = createDecision(pattern, AccessDecision.Action.GRANT, START_MILLIS + 1000);
+        AccessDecision renewal = createDecision(pattern, AccessDecision.Action.GRANT, START_MILLIS + 5000);
+        AccessDecision unusedDecision = createDecision(createPattern(20000), AccessDecision.Action.GRANT,
+                START_MILLIS + 1000);
+        cache.put(flowKey(0), pattern, decision, START_MILLIS + 1000, cache.getGeneration());
+
+        // Execution
+        clock.advance(Duration.ofMillis(100));
+        boolean isActiveBeforeHit = cache.isActive(decision, START_MILLIS + 100);
+        cache.get(flowKey(0));
+        boolean isActiveAfterHit = cache.isActive(decision, START_MILLIS + 100);
+        cache.renew(renewal, START_MILLIS + 5000);
+
+        // Assertions
+        assertTrue(cache.isActive(decision, START_MILLIS));
+        assertFalse(isActiveBeforeHit);
+        assertTrue(isActiveAfterHit);
+        assertTrue(cache.isActive(renewal, START_MILLIS + 100));
+        assertFalse(cache.isActive(renewal, START_MILLIS + 101));
+        assertFalse(cache.isActive(unusedDecision, START_MILLIS));
+    }
+
+    @Test
+    public void testCapacity() throws UnknownHostException {
+        // Test data
+        FlowVerdictCache cache = new FlowVerdictCache("test", 2, new MetricRegistry(), new ManualClock(START_MILLIS));
+        AccessRequestPattern pattern = createPattern(10000);
+        AccessDecision decision = createDecision(pattern, AccessDecision.Action.GRANT, START_MILLIS + 1000);
+
+        // Execution
+        for (int index = 0; index < 8; index++) {
+            cache.put(flowKey(index), pattern, decision, START_MILLIS + 1000, cache.getGeneration());
+        }
+
+        // Assertions
+        assertTrue(cache.size() <= 2);
+        assertTrue(cache.get(flowKey(7)).isPresent());
+    }
+
+    static FlowKey flowKey(int sourcePortOffset) {
+        byte[] frame = HexFormat.of().parseHex(UDP_FRAME);
+        frame[14 + 20 + 1] = (byte) (0x11 + sourcePortOffset);
+        return FlowKey.of(frame);
+    }
+
+    static AccessRequestPattern createPattern(int destinationPort) throws UnknownHostException {
+        EthernetPattern ethernetPattern = new EthernetPattern(MacAddress.getByName("00:00:00:00:00:01"),
+                MacAddress.getByName("ff:ff:ff:ff:ff:ff"), EtherType.IPV4);
+        IpPattern ipPattern = new IpPattern(InetAddress.getByName("192.168.0.50"),
+                InetAddress.getByName("192.168.0.51"), IpNumber.UDP, ethernetPattern);
+        return new UdpPattern(10001, destinationPort, ipPattern);
+    }
+
+    static AccessDecision createDecision(AccessRequestPattern pattern, AccessDecision.Action action, long validUntil) {
+        return new AccessDecision(pattern, action, null, Instant.ofEpochMilli(validUntil));
+    }
+}
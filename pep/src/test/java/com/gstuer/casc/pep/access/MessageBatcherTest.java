@@ -0,0 +1,139 @@
+package com.gstuer.casc.pep.access;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MessageBatcherTest {
+    private static final long TIMEOUT_MILLIS = 5000;
+    private static final Duration LONG_WINDOW = Duration.ofSeconds(60);
+
+    @Test
+    public void testFullBatchIsHandedOverImmediately() {
+        // Test data
+        BlockingQueue<List<String>> batches = new LinkedBlockingQueue<>();
+        MessageBatcher<Character, String> batcher = new MessageBatcher<>("test", item -> item.charAt(0), batches::add,
+                3, LONG_WINDOW);
+
+        try (batcher) {
+            // Execution
+            batcher.accept("a0");
+            batcher.accept("a1");
+            boolean isHandedOverBeforeFull = !batches.isEmpty();
+            batcher.accept("a2");
+
+            // Assertions
+            assertFalse(isHandedOverBeforeFull);
+            assertEquals(List.of(List.of("a0", "a1", "a2")), List.copyOf(batches));
+        }
+    }
+
+    @Test
+    public void testBatchIsHandedOverOnceWindowPassed() throws InterruptedException {
+        // Test data
+        BlockingQueue<List<String>> batches = new LinkedBlockingQueue<>();
+        BlockingQueue<String> threadNames = new LinkedBlockingQueue<>();
+        MessageBatcher<Character, String> batcher = new MessageBatcher<>("test", item -> item.charAt(0), batch -> {
+            threadNames.add(Thread.currentThread().getName());
+            batches.add(batch);
+        }, 16, Duration.ofMillis(100));
+
+        try (batcher) {
+            // Execution
+            batcher.accept("a0");
+            batcher.accept("b0");
+            batcher.accept("a1");
+
+            // Assertions: Batches of both keys are handed over by the flush threads
+            List<List<String>> handedOverBatches = new ArrayList<>();
+            handedOverBatches.add(batches.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            handedOverBatches.add(batches.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            assertTrue(handedOverBatches.contains(List.of("a0", "a1")));
+            assertTrue(handedOverBatches.contains(List.of("b0")));
+            assertNull(batches.poll(200, TimeUnit.MILLISECONDS));
+            assertEquals(2, threadNames.size());
+            assertTrue(threadNames.stream().allMatch(threadName -> threadName.startsWith("test-batch-flusher-")));
+        }
+    }
+
+    @Test
+    public void testSlowKeyDoesNotDelayOtherKeys() throws InterruptedException {
+        // Test data
+        BlockingQueue<List<String>> batches = new LinkedBlockingQueue<>();
+        CountDownLatch releaseLatch = new CountDownLatch(1);
+        MessageBatcher<Character, String> batcher = new MessageBatcher<>("test", item -> item.charAt(0), batch -> {
+            if (batch.get(0).charAt(0) == 'a') {
+                try {
+                    releaseLatch.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batches.add(batch);
+        }, 16, Duration.ofMillis(50));
+
+        try (batcher) {
+            // Execution: Batch of key a blocks its flush thread until released
+            batcher.accept("a0");
+            Thread.sleep(100);
+            batcher.accept("b0");
+
+            // Assertions
+            assertEquals(List.of("b0"), batches.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            releaseLatch.countDown();
+            assertEquals(List.of("a0"), batches.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void testItemsOfKeyAreHandedOverInOrder() {
+        // Test data
+        int itemCount = 1000;
+        int maxBatchSize = 3;
+        Map<Character, List<String>> handedOverItems = new ConcurrentHashMap<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        MessageBatcher<Character, String> batcher = new MessageBatcher<>("test", item -> item.charAt(0), batch -> {
+            synchronized (batchSizes) {
+                batchSizes.add(batch.size());
+            }
+            for (String item : batch) {
+                assertEquals(batch.get(0).charAt(0), item.charAt(0));
+            }
+            handedOverItems.computeIfAbsent(batch.get(0).charAt(0), key -> new ArrayList<>()).addAll(batch);
+        }, maxBatchSize, Duration.ofMillis(1));
+        List<String> expectedItemsA = new ArrayList<>();
+        List<String> expectedItemsB = new ArrayList<>();
+
+        // Execution: Mix of full batches and batches flushed by the scheduler
+        try (batcher) {
+            for (int index = 0; index < itemCount; index++) {
+                String item = (index % 3 == 0 ? "b" : "a") + index;
+                (item.charAt(0) == 'a' ? expectedItemsA : expectedItemsB).add(item);
+                batcher.accept(item);
+                if (index % 7 == 0) {
+                    Thread.yield();
+                }
+            }
+        }
+
+        // Assertions: Closing hands over all remaining items
+        assertEquals(expectedItemsA, handedOverItems.get('a'));
+        assertEquals(expectedItemsB, handedOverItems.get('b'));
+        synchronized (batchSizes) {
+            assertTrue(batchSizes.stream().allMatch(size -> size > 0 && size <= maxBatchSize));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.gstuer.casc.pep.access;
+
+import com.gstuer.casc.common.message.PayloadExchangeMessage;
+import com.gstuer.casc.common.pattern.AccessDecision;
+import com.gstuer.casc.common.pattern.AccessRequestPattern;
+import org.junit.jupiter.api.Test;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.UnknownPacket;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PendingRequestTableTest {
+    @Test
+    public void testFindResolvedBySubPattern() throws UnknownHostException {
+        // Test data
+        PendingRequestTable table = new PendingRequestTable();
+        AccessRequestPattern pattern = FlowVerdictCacheTest.createPattern(10000);
+        AccessRequestPattern otherPattern = FlowVerdictCacheTest.createPattern(20000);
+        PendingAccessRequest request = table.computeIfAbsent(pattern,
+                key -> new PendingAccessRequest(key, FlowVerdictCacheTest.flowKey(0), 1));
+        table.computeIfAbsent(otherPattern, key -> new PendingAccessRequest(key, FlowVerdictCacheTest.flowKey(1), 1));
+        AccessDecision decision = FlowVerdictCacheTest.createDecision(pattern, AccessDecision.Action.GRANT, Long.MAX_VALUE);
+        AccessDecision enclosedDecision = FlowVerdictCacheTest.createDecision(pattern.getEnclosedPattern(),
+                AccessDecision.Action.GRANT, Long.MAX_VALUE);
+
+        // Execution
+        List<PendingAccessRequest> resolvedRequests = table.findResolvedBy(decision);
+        List<PendingAccessRequest> enclosedResolvedRequests = table.findResolvedBy(enclosedDecision);
+        boolean isRemoved = table.remove(request);
+
+        // Assertions
+        assertEquals(List.of(request), resolvedRequests);
+        assertEquals(2, enclosedResolvedRequests.size());
+        assertTrue(isRemoved);
+        assertEquals(1, table.size());
+        assertTrue(table.findResolvedBy(decision).isEmpty());
+        assertEquals(1, table.findResolvedBy(enclosedDecision).size());
+    }
+
+    @Test
+    public void testConcurrentParkingAndResolving() throws Exception {
+        // Test data
+        int parkingThreadCount = 4;
+        int resolvingThreadCount = 2;
+        int packetsPerThread = 5000;
+        int capacity = 4;
+        PendingRequestTable table = new PendingRequestTable();
+        AccessRequestPattern pattern = FlowVerdictCacheTest.createPattern(10000);
+        AccessDecision decision = new AccessDecision(pattern, AccessDecision.Action.GRANT,
+                InetAddress.getByName("10.0.0.3"), Instant.ofEpochMilli(Long.MAX_VALUE));
+        Map<Packet, Integer> packetIndices = new IdentityHashMap<>();
+        List<Packet> packets = new ArrayList<>();
+        for (int index = 0; index < parkingThreadCount * packetsPerThread; index++) {
+            Packet packet = UnknownPacket.newPacket(new byte[]{(byte) (index >>> 16), (byte) (index >>> 8), (byte) index},
+                    0, 3);
+            packets.add(packet);
+            packetIndices.put(packet, index);
+        }
+        AtomicIntegerArray releaseCounts = new AtomicIntegerArray(packets.size());
+        AtomicIntegerArray dropCounts = new AtomicIntegerArray(packets.size());
+        LongAdder parkedCounter = new LongAdder();
+        LongAdder resolvedCounter = new LongAdder();
+        Consumer<PayloadExchangeMessage> consumer = message ->
+                releaseCounts.incrementAndGet(packetIndices.get(message.getPayload()));
+
+        // Execution: Parking threads follow the protocol of the authorization manager, resolvers race with them
+        ExecutorService executor = Executors.newFixedThreadPool(parkingThreadCount + resolvingThreadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        AtomicBoolean isParking = new AtomicBoolean(true);
+        List<Future<?>> parkingResults = new ArrayList<>();
+        List<Future<?>> resolvingResults = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < parkingThreadCount; thread++) {
+                List<Packet> threadPackets = packets.subList(thread * packetsPerThread, (thread + 1) * packetsPerThread);
+                parkingResults.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (Packet packet : threadPackets) {
+                        boolean isHandled = false;
+                        while (!isHandled) {
+                            PendingAccessRequest request = table.computeIfAbsent(pattern,
+                                    key -> new PendingAccessRequest(key, FlowVerdictCacheTest.flowKey(0), capacity));
+                            switch (request.park(packet, consumer)) {
+                                case PARKED -> {
+                                    parkedCounter.increment();
+                                    isHandled = true;
+                                }
+                                case DROPPED -> {
+                                    dropCounts.incrementAndGet(packetIndices.get(packet));
+                                    isHandled = true;
+                                }
+                                case COMPLETED -> table.remove(request);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int thread = 0; thread < resolvingThreadCount; thread++) {
+                resolvingResults.add(executor.submit(() -> {
+                    startLatch.await();
+                    while (isParking.get()) {
+                        for (PendingAccessRequest request : table.findResolvedBy(decision)) {
+                            resolvedCounter.add(request.resolve(decision, 0));
+                            table.remove(request);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> result : parkingResults) {
+                result.get();
+            }
+            isParking.set(false);
+            for (Future<?> result : resolvingResults) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Resolve requests left over after the resolvers stopped
+        for (PendingAccessRequest request : table.findResolvedBy(decision)) {
+            resolvedCounter.add(request.resolve(decision, 0));
+            table.remove(request);
+        }
+
+        // Assertions: Each packet was either parked and released once or dropped once, no request was lost
+        for (int index = 0; index < packets.size(); index++) {
+            assertEquals(1, releaseCounts.get(index) + dropCounts.get(index), "Packet " + index);
+        }
+        assertEquals(parkedCounter.sum(), resolvedCounter.sum());
+        assertEquals(0, table.size());
+        assertTrue(table.findResolvedBy(decision).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentRequestsAreUnique() throws InterruptedException, ExecutionException, UnknownHostException {
+        // Test data
+        int threadCount = 8;
+        PendingRequestTable table = new PendingRequestTable();
+        AccessRequestPattern pattern = FlowVerdictCacheTest.createPattern(10000);
+        AccessDecision decision = FlowVerdictCacheTest.createDecision(pattern, AccessDecision.Action.GRANT, Long.MAX_VALUE);
+        LongAdder createdCounter = new LongAdder();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+        // Execution
+        List<Future<PendingAccessRequest>> results = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < threadCount; thread++) {
+                results.add(executor.submit(() -> {
+                    startLatch.await();
+                    return table.computeIfAbsent(pattern, key -> {
+                        createdCounter.increment();
+                        return new PendingAccessRequest(key, FlowVerdictCacheTest.flowKey(0), 1);
+                    });
+                }));
+            }
+            startLatch.countDown();
+
+            // Assertions
+            PendingAccessRequest request = results.get(0).get();
+            for (Future<PendingAccessRequest> result : results) {
+                assertTrue(request == result.get());
+            }
+            assertEquals(1, createdCounter.sum());
+            assertEquals(List.of(request), table.findResolvedBy(decision));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
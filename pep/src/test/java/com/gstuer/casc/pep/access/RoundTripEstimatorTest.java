@@ -0,0 +1,86 @@
+package com.gstuer.casc.pep.access;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RoundTripEstimatorTest {
+    private static final Duration INITIAL_BOUND = Duration.ofMillis(250);
+    private static final Duration MINIMUM_BOUND = Duration.ofMillis(20);
+    private static final Duration MAXIMUM_BOUND = Duration.ofSeconds(1);
+
+    @Test
+    public void testWithoutSample() {
+        // Test data
+        RoundTripEstimator estimator = new RoundTripEstimator(INITIAL_BOUND, MINIMUM_BOUND, MAXIMUM_BOUND);
+
+        // Assertions
+        assertEquals(Duration.ZERO, estimator.getSmoothedRoundTrip());
+        assertEquals(INITIAL_BOUND, estimator.getUpperBound());
+    }
+
+    @Test
+    public void testFirstSample() {
+        // Test data
+        RoundTripEstimator estimator = new RoundTripEstimator(INITIAL_BOUND, MINIMUM_BOUND, MAXIMUM_BOUND);
+
+        // Execution: SRTT = R, RTTVAR = R / 2
+        estimator.record(Duration.ofMillis(100).toNanos());
+
+        // Assertions: RTO = SRTT + 4 * RTTVAR
+        assertEquals(Duration.ofMillis(100), estimator.getSmoothedRoundTrip());
+        assertEquals(Duration.ofMillis(300), estimator.getUpperBound());
+    }
+
+    @Test
+    public void testSmoothing() {
+        // Test data
+        RoundTripEstimator estimator = new RoundTripEstimator(INITIAL_BOUND, MINIMUM_BOUND, MAXIMUM_BOUND);
+        estimator.record(Duration.ofMillis(100).toNanos());
+
+        // Execution: RTTVAR = 3/4 * 50 + 1/4 * |100 - 200| = 62.5, SRTT = 7/8 * 100 + 1/8 * 200 = 112.5
+        estimator.record(Duration.ofMillis(200).toNanos());
+
+        // Assertions
+        assertEquals(Duration.ofMillis(112).plusNanos(500_000), estimator.getSmoothedRoundTrip());
+        assertEquals(Duration.ofMillis(362).plusNanos(500_000), estimator.getUpperBound());
+    }
+
+    @Test
+    public void testNegativeSampleIsIgnored() {
+        // Test data
+        RoundTripEstimator estimator = new RoundTripEstimator(INITIAL_BOUND, MINIMUM_BOUND, MAXIMUM_BOUND);
+
+        // Execution
+        estimator.record(-1);
+
+        // Assertion
+        assertEquals(INITIAL_BOUND, estimator.getUpperBound());
+    }
+
+    @Test
+    public void testUpperBoundIsClamped() {
+        // Test data
+        RoundTripEstimator shortEstimator = new RoundTripEstimator(INITIAL_BOUND, MINIMUM_BOUND, MAXIMUM_BOUND);
+        RoundTripEstimator longEstimator = new RoundTripEstimator(INITIAL_BOUND, MINIMUM_BOUND, MAXIMUM_BOUND);
+
+        // Execution
+        shortEstimator.record(Duration.ofMillis(1).toNanos());
+        longEstimator.record(Duration.ofSeconds(2).toNanos());
+
+        // Assertions: Smoothed round trips are not clamped, only their upper bounds
+        assertEquals(Duration.ofMillis(1), shortEstimator.getSmoothedRoundTrip());
+        assertEquals(MINIMUM_BOUND, shortEstimator.getUpperBound());
+        assertEquals(Duration.ofSeconds(2), longEstimator.getSmoothedRoundTrip());
+        assertEquals(MAXIMUM_BOUND, longEstimator.getUpperBound());
+    }
+
+    @Test
+    public void testInvalidRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RoundTripEstimator(INITIAL_BOUND, MAXIMUM_BOUND, MINIMUM_BOUND));
+    }
+}
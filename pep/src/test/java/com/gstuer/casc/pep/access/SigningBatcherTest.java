@@ -0,0 +1,157 @@
+package com.gstuer.casc.pep.access;
+
+import com.gstuer.casc.common.AuthenticationClient;
+import com.gstuer.casc.common.cryptography.Authenticator;
+import com.gstuer.casc.common.cryptography.DigitalSignature;
+import com.gstuer.casc.common.cryptography.Ed25519Authenticator;
+import com.gstuer.casc.common.cryptography.EncodedKey;
+import com.gstuer.casc.common.cryptography.MerkleProof;
+import com.gstuer.casc.common.cryptography.MerkleTree;
+import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.message.KeyExchangeMessage;
+import com.gstuer.casc.common.message.PayloadExchangeMessage;
+import com.gstuer.casc.common.serialization.JsonProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.UnknownPacket;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.InvalidKeyException;
+import java.security.SignatureException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SigningBatcherTest {
+    private static final int BATCH_SIZE = 3;
+    private static final Duration LONG_WINDOW = Duration.ofSeconds(60);
+
+    private InetAddress peer;
+    private InetAddress receiver;
+    private Authenticator<?, ?> peerAuthenticator;
+    private AuthenticationClient peerClient;
+    private AuthenticationClient receiverClient;
+    private BlockingQueue<AccessControlMessage<?>> messageEgress;
+
+    @BeforeEach
+    public void setUp() throws UnknownHostException, InvalidKeyException, SignatureException {
+        InetAddress authority = InetAddress.getByName("10.0.0.1");
+        this.peer = InetAddress.getByName("10.0.0.4");
+        this.receiver = InetAddress.getByName("10.0.0.5");
+        this.messageEgress = new LinkedBlockingQueue<>();
+        this.peerAuthenticator = new Ed25519Authenticator();
+        this.peerAuthenticator.initializeKeyPair();
+        this.peerClient = new AuthenticationClient(authority, this.peerAuthenticator, this.messageEgress);
+        Authenticator<?, ?> receiverAuthenticator = new Ed25519Authenticator();
+        receiverAuthenticator.initializeKeyPair();
+        this.receiverClient = new AuthenticationClient(authority, receiverAuthenticator, new LinkedBlockingQueue<>());
+        // Trust the key of the peer like after a key exchange
+        EncodedKey encodedKey = new EncodedKey(this.peerAuthenticator.getAlgorithmIdentifier(),
+                this.peerAuthenticator.getVerificationKey().getEncoded());
+        this.receiverClient.processMessage(new KeyExchangeMessage(this.receiver, null, encodedKey)
+                .sign(this.peerAuthenticator).fromSource(this.peer));
+    }
+
+    @Test
+    public void testBatchSurvivesJsonRoundTrip() throws Exception {
+        // Test data
+        List<PayloadExchangeMessage> signedMessages = this.signBatch();
+        JsonProcessor jsonProcessor = new JsonProcessor();
+
+        // Execution
+        List<PayloadExchangeMessage> receivedMessages = new ArrayList<>();
+        for (PayloadExchangeMessage message : signedMessages) {
+            byte[] serialMessage = jsonProcessor.serialize(message);
+            AccessControlMessage<?> receivedMessage = jsonProcessor.deserialize(serialMessage, AccessControlMessage.class);
+            receivedMessages.add((PayloadExchangeMessage) receivedMessage.fromSource(this.peer));
+        }
+
+        // Assertions
+        for (int index = 0; index < BATCH_SIZE; index++) {
+            PayloadExchangeMessage receivedMessage = receivedMessages.get(index);
+            assertEquals(signedMessages.get(index).getProof(), receivedMessage.getProof());
+            assertEquals(signedMessages.get(0).getSignature(), receivedMessage.getSignature());
+            assertArrayEquals(signedMessages.get(index).getPayload().getRawData(),
+                    receivedMessage.getPayload().getRawData());
+            assertTrue(this.receiverClient.verifyMessage(receivedMessage));
+        }
+        assertArrayEquals(new boolean[]{true, true, true}, this.receiverClient.verifyMessages(receivedMessages));
+    }
+
+    @Test
+    public void testTamperedProofIsRejected() throws Exception {
+        // Test data
+        List<PayloadExchangeMessage> signedMessages = this.signBatch();
+        PayloadExchangeMessage message = signedMessages.get(0);
+        PayloadExchangeMessage otherProofMessage = message.withBatchSignature(message.getSignature(),
+                signedMessages.get(1).getProof());
+        PayloadExchangeMessage malformedProofMessage = message.withBatchSignature(message.getSignature(),
+                new MerkleProof(0, BATCH_SIZE, new byte[1][]));
+        PayloadExchangeMessage otherPacketMessage = new PayloadExchangeMessage(this.peer, this.receiver,
+                message.getSignature(), signedMessages.get(1).getPayload(), message.getProof());
+
+        // Execution & Assertions
+        assertTrue(this.receiverClient.verifyMessage(message));
+        assertFalse(this.receiverClient.verifyMessage(otherProofMessage));
+        assertTrue(malformedProofMessage.hasMalformedProof());
+        assertFalse(this.receiverClient.verifyMessage(malformedProofMessage));
+        assertFalse(this.receiverClient.verifyMessage(otherPacketMessage));
+        assertArrayEquals(new boolean[]{true, false, false, false}, this.receiverClient.verifyMessages(
+                List.of(message, otherProofMessage, malformedProofMessage, otherPacketMessage)));
+    }
+
+    @Test
+    public void testSignedPacketAndSignedRootAreNotInterchangeable() throws Exception {
+        // Test data: A packet whose frame is the signing data of a root
+        Packet packet = createPacket(0);
+        MerkleTree tree = MerkleTree.of(List.of(packet.getRawData()));
+        byte[] rootSigningData = MerkleTree.toSigningData(tree.getRoot());
+        Packet rootPacket = UnknownPacket.newPacket(rootSigningData, 0, rootSigningData.length);
+        DigitalSignature packetSignature = new PayloadExchangeMessage(this.receiver, null, rootPacket)
+                .sign(this.peerAuthenticator).getSignature();
+        DigitalSignature rootSignature = this.peerAuthenticator.sign(rootSigningData);
+
+        // Execution
+        PayloadExchangeMessage packetSignatureAsRoot = new PayloadExchangeMessage(this.peer, this.receiver,
+                packetSignature, packet, tree.getProof(0));
+        PayloadExchangeMessage rootSignatureAsPacket = new PayloadExchangeMessage(this.peer, this.receiver,
+                rootSignature, rootPacket);
+        PayloadExchangeMessage rootSignatureAsRoot = new PayloadExchangeMessage(this.peer, this.receiver,
+                rootSignature, packet, tree.getProof(0));
+
+        // Assertions
+        assertFalse(this.receiverClient.verifyMessage(packetSignatureAsRoot));
+        assertFalse(this.receiverClient.verifyMessage(rootSignatureAsPacket));
+        assertTrue(this.receiverClient.verifyMessage(rootSignatureAsRoot));
+    }
+
+    private List<PayloadExchangeMessage> signBatch() {
+        SigningBatcher batcher = new SigningBatcher(this.peerClient, this.messageEgress, BATCH_SIZE, LONG_WINDOW);
+        try (batcher) {
+            for (int index = 0; index < BATCH_SIZE; index++) {
+                batcher.accept(new PayloadExchangeMessage(this.receiver, null, createPacket(index)), 0);
+            }
+        }
+        List<PayloadExchangeMessage> signedMessages = new ArrayList<>();
+        for (AccessControlMessage<?> message : this.messageEgress) {
+            PayloadExchangeMessage signedMessage = (PayloadExchangeMessage) message;
+            assertTrue(signedMessage.hasProof());
+            signedMessages.add(signedMessage.fromSource(this.peer));
+        }
+        assertEquals(BATCH_SIZE, signedMessages.size());
+        return signedMessages;
+    }
+
+    private static Packet createPacket(int index) {
+        return UnknownPacket.newPacket(new byte[]{(byte) index, 1, 2, 3}, 0, 4);
+    }
+}
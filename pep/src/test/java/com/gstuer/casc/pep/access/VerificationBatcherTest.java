@@ -0,0 +1,118 @@
+package com.gstuer.casc.pep.access;
+
+import com.gstuer.casc.common.AuthenticationClient;
+import com.gstuer.casc.common.cryptography.Authenticator;
+import com.gstuer.casc.common.cryptography.Ed25519Authenticator;
+import com.gstuer.casc.common.cryptography.EncodedKey;
+import com.gstuer.casc.common.message.AccessControlMessage;
+import com.gstuer.casc.common.message.KeyExchangeMessage;
+import com.gstuer.casc.common.message.PayloadExchangeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pcap4j.packet.UnknownPacket;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.InvalidKeyException;
+import java.security.SignatureException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VerificationBatcherTest {
+    private static final long TIMEOUT_MILLIS = 5000;
+    private static final Duration LONG_WINDOW = Duration.ofSeconds(60);
+
+    private InetAddress peer;
+    private Authenticator<?, ?> peerAuthenticator;
+    private AuthenticationClient client;
+    private BlockingQueue<PayloadExchangeMessage> verifiedMessages;
+
+    @BeforeEach
+    public void setUp() throws UnknownHostException, InvalidKeyException, SignatureException {
+        this.peer = InetAddress.getByName("10.0.0.4");
+        this.peerAuthenticator = new Ed25519Authenticator();
+        this.peerAuthenticator.initializeKeyPair();
+        Authenticator<?, ?> authenticator = new Ed25519Authenticator();
+        authenticator.initializeKeyPair();
+        BlockingQueue<AccessControlMessage<?>> messageEgress = new LinkedBlockingQueue<>();
+        this.client = new AuthenticationClient(InetAddress.getByName("10.0.0.1"), authenticator, messageEgress);
+        // Trust the key of the peer like after a key exchange
+        EncodedKey encodedKey = new EncodedKey(this.peerAuthenticator.getAlgorithmIdentifier(),
+                this.peerAuthenticator.getVerificationKey().getEncoded());
+        this.client.processMessage(new KeyExchangeMessage(InetAddress.getByName("10.0.0.2"), null, encodedKey)
+                .sign(this.peerAuthenticator).fromSource(this.peer));
+        this.verifiedMessages = new LinkedBlockingQueue<>();
+    }
+
+    @Test
+    public void testBatchIsVerifiedOnceWindowPassed() throws Exception {
+        // Test data
+        VerificationBatcher batcher = new VerificationBatcher(this.client, this.verifiedMessages::add, 16,
+                Duration.ofMillis(500));
+        List<PayloadExchangeMessage> messages = List.of(this.createMessage(0, this.peerAuthenticator),
+                this.createMessage(1, this.peerAuthenticator));
+
+        // Execution
+        try (batcher) {
+            messages.forEach(batcher::accept);
+            boolean isVerifiedBeforeWindow = !this.verifiedMessages.isEmpty();
+
+            // Assertions
+            assertFalse(isVerifiedBeforeWindow);
+            assertEquals(messages.get(0), this.verifiedMessages.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            assertEquals(messages.get(1), this.verifiedMessages.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void testFullBatchIsHandedOverInOrderWithoutInvalidMessages() throws Exception {
+        // Test data
+        Authenticator<?, ?> otherAuthenticator = new Ed25519Authenticator();
+        otherAuthenticator.initializeKeyPair();
+        VerificationBatcher batcher = new VerificationBatcher(this.client, this.verifiedMessages::add, 4, LONG_WINDOW);
+        List<PayloadExchangeMessage> messages = List.of(this.createMessage(0, this.peerAuthenticator),
+                this.createMessage(1, otherAuthenticator), this.createMessage(2, this.peerAuthenticator),
+                this.createMessage(3, this.peerAuthenticator));
+
+        // Execution: Full batch is verified by the thread adding its last message
+        try (batcher) {
+            messages.forEach(batcher::accept);
+
+            // Assertion
+            assertEquals(List.of(messages.get(0), messages.get(2), messages.get(3)), List.copyOf(this.verifiedMessages));
+        }
+    }
+
+    @Test
+    public void testCloseVerifiesWaitingMessages() throws Exception {
+        // Test data
+        VerificationBatcher batcher = new VerificationBatcher(this.client, this.verifiedMessages::add, 16, LONG_WINDOW);
+        PayloadExchangeMessage message = this.createMessage(0, this.peerAuthenticator);
+        batcher.accept(message);
+
+        // Execution
+        batcher.close();
+
+        // Assertions
+        assertEquals(List.of(message), List.copyOf(this.verifiedMessages));
+        this.verifiedMessages.clear();
+        PayloadExchangeMessage lateMessage = this.createMessage(1, this.peerAuthenticator);
+        batcher.accept(lateMessage);
+        assertEquals(lateMessage, this.verifiedMessages.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        assertTrue(this.verifiedMessages.isEmpty());
+    }
+
+    private PayloadExchangeMessage createMessage(int index, Authenticator<?, ?> authenticator)
+            throws InvalidKeyException, SignatureException {
+        UnknownPacket packet = UnknownPacket.newPacket(new byte[]{(byte) index, 1, 2, 3}, 0, 4);
+        return new PayloadExchangeMessage(InetAddress.getLoopbackAddress(), null, packet).sign(authenticator)
+                .fromSource(this.peer);
+    }
+}
@@ -0,0 +1,84 @@
+package com.gstuer.casc.pep.predicate;
+
+import org.junit.jupiter.api.Test;
+import org.pcap4j.core.BpfProgram;
+import org.pcap4j.core.PcapNativeException;
+import org.pcap4j.core.Pcaps;
+import org.pcap4j.packet.EthernetPacket;
+import org.pcap4j.packet.IllegalRawDataException;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.namednumber.DataLinkType;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class IcmpV4PredicateTest {
+    // Ethernet: 00:00:00:00:00:02 <- 00:00:00:00:00:01, IPv4: 192.168.0.50 -> 192.168.0.51, ICMP
+    private static final String ETHERNET_HEADER = "000000000002" + "000000000001" + "0800";
+    private static final String ICMP_ECHO = "0800" + "0000" + "0001" + "0001";
+    private static final String UNFRAGMENTED_FRAME = ETHERNET_HEADER + "4500001c00010000" + "4001" + "0000"
+            + "c0a80032" + "c0a80033" + ICMP_ECHO;
+    // First fragment: More fragments flag set, offset 0
+    private static final String FIRST_FRAGMENT_FRAME = ETHERNET_HEADER + "4500001c00012000" + "4001" + "0000"
+            + "c0a80032" + "c0a80033" + ICMP_ECHO;
+    // Non-first fragment: Offset 1480 bytes, payload continues the ICMP message without ICMP header
+    private static final String NON_FIRST_FRAGMENT_FRAME = ETHERNET_HEADER + "4500001c000100b9" + "4001" + "0000"
+            + "c0a80032" + "c0a80033" + "0102030405060708";
+
+    @Test
+    public void testPredicateMatchesUnfragmentedPacketsOnly() throws IllegalRawDataException {
+        // Test data
+        IcmpV4Predicate predicate = new IcmpV4Predicate();
+
+        // Execution
+        List<Boolean> results = List.of(predicate.test(parseFrame(UNFRAGMENTED_FRAME)),
+                predicate.test(parseFrame(FIRST_FRAGMENT_FRAME)), predicate.test(parseFrame(NON_FIRST_FRAGMENT_FRAME)));
+
+        // Assertion
+        assertEquals(List.of(true, false, false), results);
+    }
+
+    @Test
+    public void testFilterExpressionAgreesWithPredicate() throws IllegalRawDataException, UnknownHostException {
+        // Test data
+        IcmpV4Predicate predicate = new IcmpV4Predicate();
+        Optional<BpfProgram> optionalProgram = compileFilter(predicate.getFilterExpression().orElseThrow());
+        assumeTrue(optionalProgram.isPresent(), "Compiling filters requires libpcap.");
+        BpfProgram program = optionalProgram.get();
+
+        try {
+            for (String frame : List.of(UNFRAGMENTED_FRAME, FIRST_FRAGMENT_FRAME, NON_FIRST_FRAGMENT_FRAME)) {
+                // Execution
+                byte[] rawFrame = HexFormat.of().parseHex(frame);
+                boolean isFilterMatching = program.applyFilter(rawFrame);
+
+                // Assertion
+                assertEquals(predicate.test(parseFrame(frame)), isFilterMatching, frame);
+            }
+        } finally {
+            program.free();
+        }
+    }
+
+    private static Packet parseFrame(String frame) throws IllegalRawDataException {
+        byte[] rawFrame = HexFormat.of().parseHex(frame);
+        return EthernetPacket.newPacket(rawFrame, 0, rawFrame.length);
+    }
+
+    private static Optional<BpfProgram> compileFilter(String expression) throws UnknownHostException {
+        Inet4Address netmask = (Inet4Address) InetAddress.getByName("255.255.255.255");
+        try {
+            return Optional.of(Pcaps.compileFilter(65536, DataLinkType.EN10MB, expression,
+                    BpfProgram.BpfCompileMode.OPTIMIZE, netmask));
+        } catch (PcapNativeException | UnsatisfiedLinkError | NoClassDefFoundError exception) {
+            return Optional.empty();
+        }
+    }
+}